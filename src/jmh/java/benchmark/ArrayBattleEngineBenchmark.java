@@ -0,0 +1,42 @@
+package benchmark;
+
+import codeamon.BattleRandom;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import world.ArrayBattleEngine;
+
+/**
+ * Benchmarks the same battle as BattleBenchmark on the array battle engine. The battle is loaded
+ * once and reset before every run, so it can be compared directly with trainerBattle.
+ */
+@State(Scope.Thread)
+public class ArrayBattleEngineBenchmark {
+    private ArrayBattleEngine engine;
+    private BattleRandom random;
+
+    /**
+     * Loads the battle and creates the source of random rolls, shared by every battle in the
+     * trial.
+     */
+    @Setup(Level.Trial)
+    public void setup() {
+        engine = new ArrayBattleEngine(1);
+        engine.load(0, Parties.createTrainer("Derek", Parties.DEREK),
+                Parties.createTrainer("Ben", Parties.BEN));
+        random = new BattleRandom(316);
+    }
+
+    /**
+     * Resets and runs the battle.
+     *
+     * @return The side that won
+     */
+    @Benchmark
+    public int trainerBattle() {
+        engine.reset(0);
+        return engine.run(0, random);
+    }
+}
@@ -0,0 +1,59 @@
+package benchmark;
+
+import codeamon.Attack;
+import codeamon.BattleRandom;
+import codeamon.Codeamon;
+import codeamon.CodeamonFactory;
+import codeamon.Type;
+import event.NoOpBattleEventSink;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks for applying an Attack. The target rests before every attack so that it never
+ * faints and each call takes the full damage path.
+ */
+@State(Scope.Thread)
+public class AttackBenchmark {
+    private Codeamon user;
+    private Codeamon opponent;
+    private Attack damaging;
+    private Attack statusOnly;
+    private BattleRandom random;
+
+    /**
+     * Creates the Codeamon and Attacks.
+     */
+    @Setup
+    public void setup() {
+        user = CodeamonFactory.createCodeamon(Type.Fire, 100);
+        opponent = CodeamonFactory.createCodeamon(Type.Grass, 100);
+        damaging = user.getAttacks()[0];
+        statusOnly = user.getAttacks()[2];
+        random = new BattleRandom(316);
+    }
+
+    /**
+     * A damaging Attack with a chance to lower the opponent's stats.
+     *
+     * @return Whether the Attack did anything
+     */
+    @Benchmark
+    public boolean applyDamagingAttack() {
+        opponent.rest();
+        return damaging.applyAttack(user, opponent, NoOpBattleEventSink.INSTANCE, random);
+    }
+
+    /**
+     * A non-damaging Attack that raises the user's stats.
+     *
+     * @return Whether the Attack did anything
+     */
+    @Benchmark
+    public boolean applyStatusAttack() {
+        user.rest();
+        return statusOnly.applyAttack(user, opponent, NoOpBattleEventSink.INSTANCE, random);
+    }
+}
@@ -0,0 +1,50 @@
+package benchmark;
+
+import codeamon.BattleRandom;
+import event.NoOpBattleEventSink;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import trainer.Trainer;
+import world.Battle;
+
+/**
+ * Benchmarks a full Trainer battle between two parties of six level 100 Codeamon, like the ones
+ * in simulation_two.json. Fresh Trainers are created before every battle so each one starts
+ * from the same state, including the Trainers' CodeaDollars.
+ */
+@State(Scope.Thread)
+public class BattleBenchmark {
+    private Trainer derek;
+    private Trainer ben;
+    private BattleRandom random;
+
+    /**
+     * Creates the source of random rolls, shared by every battle in the trial.
+     */
+    @Setup(Level.Trial)
+    public void setupRandom() {
+        random = new BattleRandom(316);
+    }
+
+    /**
+     * Creates the Trainers for the next battle.
+     */
+    @Setup(Level.Invocation)
+    public void setupTrainers() {
+        derek = Parties.createTrainer("Derek", Parties.DEREK);
+        ben = Parties.createTrainer("Ben", Parties.BEN);
+    }
+
+    /**
+     * Runs a full, quiet Trainer battle.
+     *
+     * @return The winner
+     */
+    @Benchmark
+    public Trainer trainerBattle() {
+        return Battle.trainerBattle(derek, ben, NoOpBattleEventSink.INSTANCE, random);
+    }
+}
@@ -0,0 +1,28 @@
+package benchmark;
+
+import codeamon.Codeamon;
+import codeamon.CodeamonFactory;
+import codeamon.Type;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks for creating Codeamon, once for each of the three moveset tiers.
+ */
+@State(Scope.Thread)
+public class CodeamonFactoryBenchmark {
+    @Param({"10", "25", "100"})
+    private int level;
+
+    /**
+     * Creates a Codeamon of a fixed species.
+     *
+     * @return The Codeamon
+     */
+    @Benchmark
+    public Codeamon createCodeamon() {
+        return CodeamonFactory.createCodeamon(Type.Fire, level);
+    }
+}
@@ -0,0 +1,62 @@
+package benchmark;
+
+import codeamon.CodeamonStats;
+import codeamon.CodeamonStatsFactory;
+import codeamon.Stat;
+import codeamon.Type;
+import event.NoOpBattleEventSink;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks for reading effective stats. The stats have both raised and lowered stages so every
+ * read goes through the stage modifier.
+ */
+@State(Scope.Thread)
+public class CodeamonStatsBenchmark {
+    private CodeamonStats stats;
+
+    /**
+     * Creates the stats and applies stage changes.
+     */
+    @Setup
+    public void setup() {
+        stats = CodeamonStatsFactory.getStats(Type.Fire, 100);
+        stats.applyStatStageChange("Flamemon", Stat.Attack, 2, NoOpBattleEventSink.INSTANCE);
+        stats.applyStatStageChange("Flamemon", Stat.Defense, -1, NoOpBattleEventSink.INSTANCE);
+        stats.applyStatStageChange("Flamemon", Stat.Speed, 1, NoOpBattleEventSink.INSTANCE);
+    }
+
+    /**
+     * Reads the effective Attack stat.
+     *
+     * @return The Attack stat
+     */
+    @Benchmark
+    public int getAttackStat() {
+        return stats.getAttackStat();
+    }
+
+    /**
+     * Reads the Attack and Defense used for a critical hit.
+     *
+     * @return The sum of the critical Attack and Defense
+     */
+    @Benchmark
+    public int getCriticalStats() {
+        return stats.getAttackCritical() + stats.getDefenseCritical();
+    }
+
+    /**
+     * Reads the speed stat four times, as Battle does when deciding the turn order.
+     *
+     * @return The sum of the reads
+     */
+    @Benchmark
+    public int getSpeedStatTurnOrder() {
+        return stats.getSpeedStat() + stats.getSpeedStat() + stats.getSpeedStat()
+                + stats.getSpeedStat();
+    }
+}
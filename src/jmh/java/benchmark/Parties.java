@@ -0,0 +1,36 @@
+package benchmark;
+
+import codeamon.CodeamonFactory;
+import codeamon.Type;
+import trainer.Trainer;
+
+/**
+ * Builds the Trainers used by the benchmarks. The parties match the first two Trainers of
+ * simulation_two.json, each with six level 100 Codeamon.
+ */
+final class Parties {
+    static final Type[] DEREK = {Type.Grass, Type.Electric, Type.Normal, Type.Dragon,
+            Type.Flying, Type.Dark};
+    static final Type[] BEN = {Type.Water, Type.Poison, Type.Fire, Type.Dark, Type.Steel,
+            Type.Psychic};
+
+    private Parties() {
+    }
+
+    /**
+     * Creates a Trainer with a level 100 Codeamon of each of the given types.
+     *
+     * @param name The Trainer's name
+     * @param types The types of the Trainer's Codeamon
+     * @return The Trainer
+     */
+    static Trainer createTrainer(String name, Type[] types) {
+        Trainer.TrainerBuilder builder = new Trainer.TrainerBuilder(name);
+
+        for (Type type : types) {
+            builder.codeamon(CodeamonFactory.createCodeamon(type, 100));
+        }
+
+        return builder.build();
+    }
+}
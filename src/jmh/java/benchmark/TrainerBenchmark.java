@@ -0,0 +1,44 @@
+package benchmark;
+
+import codeamon.Codeamon;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import trainer.Trainer;
+
+/**
+ * Benchmarks for the party queries Battle makes every turn, using a full party of six.
+ */
+@State(Scope.Thread)
+public class TrainerBenchmark {
+    private Trainer trainer;
+
+    /**
+     * Creates the Trainer.
+     */
+    @Setup
+    public void setup() {
+        trainer = Parties.createTrainer("Derek", Parties.DEREK);
+    }
+
+    /**
+     * Counts the Trainer's non-fainted Codeamon.
+     *
+     * @return The remaining party size
+     */
+    @Benchmark
+    public int getRemainingPartySize() {
+        return trainer.getRemainingPartySize();
+    }
+
+    /**
+     * Selects the Trainer's lead Codeamon.
+     *
+     * @return The next Codeamon
+     */
+    @Benchmark
+    public Codeamon getNextCodeamon() {
+        return trainer.getNextCodeamon();
+    }
+}
@@ -0,0 +1,46 @@
+package benchmark;
+
+import codeamon.Type;
+import codeamon.TypeMatchup;
+import event.NoOpBattleEventSink;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks for looking up type effectiveness.
+ */
+@State(Scope.Thread)
+public class TypeMatchupBenchmark {
+    private static final Type[] TYPES = Type.values();
+
+    /**
+     * Looks up all 324 attacking and defending type pairs.
+     *
+     * @param blackhole Consumes the multipliers
+     */
+    @Benchmark
+    public void getEffectivenessAllPairs(Blackhole blackhole) {
+        for (Type user : TYPES) {
+            for (Type opponent : TYPES) {
+                blackhole.consume(TypeMatchup.getEffectiveness(user, opponent,
+                        NoOpBattleEventSink.INSTANCE));
+            }
+        }
+    }
+
+    /**
+     * Looks up all 324 attacking and defending type pairs without reporting them.
+     *
+     * @param blackhole Consumes the multipliers
+     */
+    @Benchmark
+    public void getMultiplierAllPairs(Blackhole blackhole) {
+        for (Type user : TYPES) {
+            for (Type opponent : TYPES) {
+                blackhole.consume(TypeMatchup.getMultiplier(user, opponent));
+            }
+        }
+    }
+}
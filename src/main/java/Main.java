@@ -1,31 +1,82 @@
+import codeamon.GreedyMovePolicy;
+import event.LogLevel;
+import event.LogWriter;
+import java.io.IOException;
+import java.util.Arrays;
+import metrics.SimulationMetrics;
+import simulation.BatchRunner;
 import simulation.JsonSimulation;
 import simulation.SampleSimulation;
 import simulation.Simulation;
+import trainer.Trainer;
 import world.TimeCycleContext;
 
 public class Main {
+    //log files are rotated at 64 MB, keeping the last four
+    private static final long LOG_ROTATE_BYTES = 64L << 20;
+    private static final int LOG_KEEP_FILES = 4;
+
     /**
      * Entry point to the Codeamon simulation. A json file can be provided as a command line
-     * argument to use the file's data in the simulation.
+     * argument to use the file's data in the simulation. Starting the arguments with --batch
+     * runs a batch of simulations with the BatchRunner instead. The simulation's metrics can be
+     * watched over JMX while it runs.
+     *
+     * <p>
+     *     The text of the simulation is printed to the console as it happens, unless
+     *     --log-level or --log-file is given. Then it is written by a LogWriter on a background
+     *     thread, at the given level of Summary, Battle or Turn, to the console or to a file that
+     *     is rotated as it grows.
+     * </p>
      *
-     * @param args The json file, or null to use the default simulation data
+     * <p>
+     *     With --greedy-moves, the Trainers' Codeamon use the GreedyMovePolicy and attack with
+     *     the move that deals the most expected damage instead of a random one. Codeamon caught
+     *     during the simulation still attack at random.
+     * </p>
+     *
+     * @param args The options and the json file, or no file to use the default simulation data
      */
     public static void main(String[] args) {
+        if (args.length > 0 && args[0].equals("--batch")) {
+            BatchRunner.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+
+        String file = null;
+        String logFile = null;
+        LogLevel logLevel = null;
+        boolean greedyMoves = false;
+
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--log-level") && i + 1 < args.length) {
+                logLevel = LogLevel.valueOf(args[++i]);
+            } else if (args[i].equals("--log-file") && i + 1 < args.length) {
+                logFile = args[++i];
+            } else if (args[i].equals("--greedy-moves")) {
+                greedyMoves = true;
+            } else {
+                file = args[i];
+            }
+        }
+
         System.out.println("Gotta code 'em all!");
+        //publish live metrics over JMX for the length of the simulation
+        SimulationMetrics.register();
 
         Simulation sim;
 
         //If there are command line arguments, use them for the simulation.
         //Otherwise, use the Sample Simulation
-        if (args.length > 0) {
-            System.out.println("Loading " + args[0]);
-            sim = new JsonSimulation(args[0]);
+        if (file != null) {
+            System.out.println("Loading " + file);
+            sim = new JsonSimulation(file);
 
             //If there is an error parsing the json file, there will be no trainers. In this case
             //the sample simulation should be used. Also, if there are no trainers in the
             //simulation, the simulation will do nothing, so the sample should be used anyway
             if (sim.getTrainers().size() == 0) {
-                System.out.println("Error loading " + args[0] + "Simulation o rit contained no "
+                System.out.println("Error loading " + file + "Simulation o rit contained no "
                         + "trainers. Switching to Sample Simulation.");
             }
         } else {
@@ -33,15 +84,52 @@ public class Main {
             sim = new SampleSimulation();
         }
 
+        if (greedyMoves) {
+            for (Trainer trainer : sim.getTrainers()) {
+                trainer.setMovePolicy(GreedyMovePolicy.INSTANCE);
+            }
+        }
+
         TimeCycleContext cycle = new TimeCycleContext(sim.getWildBattles(),
                 sim.getWildLevel(), sim.getTrainers());
 
-        while (!cycle.getTournament().isConcluded()) {
-            cycle.runEvents(sim.getTrainers());
+        try (LogWriter writer = createLogWriter(logFile, logLevel)) {
+            cycle.setLogWriter(writer);
+
+            while (!cycle.getTournament().isConcluded()) {
+                cycle.runEvents(sim.getTrainers());
+            }
+        } catch (IOException e) {
+            System.out.println("The log could not be written: " + e.getMessage());
+            return;
         }
 
         System.out.println(cycle.getTournament().getWinner().getName() + " wins!");
 
 
     }
+
+    /**
+     * Creates the LogWriter for the simulation's text.
+     *
+     * @param file The log file, or null to write to the console
+     * @param level The level to write at, or null for every turn
+     * @return The writer, or null if neither a file nor a level was given
+     * @throws IOException If the log file could not be opened
+     */
+    private static LogWriter createLogWriter(String file, LogLevel level) throws IOException {
+        if (file == null && level == null) {
+            return null;
+        }
+
+        if (level == null) {
+            level = LogLevel.Turn;
+        }
+
+        if (file == null) {
+            return new LogWriter(System.out, level);
+        }
+
+        return new LogWriter(file, LOG_ROTATE_BYTES, LOG_KEEP_FILES, level);
+    }
 }
@@ -0,0 +1,133 @@
+package analysis;
+
+import codeamon.Attack;
+import codeamon.Codeamon;
+import java.util.Arrays;
+
+/**
+ * Calculates the exact damage distribution of an Attack against a target instead of sampling
+ * it. The damage of a hit is found with the same formula Attack uses in battle, so the accuracy
+ * and critical hit chances are the only sources of randomness. Nothing is changed on either
+ * Codeamon.
+ *
+ * <p>
+ *     The distributions are for the Codeamon's stats as they are when the calculator is called.
+ *     Any stat changes or healing the Attack would apply along the way are not taken into
+ *     account.
+ * </p>
+ */
+public class DamageCalculator {
+    private static final double MAX_CHANCE = 100.0;
+
+    private DamageCalculator() {
+    }
+
+    /**
+     * Gets the probability of an Attack hitting its target.
+     *
+     * @param attack The Attack
+     * @return The probability, from 0.0 to 1.0
+     */
+    public static double getHitChance(Attack attack) {
+        return attack.getAccuracy() / MAX_CHANCE;
+    }
+
+    /**
+     * Gets the probability of a hit from an Attack being a critical hit.
+     *
+     * @param attack The Attack
+     * @return The probability, from 0.0 to 1.0
+     */
+    public static double getCriticalChance(Attack attack) {
+        return attack.getCritChance() / MAX_CHANCE;
+    }
+
+    /**
+     * Gets the damage distribution of a single use of an Attack. Attacks that do not deal damage
+     * always deal 0.
+     *
+     * @param attack The Attack
+     * @param user The Codeamon using the Attack
+     * @param target The Codeamon being attacked
+     * @return The damage distribution
+     */
+    public static DamageDistribution getDamageDistribution(Attack attack, Codeamon user,
+                                                           Codeamon target) {
+        if (!attack.dealsDamage()) {
+            return new DamageDistribution(new int[] {0}, new double[] {1.0});
+        }
+
+        double hit = getHitChance(attack);
+        double crit = getCriticalChance(attack);
+        int normal = attack.calculateDamage(user, target, false);
+        int critical = attack.calculateDamage(user, target, true);
+
+        //a miss deals no damage
+        return new DamageDistribution(new int[] {0, normal, critical},
+                new double[] {1.0 - hit, hit * (1.0 - crit), hit * crit});
+    }
+
+    /**
+     * Gets the distribution of the number of turns it takes to knock out the target by using the
+     * same Attack every turn, starting from the target's current Hit Points.
+     *
+     * @param attack The Attack
+     * @param user The Codeamon using the Attack
+     * @param target The Codeamon being attacked
+     * @param maxTurns The number of turns to calculate. Must be at least 1
+     * @return An array of maxTurns + 1 probabilities, where index t is the probability of the
+     *         target fainting on turn t. Index 0 is the probability that it is already fainted.
+     *         Whatever is left over out of 1.0 is the probability it survives every turn
+     * @throws IllegalArgumentException If maxTurns is less than 1
+     */
+    public static double[] getTurnsToKnockOut(Attack attack, Codeamon user, Codeamon target,
+                                              int maxTurns) {
+        if (maxTurns < 1) {
+            throw new IllegalArgumentException("At least one turn must be calculated.");
+        }
+
+        DamageDistribution damage = getDamageDistribution(attack, user, target);
+        int hitPoints = target.getCurrentHitPoints();
+        double[] turns = new double[maxTurns + 1];
+
+        if (hitPoints == 0) {
+            turns[0] = 1.0;
+            return turns;
+        }
+
+        //alive[h] is the probability the target is still standing with h Hit Points
+        double[] alive = new double[hitPoints + 1];
+        double[] next = new double[hitPoints + 1];
+        alive[hitPoints] = 1.0;
+
+        for (int turn = 1; turn <= maxTurns; turn++) {
+            Arrays.fill(next, 0.0);
+            double fainted = 0.0;
+
+            for (int h = 1; h <= hitPoints; h++) {
+                if (alive[h] == 0.0) {
+                    continue;
+                }
+
+                for (int i = 0; i < damage.size(); i++) {
+                    double chance = alive[h] * damage.getProbability(i);
+                    int left = h - damage.getDamage(i);
+
+                    if (left <= 0) {
+                        fainted += chance;
+                    } else {
+                        next[left] += chance;
+                    }
+                }
+            }
+
+            turns[turn] = fainted;
+
+            double[] swap = alive;
+            alive = next;
+            next = swap;
+        }
+
+        return turns;
+    }
+}
@@ -0,0 +1,117 @@
+package analysis;
+
+import java.util.Arrays;
+
+/**
+ * The exact probability mass function of the damage a single use of an Attack deals. Each
+ * possible amount of damage is paired with the probability of dealing it, and the amounts are
+ * kept in ascending order. An Attack that misses deals 0 damage.
+ */
+public class DamageDistribution {
+    private final int[] damage;
+    private final double[] probabilities;
+
+    /**
+     * Creates a DamageDistribution from the possible amounts of damage and their probabilities.
+     * Amounts that appear more than once are combined and amounts with no chance are dropped.
+     *
+     * @param damage The possible amounts of damage
+     * @param probabilities The probability of each amount of damage
+     * @throws IllegalArgumentException If the arrays are not the same length
+     */
+    public DamageDistribution(int[] damage, double[] probabilities) {
+        if (damage.length != probabilities.length) {
+            throw new IllegalArgumentException("Every amount of damage needs a probability.");
+        }
+
+        int[] sorted = damage.clone();
+        Arrays.sort(sorted);
+
+        int[] amounts = new int[sorted.length];
+        double[] chances = new double[sorted.length];
+        int size = 0;
+
+        for (int amount : sorted) {
+            if (size > 0 && amounts[size - 1] == amount) {
+                continue;
+            }
+
+            double chance = 0.0;
+
+            for (int i = 0; i < damage.length; i++) {
+                if (damage[i] == amount) {
+                    chance += probabilities[i];
+                }
+            }
+
+            if (chance > 0.0) {
+                amounts[size] = amount;
+                chances[size] = chance;
+                size++;
+            }
+        }
+
+        this.damage = Arrays.copyOf(amounts, size);
+        this.probabilities = Arrays.copyOf(chances, size);
+    }
+
+    /**
+     * Gets the number of different amounts of damage that can be dealt.
+     *
+     * @return The number of outcomes
+     */
+    public int size() {
+        return damage.length;
+    }
+
+    /**
+     * Gets one of the possible amounts of damage.
+     *
+     * @param index The index of the outcome, in ascending order of damage
+     * @return The amount of damage
+     */
+    public int getDamage(int index) {
+        return damage[index];
+    }
+
+    /**
+     * Gets the probability of one of the possible amounts of damage.
+     *
+     * @param index The index of the outcome, in ascending order of damage
+     * @return The probability, from 0.0 to 1.0
+     */
+    public double getProbability(int index) {
+        return probabilities[index];
+    }
+
+    /**
+     * Gets the probability of dealing exactly an amount of damage.
+     *
+     * @param amount The amount of damage
+     * @return The probability, from 0.0 to 1.0
+     */
+    public double getProbabilityOf(int amount) {
+        int index = Arrays.binarySearch(damage, amount);
+
+        if (index < 0) {
+            return 0.0;
+        }
+
+        return probabilities[index];
+    }
+
+    /**
+     * Gets the mean amount of damage dealt.
+     *
+     * @return The expected damage
+     */
+    public double getExpectedDamage() {
+        double expected = 0.0;
+
+        for (int i = 0; i < damage.length; i++) {
+            expected += damage[i] * probabilities[i];
+        }
+
+        return expected;
+    }
+}
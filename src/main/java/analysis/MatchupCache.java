@@ -0,0 +1,211 @@
+package analysis;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A size-bounded, thread safe cache of MatchupResults, so battles with a setup that has already
+ * been simulated can reuse the earlier results instead of starting over. When the cache is full
+ * the least recently used result is evicted.
+ *
+ * <p>
+ *     The cache is split into segments that each keep their own least recently used order
+ *     behind their own lock, so threads working on different matchups rarely wait on each
+ *     other. Hits, misses and evictions are counted for the whole cache.
+ * </p>
+ */
+public class MatchupCache {
+    private static final int MAX_SEGMENTS = 16;
+    private final Segment[] segments;
+    private final int capacity;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Creates an empty cache.
+     *
+     * @param capacity The most results the cache will hold. Must be at least 1
+     * @throws IllegalArgumentException If capacity is less than 1
+     */
+    public MatchupCache(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("The cache must be able to hold a result.");
+        }
+
+        this.capacity = capacity;
+
+        //split the capacity as evenly as possible so the segments add up to it exactly
+        int count = Math.min(MAX_SEGMENTS, capacity);
+        segments = new Segment[count];
+
+        for (int i = 0; i < count; i++) {
+            segments[i] = new Segment(capacity / count + (i < capacity % count ? 1 : 0));
+        }
+    }
+
+    /**
+     * Gets the cached result for a matchup.
+     *
+     * @param key The matchup
+     * @return The result, or null if there is none
+     */
+    public MatchupResult get(MatchupKey key) {
+        Segment segment = segmentFor(key);
+        MatchupResult result;
+
+        synchronized (segment) {
+            result = segment.get(key);
+        }
+
+        if (result == null) {
+            misses.increment();
+        } else {
+            hits.increment();
+        }
+
+        return result;
+    }
+
+    /**
+     * Stores the result for a matchup, replacing any result already cached for it.
+     *
+     * @param key The matchup
+     * @param result The result
+     */
+    public void put(MatchupKey key, MatchupResult result) {
+        Segment segment = segmentFor(key);
+
+        synchronized (segment) {
+            segment.put(key, result);
+        }
+    }
+
+    /**
+     * Adds the results of more battles to the cached result for a matchup, or stores them if
+     * nothing is cached for it yet.
+     *
+     * @param key The matchup
+     * @param result The result of the new battles
+     * @return The combined result now in the cache
+     */
+    public MatchupResult merge(MatchupKey key, MatchupResult result) {
+        Segment segment = segmentFor(key);
+
+        synchronized (segment) {
+            return segment.merge(key, result, MatchupResult::merge);
+        }
+    }
+
+    /**
+     * Removes every result from the cache. The counters are kept.
+     */
+    public void clear() {
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                segment.clear();
+            }
+        }
+    }
+
+    /**
+     * Gets the number of results in the cache.
+     *
+     * @return The number of results
+     */
+    public int size() {
+        int size = 0;
+
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+
+        return size;
+    }
+
+    /**
+     * Gets the most results the cache will hold.
+     *
+     * @return The capacity
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Gets the number of lookups that found a result.
+     *
+     * @return The number of hits
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Gets the number of lookups that did not find a result.
+     *
+     * @return The number of misses
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Gets the number of results evicted to make room for new ones.
+     *
+     * @return The number of evictions
+     */
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * Gets the fraction of lookups that found a result.
+     *
+     * @return The hit rate, from 0.0 to 1.0
+     */
+    public double getHitRate() {
+        long hit = getHits();
+        long total = hit + getMisses();
+
+        if (total == 0) {
+            return 0.0;
+        }
+
+        return (double) hit / total;
+    }
+
+    private Segment segmentFor(MatchupKey key) {
+        int hash = key.hashCode();
+        //spread the high bits into the low bits before picking a segment
+        hash ^= hash >>> 16;
+
+        return segments[Math.floorMod(hash, segments.length)];
+    }
+
+    /**
+     * One segment of the cache, kept in least recently used order.
+     */
+    private class Segment extends LinkedHashMap<MatchupKey, MatchupResult> {
+        private static final long serialVersionUID = 1L;
+        private final int capacity;
+
+        private Segment(int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<MatchupKey, MatchupResult> eldest) {
+            if (size() > capacity) {
+                evictions.increment();
+                return true;
+            }
+
+            return false;
+        }
+    }
+}
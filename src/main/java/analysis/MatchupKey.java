@@ -0,0 +1,166 @@
+package analysis;
+
+import codeamon.Codeamon;
+import codeamon.CodeamonFactory;
+import codeamon.GreedyMovePolicy;
+import codeamon.MovePolicy;
+import codeamon.Type;
+import java.util.Arrays;
+import java.util.List;
+import trainer.Trainer;
+
+/**
+ * A canonical key for the setup of a battle, used to look up the results of earlier battles with
+ * the same setup. Each Codeamon is packed into a single int from its species, level, moveset
+ * tier and whether it uses the GreedyMovePolicy, which are all that decide how a fresh Codeamon
+ * battles, and the key holds the packed Codeamon of both parties in the order they are sent out.
+ * Names and Hit Points are not part of the key.
+ *
+ * <p>
+ *     The species is recorded as the Type CodeamonFactory creates it from rather than the
+ *     Codeamon's own type, since two species can share a type. A Team is packed in the order a
+ *     Trainer built from it sends its Codeamon out, lowest level first with ties kept in the
+ *     order they are listed, so Teams that list the same Codeamon in a different order but
+ *     battle the same way get the same key.
+ * </p>
+ */
+public final class MatchupKey {
+    private static final int TYPE_BITS = 5;
+    private static final int TIER_BITS = 2;
+    //levels take at most 7 bits, so the flag for the GreedyMovePolicy comes well after them
+    private static final int GREEDY = 1 << 30;
+    private final int[] packed;
+    private final int hash;
+
+    private MatchupKey(int[] packed) {
+        this.packed = packed;
+        hash = Arrays.hashCode(packed);
+    }
+
+    /**
+     * Creates the key for a battle between two Teams.
+     *
+     * @param one Team One
+     * @param two Team Two
+     * @return The key
+     */
+    public static MatchupKey of(Team one, Team two) {
+        int[] packed = new int[2 + one.getPartySize() + two.getPartySize()];
+        int index = 0;
+
+        for (Team team : new Team[] {one, two}) {
+            packed[index++] = team.getPartySize();
+            int first = index;
+
+            for (int i = 0; i < team.getPartySize(); i++) {
+                packed[index++] = pack(team.getType(i), team.getLevel(i),
+                        team.getMovesetTier(i), team.getMovePolicy(i));
+            }
+
+            sortByLevel(packed, first, index);
+        }
+
+        return new MatchupKey(packed);
+    }
+
+    /**
+     * Creates the key for a battle between two Trainers, from the Codeamon in their parties.
+     *
+     * @param one Trainer One
+     * @param two Trainer Two
+     * @return The key
+     */
+    public static MatchupKey of(Trainer one, Trainer two) {
+        List<Codeamon> partyOne = one.getCodeamonParty();
+        List<Codeamon> partyTwo = two.getCodeamonParty();
+        int[] packed = new int[2 + partyOne.size() + partyTwo.size()];
+
+        packParty(partyTwo, packed, packParty(partyOne, packed, 0));
+
+        return new MatchupKey(packed);
+    }
+
+    /**
+     * Creates the key for a battle between two single Codeamon.
+     *
+     * @param one Codeamon One
+     * @param two Codeamon Two
+     * @return The key
+     */
+    public static MatchupKey of(Codeamon one, Codeamon two) {
+        return new MatchupKey(new int[] {1, pack(one), 1, pack(two)});
+    }
+
+    /**
+     * Packs a party's size followed by each of its Codeamon.
+     *
+     * @param party The party
+     * @param packed The array to pack into
+     * @param index The index to start packing at
+     * @return The index after the party
+     */
+    private static int packParty(List<Codeamon> party, int[] packed, int index) {
+        packed[index++] = party.size();
+
+        for (Codeamon codeamon : party) {
+            packed[index++] = pack(codeamon);
+        }
+
+        return index;
+    }
+
+    /**
+     * Puts packed Codeamon in the order a Trainer sends them out: a stable insertion sort by
+     * level, the same order as a Trainer's party of fresh Codeamon.
+     *
+     * @param packed The packed Codeamon
+     * @param from The index of the first Codeamon
+     * @param to The index after the last Codeamon
+     */
+    private static void sortByLevel(int[] packed, int from, int to) {
+        for (int i = from + 1; i < to; i++) {
+            int codeamon = packed[i];
+            int slot = i;
+
+            while (slot > from && level(packed[slot - 1]) > level(codeamon)) {
+                packed[slot] = packed[slot - 1];
+                slot--;
+            }
+
+            packed[slot] = codeamon;
+        }
+    }
+
+    private static int level(int packed) {
+        return (packed & ~GREEDY) >>> (TYPE_BITS + TIER_BITS);
+    }
+
+    private static int pack(Codeamon codeamon) {
+        return pack(CodeamonFactory.getSpeciesType(codeamon), codeamon.getLevel(),
+                codeamon.getMovesetTier(), codeamon.getMovePolicy());
+    }
+
+    private static int pack(Type type, int level, int tier, MovePolicy policy) {
+        int packed = (level << (TYPE_BITS + TIER_BITS)) | (tier << TYPE_BITS) | type.ordinal();
+
+        return policy == GreedyMovePolicy.INSTANCE ? packed | GREEDY : packed;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        } else if (!(other instanceof MatchupKey)) {
+            return false;
+        }
+
+        MatchupKey key = (MatchupKey) other;
+
+        return hash == key.hash && Arrays.equals(packed, key.packed);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+}
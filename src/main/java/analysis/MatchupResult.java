@@ -0,0 +1,150 @@
+package analysis;
+
+/**
+ * The aggregated outcome of many simulated battles of the same matchup between Team One and
+ * Team Two.
+ */
+public class MatchupResult {
+    //z value for a 95% confidence interval
+    private static final double Z = 1.96;
+    private final long battles;
+    private final long winsOne;
+    private final long totalTurns;
+    private final long totalHitPointsOne;
+    private final long totalHitPointsTwo;
+
+    /**
+     * Creates a MatchupResult from the totals of a set of battles.
+     *
+     * @param battles The number of battles simulated
+     * @param winsOne The number of battles won by Team One
+     * @param totalTurns The number of turns taken across all battles
+     * @param totalHitPointsOne The Hit Points Team One had left, summed across all battles
+     * @param totalHitPointsTwo The Hit Points Team Two had left, summed across all battles
+     */
+    public MatchupResult(long battles, long winsOne, long totalTurns, long totalHitPointsOne,
+                         long totalHitPointsTwo) {
+        this.battles = battles;
+        this.winsOne = winsOne;
+        this.totalTurns = totalTurns;
+        this.totalHitPointsOne = totalHitPointsOne;
+        this.totalHitPointsTwo = totalHitPointsTwo;
+    }
+
+    /**
+     * Combines this result with another result for the same matchup.
+     *
+     * @param other The other result
+     * @return The combined result
+     */
+    public MatchupResult merge(MatchupResult other) {
+        return new MatchupResult(battles + other.battles, winsOne + other.winsOne,
+                totalTurns + other.totalTurns, totalHitPointsOne + other.totalHitPointsOne,
+                totalHitPointsTwo + other.totalHitPointsTwo);
+    }
+
+    /**
+     * Gets the number of battles simulated.
+     *
+     * @return The number of battles
+     */
+    public long getBattles() {
+        return battles;
+    }
+
+    /**
+     * Gets the number of battles won by Team One.
+     *
+     * @return The number of wins
+     */
+    public long getWinsOne() {
+        return winsOne;
+    }
+
+    /**
+     * Gets the fraction of battles won by Team One.
+     *
+     * @return The win rate, from 0.0 to 1.0
+     */
+    public double getWinRate() {
+        if (battles == 0) {
+            return 0.0;
+        }
+
+        return (double) winsOne / battles;
+    }
+
+    /**
+     * Gets the lower bound of the 95% Wilson score confidence interval for Team One's win rate.
+     *
+     * @return The lower bound
+     */
+    public double getWinRateLower() {
+        return wilsonCenter() - wilsonMargin();
+    }
+
+    /**
+     * Gets the upper bound of the 95% Wilson score confidence interval for Team One's win rate.
+     *
+     * @return The upper bound
+     */
+    public double getWinRateUpper() {
+        return wilsonCenter() + wilsonMargin();
+    }
+
+    /**
+     * Gets the mean number of turns a battle lasted.
+     *
+     * @return The mean number of turns
+     */
+    public double getMeanTurns() {
+        return mean(totalTurns);
+    }
+
+    /**
+     * Gets the mean number of Hit Points Team One's party had left at the end of a battle.
+     *
+     * @return The mean remaining Hit Points
+     */
+    public double getMeanHitPointsOne() {
+        return mean(totalHitPointsOne);
+    }
+
+    /**
+     * Gets the mean number of Hit Points Team Two's party had left at the end of a battle.
+     *
+     * @return The mean remaining Hit Points
+     */
+    public double getMeanHitPointsTwo() {
+        return mean(totalHitPointsTwo);
+    }
+
+    private double mean(long total) {
+        if (battles == 0) {
+            return 0.0;
+        }
+
+        return (double) total / battles;
+    }
+
+    private double wilsonCenter() {
+        if (battles == 0) {
+            return 0.5;
+        }
+
+        double p = getWinRate();
+
+        return (p + Z * Z / (2.0 * battles)) / (1.0 + Z * Z / battles);
+    }
+
+    private double wilsonMargin() {
+        if (battles == 0) {
+            return 0.5;
+        }
+
+        double p = getWinRate();
+
+        return Z / (1.0 + Z * Z / battles)
+                * Math.sqrt(p * (1.0 - p) / battles + Z * Z / (4.0 * battles * battles));
+    }
+}
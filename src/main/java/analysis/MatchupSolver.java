@@ -0,0 +1,1018 @@
+package analysis;
+
+import codeamon.Attack;
+import codeamon.Codeamon;
+import codeamon.CodeamonStats;
+import codeamon.GreedyMovePolicy;
+import codeamon.MovePolicy;
+import codeamon.RandomMovePolicy;
+import codeamon.Stat;
+import codeamon.Type;
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * Solves a battle between two single Codeamon exactly instead of simulating it. Each round of
+ * the battle is a step in a Markov chain whose state is both Codeamon's Hit Points and stat
+ * stages, with the same turn order, attack choice and rolls as a real Battle. The chance
+ * of Codeamon One winning from a state is the chance-weighted sum of the chances from every
+ * state one round can lead to.
+ *
+ * <p>
+ *     States are packed into a long and every solved state is kept in a memo table, so later
+ *     questions about the same two Codeamon reuse earlier answers. Healing and stat changes can
+ *     lead a battle back to a state it has already been in, so the states are split into groups
+ *     that can all reach each other and the groups are solved from the end of the battle back to
+ *     its start. Small groups are solved exactly, and large ones by iterating until the chances
+ *     stop changing.
+ * </p>
+ *
+ * <p>
+ *     A single question explores at most a budget of new states, and of moves between them,
+ *     and gives up with an IllegalStateException past it, so the memory a question needs is
+ *     bounded: the default budget of a million states fits in well under 600 MB of heap. The
+ *     number of states grows quickly with the Codeamon's Hit Points, so about half of the
+ *     matchups from level 20 up, and most matchups above about level 45, go past the default
+ *     budget. Every solved state stays in the memo table.
+ * </p>
+ *
+ * <p>
+ *     The two Codeamon's levels, stats and move policies are read when the solver is created.
+ *     A Codeamon using the GreedyMovePolicy uses the same attack every round, since neither its
+ *     level nor its opponent's type changes during the battle. A solver is not thread safe.
+ * </p>
+ */
+public class MatchupSolver {
+    private static final int DEFAULT_MAX_STATES = 1000000;
+    //a round rarely leads to more than a dozen new states, so this leaves room for the edges
+    //of any battle that fits in the state budget while still bounding their memory
+    private static final int MAX_EDGES_PER_STATE = 16;
+    private static final int MAX_ARRAY_SIZE = Integer.MAX_VALUE - 8;
+    //groups of states up to this size are solved with Gaussian elimination
+    private static final int EXACT_GROUP_SIZE = 300;
+    private static final double TOLERANCE = 1e-15;
+    private static final int MAX_SWEEPS = 1000000;
+    private static final int MIN_STAGE = -6;
+    private static final int MAX_STAGE = 6;
+    private static final int STAGES = MAX_STAGE - MIN_STAGE + 1;
+    private static final Stat[] STATS = Stat.values();
+    //packed state layout: 16 bits of Hit Points per side, then 4 bits per stat stage
+    private static final int HP_BITS = 16;
+    private static final int STAGE_BITS = 4;
+    private static final int HP_MASK = (1 << HP_BITS) - 1;
+    private static final int STAGE_MASK = (1 << STAGE_BITS) - 1;
+    private static final int MAX_HIT_POINTS = HP_MASK;
+    private static final int ONE_WINS = -1;
+    private static final int TWO_WINS = -2;
+
+    private final int maxStates;
+    private final int maxEdges;
+    private final long start;
+    private final int[] level = new int[2];
+    private final Type[] type = new Type[2];
+    private final int[] maxHitPoints = new int[2];
+    private final int[][] speed = new int[2][STAGES];
+    private final Attack[][] attacks = new Attack[2][];
+    //the attack each side always uses, or -1 for a side that picks its attacks at random
+    private final int[] greedyMove = new int[2];
+    //damage[side][attack][attack stage][opponent's defense stage], and the same for crits
+    private final int[][][][] damage = new int[2][][][];
+    private final int[][][][] critDamage = new int[2][][][];
+    //the chance of Codeamon One winning from each solved state, stored as the double's bits
+    private final StateMap memo = new StateMap();
+
+    //the outcomes of the round being expanded
+    private long[] outcomes = new long[64];
+    private double[] outcomeChances = new double[64];
+    private int outcomeCount;
+    private long[] firstOutcomes = new long[64];
+    private double[] firstChances = new double[64];
+    //open addressing table for combining outcomes, where a slot is only in use if its stamp
+    //matches the current round
+    private int[] slotStamps = new int[1024];
+    private int[] slotIndices = new int[1024];
+    private int round;
+
+    /**
+     * Creates a solver for a battle between two Codeamon, starting from their current Hit Points
+     * and stat stages.
+     *
+     * @param one Codeamon One
+     * @param two Codeamon Two
+     * @throws IllegalArgumentException If either Codeamon has more Hit Points than can be solved
+     *                                  or a move policy other than the RandomMovePolicy or the
+     *                                  GreedyMovePolicy
+     */
+    public MatchupSolver(Codeamon one, Codeamon two) {
+        this(one, two, DEFAULT_MAX_STATES);
+    }
+
+    /**
+     * Creates a solver for a battle between two Codeamon, starting from their current Hit Points
+     * and stat stages, that gives up on battles with too many states.
+     *
+     * @param one Codeamon One
+     * @param two Codeamon Two
+     * @param maxStates The largest number of new states a single question may explore. A
+     *                  question may also follow at most 16 moves between states for each state
+     *                  allowed
+     * @throws IllegalArgumentException If either Codeamon has more Hit Points than can be solved
+     *                                  or a move policy other than the RandomMovePolicy or the
+     *                                  GreedyMovePolicy, or maxStates is less than 1
+     */
+    public MatchupSolver(Codeamon one, Codeamon two, int maxStates) {
+        if (maxStates < 1) {
+            throw new IllegalArgumentException("At least one state must be allowed.");
+        }
+
+        this.maxStates = maxStates;
+        maxEdges = (int) Math.min((long) maxStates * MAX_EDGES_PER_STATE, MAX_ARRAY_SIZE);
+
+        Codeamon[] codeamon = {one, two};
+
+        for (int side = 0; side < 2; side++) {
+            Codeamon mon = codeamon[side];
+
+            if (mon.getMaxHitPoints() > MAX_HIT_POINTS) {
+                throw new IllegalArgumentException(mon.getName() + " has too many Hit Points.");
+            }
+
+            level[side] = mon.getLevel();
+            type[side] = mon.getType();
+            maxHitPoints[side] = mon.getMaxHitPoints();
+            attacks[side] = mon.getAttacks();
+            greedyMove[side] = getGreedyMove(mon, codeamon[1 - side]);
+
+            for (int stage = MIN_STAGE; stage <= MAX_STAGE; stage++) {
+                speed[side][stage - MIN_STAGE] = stat(mon, Stat.Speed, stage);
+            }
+        }
+
+        for (int side = 0; side < 2; side++) {
+            buildDamageTables(codeamon[side], codeamon[1 - side], side);
+        }
+
+        int[] hitPoints = {one.getCurrentHitPoints(), two.getCurrentHitPoints()};
+        int[][] stages = new int[2][STATS.length];
+
+        for (int side = 0; side < 2; side++) {
+            for (int i = 0; i < STATS.length; i++) {
+                stages[side][i] = codeamon[side].getStatStage(STATS[i]);
+            }
+        }
+
+        start = pack(hitPoints, stages);
+    }
+
+    /**
+     * Gets the exact chance of Codeamon One winning the battle from the state the two Codeamon
+     * were in when this solver was created.
+     *
+     * @return The chance of Codeamon One winning, from 0.0 to 1.0
+     * @throws IllegalStateException If the battle has more states or moves between states than
+     *                               this solver allows
+     */
+    public double getWinProbability() {
+        return solve(start);
+    }
+
+    /**
+     * Gets the exact chance of Codeamon One winning the battle when the two Codeamon start with
+     * the given Hit Points and no stat changes.
+     *
+     * @param hitPointsOne Codeamon One's Hit Points
+     * @param hitPointsTwo Codeamon Two's Hit Points
+     * @return The chance of Codeamon One winning, from 0.0 to 1.0
+     * @throws IllegalArgumentException If either Hit Points value is below 0 or above the
+     *                                  Codeamon's maximum
+     * @throws IllegalStateException If the battle has more states or moves between states than
+     *                               this solver allows
+     */
+    public double getWinProbability(int hitPointsOne, int hitPointsTwo) {
+        if (hitPointsOne < 0 || hitPointsOne > maxHitPoints[0] || hitPointsTwo < 0
+                || hitPointsTwo > maxHitPoints[1]) {
+            throw new IllegalArgumentException("Hit Points must be between 0 and the maximum.");
+        }
+
+        return solve(pack(new int[] {hitPointsOne, hitPointsTwo}, new int[2][STATS.length]));
+    }
+
+    /**
+     * Gets the number of states whose chance of winning has been solved and memoized.
+     *
+     * @return The number of solved states
+     */
+    public int getSolvedStates() {
+        return memo.size;
+    }
+
+    /**
+     * Gets the chance of Codeamon One winning from a state, solving every state it can lead to
+     * that has not been solved yet.
+     *
+     * @param state The packed state
+     * @return The chance of Codeamon One winning
+     */
+    private double solve(long state) {
+        if (hitPoints(state, 1) == 0) {
+            return hitPoints(state, 0) == 0 ? 0.0 : 1.0;
+        } else if (hitPoints(state, 0) == 0) {
+            return 0.0;
+        }
+
+        int slot = memo.find(state);
+
+        if (slot >= 0) {
+            return Double.longBitsToDouble(memo.values[slot]);
+        }
+
+        Graph graph = explore(state);
+        solveGroups(graph);
+
+        return Double.longBitsToDouble(memo.values[memo.find(state)]);
+    }
+
+    /**
+     * Finds every unsolved state reachable from a state along with the chances of moving between
+     * them. Moves into solved states and to the end of the battle are folded into each state's
+     * constant chance of Codeamon One winning.
+     *
+     * @param first The state to start from
+     * @return The graph of unsolved states
+     */
+    private Graph explore(long first) {
+        Graph graph = new Graph(maxStates, maxEdges);
+        graph.add(first);
+
+        for (int index = 0; index < graph.size; index++) {
+            expandRound(graph.states[index]);
+            mergeOutcomes();
+            graph.startEdges(index);
+
+            for (int i = 0; i < outcomeCount; i++) {
+                long next = outcomes[i];
+                double chance = outcomeChances[i];
+
+                if (next == ONE_WINS) {
+                    graph.constants[index] += chance;
+                } else if (next != TWO_WINS) {
+                    int known = memo.find(next);
+
+                    if (known >= 0) {
+                        graph.constants[index] += chance
+                                * Double.longBitsToDouble(memo.values[known]);
+                    } else {
+                        int target = graph.indexOf(next);
+
+                        if (target < 0) {
+                            if (graph.size == maxStates) {
+                                throw new IllegalStateException("The battle has more than "
+                                        + maxStates + " states.");
+                            }
+
+                            target = graph.add(next);
+                        }
+
+                        if (graph.edges == maxEdges) {
+                            throw new IllegalStateException("The battle has more than "
+                                    + maxEdges + " moves between states.");
+                        }
+
+                        graph.addEdge(target, chance);
+                    }
+                }
+            }
+        }
+
+        graph.endEdges();
+
+        return graph;
+    }
+
+    /**
+     * Splits the graph into groups of states that can all reach each other with Tarjan's
+     * algorithm, then solves each group as soon as it is complete. Tarjan's algorithm completes
+     * a group only after every group it leads to, so every state outside the group that it
+     * depends on is already solved.
+     *
+     * @param graph The graph of unsolved states
+     */
+    private void solveGroups(Graph graph) {
+        int size = graph.size;
+        int[] order = new int[size];
+        int[] low = new int[size];
+        boolean[] onStack = new boolean[size];
+        int[] stack = new int[size];
+        int[] callStack = new int[size];
+        int[] nextEdge = new int[size];
+        double[] values = new double[size];
+        boolean[] solved = new boolean[size];
+        int stackSize = 0;
+        int counter = 0;
+
+        Arrays.fill(order, -1);
+
+        for (int root = 0; root < size; root++) {
+            if (order[root] != -1) {
+                continue;
+            }
+
+            int depth = 0;
+            callStack[depth++] = root;
+            order[root] = counter;
+            low[root] = counter++;
+            nextEdge[root] = graph.edgeStart[root];
+            stack[stackSize++] = root;
+            onStack[root] = true;
+
+            while (depth > 0) {
+                int node = callStack[depth - 1];
+
+                if (nextEdge[node] < graph.edgeStart[node + 1]) {
+                    int target = graph.edgeTargets[nextEdge[node]++];
+
+                    if (order[target] == -1) {
+                        order[target] = counter;
+                        low[target] = counter++;
+                        nextEdge[target] = graph.edgeStart[target];
+                        stack[stackSize++] = target;
+                        onStack[target] = true;
+                        callStack[depth++] = target;
+                    } else if (onStack[target]) {
+                        low[node] = Math.min(low[node], order[target]);
+                    }
+
+                    continue;
+                }
+
+                depth--;
+
+                if (depth > 0) {
+                    int parent = callStack[depth - 1];
+                    low[parent] = Math.min(low[parent], low[node]);
+                }
+
+                if (low[node] == order[node]) {
+                    int top = stackSize;
+
+                    do {
+                        onStack[stack[--stackSize]] = false;
+                    } while (stack[stackSize] != node);
+
+                    solveGroup(graph, Arrays.copyOfRange(stack, stackSize, top), values, solved);
+                }
+            }
+        }
+
+        for (int i = 0; i < size; i++) {
+            memo.put(graph.states[i], Double.doubleToLongBits(values[i]));
+        }
+    }
+
+    /**
+     * Solves one group of states that can all reach each other. Every state outside the group
+     * that the group leads to has already been solved.
+     *
+     * @param graph The graph of unsolved states
+     * @param group The states in the group
+     * @param values The chance of Codeamon One winning from each state solved so far
+     * @param solved Which states have been solved so far
+     */
+    private void solveGroup(Graph graph, int[] group, double[] values, boolean[] solved) {
+        int size = group.length;
+        //the chance of winning that does not depend on states in the group
+        double[] constants = new double[size];
+
+        for (int i = 0; i < size; i++) {
+            int node = group[i];
+            constants[i] = graph.constants[node];
+
+            for (int edge = graph.edgeStart[node]; edge < graph.edgeStart[node + 1]; edge++) {
+                int target = graph.edgeTargets[edge];
+
+                if (solved[target]) {
+                    constants[i] += graph.edgeChances[edge] * values[target];
+                }
+            }
+        }
+
+        if (size == 1) {
+            int node = group[0];
+            double loop = 0.0;
+
+            for (int edge = graph.edgeStart[node]; edge < graph.edgeStart[node + 1]; edge++) {
+                if (graph.edgeTargets[edge] == node) {
+                    loop += graph.edgeChances[edge];
+                }
+            }
+
+            values[node] = constants[0] / (1.0 - loop);
+        } else if (size <= EXACT_GROUP_SIZE) {
+            eliminate(graph, group, constants, values, solved);
+        } else {
+            iterate(graph, group, constants, values, solved);
+        }
+
+        for (int node : group) {
+            solved[node] = true;
+        }
+    }
+
+    /**
+     * Solves a group of states exactly with Gaussian elimination.
+     *
+     * @param graph The graph of unsolved states
+     * @param group The states in the group
+     * @param constants The chance of winning from each state that does not depend on the group
+     * @param values The chance of Codeamon One winning from each state solved so far
+     * @param solved Which states have been solved so far
+     */
+    private void eliminate(Graph graph, int[] group, double[] constants, double[] values,
+                           boolean[] solved) {
+        int size = group.length;
+        HashMap<Integer, Integer> positions = new HashMap<>();
+
+        for (int i = 0; i < size; i++) {
+            positions.put(group[i], i);
+        }
+
+        //each row is x[i] - sum(chance * x[j]) = constant[i]
+        double[][] matrix = new double[size][size + 1];
+
+        for (int i = 0; i < size; i++) {
+            int node = group[i];
+            matrix[i][i] = 1.0;
+            matrix[i][size] = constants[i];
+
+            for (int edge = graph.edgeStart[node]; edge < graph.edgeStart[node + 1]; edge++) {
+                int target = graph.edgeTargets[edge];
+
+                if (!solved[target]) {
+                    matrix[i][positions.get(target)] -= graph.edgeChances[edge];
+                }
+            }
+        }
+
+        for (int column = 0; column < size; column++) {
+            int pivot = column;
+
+            for (int row = column + 1; row < size; row++) {
+                if (Math.abs(matrix[row][column]) > Math.abs(matrix[pivot][column])) {
+                    pivot = row;
+                }
+            }
+
+            double[] swap = matrix[column];
+            matrix[column] = matrix[pivot];
+            matrix[pivot] = swap;
+
+            for (int row = 0; row < size; row++) {
+                if (row == column || matrix[row][column] == 0.0) {
+                    continue;
+                }
+
+                double factor = matrix[row][column] / matrix[column][column];
+
+                for (int k = column; k <= size; k++) {
+                    matrix[row][k] -= factor * matrix[column][k];
+                }
+            }
+        }
+
+        for (int i = 0; i < size; i++) {
+            values[group[i]] = matrix[i][size] / matrix[i][i];
+        }
+    }
+
+    /**
+     * Solves a large group of states by Gauss-Seidel iteration, stopping once no chance moves by
+     * more than the tolerance in a sweep.
+     *
+     * @param graph The graph of unsolved states
+     * @param group The states in the group
+     * @param constants The chance of winning from each state that does not depend on the group
+     * @param values The chance of Codeamon One winning from each state solved so far
+     * @param solved Which states have been solved so far
+     */
+    private void iterate(Graph graph, int[] group, double[] constants, double[] values,
+                         boolean[] solved) {
+        for (int sweep = 0; sweep < MAX_SWEEPS; sweep++) {
+            double change = 0.0;
+
+            for (int i = 0; i < group.length; i++) {
+                int node = group[i];
+                double value = constants[i];
+                double loop = 0.0;
+
+                for (int edge = graph.edgeStart[node]; edge < graph.edgeStart[node + 1];
+                        edge++) {
+                    int target = graph.edgeTargets[edge];
+
+                    if (target == node) {
+                        loop += graph.edgeChances[edge];
+                    } else if (!solved[target]) {
+                        value += graph.edgeChances[edge] * values[target];
+                    }
+                }
+
+                value /= 1.0 - loop;
+                change = Math.max(change, Math.abs(value - values[node]));
+                values[node] = value;
+            }
+
+            if (change < TOLERANCE) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Works out every way one round of the battle can go from a state, the same way
+     * Battle.fight does, and stores the resulting states and their chances.
+     *
+     * @param state The packed state at the start of the round
+     */
+    private void expandRound(long state) {
+        outcomeCount = 0;
+
+        int speedOne = speed[0][stage(state, 0, 2) - MIN_STAGE];
+        int speedTwo = speed[1][stage(state, 1, 2) - MIN_STAGE];
+
+        if (speedOne > speedTwo) {
+            expandTurn(state, 0, 1.0);
+        } else if (speedOne < speedTwo) {
+            expandTurn(state, 1, 1.0);
+        } else {
+            //speed ties are decided by a coin flip
+            expandTurn(state, 0, 0.5);
+            expandTurn(state, 1, 0.5);
+        }
+    }
+
+    /**
+     * Works out both Codeamon's attacks for one turn order.
+     *
+     * @param state The packed state at the start of the round
+     * @param first The side that attacks first
+     * @param chance The chance of this turn order
+     */
+    private void expandTurn(long state, int first, double chance) {
+        int count = 0;
+        //collect the first attack's outcomes before the second attack adds its own
+        int saved = outcomeCount;
+
+        expandAttacks(state, first, chance);
+
+        for (int i = saved; i < outcomeCount; i++) {
+            if (count == firstOutcomes.length) {
+                firstOutcomes = Arrays.copyOf(firstOutcomes, count * 2);
+                firstChances = Arrays.copyOf(firstChances, count * 2);
+            }
+
+            firstOutcomes[count] = outcomes[i];
+            firstChances[count++] = outcomeChances[i];
+        }
+
+        outcomeCount = saved;
+
+        for (int i = 0; i < count; i++) {
+            long next = firstOutcomes[i];
+
+            if (hitPoints(next, 1 - first) == 0) {
+                addOutcome(first == 0 ? ONE_WINS : TWO_WINS, firstChances[i]);
+            } else {
+                expandAttacks(next, 1 - first, firstChances[i]);
+            }
+        }
+
+        //the second attack can only knock out the first attacker
+        for (int i = saved; i < outcomeCount; i++) {
+            if (hitPoints(outcomes[i], first) == 0) {
+                outcomes[i] = first == 0 ? TWO_WINS : ONE_WINS;
+            }
+        }
+    }
+
+    /**
+     * Gets the attack a Codeamon using the GreedyMovePolicy uses against its opponent.
+     *
+     * @param user The Codeamon
+     * @param opponent Its opponent
+     * @return The index of the attack, or -1 if the Codeamon picks its attacks at random
+     * @throws IllegalArgumentException If the Codeamon's move policy cannot be solved
+     */
+    private static int getGreedyMove(Codeamon user, Codeamon opponent) {
+        MovePolicy policy = user.getMovePolicy();
+
+        if (policy == RandomMovePolicy.INSTANCE) {
+            return -1;
+        }
+
+        int moveset = user.getMovesetId();
+
+        if (policy != GreedyMovePolicy.INSTANCE || moveset < 0) {
+            throw new IllegalArgumentException(user.getName() + "'s move policy cannot be "
+                    + "solved.");
+        }
+
+        return GreedyMovePolicy.getBestMove(moveset, user.getLevel(), opponent.getType());
+    }
+
+    /**
+     * Works out a Codeamon picking one of its attacks, at random unless it always uses the same
+     * one, and using it.
+     *
+     * @param state The packed state before the attack
+     * @param user The side that is attacking
+     * @param chance The chance of reaching this state
+     */
+    private void expandAttacks(long state, int user, double chance) {
+        if (greedyMove[user] >= 0) {
+            expandAttack(state, user, greedyMove[user], chance);
+            return;
+        }
+
+        Attack[] moves = attacks[user];
+        double pick = chance / moves.length;
+
+        for (int i = 0; i < moves.length; i++) {
+            expandAttack(state, user, i, pick);
+        }
+    }
+
+    /**
+     * Works out every outcome of an attack, the same way Attack.applyAttack does.
+     *
+     * @param state The packed state before the attack
+     * @param user The side that is attacking
+     * @param index The index of the attack
+     * @param chance The chance of using this attack from this state
+     */
+    private void expandAttack(long state, int user, int index, double chance) {
+        Attack attack = attacks[user][index];
+        int opponent = 1 - user;
+        double hit = DamageCalculator.getHitChance(attack);
+
+        if (attack.dealsDamage()) {
+            double crit = DamageCalculator.getCriticalChance(attack);
+            int attackStage = stage(state, user, 0) - MIN_STAGE;
+            int defenseStage = stage(state, opponent, 1) - MIN_STAGE;
+
+            addOutcome(state, chance * (1.0 - hit));
+            expandHit(state, user, attack, damage[user][index][attackStage][defenseStage],
+                    chance * hit * (1.0 - crit));
+            expandHit(state, user, attack, critDamage[user][index][attackStage][defenseStage],
+                    chance * hit * crit);
+        } else if (attack.getSelf()) {
+            expandEffect(heal(state, user, attack), user, attack, chance);
+        } else if (attack.getEffectChance() >= 1) {
+            //a miss still heals the user, just like in battle
+            expandEffect(heal(state, user, attack), opponent, attack, chance * hit);
+            addOutcome(heal(state, user, attack), chance * (1.0 - hit));
+        } else {
+            addOutcome(heal(state, user, attack), chance);
+        }
+    }
+
+    /**
+     * Works out a damaging attack landing.
+     *
+     * @param state The packed state before the attack
+     * @param user The side that is attacking
+     * @param attack The attack
+     * @param dealt The damage dealt
+     * @param chance The chance of this hit
+     */
+    private void expandHit(long state, int user, Attack attack, int dealt, double chance) {
+        if (chance == 0.0) {
+            return;
+        }
+
+        int opponent = 1 - user;
+        long next = withHitPoints(state, opponent, Math.max(0, hitPoints(state, opponent) - dealt));
+        next = heal(next, user, attack);
+
+        if (attack.getSelf()) {
+            expandEffect(next, user, attack, chance);
+        } else if (hitPoints(next, opponent) > 0) {
+            expandEffect(next, opponent, attack, chance);
+        } else {
+            addOutcome(next, chance);
+        }
+    }
+
+    /**
+     * Works out an attack's stat change triggering or not.
+     *
+     * @param state The packed state before the stat change
+     * @param target The side whose stat changes
+     * @param attack The attack
+     * @param chance The chance of reaching this state
+     */
+    private void expandEffect(long state, int target, Attack attack, double chance) {
+        if (chance == 0.0) {
+            return;
+        }
+
+        int effectChance = attack.getEffectChance();
+
+        if (effectChance < 1 || attack.getStat() == null) {
+            addOutcome(state, chance);
+            return;
+        }
+
+        double triggered = Math.min(effectChance, 100) / 100.0;
+        int stat = attack.getStat().ordinal();
+        int current = stage(state, target, stat);
+        int changed = Math.max(MIN_STAGE, Math.min(MAX_STAGE, current + attack.getStages()));
+
+        addOutcome(withStage(state, target, stat, changed), chance * triggered);
+        addOutcome(state, chance * (1.0 - triggered));
+    }
+
+    /**
+     * Applies an attack's healing to its user, the same way the attack does in battle.
+     *
+     * @param state The packed state
+     * @param user The side using the attack
+     * @param attack The attack
+     * @return The packed state after healing
+     */
+    private long heal(long state, int user, Attack attack) {
+        if (!attack.heals()) {
+            return state;
+        }
+
+        int amount = Math.max(1, (int) (maxHitPoints[user] * attack.getHealFraction()));
+
+        return withHitPoints(state, user,
+                Math.min(maxHitPoints[user], hitPoints(state, user) + amount));
+    }
+
+    private void addOutcome(long state, double chance) {
+        if (chance == 0.0) {
+            return;
+        }
+
+        if (outcomeCount == outcomes.length) {
+            outcomes = Arrays.copyOf(outcomes, outcomeCount * 2);
+            outcomeChances = Arrays.copyOf(outcomeChances, outcomeCount * 2);
+        }
+
+        outcomes[outcomeCount] = state;
+        outcomeChances[outcomeCount++] = chance;
+    }
+
+    /**
+     * Combines the outcomes of the round that lead to the same state, so each state only gets
+     * one edge to each of the states it leads to.
+     */
+    private void mergeOutcomes() {
+        if (outcomeCount * 2 > slotStamps.length) {
+            slotStamps = new int[Integer.highestOneBit(outcomeCount) * 4];
+            slotIndices = new int[slotStamps.length];
+            round = 0;
+        }
+
+        round++;
+
+        int mask = slotStamps.length - 1;
+        int count = 0;
+
+        for (int i = 0; i < outcomeCount; i++) {
+            long state = outcomes[i];
+            int slot = (int) ((state * 0x9E3779B97F4A7C15L) >>> 40) & mask;
+
+            while (slotStamps[slot] == round && outcomes[slotIndices[slot]] != state) {
+                slot = (slot + 1) & mask;
+            }
+
+            if (slotStamps[slot] == round) {
+                outcomeChances[slotIndices[slot]] += outcomeChances[i];
+            } else {
+                slotStamps[slot] = round;
+                slotIndices[slot] = count;
+                outcomes[count] = state;
+                outcomeChances[count++] = outcomeChances[i];
+            }
+        }
+
+        outcomeCount = count;
+    }
+
+    /**
+     * Fills in the damage every attack of one side deals at every pair of stages.
+     *
+     * @param user The attacking Codeamon
+     * @param opponent The Codeamon being attacked
+     * @param side The attacker's side
+     */
+    private void buildDamageTables(Codeamon user, Codeamon opponent, int side) {
+        Attack[] moves = attacks[side];
+        damage[side] = new int[moves.length][STAGES][STAGES];
+        critDamage[side] = new int[moves.length][STAGES][STAGES];
+
+        for (int i = 0; i < moves.length; i++) {
+            if (!moves[i].dealsDamage()) {
+                continue;
+            }
+
+            for (int attackStage = MIN_STAGE; attackStage <= MAX_STAGE; attackStage++) {
+                int attackStat = stat(user, Stat.Attack, attackStage);
+                //crits ignore negative attack changes and positive defense changes
+                int attackCritical = attackStage > 0 ? attackStat
+                        : user.getUnmodifiedStat(Stat.Attack);
+
+                for (int defenseStage = MIN_STAGE; defenseStage <= MAX_STAGE; defenseStage++) {
+                    int defenseStat = stat(opponent, Stat.Defense, defenseStage);
+                    int defenseCritical = defenseStage > 0
+                            ? opponent.getUnmodifiedStat(Stat.Defense) : defenseStat;
+
+                    damage[side][i][attackStage - MIN_STAGE][defenseStage - MIN_STAGE] =
+                            moves[i].calculateDamage(level[side], type[side], attackStat,
+                                    type[1 - side], defenseStat, false);
+                    critDamage[side][i][attackStage - MIN_STAGE][defenseStage - MIN_STAGE] =
+                            moves[i].calculateDamage(level[side], type[side], attackCritical,
+                                    type[1 - side], defenseCritical, true);
+                }
+            }
+        }
+    }
+
+    private static int stat(Codeamon codeamon, Stat stat, int stage) {
+        return (int) (codeamon.getUnmodifiedStat(stat) * CodeamonStats.getStageMultiplier(stage));
+    }
+
+    private static long pack(int[] hitPoints, int[][] stages) {
+        long state = ((long) hitPoints[1] << HP_BITS) | hitPoints[0];
+
+        for (int side = 0; side < 2; side++) {
+            for (int i = 0; i < STATS.length; i++) {
+                state = withStage(state, side, i, stages[side][i]);
+            }
+        }
+
+        return state;
+    }
+
+    private static int hitPoints(long state, int side) {
+        return (int) (state >>> (side * HP_BITS)) & HP_MASK;
+    }
+
+    private static long withHitPoints(long state, int side, int hitPoints) {
+        int shift = side * HP_BITS;
+
+        return (state & ~((long) HP_MASK << shift)) | ((long) hitPoints << shift);
+    }
+
+    private static int stage(long state, int side, int stat) {
+        int shift = 2 * HP_BITS + (side * STATS.length + stat) * STAGE_BITS;
+
+        return (int) (state >>> shift & STAGE_MASK) + MIN_STAGE;
+    }
+
+    private static long withStage(long state, int side, int stat, int stage) {
+        int shift = 2 * HP_BITS + (side * STATS.length + stat) * STAGE_BITS;
+
+        return (state & ~((long) STAGE_MASK << shift)) | ((long) (stage - MIN_STAGE) << shift);
+    }
+
+    /**
+     * The unsolved states found while exploring, numbered in the order they were found, with
+     * the chances of moving between them stored in compressed rows.
+     */
+    private static class Graph {
+        private final int maxStates;
+        private final int maxEdges;
+        private long[] states = new long[1024];
+        private double[] constants = new double[1024];
+        private final StateMap indices = new StateMap();
+        private int size;
+        private int[] edgeStart = new int[1025];
+        private int[] edgeTargets = new int[4096];
+        private double[] edgeChances = new double[4096];
+        private int edges;
+
+        /**
+         * Creates an empty graph whose arrays never grow past the solver's budget.
+         *
+         * @param maxStates The most states the graph may hold
+         * @param maxEdges The most edges the graph may hold
+         */
+        private Graph(int maxStates, int maxEdges) {
+            this.maxStates = maxStates;
+            this.maxEdges = maxEdges;
+        }
+
+        private static int grow(int length, int max) {
+            return (int) Math.min(2L * length, Math.max(max, length + 1));
+        }
+
+        private int add(long state) {
+            if (size == states.length) {
+                states = Arrays.copyOf(states, grow(size, maxStates));
+                constants = Arrays.copyOf(constants, states.length);
+            }
+
+            states[size] = state;
+            indices.put(state, size);
+
+            return size++;
+        }
+
+        private int indexOf(long state) {
+            int slot = indices.find(state);
+
+            return slot < 0 ? -1 : (int) indices.values[slot];
+        }
+
+        private void startEdges(int index) {
+            if (index + 1 >= edgeStart.length) {
+                edgeStart = Arrays.copyOf(edgeStart, grow(edgeStart.length, maxStates + 1));
+            }
+
+            edgeStart[index] = edges;
+        }
+
+        private void addEdge(int target, double chance) {
+            if (edges == edgeTargets.length) {
+                edgeTargets = Arrays.copyOf(edgeTargets, grow(edges, maxEdges));
+                edgeChances = Arrays.copyOf(edgeChances, edgeTargets.length);
+            }
+
+            edgeTargets[edges] = target;
+            edgeChances[edges++] = chance;
+        }
+
+        private void endEdges() {
+            edgeStart[size] = edges;
+        }
+    }
+
+    /**
+     * A map from packed states to long values that uses open addressing, so no state or value
+     * needs to be boxed. Packed states are never negative, so -1 marks an empty slot.
+     */
+    private static class StateMap {
+        private static final long EMPTY = -1;
+        private long[] keys = newKeys(1024);
+        private long[] values = new long[1024];
+        private int size;
+
+        private static long[] newKeys(int length) {
+            long[] keys = new long[length];
+            Arrays.fill(keys, EMPTY);
+
+            return keys;
+        }
+
+        private static int slot(long key, int mask) {
+            return (int) ((key * 0x9E3779B97F4A7C15L) >>> 32) & mask;
+        }
+
+        private int find(long key) {
+            int mask = keys.length - 1;
+            int slot = slot(key, mask);
+
+            while (keys[slot] != EMPTY) {
+                if (keys[slot] == key) {
+                    return slot;
+                }
+
+                slot = (slot + 1) & mask;
+            }
+
+            return -1;
+        }
+
+        private void put(long key, long value) {
+            if (size * 2 >= keys.length) {
+                long[] oldKeys = keys;
+                long[] oldValues = values;
+                keys = newKeys(oldKeys.length * 2);
+                values = new long[keys.length];
+                size = 0;
+
+                for (int i = 0; i < oldKeys.length; i++) {
+                    if (oldKeys[i] != EMPTY) {
+                        put(oldKeys[i], oldValues[i]);
+                    }
+                }
+            }
+
+            int mask = keys.length - 1;
+            int slot = slot(key, mask);
+
+            while (keys[slot] != EMPTY && keys[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+
+            if (keys[slot] == EMPTY) {
+                size++;
+            }
+
+            keys[slot] = key;
+            values[slot] = value;
+        }
+    }
+}
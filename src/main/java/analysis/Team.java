@@ -0,0 +1,236 @@
+package analysis;
+
+import codeamon.Codeamon;
+import codeamon.CodeamonFactory;
+import codeamon.MovePolicy;
+import codeamon.RandomMovePolicy;
+import codeamon.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import trainer.Trainer;
+
+/**
+ * A description of a Trainer's party, made up of the type, level, moveset tier and move policy of
+ * each Codeamon. A Team can build any number of fresh, identical Trainers, which lets many copies
+ * of the same matchup be simulated without the battles affecting each other.
+ */
+public class Team {
+    private static final int MAX_PARTY = 6;
+    //the lowest level of each moveset tier, used to create a Codeamon with the right attacks
+    private static final int[] TIER_LEVELS = new int[Codeamon.HIGH_TIER + 1];
+    private final String name;
+    private final Type[] types;
+    private final int[] levels;
+    private final int[] tiers;
+    private final MovePolicy[] policies;
+
+    static {
+        for (int level = 100; level >= 1; level--) {
+            TIER_LEVELS[Codeamon.getMovesetTier(level)] = level;
+        }
+    }
+
+    /**
+     * Creates a Team of Codeamon that have not leveled up since they were created, so each one has
+     * the moveset tier of its level, and that choose their Attacks at random.
+     *
+     * @param name The Trainer's name
+     * @param types The type of each Codeamon in the party
+     * @param levels The level of each Codeamon in the party, in the same order as the types
+     * @throws IllegalArgumentException If the party is empty, has more than 6 Codeamon, or the
+     *                                  number of types and levels differ
+     */
+    public Team(String name, Type[] types, int[] levels) {
+        this(name, types, levels, getMovesetTiers(levels), getRandomPolicies(levels.length));
+    }
+
+    /**
+     * Creates a Team.
+     *
+     * @param name The Trainer's name
+     * @param types The type of each Codeamon in the party
+     * @param levels The level of each Codeamon in the party, in the same order as the types
+     * @param tiers The moveset tier of each Codeamon in the party, in the same order as the types
+     * @param policies The move policy of each Codeamon in the party, in the same order as the
+     *                 types
+     * @throws IllegalArgumentException If the party is empty, has more than 6 Codeamon, the number
+     *                                  of types, levels, tiers and policies differ, a policy is
+     *                                  null, or a tier is above the tier of its Codeamon's level
+     */
+    public Team(String name, Type[] types, int[] levels, int[] tiers, MovePolicy[] policies) {
+        if (types.length != levels.length || types.length != tiers.length
+                || types.length != policies.length) {
+            throw new IllegalArgumentException(
+                    "Each Codeamon needs a type, a level, a moveset tier and a move policy.");
+        } else if (types.length == 0 || types.length > MAX_PARTY) {
+            throw new IllegalArgumentException("A Team must have 1 to 6 Codeamon.");
+        }
+
+        for (int i = 0; i < types.length; i++) {
+            if (policies[i] == null) {
+                throw new IllegalArgumentException("Each Codeamon needs a move policy.");
+            } else if (tiers[i] < Codeamon.LOW_TIER
+                    || tiers[i] > Codeamon.getMovesetTier(levels[i])) {
+                throw new IllegalArgumentException("A level " + levels[i]
+                        + " Codeamon cannot have moveset tier " + tiers[i] + ".");
+            }
+        }
+
+        this.name = name;
+        this.types = types.clone();
+        this.levels = levels.clone();
+        this.tiers = tiers.clone();
+        this.policies = policies.clone();
+    }
+
+    private static int[] getMovesetTiers(int[] levels) {
+        int[] tiers = new int[levels.length];
+
+        for (int i = 0; i < levels.length; i++) {
+            tiers[i] = Codeamon.getMovesetTier(levels[i]);
+        }
+
+        return tiers;
+    }
+
+    private static MovePolicy[] getRandomPolicies(int size) {
+        MovePolicy[] policies = new MovePolicy[size];
+        Arrays.fill(policies, RandomMovePolicy.INSTANCE);
+
+        return policies;
+    }
+
+    /**
+     * Creates a Team from the current party of a Trainer. The type, level, moveset tier and move
+     * policy of each Codeamon are kept, so the Trainers built from the Team battle the same way
+     * but start fully rested.
+     *
+     * @param trainer The Trainer
+     * @return The Team
+     */
+    public static Team fromTrainer(Trainer trainer) {
+        List<Codeamon> party = trainer.getCodeamonParty();
+        Type[] types = new Type[party.size()];
+        int[] levels = new int[party.size()];
+        int[] tiers = new int[party.size()];
+        MovePolicy[] policies = new MovePolicy[party.size()];
+
+        for (int i = 0; i < party.size(); i++) {
+            Codeamon codeamon = party.get(i);
+            types[i] = CodeamonFactory.getSpeciesType(codeamon);
+            levels[i] = codeamon.getLevel();
+            tiers[i] = codeamon.getMovesetTier();
+            policies[i] = codeamon.getMovePolicy();
+        }
+
+        return new Team(trainer.getName(), types, levels, tiers, policies);
+    }
+
+    /**
+     * Parses a Team from a list of Codeamon in the form "Type:level,Type:level", for example
+     * "Fire:50,Water:48".
+     *
+     * @param name The Trainer's name
+     * @param party The list of Codeamon
+     * @return The Team
+     * @throws IllegalArgumentException If the list cannot be parsed
+     */
+    public static Team parse(String name, String party) {
+        String[] members = party.split(",");
+        List<Type> types = new ArrayList<>();
+        int[] levels = new int[members.length];
+
+        for (int i = 0; i < members.length; i++) {
+            String[] parts = members[i].trim().split(":");
+
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Expected Type:level but found " + members[i]);
+            }
+
+            types.add(Type.valueOf(parts[0].trim()));
+            levels[i] = Integer.parseInt(parts[1].trim());
+        }
+
+        return new Team(name, types.toArray(new Type[0]), levels);
+    }
+
+    /**
+     * Gets the Trainer's name.
+     *
+     * @return The name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the number of Codeamon in the party.
+     *
+     * @return The party size
+     */
+    public int getPartySize() {
+        return types.length;
+    }
+
+    /**
+     * Gets the type of a Codeamon in the party.
+     *
+     * @param index The Codeamon's position in the party
+     * @return The type
+     */
+    public Type getType(int index) {
+        return types[index];
+    }
+
+    /**
+     * Gets the level of a Codeamon in the party.
+     *
+     * @param index The Codeamon's position in the party
+     * @return The level
+     */
+    public int getLevel(int index) {
+        return levels[index];
+    }
+
+    /**
+     * Gets the moveset tier of a Codeamon in the party.
+     *
+     * @param index The Codeamon's position in the party
+     * @return LOW_TIER, MID_TIER, or HIGH_TIER
+     */
+    public int getMovesetTier(int index) {
+        return tiers[index];
+    }
+
+    /**
+     * Gets the move policy of a Codeamon in the party.
+     *
+     * @param index The Codeamon's position in the party
+     * @return The move policy
+     */
+    public MovePolicy getMovePolicy(int index) {
+        return policies[index];
+    }
+
+    /**
+     * Builds a new Trainer with a fresh party of Codeamon matching this Team. Each Codeamon is
+     * created at the lowest level of its moveset tier, so it gets that tier's attacks, then brought
+     * up to its level with full Hit Points.
+     *
+     * @return The Trainer
+     */
+    public Trainer build() {
+        Trainer.TrainerBuilder builder = new Trainer.TrainerBuilder(name);
+
+        for (int i = 0; i < types.length; i++) {
+            Codeamon codeamon = CodeamonFactory.createCodeamon(types[i], TIER_LEVELS[tiers[i]]);
+            codeamon.restore(levels[i], Codeamon.getExperienceForLevel(levels[i]),
+                    Integer.MAX_VALUE, 0, 0, 0);
+            codeamon.setMovePolicy(policies[i]);
+            builder.codeamon(codeamon);
+        }
+
+        return builder.build();
+    }
+}
@@ -0,0 +1,193 @@
+package analysis;
+
+import codeamon.BattleRandom;
+import codeamon.Codeamon;
+import event.TurnCountingBattleEventSink;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+import trainer.Trainer;
+import world.Battle;
+
+/**
+ * Estimates the odds of one Team beating another by simulating many independent copies of
+ * their battle in parallel. Every battle is fought between freshly built Trainers and is
+ * completely quiet. The battles are divided into fixed size chunks, and each chunk is given its
+ * own split of the random source before any of them run, so the same seed always produces the
+ * same result no matter how many threads are used.
+ *
+ * <p>
+ *     An estimator can be given a MatchupCache. Matchups that are already in the cache with
+ *     enough battles are answered without simulating anything, and ones with too few battles
+ *     only simulate the battles that are missing.
+ * </p>
+ */
+public class WinProbabilityEstimator {
+    private static final int CHUNK_SIZE = 1024;
+    private static final int DEFAULT_BATTLES = 100000;
+    //mixes the number of cached battles into the seed so topping up a result plays new battles
+    private static final long SEED_MIX = 0x9E3779B97F4A7C15L;
+    private final ForkJoinPool pool;
+    private final MatchupCache cache;
+
+    /**
+     * Creates an estimator that runs on the common fork/join pool.
+     */
+    public WinProbabilityEstimator() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates an estimator that runs on the given pool.
+     *
+     * @param pool The pool to run the battles on
+     */
+    public WinProbabilityEstimator(ForkJoinPool pool) {
+        this(pool, null);
+    }
+
+    /**
+     * Creates an estimator that runs on the given pool and reuses the results in a cache.
+     *
+     * @param pool The pool to run the battles on
+     * @param cache The cache of earlier results, or null to always simulate every battle
+     */
+    public WinProbabilityEstimator(ForkJoinPool pool, MatchupCache cache) {
+        this.pool = pool;
+        this.cache = cache;
+    }
+
+    /**
+     * Simulates a number of battles between two Teams.
+     *
+     * @param one Team One
+     * @param two Team Two
+     * @param battles The number of battles to simulate. Must be at least 1
+     * @param seed The seed for the random source
+     * @return The aggregated result, with Team One's win rate. With a cache, this may include
+     *         more battles than asked for
+     * @throws IllegalArgumentException If battles is less than 1
+     */
+    public MatchupResult estimate(Team one, Team two, int battles, long seed) {
+        if (battles < 1) {
+            throw new IllegalArgumentException("At least one battle must be simulated.");
+        }
+
+        if (cache == null) {
+            return simulate(one, two, battles, seed);
+        }
+
+        MatchupKey key = MatchupKey.of(one, two);
+        MatchupResult cached = cache.get(key);
+
+        if (cached == null) {
+            return cache.merge(key, simulate(one, two, battles, seed));
+        } else if (cached.getBattles() >= battles) {
+            return cached;
+        }
+
+        int missing = (int) (battles - cached.getBattles());
+
+        return cache.merge(key,
+                simulate(one, two, missing, seed + cached.getBattles() * SEED_MIX));
+    }
+
+    /**
+     * Simulates a number of battles between two Teams in parallel.
+     *
+     * @param one Team One
+     * @param two Team Two
+     * @param battles The number of battles to simulate
+     * @param seed The seed for the random source
+     * @return The aggregated result
+     */
+    private MatchupResult simulate(Team one, Team two, int battles, long seed) {
+        int chunks = (battles + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        BattleRandom root = new BattleRandom(seed);
+        BattleRandom[] streams = new BattleRandom[chunks];
+
+        for (int i = 0; i < chunks; i++) {
+            streams[i] = root.split();
+        }
+
+        return pool.submit(() -> IntStream.range(0, chunks).parallel()
+                .mapToObj(i -> runChunk(one, two,
+                        Math.min(CHUNK_SIZE, battles - i * CHUNK_SIZE), streams[i]))
+                .reduce(new MatchupResult(0, 0, 0, 0, 0), MatchupResult::merge)).join();
+    }
+
+    /**
+     * Simulates a chunk of battles one after another on the calling thread.
+     *
+     * @param one Team One
+     * @param two Team Two
+     * @param battles The number of battles in this chunk
+     * @param random The chunk's random source
+     * @return The result of the chunk
+     */
+    private MatchupResult runChunk(Team one, Team two, int battles, BattleRandom random) {
+        TurnCountingBattleEventSink sink = new TurnCountingBattleEventSink();
+        long winsOne = 0;
+        long hitPointsOne = 0;
+        long hitPointsTwo = 0;
+
+        for (int i = 0; i < battles; i++) {
+            Trainer trainerOne = one.build();
+            Trainer trainerTwo = two.build();
+
+            if (Battle.trainerBattle(trainerOne, trainerTwo, sink, random) == trainerOne) {
+                winsOne++;
+            }
+
+            hitPointsOne += remainingHitPoints(trainerOne);
+            hitPointsTwo += remainingHitPoints(trainerTwo);
+        }
+
+        return new MatchupResult(battles, winsOne, sink.getTurns(), hitPointsOne, hitPointsTwo);
+    }
+
+    private static int remainingHitPoints(Trainer trainer) {
+        int total = 0;
+
+        for (Codeamon c : trainer.getCodeamonParty()) {
+            total += c.getCurrentHitPoints();
+        }
+
+        return total;
+    }
+
+    /**
+     * Estimates the odds of one Team beating another from the command line. The Teams are given
+     * as lists of Codeamon in the form "Type:level,Type:level".
+     *
+     * <p>
+     *     Usage: WinProbabilityEstimator teamOne teamTwo [battles] [seed]
+     * </p>
+     *
+     * @param args The two Teams, then optionally the number of battles and the seed
+     */
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            System.out.println("Usage: WinProbabilityEstimator teamOne teamTwo [battles] [seed]");
+            System.out.println("Example: WinProbabilityEstimator Fire:50,Water:50 Grass:55");
+            return;
+        }
+
+        Team one = Team.parse("Team One", args[0]);
+        Team two = Team.parse("Team Two", args[1]);
+        int battles = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_BATTLES;
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : System.nanoTime();
+
+        long start = System.nanoTime();
+        MatchupResult result = new WinProbabilityEstimator().estimate(one, two, battles, seed);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.println("Battles: " + result.getBattles() + " (seed " + seed + ")");
+        System.out.printf("Team One win rate: %.4f (95%% CI %.4f - %.4f)%n", result.getWinRate(),
+                result.getWinRateLower(), result.getWinRateUpper());
+        System.out.printf("Mean turns: %.2f%n", result.getMeanTurns());
+        System.out.printf("Mean Hit Points left: Team One %.1f, Team Two %.1f%n",
+                result.getMeanHitPointsOne(), result.getMeanHitPointsTwo());
+        System.out.printf("Time: %.2fs (%.0f battles per minute)%n", seconds,
+                result.getBattles() / seconds * 60);
+    }
+}
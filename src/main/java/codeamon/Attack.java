@@ -1,6 +1,8 @@
 package codeamon;
 
-import java.util.Random;
+import event.BattleEventSink;
+import event.ConsoleBattleEventSink;
+import metrics.SimulationMetrics;
 
 /**
  * Data structure for a Codeamon's attack. Attacks are created using a Builder Design Pattern.
@@ -274,6 +276,33 @@ public class Attack {
         return (int) (heal * MAX_CHANCE);
     }
 
+    /**
+     * Gets the fraction of the user's Hit Point maximum this attack heals.
+     *
+     * @return The fraction healed, from 0.0 to 1.0
+     */
+    public double getHealFraction() {
+        return heal;
+    }
+
+    /**
+     * Checks if this attack deals damage. Attacks with a power of 1 or less do not.
+     *
+     * @return True if this attack deals damage, false if not
+     */
+    public boolean dealsDamage() {
+        return power > MIN_CHANCE;
+    }
+
+    /**
+     * Checks if this attack heals the user.
+     *
+     * @return True if this attack heals the user, false if not
+     */
+    public boolean heals() {
+        return heal >= MIN_HEAL;
+    }
+
     /**
      * Gets the Stat buffed or debuffed by this attack.
      *
@@ -303,7 +332,7 @@ public class Attack {
     }
 
     /**
-     * Applies the effects of the attack.
+     * Applies the effects of the attack, printing the results to the console.
      *
      * @param user The Codeamon using the attack
      * @param opponent The Codeamon the user if battling
@@ -311,32 +340,48 @@ public class Attack {
      *         changes, otherwise it returns true
      */
     public boolean applyAttack(Codeamon user, Codeamon opponent) {
-        System.out.println(user.getName() + " used " + name + ".");
+        return applyAttack(user, opponent, ConsoleBattleEventSink.INSTANCE, new BattleRandom());
+    }
+
+    /**
+     * Applies the effects of the attack.
+     *
+     * @param user The Codeamon using the attack
+     * @param opponent The Codeamon the user if battling
+     * @param sink The sink that receives the events of the attack
+     * @param random The source of the hit, critical hit and effect rolls
+     * @return False if the attack delas no damage, applies no healing, and applies no stat
+     *         changes, otherwise it returns true
+     */
+    public boolean applyAttack(Codeamon user, Codeamon opponent, BattleEventSink sink,
+                               BattleRandom random) {
+        sink.attackUsed(user, this);
+        SimulationMetrics.get().attackUsed(name, type);
 
         //If Attack deals damage
-        if (power > MIN_CHANCE) {
-            if (applyDamage(user, opponent)) {
+        if (dealsDamage()) {
+            if (applyDamage(user, opponent, sink, random)) {
                 //apply stat changes for damaging moves
                 if (self) {
-                    applyEffect(user);
+                    applyEffect(user, sink, random);
                 } else if (!opponent.isFainted()) {
                     //If the oppoennt didn't faint from the damage, apply any effects to them
-                    applyEffect(opponent);
+                    applyEffect(opponent, sink, random);
                 }
             }
         } else if (self) { //Attack is non-damaging and targets self
-            applyEffect(user);
-            applyHeal(user);
-        } else if (effectChance >= MIN_CHANCE && isHit() && !opponent.isFainted()) {
+            applyEffect(user, sink, random);
+            applyHeal(user, sink);
+        } else if (effectChance >= MIN_CHANCE && isHit(random) && !opponent.isFainted()) {
             //This is a non-damaging move that targets the opponent and it hit
-            applyEffect(opponent);
-            applyHeal(user);
-        } else if (heal >= MIN_HEAL) {
+            applyEffect(opponent, sink, random);
+            applyHeal(user, sink);
+        } else if (heals()) {
             //This is a healing attack with no other effects
-            applyHeal(user);
+            applyHeal(user, sink);
         } else {
             //This attack does nothing
-            System.out.println("But nothing happened!");
+            sink.attackFailed();
             return false;
         }
 
@@ -347,24 +392,27 @@ public class Attack {
      * Applies the effects of the attack to the target.
      *
      * @param target The Codeamon to apply the stat changes to
+     * @param sink The sink that receives the events of the attack
+     * @param random The source of the effect roll
      */
-    private void applyEffect(Codeamon target) {
+    private void applyEffect(Codeamon target, BattleEventSink sink, BattleRandom random) {
         //if event doesn't trigger, no effects applied
-        if (!effectTriggered()) {
+        if (!effectTriggered(random)) {
             return;
         }
 
-        target.applyStatStageChange(stat, stages);
+        target.applyStatStageChange(stat, stages, sink);
     }
 
     /**
      * Applies the effects of a self-healing attack.
      *
      * @param user The user of the attack
+     * @param sink The sink that receives the events of the attack
      */
-    private void applyHeal(Codeamon user) {
-        if (heal >= MIN_HEAL) {
-            user.heal((int) (user.getMaxHitPoints() * heal));
+    private void applyHeal(Codeamon user, BattleEventSink sink) {
+        if (heals()) {
+            user.heal((int) (user.getMaxHitPoints() * heal), sink);
         }
     }
 
@@ -373,71 +421,123 @@ public class Attack {
      *
      * @param user The attacker
      * @param opponent The Codeamon being attacked
+     * @param sink The sink that receives the events of the attack
+     * @param random The source of the hit and critical hit rolls
      * @return True if the attack hit, otherwise false
      */
-    private boolean applyDamage(Codeamon user, Codeamon opponent) {
-        //Check if the attack hit or missed, and display a message if it missed
-        if (!isHit()) {
-            System.out.println("The attack missed!");
+    private boolean applyDamage(Codeamon user, Codeamon opponent, BattleEventSink sink,
+                                BattleRandom random) {
+        //Check if the attack hit or missed, and report it if it missed
+        if (!isHit(random)) {
+            sink.attackMissed();
+            SimulationMetrics.get().attackMissed();
             return false;
         }
 
-        boolean isCrit = isCritical();
+        boolean isCrit = isCritical(random);
+
+        if (isCrit) {
+            sink.criticalHit();
+            SimulationMetrics.get().criticalHit();
+        }
+
+        double multiplier = TypeMatchup.getMultiplier(type, opponent.getType());
+        sink.effectiveness(multiplier);
+
+        if (multiplier > 1) {
+            SimulationMetrics.get().superEffectiveHit();
+        }
+
+        //apply the damage
+        opponent.damage(calculateDamage(user, opponent, isCrit), sink);
+        //apply healing for damaging moves
+        applyHeal(user, sink);
+
+        return true;
+    }
+
+    /**
+     * Calculates the damage this attack deals when it hits. The result does not depend on any
+     * random rolls and nothing is changed, so it can be used to predict an attack's damage.
+     *
+     * @param user The attacker
+     * @param opponent The Codeamon being attacked
+     * @param isCrit True to calculate the damage of a critical hit
+     * @return The damage dealt, which is always at least 1
+     */
+    public int calculateDamage(Codeamon user, Codeamon opponent, boolean isCrit) {
+        if (isCrit) {
+            return calculateDamage(user.getLevel(), user.getType(), user.getAttackCritical(),
+                    opponent.getType(), opponent.getDefenseCritical(), true);
+        }
+
+        return calculateDamage(user.getLevel(), user.getType(), user.getAttackStat(),
+                opponent.getType(), opponent.getDefenseStat(), false);
+    }
+
+    /**
+     * Calculates the damage this attack deals when it hits from the stats that go into the
+     * formula, for callers that track stats outside of a Codeamon. See
+     * calculateDamage(Codeamon, Codeamon, boolean).
+     *
+     * @param level The attacker's level
+     * @param userType The attacker's type
+     * @param attackStat The attacker's Attack, which should be the critical hit Attack for a
+     *                   critical hit
+     * @param opponentType The type of the Codeamon being attacked
+     * @param defenseStat The Defense of the Codeamon being attacked, which should be the critical
+     *                    hit Defense for a critical hit
+     * @param isCrit True to calculate the damage of a critical hit
+     * @return The damage dealt, which is always at least 1
+     */
+    public int calculateDamage(int level, Type userType, int attackStat, Type opponentType,
+                               int defenseStat, boolean isCrit) {
         double crit = 1.0;
-        double damage;
+        double damage = (((2.0 * level / 5.0 + 2.0) * power * attackStat / defenseStat) / 50.0)
+                + 2.0;
 
         if (isCrit) {
-            System.out.println("A Critical Hit!");
-            damage = (((2.0 * user.getLevel() / 5.0 + 2.0) * power * user.getAttackCritical()
-                    / opponent.getDefenseCritical()) / 50.0) + 2.0;
             crit = 1.5;
-        } else {
-            damage = (((2.0 * user.getLevel() / 5.0 + 2.0) * power * user.getAttackStat()
-                    / opponent.getDefenseStat()) / 50.0) + 2.0;
         }
 
         double stab = 1.0;
 
-        if (user.getType() == type) {
+        if (userType == type) {
             stab = 1.5;
         }
 
-        double effective = TypeMatchup.getEffectiveness(type, opponent.getType());
+        double effective = TypeMatchup.getMultiplier(type, opponentType);
 
         //TODO: Weather and weather modifier
         damage *= crit * stab * effective;
 
-        //apply the damage
-        opponent.damage((int) damage);
-        //apply healing for damaging moves
-        applyHeal(user);
-
-        return true;
+        //attacks that deal damage always deal at least 1 damage
+        return Math.max(1, (int) damage);
     }
 
     /**
      * Accuracy check to see if the attack lands.
      *
+     * @param random The source of the roll
      * @return True if the Attack lands, false otherwise
      */
-    private boolean isHit() {
+    private boolean isHit(BattleRandom random) {
         //Attacks with 100% accuracy always hit
         if (accuracy == MAX_CHANCE) {
             return true;
         }
 
-        //Get random number from 0-99, add one, then if it is <= Accuracy, the attack hits
-        Random random = new Random();
-
-        return (random.nextInt(MAX_CHANCE) + 1 <= accuracy);
+        //Get random number from 1-100, then if it is <= Accuracy, the attack hits
+        return random.chance(accuracy);
     }
 
     /**
      * Check to see if a non-damaging effect is applied.
      *
+     * @param random The source of the roll
      * @return True if the effect triggers, false otherwise
      */
-    private boolean effectTriggered() {
+    private boolean effectTriggered(BattleRandom random) {
         //An attack with a 100% effect chance always triggers and one with a 0% chance always fails
         if (effectChance == MAX_CHANCE) {
             return true;
@@ -445,18 +545,17 @@ public class Attack {
             return false;
         }
 
-        //Get random number from 0-99, add one, then if it is <= Effect Chance, the effect triggers
-        Random random = new Random();
-
-        return (random.nextInt(MAX_CHANCE) + 1 <= effectChance);
+        //Get random number from 1-100, then if it is <= Effect Chance, the effect triggers
+        return random.chance(effectChance);
     }
 
     /**
      * Check to see if the attack is a Critical Hit.
      *
+     * @param random The source of the roll
      * @return True if the attack crits, false otherwise
      */
-    private boolean isCritical() {
+    private boolean isCritical(BattleRandom random) {
         //An attack with a 100% crit chance always crits and one with a 0% chance never does
         if (critChance == MAX_CHANCE) {
             return true;
@@ -464,9 +563,7 @@ public class Attack {
             return false;
         }
 
-        //Get random number from 0-99, add one, then if it is <= Crit Chance, it crits
-        Random random = new Random();
-
-        return (random.nextInt(MAX_CHANCE) + 1 <= critChance);
+        //Get random number from 1-100, then if it is <= Crit Chance, it crits
+        return random.chance(critChance);
     }
 }
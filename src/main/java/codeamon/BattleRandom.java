@@ -0,0 +1,165 @@
+package codeamon;
+
+import java.nio.ByteBuffer;
+import java.util.SplittableRandom;
+
+/**
+ * The source of random numbers for Codeamon battles. A single BattleRandom is meant to be created
+ * for a simulation or battle and passed along to everything that needs a random roll, rather than
+ * creating a new Random for each roll. Two BattleRandoms created with the same seed will produce
+ * the same rolls, which makes a run reproducible. A BattleRandom is not thread safe; use split()
+ * to give each battle that runs at the same time its own independent stream.
+ *
+ * <p>
+ *     The rolls are made with the SplitMix64 algorithm, the same one used by SplittableRandom, so
+ *     a seed gives the same rolls as a SplittableRandom with that seed. The generator is kept
+ *     here rather than wrapped so that its state can be saved and restored with a world.
+ * </p>
+ */
+public class BattleRandom {
+    private static final int MAX_CHANCE = 100;
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+    /**
+     * The number of bytes written by writeState().
+     */
+    public static final int STATE_BYTES = 2 * Long.BYTES;
+    private long seed;
+    private final long gamma;
+
+    /**
+     * Creates a BattleRandom with an unpredictable seed.
+     */
+    public BattleRandom() {
+        this(new SplittableRandom().nextLong());
+    }
+
+    /**
+     * Creates a BattleRandom with a fixed seed.
+     *
+     * @param seed The seed
+     */
+    public BattleRandom(long seed) {
+        this(seed, GOLDEN_GAMMA);
+    }
+
+    /**
+     * Creates a BattleRandom from the state of another generator.
+     *
+     * @param seed The current seed
+     * @param gamma The amount the seed is advanced by for each roll. Must be odd
+     */
+    protected BattleRandom(long seed, long gamma) {
+        this.seed = seed;
+        this.gamma = gamma;
+    }
+
+    /**
+     * Gets a random number from 0 (inclusive) to bound (exclusive).
+     *
+     * @param bound The upper bound. Must be greater than 0
+     * @return The random number
+     */
+    public int nextInt(int bound) {
+        if (bound <= 0) {
+            throw new IllegalArgumentException("The bound must be greater than 0.");
+        }
+
+        int r = mix32(nextSeed());
+        int m = bound - 1;
+
+        if ((bound & m) == 0) {
+            return r & m;
+        }
+
+        //reject the values that would make the low results more likely than the high ones
+        for (int u = r >>> 1; u + m - (r = u % bound) < 0; u = mix32(nextSeed()) >>> 1) {
+            continue;
+        }
+
+        return r;
+    }
+
+    /**
+     * Rolls a percent chance. A random number from 1 to 100 is rolled, and the roll succeeds if
+     * it is less than or equal to the chance.
+     *
+     * @param chance The percent chance of success
+     * @return True if the roll succeeded, false otherwise
+     */
+    public boolean chance(int chance) {
+        return nextInt(MAX_CHANCE) + 1 <= chance;
+    }
+
+    /**
+     * Gets a random long value. Useful for seeding other generators.
+     *
+     * @return The random value
+     */
+    public long nextLong() {
+        return mix64(nextSeed());
+    }
+
+    /**
+     * Splits off a new BattleRandom whose rolls are independent of this one. Splitting in the
+     * same order from the same seed always produces the same streams.
+     *
+     * @return The new BattleRandom
+     */
+    public BattleRandom split() {
+        return new BattleRandom(nextLong(), mixGamma(nextSeed()));
+    }
+
+    /**
+     * Writes the current state of this BattleRandom, so that a BattleRandom restored from it with
+     * readState() makes the same rolls from then on.
+     *
+     * @param buffer The buffer to write the STATE_BYTES bytes of state to
+     */
+    public void writeState(ByteBuffer buffer) {
+        buffer.putLong(seed);
+        buffer.putLong(gamma);
+    }
+
+    /**
+     * Restores a BattleRandom from a state written by writeState().
+     *
+     * @param buffer The buffer to read the STATE_BYTES bytes of state from
+     * @return The BattleRandom
+     * @throws IllegalArgumentException If the state is not valid
+     */
+    public static BattleRandom readState(ByteBuffer buffer) {
+        long seed = buffer.getLong();
+        long gamma = buffer.getLong();
+
+        if ((gamma & 1) == 0) {
+            throw new IllegalArgumentException("Invalid random state.");
+        }
+
+        return new BattleRandom(seed, gamma);
+    }
+
+    private long nextSeed() {
+        return seed += gamma;
+    }
+
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    private static int mix32(long z) {
+        z = (z ^ (z >>> 33)) * 0x62a9d9ed799705f5L;
+        return (int) (((z ^ (z >>> 28)) * 0xcb24d0a5c88c35b3L) >>> 32);
+    }
+
+    private static long mixGamma(long z) {
+        z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+        z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        z = (z ^ (z >>> 33)) | 1L;
+
+        //make sure the gamma has enough bit transitions to mix well
+        int n = Long.bitCount(z ^ (z >>> 1));
+        return (n < 24) ? z ^ 0xaaaaaaaaaaaaaaaaL : z;
+    }
+}
@@ -1,7 +1,10 @@
 package codeamon;
 
-import java.util.ArrayList;
-import java.util.Random;
+import event.BattleEventSink;
+import event.ConsoleBattleEventSink;
+import event.NoOpBattleEventSink;
+import java.util.List;
+import metrics.SimulationMetrics;
 
 /**
  * An abstract data structure that represents a Codeamon. Has the methods necessary for getting a
@@ -9,9 +12,35 @@ import java.util.Random;
  * and applying gained EXP.
  */
 public abstract class Codeamon implements Comparable<Codeamon> {
+    /**
+     * The moveset tier of Codeamon created at level 15 or below.
+     */
+    public static final int LOW_TIER = 0;
+    /**
+     * The moveset tier of Codeamon created from level 16 to 30.
+     */
+    public static final int MID_TIER = 1;
+    /**
+     * The moveset tier of Codeamon created above level 30.
+     */
+    public static final int HIGH_TIER = 2;
+    private static final FaintListener[] NO_LISTENERS = new FaintListener[0];
+    private static final int MAX_LEVEL = 100;
+    //the total EXP needed to reach each level, indexed by level
+    private static final int[] EXPERIENCE = new int[MAX_LEVEL + 1];
+
+    static {
+        for (int level = 2; level <= MAX_LEVEL; level++) {
+            EXPERIENCE[level] = level * level * level;
+        }
+    }
+
+    private final int movesetTier;
     private CodeamonStats stats;
     private int level;
     private String nickname;
+    private FaintListener[] faintListeners = NO_LISTENERS;
+    private MovePolicy movePolicy = RandomMovePolicy.INSTANCE;
     int exp;
 
     /**
@@ -26,20 +55,89 @@ public abstract class Codeamon implements Comparable<Codeamon> {
         }
 
         //starting experience points is equals to the minimum number of EXP required to reach
-        //the current level, which is level^3. The exception is level 1 Codeamon, which have 0 EXP.
-        //based on this formula: https://bulbapedia.bulbagarden.net/wiki/Experience#Medium_Fast
-
-        if (level == 1) {
-            exp = 0;
-        } else {
-            exp = (int) Math.pow(level, 3);
-        }
+        //the current level
+        exp = getExperienceForLevel(level);
 
         this.stats = stats;
         this.level = level;
+        movesetTier = getMovesetTier(level);
         nickname = null;
     }
 
+    /**
+     * Gets the total number of EXP required to reach a level, which is level^3. The exception is
+     * level 1, which requires 0 EXP. Levels up to 100 are looked up in a table.
+     * Based on this formula: https://bulbapedia.bulbagarden.net/wiki/Experience#Medium_Fast
+     *
+     * @param level The level
+     * @return The total EXP required
+     */
+    public static int getExperienceForLevel(int level) {
+        if (level <= 1) {
+            return 0;
+        } else if (level > MAX_LEVEL) {
+            return level * level * level;
+        }
+
+        return EXPERIENCE[level];
+    }
+
+    /**
+     * Gets the moveset tier for a level. A Codeamon's attacks are decided by the tier of the
+     * level it was created at.
+     *
+     * @param level The level
+     * @return LOW_TIER, MID_TIER, or HIGH_TIER
+     */
+    public static int getMovesetTier(int level) {
+        if (level <= 15) {
+            return LOW_TIER;
+        } else if (level <= 30) {
+            return MID_TIER;
+        }
+
+        return HIGH_TIER;
+    }
+
+    /**
+     * Gets this Codeamon's moveset tier, which was decided by the level it was created at and
+     * does not change when it levels up.
+     *
+     * @return LOW_TIER, MID_TIER, or HIGH_TIER
+     */
+    public int getMovesetTier() {
+        return movesetTier;
+    }
+
+    /**
+     * Adds a listener that is told whenever this Codeamon faints or recovers from fainting. A
+     * listener added more than once is told once for each time it was added.
+     *
+     * @param listener The listener
+     */
+    public void addFaintListener(FaintListener listener) {
+        FaintListener[] listeners = new FaintListener[faintListeners.length + 1];
+        System.arraycopy(faintListeners, 0, listeners, 0, faintListeners.length);
+        listeners[faintListeners.length] = listener;
+        faintListeners = listeners;
+    }
+
+    /**
+     * Tells the listeners if this Codeamon has fainted or recovered since a change to its Hit
+     * Points.
+     *
+     * @param wasFainted Whether this Codeamon was fainted before the change
+     */
+    private void checkFainted(boolean wasFainted) {
+        boolean fainted = isFainted();
+
+        if (wasFainted != fainted) {
+            for (FaintListener listener : faintListeners) {
+                listener.faintedChanged(this, fainted);
+            }
+        }
+    }
+
     /**
      * Gets this Codeamon's name.
      *
@@ -54,13 +152,44 @@ public abstract class Codeamon implements Comparable<Codeamon> {
     }
 
     /**
-     * Applies stat stage changes to a Stat.
+     * Applies stat stage changes to a Stat, printing the result to the console.
      *
      * @param stat The Stat to apply the changes to
      * @param stages The number of stages to be applied
      */
     public void applyStatStageChange(Stat stat, int stages) {
-        stats.applyStatStageChange(getName(), stat, stages);
+        applyStatStageChange(stat, stages, ConsoleBattleEventSink.INSTANCE);
+    }
+
+    /**
+     * Applies stat stage changes to a Stat.
+     *
+     * @param stat The Stat to apply the changes to
+     * @param stages The number of stages to be applied
+     * @param sink The sink that receives the result of the change
+     */
+    public void applyStatStageChange(Stat stat, int stages, BattleEventSink sink) {
+        stats.applyStatStageChange(getName(), stat, stages, sink);
+    }
+
+    /**
+     * Gets the current stage of one of this Codeamon's Stats.
+     *
+     * @param stat The Stat
+     * @return The stage, ranging from -6 to 6 inclusively
+     */
+    public int getStatStage(Stat stat) {
+        return stats.getStatStage(stat);
+    }
+
+    /**
+     * Gets one of this Codeamon's stats before any stage modifiers are applied.
+     *
+     * @param stat The Stat
+     * @return The unmodified stat
+     */
+    public int getUnmodifiedStat(Stat stat) {
+        return stats.getUnmodifiedStat(stat);
     }
 
     /**
@@ -114,7 +243,19 @@ public abstract class Codeamon implements Comparable<Codeamon> {
      * This Codeamon rests and fully recovers all hit points.
      */
     public void rest() {
+        boolean wasFainted = isFainted();
         stats.rest();
+        checkFainted(wasFainted);
+    }
+
+    /**
+     * Heals the Codeamon by a specified amount, printing the result to the console. If the amount
+     * of healing is 0 or less, the Codeamon will be healed for 1 hit point.
+     *
+     * @param heal The amount of Hit Points to heal
+     */
+    public void heal(int heal) {
+        heal(heal, ConsoleBattleEventSink.INSTANCE);
     }
 
     /**
@@ -122,34 +263,51 @@ public abstract class Codeamon implements Comparable<Codeamon> {
      * Codeamon will be healed for 1 hit point.
      *
      * @param heal The amount of Hit Points to heal
+     * @param sink The sink that receives the healing event
      */
-    public void heal(int heal) {
+    public void heal(int heal, BattleEventSink sink) {
         if (heal < 1) {
             heal = 1;
         }
 
-        System.out.println(getName() + " recovered " + heal + " Hit Points!");
+        sink.healed(this, heal);
 
+        boolean wasFainted = isFainted();
         stats.heal(heal);
+        checkFainted(wasFainted);
     }
 
     /**
-     * Damages the codeamon by the specified amount.
+     * Damages the codeamon by the specified amount, printing the result to the console.
      *
      * @param damage The amount of damage inflicted. If this value is less than 1, the damage dealt
      *               will be 1
      */
     public void damage(int damage) {
+        damage(damage, ConsoleBattleEventSink.INSTANCE);
+    }
+
+    /**
+     * Damages the codeamon by the specified amount.
+     *
+     * @param damage The amount of damage inflicted. If this value is less than 1, the damage dealt
+     *               will be 1
+     * @param sink The sink that receives the damage and faint events
+     */
+    public void damage(int damage, BattleEventSink sink) {
         if (damage < 1) {
             damage = 1;
         }
 
-        System.out.println(getName() + " took " + damage + " damagae!");
+        sink.damaged(this, damage);
 
+        boolean wasFainted = isFainted();
         stats.damage(damage);
+        checkFainted(wasFainted);
 
         if (isFainted()) {
-            System.out.println(getName() + " fainted!");
+            sink.fainted(this);
+            SimulationMetrics.get().fainted();
         }
     }
 
@@ -215,67 +373,204 @@ public abstract class Codeamon implements Comparable<Codeamon> {
     }
 
     /**
-     * This Codeamon attacks another Codeamon. The attack to be used will be chosen at random.
+     * This Codeamon attacks another Codeamon, printing the results to the console. The attack to
+     * be used is chosen by this Codeamon's MovePolicy.
      *
      * @param opponent This Codeamon's opponent
      */
     public void attack(Codeamon opponent) {
-        Attack[] attackArr = getAttacks();
+        attack(opponent, ConsoleBattleEventSink.INSTANCE, new BattleRandom());
+    }
+
+    /**
+     * This Codeamon attacks another Codeamon. The attack to be used is chosen by this Codeamon's
+     * MovePolicy, which chooses at random unless it has been changed.
+     *
+     * @param opponent This Codeamon's opponent
+     * @param sink The sink that receives the events of the attack
+     * @param random The source of the attack choice and the attack's rolls
+     */
+    public void attack(Codeamon opponent, BattleEventSink sink, BattleRandom random) {
+        //Get an attack from the policy and apply it's effect
+        Attack attack = movePolicy.chooseAttack(this, opponent, random);
+
+        attack.applyAttack(this, opponent, sink, random);
+    }
+
+    /**
+     * Gets the policy that chooses this Codeamon's attacks.
+     *
+     * @return The policy
+     */
+    public MovePolicy getMovePolicy() {
+        return movePolicy;
+    }
 
-        //Get a random attack an apply it's effect
-        Random rand = new Random();
-        Attack attack = attackArr[rand.nextInt(attackArr.length)];
+    /**
+     * Sets the policy that chooses this Codeamon's attacks.
+     *
+     * @param movePolicy The policy
+     * @throws IllegalArgumentException If the policy is null
+     */
+    public void setMovePolicy(MovePolicy movePolicy) {
+        if (movePolicy == null) {
+            throw new IllegalArgumentException("A Codeamon must have a move policy.");
+        }
 
-        attack.applyAttack(this, opponent);
+        this.movePolicy = movePolicy;
     }
 
     /**
      * Gets the list of this Codeamon's attacks.
      *
-     * @return An array of this Codeamon's attacks
+     * @return A copy of this Codeamon's attacks, which can be changed without affecting the
+     *         Codeamon
+     */
+    public Attack[] getAttacks() {
+        return getMoveset().clone();
+    }
+
+    /**
+     * Gets the id of this Codeamon's moveset. Every Codeamon of the same species and moveset tier
+     * has the same id, which is the ordinal of the Type CodeamonFactory creates the species from
+     * times 3, plus the tier.
+     *
+     * @return The id, or -1 if the moveset is not one of the species' movesets
+     */
+    public int getMovesetId() {
+        return CodeamonFactory.getMovesetId(getMoveset());
+    }
+
+    /**
+     * Gets the moveset this Codeamon battles with. For the species made by CodeamonFactory this
+     * is one array shared by every Codeamon of the same species and moveset tier, which is how
+     * getMovesetId tells movesets apart, so it must never be modified and is only read by
+     * Codeamon and the move policies.
+     *
+     * @return The moveset
      */
-    public abstract Attack[] getAttacks();
+    protected abstract Attack[] getMoveset();
+
+    /**
+     * Gives experience to the Codeamon in the party of the Trainer that defeated it, printing the
+     * results to the console. Only non-fainted Codeamon can gain experience.
+     *
+     * @param party The Codeamon party of the Trainer who defeated this Codeamon
+     */
+    public void giveExperience(List<Codeamon> party) {
+        giveExperience(party, ConsoleBattleEventSink.INSTANCE);
+    }
 
     /**
      * Gives experience to the Codeamon in the party of the Trainer that defeated it. Only
      * non-fainted Codeamon can gain experience.
      *
      * @param party The Codeamon party of the Trainer who defeated this Codeamon
+     * @param sink The sink that receives the EXP and level up events
      */
-    public void giveExperience(ArrayList<Codeamon> party) {
+    public void giveExperience(List<Codeamon> party, BattleEventSink sink) {
         //loosely based on the equation here:
         //https://bulbapedia.bulbagarden.net/wiki/Experience#Gain_formula
         //All modifiers in that formula are set to 1, and base EXP Yield being used is 150
         int givenExp = 150 * level / 7;
 
-        for (Codeamon c : party) {
+        for (int i = 0; i < party.size(); i++) {
+            Codeamon c = party.get(i);
+
             if (!c.isFainted()) {
-                c.gainExperience(givenExp);
+                c.gainExperience(givenExp, sink);
             }
         }
     }
 
     /**
-     * Gives this Codeamon experience points then checks if it leveled up. The experience points
-     * required to reach a given level is that level to the power of 3. Level 100 Codeamon cannot
-     * gain levels.
+     * Gives this Codeamon experience points then checks if it leveled up, printing the results to
+     * the console. The experience points required to reach a given level is that level to the
+     * power of 3. A large amount of EXP can raise several levels at once. Level 100 Codeamon
+     * cannot gain levels.
      *
      * @param exp The amount of EXP to be gained.
      */
     public void gainExperience(int exp) {
-        if (level == 100) {
+        gainExperience(exp, ConsoleBattleEventSink.INSTANCE);
+    }
+
+    /**
+     * Gives this Codeamon experience points then checks if it leveled up. The experience points
+     * required to reach a given level is that level to the power of 3. A large amount of EXP can
+     * raise several levels at once, in which case the stats are recalculated once for the new
+     * level and a level up is reported for each level gained. Level 100 Codeamon cannot gain
+     * levels.
+     *
+     * @param exp The amount of EXP to be gained.
+     * @param sink The sink that receives the EXP and level up events
+     */
+    public void gainExperience(int exp, BattleEventSink sink) {
+        if (level == MAX_LEVEL) {
             return;
         }
 
-        System.out.println(getName() + " gained " + exp + " EXP Points!");
+        sink.experienceGained(this, exp);
 
         this.exp += exp;
 
-        if (Math.pow(level + 1, 3) <= this.exp) {
+        int oldLevel = level;
+
+        while (level != MAX_LEVEL && getExperienceForLevel(level + 1) <= this.exp) {
             level++;
-            stats.levelUp(level);
-            System.out.println(getName() + " grew to level " + level + "!");
         }
+
+        if (level == oldLevel) {
+            return;
+        }
+
+        boolean wasFainted = isFainted();
+        stats.levelUp(level);
+        checkFainted(wasFainted);
+
+        for (int i = oldLevel + 1; i <= level; i++) {
+            sink.levelUp(this, i);
+        }
+
+        SimulationMetrics.get().leveledUp(level - oldLevel);
+    }
+
+    /**
+     * Restores this Codeamon's level, EXP and condition, such as when a saved world is loaded.
+     * The Codeamon keeps its species and moveset tier, and nothing is reported.
+     *
+     * @param level The level, from 1 to 100
+     * @param exp The total EXP
+     * @param hitPoints The current Hit Points. Values above the level's Hit Point maximum restore
+     *                  full Hit Points
+     * @param attackStage The stage of the Attack stat
+     * @param defenseStage The stage of the Defense stat
+     * @param speedStage The stage of the Speed stat
+     * @throws IllegalArgumentException If the level is not from 1 to 100
+     */
+    public void restore(int level, int exp, int hitPoints, int attackStage, int defenseStage,
+                        int speedStage) {
+        if (level < 1 || level > MAX_LEVEL) {
+            throw new IllegalArgumentException("Invalid level " + level + ".");
+        }
+
+        boolean wasFainted = isFainted();
+        this.level = level;
+        this.exp = exp;
+        stats.levelUp(level);
+        stats.rest();
+
+        if (hitPoints < stats.getMaxHitPoints()) {
+            stats.damage(stats.getMaxHitPoints() - Math.max(hitPoints, 0));
+        }
+
+        stats.applyStatStageChange(getName(), Stat.Attack, attackStage,
+                NoOpBattleEventSink.INSTANCE);
+        stats.applyStatStageChange(getName(), Stat.Defense, defenseStage,
+                NoOpBattleEventSink.INSTANCE);
+        stats.applyStatStageChange(getName(), Stat.Speed, speedStage,
+                NoOpBattleEventSink.INSTANCE);
+        checkFainted(wasFainted);
     }
 
     /**
@@ -1,6 +1,8 @@
 package codeamon;
 
-import java.util.Random;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
 
 /**
  * A Factory Method class for creating a Codeamon. Codeamon can either be created at random or with
@@ -16,6 +18,10 @@ import java.util.Random;
  * </p>
  */
 public class CodeamonFactory {
+    private static final Type[] TYPES = Type.values();
+    private static final int TIERS = Codeamon.HIGH_TIER + 1;
+    private static final int[] TIER_LEVELS = {1, 16, 31};
+
     /**
      * Creates a Codeamon with the specified Type and level.
      *
@@ -115,11 +121,79 @@ public class CodeamonFactory {
      * @return A random Codeamon species of the specified level
      */
     public static Codeamon createRandomCodeamon(int level) {
-        Type[] typeList = Type.values();
-        Random rand = new Random();
+        return createRandomCodeamon(level, new BattleRandom());
+    }
 
+    /**
+     * Creates a random Codeamon species with the specified level.
+     *
+     * @param level The Codeamon's level. If this is less than 1, the Codeamon will be level 1. If
+     *              this is greater than 100, it will be level 100.
+     * @param random The source of the species roll
+     * @return A random Codeamon species of the specified level
+     */
+    public static Codeamon createRandomCodeamon(int level, BattleRandom random) {
         //TODO: Add Glitch Codeamon (1 in 1000 odds?)
 
-        return createCodeamon(typeList[rand.nextInt(typeList.length)], level);
+        return createCodeamon(TYPES[random.nextInt(TYPES.length)], level);
+    }
+
+    /**
+     * Gets the Type this factory creates a Codeamon's species from. This is usually the
+     * Codeamon's own type, but a species does not have to have the type it is created from, so
+     * this is the Type to use when a Codeamon needs to be recreated or told apart from other
+     * species.
+     *
+     * @param codeamon The Codeamon
+     * @return The Type to pass to createCodeamon for this species
+     */
+    public static Type getSpeciesType(Codeamon codeamon) {
+        Type type = SpeciesTypes.TYPES.get(codeamon.getClass());
+
+        return type == null ? codeamon.getType() : type;
+    }
+
+    /**
+     * Gets the id of a species' moveset, the ordinal of the Type the species is created from
+     * times 3, plus the moveset tier.
+     *
+     * @param moveset The shared array of Attacks of a species and moveset tier
+     * @return The id, or -1 if the array is not a species' moveset
+     */
+    static int getMovesetId(Attack[] moveset) {
+        Integer id = Movesets.IDS.get(moveset);
+
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * Maps each species' shared moveset arrays to their ids, built the first time they are
+     * needed. Movesets are looked up by the array itself, not by the Attacks in them.
+     */
+    private static class Movesets {
+        private static final IdentityHashMap<Attack[], Integer> IDS = new IdentityHashMap<>();
+
+        static {
+            for (Type type : TYPES) {
+                for (int tier = 0; tier < TIERS; tier++) {
+                    IDS.put(createCodeamon(type, TIER_LEVELS[tier]).getMoveset(),
+                            type.ordinal() * TIERS + tier);
+                }
+            }
+        }
+    }
+
+    /**
+     * Maps each species' class to the Type it is created from, built the first time it is
+     * needed.
+     */
+    private static class SpeciesTypes {
+        private static final Map<Class<? extends Codeamon>, Type> TYPES = new HashMap<>();
+
+        static {
+            for (Type type : Type.values()) {
+                TYPES.put(createCodeamon(type, 1).getClass(), type);
+            }
+        }
     }
 }
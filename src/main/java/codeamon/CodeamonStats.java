@@ -1,5 +1,8 @@
 package codeamon;
 
+import event.BattleEventSink;
+import event.ConsoleBattleEventSink;
+
 /**
  * An abstract data structure that represents a Codeamon's stats. Has the necessary methods for
  * getting a Codeamon's Hit Points, Attack, and Defense stats, inflicting damage, healing damage,
@@ -9,27 +12,46 @@ public abstract class CodeamonStats {
     //current and max hit points must be zero for initial call of setStats() to function
     private int maxHitPoints = 0;
     private int currentHitPoints = 0;
+    private final StatTable table;
     private int attack;
     private int defense;
     private int speed;
     private int attackStage;
     private int defenseStage;
     private int speedStage;
+    //effective stats after stage modifiers, recalculated only when a stat or stage changes
+    private int attackStat;
+    private int defenseStat;
+    private int speedStat;
+    private int attackCritical;
+    private int defenseCritical;
     private static final int MAX_STAGE = 6;
     private static final int MIN_STAGE = -6;
+    //stat multipliers, indexed by stage - MIN_STAGE
+    private static final double[] MODIFIERS = new double[MAX_STAGE - MIN_STAGE + 1];
+
+    static {
+        for (int stage = MIN_STAGE; stage <= MAX_STAGE; stage++) {
+            MODIFIERS[stage - MIN_STAGE] = getModifier(stage);
+        }
+    }
 
     /**
      * Constructs a Stat object based on the Codeamon's level. The stats will be influenced by
-     * the species's Base Stats from the corresponding TypedStat class.
+     * the species's Base Stats from the corresponding TypedStat class, which are looked up in the
+     * species' shared StatTable.
      *
+     * @param table The species' table of stats for each level
      * @param level The Codeamon's level. If this value is less than 1, it will calculate stats
      *              as though it were level 1
      */
-    public CodeamonStats(int level) {
+    public CodeamonStats(StatTable table, int level) {
         if (level < 1) {
             level = 1;
         }
 
+        this.table = table;
+
         setStats(level);
         resetStatStages();
     }
@@ -42,12 +64,25 @@ public abstract class CodeamonStats {
     private void setStats(int level) {
         int damage = maxHitPoints - currentHitPoints;
 
-        maxHitPoints = calculateMaxHitPoints(getBaseHitPoints(), level);
+        maxHitPoints = table.getMaxHitPoints(level);
         currentHitPoints = maxHitPoints - damage;
-        attack = calculateStat(getBaseAttack(), level);
-        defense = calculateStat(getBaseDefense(), level);
-        speed = calculateStat(getBaseSpeed(), level);
+        attack = table.getAttack(level);
+        defense = table.getDefense(level);
+        speed = table.getSpeed(level);
+        updateEffectiveStats();
+    }
 
+    /**
+     * Recalculates the effective stats from the current stats and stages.
+     */
+    private void updateEffectiveStats() {
+        attackStat = (int) (attack * MODIFIERS[attackStage - MIN_STAGE]);
+        defenseStat = (int) (defense * MODIFIERS[defenseStage - MIN_STAGE]);
+        speedStat = (int) (speed * MODIFIERS[speedStage - MIN_STAGE]);
+
+        //crits ignore negative attack changes and positive defense changes
+        attackCritical = attackStage > 0 ? attackStat : attack;
+        defenseCritical = defenseStage > 0 ? defense : defenseStat;
     }
 
     /**
@@ -129,7 +164,7 @@ public abstract class CodeamonStats {
      * @return The Codeamon's Attack after modifiers
      */
     public int getAttackStat() {
-        return (int) (attack * getModifier(attackStage));
+        return attackStat;
     }
 
     /**
@@ -139,11 +174,7 @@ public abstract class CodeamonStats {
      * @return The attack for a crit
      */
     public int getAttackCritical() {
-        if (attackStage > 0) {
-            return getAttackStat();
-        } else {
-            return attack;
-        }
+        return attackCritical;
     }
 
     /**
@@ -152,7 +183,7 @@ public abstract class CodeamonStats {
      * @return The Codeamon's Defense after modifiers
      */
     public int getDefenseStat() {
-        return (int) (defense * getModifier(defenseStage));
+        return defenseStat;
     }
 
     /**
@@ -162,11 +193,7 @@ public abstract class CodeamonStats {
      * @return The defense for a crit
      */
     public int getDefenseCritical() {
-        if (defenseStage > 0) {
-            return defense;
-        } else {
-            return (int) (defense * getModifier(defenseStage));
-        }
+        return defenseCritical;
     }
 
     /**
@@ -175,29 +202,7 @@ public abstract class CodeamonStats {
      * @return The Codeamon's Speed after modifiers
      */
     public int getSpeedStat() {
-        return (int) (speed * getModifier(speedStage));
-    }
-
-    /**
-     * Calculates a Codeamon's maximum hit point stat based on it's current level.
-     *
-     * @param baseHitPoints The Codeamon's base hit point stat
-     * @param level The Codeamon's current level
-     * @return Hit Point Maximum
-     */
-    private int calculateMaxHitPoints(int baseHitPoints, int level) {
-        return (2 * baseHitPoints * level) / 100 + level + 10;
-    }
-
-    /**
-     * Calculates a Codeamon's non-hit point stat based on it's current level.
-     *
-     * @param baseStat The Codeamon's base stat for the stat to calculate
-     * @param level The Codeamon's current level
-     * @return Calculated stat total
-     */
-    private int calculateStat(int baseStat, int level) {
-        return (2 * baseStat * level) / 100 + 5;
+        return speedStat;
     }
 
     /**
@@ -228,6 +233,38 @@ public abstract class CodeamonStats {
      */
     public abstract int getBaseSpeed();
 
+    /**
+     * Gets one of this Codeamon's stats before any stage modifiers are applied.
+     *
+     * @param stat The Stat
+     * @return The unmodified stat
+     */
+    public int getUnmodifiedStat(Stat stat) {
+        if (stat == Stat.Attack) {
+            return attack;
+        } else if (stat == Stat.Defense) {
+            return defense;
+        }
+
+        return speed;
+    }
+
+    /**
+     * Gets the current stage of a Stat.
+     *
+     * @param stat The Stat
+     * @return The stage, ranging from -6 to 6 inclusively
+     */
+    public int getStatStage(Stat stat) {
+        if (stat == Stat.Attack) {
+            return attackStage;
+        } else if (stat == Stat.Defense) {
+            return defenseStage;
+        }
+
+        return speedStage;
+    }
+
     /**
      * Resets the stages of this Codeamon's stats.
      */
@@ -235,96 +272,89 @@ public abstract class CodeamonStats {
         attackStage = 0;
         defenseStage = 0;
         speedStage = 0;
+        updateEffectiveStats();
+    }
+
+    /**
+     * Applies stat stage changes to a Stat, printing the result to the console. A stat's stage
+     * cannot go higher than 6 or less than -6.
+     *
+     * @param name The name of the Codeamon whose stats are changing
+     * @param stat The Stat to apply the changes to
+     * @param stages The number of stages to be applied
+     */
+    public void applyStatStageChange(String name, Stat stat, int stages) {
+        applyStatStageChange(name, stat, stages, ConsoleBattleEventSink.INSTANCE);
     }
 
     /**
      * Applies stat stage changes to a Stat. A stat's stage cannot go higher than 6 or less than
      * -6.
      *
+     * @param name The name of the Codeamon whose stats are changing
      * @param stat The Stat to apply the changes to
      * @param stages The number of stages to be applied
+     * @param sink The sink that receives the result of the change
      */
-    public void applyStatStageChange(String name, Stat stat, int stages) {
+    public void applyStatStageChange(String name, Stat stat, int stages, BattleEventSink sink) {
         //if stages to change is 0
         if (stages == 0) {
-            System.out.println(name + "'s stats were unchanged!");
+            sink.statStageChanged(name, stat, stages, false);
             return;
         }
 
         if (stat == Stat.Attack) {
-            //display a message of how the stages were changed
-            if (stages > 0 && attackStage != MAX_STAGE) {
-                System.out.println(name + "'s Attack increased!");
-            } else if (stages > 0 && attackStage == MAX_STAGE) {
-                System.out.println(name + "'s Attack can't go any higher!");
-                return;
-            } else if (stages < 0 && attackStage != MIN_STAGE) {
-                System.out.println(name + "'s Attack decreased!");
-            } else if (stages < 0 && attackStage == MIN_STAGE) {
-                System.out.println(name + "'s Attack can't go any lower!");
-                return;
-            }
-
-            attackStage += stages;
-
-            //do not let the stages go above or below the max and min
-            if (attackStage > MAX_STAGE) {
-                attackStage = MAX_STAGE;
-            }
-
-            if (attackStage < MIN_STAGE) {
-                attackStage = MIN_STAGE;
-            }
-
+            attackStage = applyStages(name, stat, attackStage, stages, sink);
         } else if (stat == Stat.Defense) {
-            //display a message of how the stages were changed
-            if (stages > 0 && defenseStage != MAX_STAGE) {
-                System.out.println(name + "'s Defense increased!");
-            } else if (stages > 0 && defenseStage == MAX_STAGE) {
-                System.out.println(name + "'s Defense can't go any higher!");
-                return;
-            } else if (stages < 0 && defenseStage != MIN_STAGE) {
-                System.out.println(name + "'s Defense decreased!");
-            } else if (stages < 0 && defenseStage == MIN_STAGE) {
-                System.out.println(name + "'s Defense can't go any lower!");
-                return;
-            }
-
-            defenseStage += stages;
-
-            //do not let the stages go above or below the max and min
-            if (defenseStage > MAX_STAGE) {
-                defenseStage = MAX_STAGE;
-            }
-
-            if (defenseStage < MIN_STAGE) {
-                defenseStage = MIN_STAGE;
-            }
+            defenseStage = applyStages(name, stat, defenseStage, stages, sink);
         } else {
-            //display a message of how the stages were changed
-            if (stages > 0 && speedStage != MAX_STAGE) {
-                System.out.println(name + "'s Speed increased!");
-            } else if (stages > 0 && speedStage == MAX_STAGE) {
-                System.out.println(name + "'s Speed can't go any higher!");
-                return;
-            } else if (stages < 0 && speedStage != MIN_STAGE) {
-                System.out.println(name + "'s Speed decreased!");
-            } else if (stages < 0 && speedStage == MIN_STAGE) {
-                System.out.println(name + "'s Speed can't go any lower!");
-                return;
-            }
-
-            speedStage += stages;
-
-            //do not let the stages go above or below the max and min
-            if (speedStage > MAX_STAGE) {
-                speedStage = MAX_STAGE;
-            }
-
-            if (speedStage < MIN_STAGE) {
-                speedStage = MIN_STAGE;
-            }
+            speedStage = applyStages(name, stat, speedStage, stages, sink);
+        }
+
+        updateEffectiveStats();
+    }
+
+    /**
+     * Applies a number of stages to a single stat's current stage, reporting whether it changed.
+     *
+     * @param name The name of the Codeamon whose stats are changing
+     * @param stat The Stat being changed
+     * @param current The stat's current stage
+     * @param stages The number of stages to be applied
+     * @param sink The sink that receives the result of the change
+     * @return The stat's new stage, which will not go above or below the max and min
+     */
+    private int applyStages(String name, Stat stat, int current, int stages,
+                            BattleEventSink sink) {
+        if ((stages > 0 && current == MAX_STAGE) || (stages < 0 && current == MIN_STAGE)) {
+            sink.statStageChanged(name, stat, stages, true);
+            return current;
+        }
+
+        sink.statStageChanged(name, stat, stages, false);
+
+        current += stages;
+
+        //do not let the stages go above or below the max and min
+        if (current > MAX_STAGE) {
+            current = MAX_STAGE;
         }
+
+        if (current < MIN_STAGE) {
+            current = MIN_STAGE;
+        }
+
+        return current;
+    }
+
+    /**
+     * Gets the multiplier for a stat at a stage.
+     *
+     * @param stage The stat's stage, ranging from -6 to 6 inclusively
+     * @return The multiplier
+     */
+    public static double getStageMultiplier(int stage) {
+        return MODIFIERS[stage - MIN_STAGE];
     }
 
     /**
@@ -336,7 +366,7 @@ public abstract class CodeamonStats {
      * @param stages The stat's stage change level
      * @return The multiplier
      */
-    private double getModifier(int stages) {
+    private static double getModifier(int stages) {
         if (stages < 0) {
             return 2.0 / (2.0 + -1 * stages);
         } else if (stages == 0) {
@@ -6,8 +6,10 @@ package codeamon;
 public class DarkCodeamon extends Codeamon {
     private static final String NAME = "Darkmon";
     private static final Type TYPE = Type.Dark;
-    private Attack[] attacks;
-    private static int MAX_ATTACKS = 4;
+    private static final int MAX_ATTACKS = 4;
+    private static final Attack[][] MOVESETS = {createMoveset(LOW_TIER), createMoveset(MID_TIER),
+            createMoveset(HIGH_TIER)};
+    private final Attack[] attacks;
 
     /**
      * Constructs a Fire Species of Codemon initializing its stats based on its level.
@@ -16,9 +18,20 @@ public class DarkCodeamon extends Codeamon {
      */
     public DarkCodeamon(int level) {
         super(CodeamonStatsFactory.getStats(TYPE, level), level);
-        //Codeamon have different attacks depending on their initial level
-        attacks = new Attack[MAX_ATTACKS];
-        if (level <= 15) {
+        //Codeamon have different attacks depending on their initial level. Every Codeamon of a
+        //species shares the same set of attacks for its level tier
+        attacks = MOVESETS[getMovesetTier()];
+    }
+
+    /**
+     * Creates the attacks this species knows at a level tier.
+     *
+     * @param tier The level tier
+     * @return The attacks
+     */
+    private static Attack[] createMoveset(int tier) {
+        Attack[] attacks = new Attack[MAX_ATTACKS];
+        if (tier == LOW_TIER) {
             attacks[0] = new Attack.AttackBuilder("Pursuit", Type.Dark)
                     .power(40)
                     .build();
@@ -32,7 +45,7 @@ public class DarkCodeamon extends Codeamon {
                     .power(50)
                     .statusEffect(15, Stat.Attack, -1, false)
                     .build();
-        } else if (level <= 30) {
+        } else if (tier == MID_TIER) {
             attacks[0] = new Attack.AttackBuilder("Snarl", Type.Dark)
                     .power(55)
                     .accuracy(95)
@@ -66,6 +79,8 @@ public class DarkCodeamon extends Codeamon {
                     .critChance(70)
                     .build();
         }
+
+        return attacks;
     }
 
     /**
@@ -87,12 +102,12 @@ public class DarkCodeamon extends Codeamon {
     }
 
     /**
-     * Gets the list of this Codeamon's attacks.
+     * Gets the moveset this Codeamon battles with. The array is shared by every Codeamon of this
+     * species and level tier, so it must not be modified.
      *
-     * @return An array of this Codeamon's attacks
+     * @return The moveset
      */
-    public Attack[] getAttacks() {
-        Attack[] copy = attacks;
-        return copy;
+    protected Attack[] getMoveset() {
+        return attacks;
     }
 }
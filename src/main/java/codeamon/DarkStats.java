@@ -8,9 +8,11 @@ public class DarkStats extends CodeamonStats {
     private static final int BASE_ATTACK = 90;
     private static final int BASE_DEFENSE = 120;
     private static final int BASE_SPEED = 60;
+    private static final StatTable TABLE = new StatTable(BASE_HP, BASE_ATTACK, BASE_DEFENSE,
+            BASE_SPEED);
 
     public DarkStats(int level) {
-        super(level);
+        super(TABLE, level);
     }
 
     /**
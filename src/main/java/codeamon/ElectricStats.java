@@ -8,9 +8,11 @@ public class ElectricStats extends CodeamonStats {
     private static final int BASE_ATTACK = 90;
     private static final int BASE_DEFENSE = 80;
     private static final int BASE_SPEED = 110;
+    private static final StatTable TABLE = new StatTable(BASE_HP, BASE_ATTACK, BASE_DEFENSE,
+            BASE_SPEED);
 
     public ElectricStats(int level) {
-        super(level);
+        super(TABLE, level);
     }
 
     /**
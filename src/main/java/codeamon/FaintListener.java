@@ -0,0 +1,15 @@
+package codeamon;
+
+/**
+ * Listens for a Codeamon fainting or recovering from fainting. A Trainer uses this to keep count
+ * of the Codeamon in its party that can still battle without checking each one every turn.
+ */
+public interface FaintListener {
+    /**
+     * Called when a Codeamon faints or recovers from fainting.
+     *
+     * @param codeamon The Codeamon
+     * @param fainted True if the Codeamon has just fainted, false if it has just recovered
+     */
+    void faintedChanged(Codeamon codeamon, boolean fainted);
+}
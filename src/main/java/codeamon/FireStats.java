@@ -8,9 +8,11 @@ public class FireStats extends CodeamonStats {
     private static final int BASE_ATTACK = 85;
     private static final int BASE_DEFENSE = 85;
     private static final int BASE_SPEED = 105;
+    private static final StatTable TABLE = new StatTable(BASE_HP, BASE_ATTACK, BASE_DEFENSE,
+            BASE_SPEED);
 
     public FireStats(int level) {
-        super(level);
+        super(TABLE, level);
     }
 
     /**
@@ -8,9 +8,11 @@ public class GhostStats extends CodeamonStats {
     private static final int BASE_ATTACK = 95;
     private static final int BASE_DEFENSE = 85;
     private static final int BASE_SPEED = 95;
+    private static final StatTable TABLE = new StatTable(BASE_HP, BASE_ATTACK, BASE_DEFENSE,
+            BASE_SPEED);
 
     public GhostStats(int level) {
-        super(level);
+        super(TABLE, level);
     }
 
     /**
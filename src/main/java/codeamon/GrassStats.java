@@ -8,9 +8,11 @@ public class GrassStats extends CodeamonStats {
     private static final int BASE_ATTACK = 65;
     private static final int BASE_DEFENSE = 120;
     private static final int BASE_SPEED = 55;
+    private static final StatTable TABLE = new StatTable(BASE_HP, BASE_ATTACK, BASE_DEFENSE,
+            BASE_SPEED);
 
     public GrassStats(int level) {
-        super(level);
+        super(TABLE, level);
     }
 
     /**
@@ -0,0 +1,186 @@
+package codeamon;
+
+/**
+ * Chooses the Attack with the highest expected damage against the opponent's type. Expected
+ * damage is the damage of a normal hit and a critical hit from Attack.calculateDamage, weighted
+ * by the Attack's critical hit chance and its accuracy. Attacks that deal no damage are worth 0,
+ * and ties go to the Attack listed first. The choice makes no random rolls.
+ *
+ * <p>
+ *     Every species' moveset is scored once, against every defending type, in bands of 10
+ *     levels, and the best Attack of each is kept in a table, so choosing an Attack is a single
+ *     lookup. Each band is scored with both Codeamon at the middle level of the band with their
+ *     unmodified stats, so the choice does not follow stat stages or a difference in level
+ *     between the two Codeamon. A Codeamon whose moveset is not one of the species' movesets is
+ *     scored from its current stats each turn instead.
+ * </p>
+ */
+public class GreedyMovePolicy implements MovePolicy {
+    public static final GreedyMovePolicy INSTANCE = new GreedyMovePolicy();
+    /**
+     * The number of levels in each level band.
+     */
+    public static final int BAND_LEVELS = 10;
+    private static final int MAX_LEVEL = 100;
+    private static final int BANDS = MAX_LEVEL / BAND_LEVELS;
+    private static final int TIERS = Codeamon.HIGH_TIER + 1;
+    private static final int[] TIER_LEVELS = {1, 16, 31};
+    private static final double MAX_CHANCE = 100.0;
+    private static final Type[] TYPES = Type.values();
+
+    @Override
+    public Attack chooseAttack(Codeamon user, Codeamon opponent, BattleRandom random) {
+        Attack[] attacks = user.getMoveset();
+        int moveset = user.getMovesetId();
+
+        if (moveset < 0) {
+            int best = 0;
+            double bestDamage = -1.0;
+
+            for (int i = 0; i < attacks.length; i++) {
+                double damage = getExpectedDamage(attacks[i], user.getLevel(), user.getType(),
+                        user.getAttackStat(), user.getAttackCritical(), opponent.getType(),
+                        opponent.getDefenseStat(), opponent.getDefenseCritical());
+
+                if (damage > bestDamage) {
+                    best = i;
+                    bestDamage = damage;
+                }
+            }
+
+            return attacks[best];
+        }
+
+        return attacks[getBestMove(moveset, user.getLevel(), opponent.getType())];
+    }
+
+    /**
+     * Gets the level band a level is scored in. Levels below 1 are in the first band and levels
+     * above 100 are in the last.
+     *
+     * @param level The level
+     * @return The band, from 0 to 9
+     */
+    public static int getLevelBand(int level) {
+        if (level < 1) {
+            return 0;
+        } else if (level > MAX_LEVEL) {
+            return BANDS - 1;
+        }
+
+        return (level - 1) / BAND_LEVELS;
+    }
+
+    /**
+     * Gets the Attack a species' moveset uses against a type.
+     *
+     * @param moveset The id of the moveset, from Codeamon.getMovesetId
+     * @param level The attacker's level
+     * @param defender The type of the Codeamon being attacked
+     * @return The index of the Attack in the moveset
+     */
+    public static int getBestMove(int moveset, int level, Type defender) {
+        return Tables.BEST_MOVE[getRow(moveset, level, defender)];
+    }
+
+    /**
+     * Gets the expected damage of one of a species' Attacks against a type, as scored in the
+     * table.
+     *
+     * @param moveset The id of the moveset, from Codeamon.getMovesetId
+     * @param move The index of the Attack in the moveset
+     * @param level The attacker's level
+     * @param defender The type of the Codeamon being attacked
+     * @return The expected damage
+     */
+    public static double getExpectedDamage(int moveset, int move, int level, Type defender) {
+        return Tables.EXPECTED_DAMAGE[getRow(moveset, level, defender)][move];
+    }
+
+    private static int getRow(int moveset, int level, Type defender) {
+        return (moveset * TYPES.length + defender.ordinal()) * BANDS + getLevelBand(level);
+    }
+
+    /**
+     * Calculates the expected damage of an Attack: the damage of a normal hit and of a critical
+     * hit, weighted by the chance of a critical hit and then by the chance to hit.
+     *
+     * @param attack The Attack
+     * @param level The attacker's level
+     * @param userType The attacker's type
+     * @param attackStat The attacker's Attack
+     * @param attackCritical The attacker's Attack for a critical hit
+     * @param opponentType The type of the Codeamon being attacked
+     * @param defenseStat The Defense of the Codeamon being attacked
+     * @param defenseCritical The Defense of the Codeamon being attacked for a critical hit
+     * @return The expected damage, or 0 if the Attack deals no damage
+     */
+    private static double getExpectedDamage(Attack attack, int level, Type userType,
+                                            int attackStat, int attackCritical,
+                                            Type opponentType, int defenseStat,
+                                            int defenseCritical) {
+        if (!attack.dealsDamage()) {
+            return 0.0;
+        }
+
+        double crit = attack.getCritChance() / MAX_CHANCE;
+        double normal = attack.calculateDamage(level, userType, attackStat, opponentType,
+                defenseStat, false);
+        double critical = attack.calculateDamage(level, userType, attackCritical, opponentType,
+                defenseCritical, true);
+
+        return attack.getAccuracy() / MAX_CHANCE * ((1.0 - crit) * normal + crit * critical);
+    }
+
+    /**
+     * The expected damage and best Attack of every species' moveset against every type in every
+     * level band, built the first time they are needed. Rows are indexed by
+     * (moveset * the number of types + defending type) * the number of bands + band, and
+     * movesets by their Codeamon.getMovesetId.
+     */
+    private static class Tables {
+        private static final double[][] EXPECTED_DAMAGE =
+                new double[TYPES.length * TIERS * TYPES.length * BANDS][];
+        private static final byte[] BEST_MOVE = new byte[EXPECTED_DAMAGE.length];
+
+        static {
+            for (Type type : TYPES) {
+                for (int tier = 0; tier < TIERS; tier++) {
+                    //a species' own type decides its stats and STAB, which is not always the
+                    //type it is created from
+                    Codeamon species = CodeamonFactory.createCodeamon(type, TIER_LEVELS[tier]);
+                    int moveset = species.getMovesetId();
+
+                    for (Type defender : TYPES) {
+                        for (int band = 0; band < BANDS; band++) {
+                            scoreRow(species, moveset, defender, band);
+                        }
+                    }
+                }
+            }
+        }
+
+        private static void scoreRow(Codeamon species, int moveset, Type defender, int band) {
+            Attack[] attacks = species.getMoveset();
+            int level = band * BAND_LEVELS + BAND_LEVELS / 2;
+            CodeamonStats user = CodeamonStatsFactory.getStats(species.getType(), level);
+            CodeamonStats opponent = CodeamonStatsFactory.getStats(defender, level);
+            int row = (moveset * TYPES.length + defender.ordinal()) * BANDS + band;
+            double[] damage = new double[attacks.length];
+            int best = 0;
+
+            for (int i = 0; i < attacks.length; i++) {
+                damage[i] = getExpectedDamage(attacks[i], level, species.getType(),
+                        user.getAttackStat(), user.getAttackCritical(), defender,
+                        opponent.getDefenseStat(), opponent.getDefenseCritical());
+
+                if (damage[i] > damage[best]) {
+                    best = i;
+                }
+            }
+
+            EXPECTED_DAMAGE[row] = damage;
+            BEST_MOVE[row] = (byte) best;
+        }
+    }
+}
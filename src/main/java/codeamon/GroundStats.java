@@ -8,9 +8,11 @@ public class GroundStats extends CodeamonStats {
     private static final int BASE_ATTACK = 95;
     private static final int BASE_DEFENSE = 90;
     private static final int BASE_SPEED = 65;
+    private static final StatTable TABLE = new StatTable(BASE_HP, BASE_ATTACK, BASE_DEFENSE,
+            BASE_SPEED);
 
     public GroundStats(int level) {
-        super(level);
+        super(TABLE, level);
     }
 
     /**
@@ -0,0 +1,18 @@
+package codeamon;
+
+/**
+ * Decides which of its Attacks a Codeamon uses each turn. A Codeamon uses the
+ * RandomMovePolicy unless it is given another one.
+ */
+public interface MovePolicy {
+    /**
+     * Chooses the Attack a Codeamon uses against its opponent this turn. The chosen Attack must
+     * be one of the user's Attacks.
+     *
+     * @param user The Codeamon that is attacking
+     * @param opponent The Codeamon being attacked
+     * @param random The source of any rolls the choice needs
+     * @return The Attack to use
+     */
+    Attack chooseAttack(Codeamon user, Codeamon opponent, BattleRandom random);
+}
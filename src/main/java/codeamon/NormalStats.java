@@ -8,9 +8,11 @@ public class NormalStats extends CodeamonStats {
     private static final int BASE_ATTACK = 100;
     private static final int BASE_DEFENSE = 50;
     private static final int BASE_SPEED = 80;
+    private static final StatTable TABLE = new StatTable(BASE_HP, BASE_ATTACK, BASE_DEFENSE,
+            BASE_SPEED);
 
     public NormalStats(int level) {
-        super(level);
+        super(TABLE, level);
     }
 
     /**
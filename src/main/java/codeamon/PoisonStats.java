@@ -8,9 +8,11 @@ public class PoisonStats extends CodeamonStats {
     private static final int BASE_ATTACK = 70;
     private static final int BASE_DEFENSE = 100;
     private static final int BASE_SPEED = 100;
+    private static final StatTable TABLE = new StatTable(BASE_HP, BASE_ATTACK, BASE_DEFENSE,
+            BASE_SPEED);
 
     public PoisonStats(int level) {
-        super(level);
+        super(TABLE, level);
     }
 
     /**
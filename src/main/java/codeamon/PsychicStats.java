@@ -8,9 +8,11 @@ public class PsychicStats extends CodeamonStats {
     private static final int BASE_ATTACK = 100;
     private static final int BASE_DEFENSE = 60;
     private static final int BASE_SPEED = 105;
+    private static final StatTable TABLE = new StatTable(BASE_HP, BASE_ATTACK, BASE_DEFENSE,
+            BASE_SPEED);
 
     public PsychicStats(int level) {
-        super(level);
+        super(TABLE, level);
     }
 
     /**
@@ -0,0 +1,16 @@
+package codeamon;
+
+/**
+ * Chooses one of a Codeamon's Attacks at random, each with the same chance. This is the policy
+ * every Codeamon starts with, and it makes one roll per turn.
+ */
+public class RandomMovePolicy implements MovePolicy {
+    public static final RandomMovePolicy INSTANCE = new RandomMovePolicy();
+
+    @Override
+    public Attack chooseAttack(Codeamon user, Codeamon opponent, BattleRandom random) {
+        Attack[] attacks = user.getMoveset();
+
+        return attacks[random.nextInt(attacks.length)];
+    }
+}
@@ -8,9 +8,11 @@ public class RockStats extends CodeamonStats {
     private static final int BASE_ATTACK = 105;
     private static final int BASE_DEFENSE = 130;
     private static final int BASE_SPEED = 45;
+    private static final StatTable TABLE = new StatTable(BASE_HP, BASE_ATTACK, BASE_DEFENSE,
+            BASE_SPEED);
 
     public RockStats(int level) {
-        super(level);
+        super(TABLE, level);
     }
 
     /**
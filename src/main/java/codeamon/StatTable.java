@@ -0,0 +1,119 @@
+package codeamon;
+
+/**
+ * An immutable table of a species' Hit Point maximum, Attack, Defense and Speed at every level
+ * from 1 to 100, calculated once from its Base Stats. Every Codeamon of a species shares the same
+ * table, so setting a Codeamon's stats when it is created or levels up only reads the table.
+ * Levels above 100 are calculated when they are asked for.
+ */
+public class StatTable {
+    private static final int MAX_LEVEL = 100;
+    private final int baseHitPoints;
+    private final int baseAttack;
+    private final int baseDefense;
+    private final int baseSpeed;
+    private final int[] maxHitPoints = new int[MAX_LEVEL + 1];
+    private final int[] attack = new int[MAX_LEVEL + 1];
+    private final int[] defense = new int[MAX_LEVEL + 1];
+    private final int[] speed = new int[MAX_LEVEL + 1];
+
+    /**
+     * Creates the table for a species.
+     *
+     * @param baseHitPoints The species' Base Hit Point value
+     * @param baseAttack The species' Base Attack value
+     * @param baseDefense The species' Base Defense value
+     * @param baseSpeed The species' Base Speed value
+     */
+    public StatTable(int baseHitPoints, int baseAttack, int baseDefense, int baseSpeed) {
+        this.baseHitPoints = baseHitPoints;
+        this.baseAttack = baseAttack;
+        this.baseDefense = baseDefense;
+        this.baseSpeed = baseSpeed;
+
+        for (int level = 1; level <= MAX_LEVEL; level++) {
+            maxHitPoints[level] = calculateMaxHitPoints(baseHitPoints, level);
+            attack[level] = calculateStat(baseAttack, level);
+            defense[level] = calculateStat(baseDefense, level);
+            speed[level] = calculateStat(baseSpeed, level);
+        }
+    }
+
+    /**
+     * Gets the Hit Point maximum at a level.
+     *
+     * @param level The level. Must be at least 1
+     * @return The Hit Point maximum
+     */
+    public int getMaxHitPoints(int level) {
+        if (level > MAX_LEVEL) {
+            return calculateMaxHitPoints(baseHitPoints, level);
+        }
+
+        return maxHitPoints[level];
+    }
+
+    /**
+     * Gets the Attack stat at a level, before any modifiers.
+     *
+     * @param level The level. Must be at least 1
+     * @return The Attack stat
+     */
+    public int getAttack(int level) {
+        if (level > MAX_LEVEL) {
+            return calculateStat(baseAttack, level);
+        }
+
+        return attack[level];
+    }
+
+    /**
+     * Gets the Defense stat at a level, before any modifiers.
+     *
+     * @param level The level. Must be at least 1
+     * @return The Defense stat
+     */
+    public int getDefense(int level) {
+        if (level > MAX_LEVEL) {
+            return calculateStat(baseDefense, level);
+        }
+
+        return defense[level];
+    }
+
+    /**
+     * Gets the Speed stat at a level, before any modifiers.
+     *
+     * @param level The level. Must be at least 1
+     * @return The Speed stat
+     */
+    public int getSpeed(int level) {
+        if (level > MAX_LEVEL) {
+            return calculateStat(baseSpeed, level);
+        }
+
+        return speed[level];
+    }
+
+    /**
+     * Calculates a Codeamon's maximum hit point stat based on it's current level.
+     *
+     * @param baseHitPoints The Codeamon's base hit point stat
+     * @param level The Codeamon's current level
+     * @return Hit Point Maximum
+     */
+    private static int calculateMaxHitPoints(int baseHitPoints, int level) {
+        return (2 * baseHitPoints * level) / 100 + level + 10;
+    }
+
+    /**
+     * Calculates a Codeamon's non-hit point stat based on it's current level.
+     *
+     * @param baseStat The Codeamon's base stat for the stat to calculate
+     * @param level The Codeamon's current level
+     * @return Calculated stat total
+     */
+    private static int calculateStat(int baseStat, int level) {
+        return (2 * baseStat * level) / 100 + 5;
+    }
+}
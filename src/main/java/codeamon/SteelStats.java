@@ -8,9 +8,11 @@ public class SteelStats extends CodeamonStats {
     private static final int BASE_ATTACK = 105;
     private static final int BASE_DEFENSE = 135;
     private static final int BASE_SPEED = 30;
+    private static final StatTable TABLE = new StatTable(BASE_HP, BASE_ATTACK, BASE_DEFENSE,
+            BASE_SPEED);
 
     public SteelStats(int level) {
-        super(level);
+        super(TABLE, level);
     }
 
     /**
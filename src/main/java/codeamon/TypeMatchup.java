@@ -1,11 +1,15 @@
 package codeamon;
 
+import event.BattleEventSink;
+import event.ConsoleBattleEventSink;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 /**
  * TypeEffectiveness is a class that knows which types are super effective and not very effective
- * against all the other types.
+ * against all the other types. The lists below are compiled once into a flat table, so looking
+ * up a matchup is a single array read.
  */
 public class TypeMatchup {
     //List of types the attack is super effective against.
@@ -66,9 +70,58 @@ public class TypeMatchup {
                                     Type.Steel);
     private static final List<Type> fairyWeak = Arrays.asList(Type.Fire, Type.Poison, Type.Steel);
 
+    //The type chart compiled into a flat table of multipliers. The multiplier for an attack type
+    //against a defending type is at [attack.ordinal() * TYPE_COUNT + defender.ordinal()]
+    private static final int TYPE_COUNT = Type.values().length;
+    private static final double[] CHART = new double[TYPE_COUNT * TYPE_COUNT];
+
+    static {
+        Arrays.fill(CHART, 1.0);
+
+        compile(Type.Normal, Collections.emptyList(), normalWeak);
+        compile(Type.Fire, fireSuper, fireWeak);
+        compile(Type.Water, waterSuper, waterWeak);
+        compile(Type.Grass, grassSuper, grassWeak);
+        compile(Type.Electric, electricSuper, electricWeak);
+        compile(Type.Ice, iceSuper, iceWeak);
+        compile(Type.Fighting, fightingSuper, fightingWeak);
+        compile(Type.Poison, poisonSuper, poisonWeak);
+        compile(Type.Ground, groundSuper, groundWeak);
+        compile(Type.Flying, flyingSuper, flyingWeak);
+        compile(Type.Psychic, psychicSuper, psychicWeak);
+        compile(Type.Bug, bugSuper, bugWeak);
+        compile(Type.Rock, rockSuper, rockWeak);
+        compile(Type.Ghost, ghostSuper, ghostWeak);
+        compile(Type.Dragon, dragonSuper, dragonWeak);
+        compile(Type.Dark, darkSuper, darkWeak);
+        compile(Type.Steel, steelSuper, steelWeak);
+        compile(Type.Fairy, fairySuper, fairyWeak);
+    }
+
+    /**
+     * Writes one attack type's row of the type chart. Super effective matchups take priority
+     * over not very effective ones.
+     *
+     * @param user The attack type
+     * @param superEffective The types the attack is super effective against
+     * @param notVeryEffective The types the attack is not very effective against
+     */
+    private static void compile(Type user, List<Type> superEffective,
+                                List<Type> notVeryEffective) {
+        int row = user.ordinal() * TYPE_COUNT;
+
+        for (Type opponent : notVeryEffective) {
+            CHART[row + opponent.ordinal()] = 0.5;
+        }
+
+        for (Type opponent : superEffective) {
+            CHART[row + opponent.ordinal()] = 2.0;
+        }
+    }
+
     /**
      * Checks the attacking move's type against the target's Codeamon's type returns an appropriate
-     * damage multiplier based on the effectiveness.
+     * damage multiplier based on the effectiveness. The effectiveness is printed to the console.
      *
      * @param user The attack type
      * @param opponent The target's type
@@ -76,126 +129,84 @@ public class TypeMatchup {
      *         or 1.0 otherwise
      */
     public static double getEffectiveness(Type user, Type opponent) {
-        double multiplier = 1.0;
-
-        if (user == Type.Normal) {
-            if (normalWeak.contains(opponent)) {
-                multiplier = 0.5;
-            }
-        } else if (user == Type.Fire) {
-            if (fireSuper.contains(opponent)) {
-                multiplier = 2.0;
-            } else if (fireWeak.contains(opponent)) {
-                multiplier = 0.5;
-            }
-        } else if (user == Type.Water) {
-            if (waterSuper.contains(opponent)) {
-                multiplier = 2.0;
-            } else if (waterWeak.contains(opponent)) {
-                multiplier = 0.5;
-            }
-        } else if (user == Type.Grass) {
-            if (grassSuper.contains(opponent)) {
-                multiplier = 2.0;
-            } else if (grassWeak.contains(opponent)) {
-                multiplier = 0.5;
-            }
-        } else if (user == Type.Electric) {
-            if (electricSuper.contains(opponent)) {
-                multiplier = 2.0;
-            } else if (electricWeak.contains(opponent)) {
-                multiplier = 0.5;
-            }
-        } else if (user == Type.Ice) {
-            if (iceSuper.contains(opponent)) {
-                multiplier = 2.0;
-            } else if (iceWeak.contains(opponent)) {
-                multiplier = 0.5;
-            }
-        } else if (user == Type.Fighting) {
-            if (fightingSuper.contains(opponent)) {
-                multiplier = 2.0;
-            } else if (fightingWeak.contains(opponent)) {
-                multiplier = 0.5;
-            }
-        } else if (user == Type.Poison) {
-            if (poisonSuper.contains(opponent)) {
-                multiplier = 2.0;
-            } else if (poisonWeak.contains(opponent)) {
-                multiplier = 0.5;
-            }
-        } else if (user == Type.Ground) {
-            if (groundSuper.contains(opponent)) {
-                multiplier = 2.0;
-            } else if (groundWeak.contains(opponent)) {
-                multiplier = 0.5;
-            }
-        } else if (user == Type.Flying) {
-            if (flyingSuper.contains(opponent)) {
-                multiplier = 2.0;
-            } else if (flyingWeak.contains(opponent)) {
-                multiplier = 0.5;
-            }
-        } else if (user == Type.Psychic) {
-            if (psychicSuper.contains(opponent)) {
-                multiplier = 2.0;
-            } else if (psychicWeak.contains(opponent)) {
-                multiplier = 0.5;
-            }
-        } else if (user == Type.Bug) {
-            if (bugSuper.contains(opponent)) {
-                multiplier = 2.0;
-            } else if (bugWeak.contains(opponent)) {
-                multiplier = 0.5;
-            }
-        } else if (user == Type.Rock) {
-            if (rockSuper.contains(opponent)) {
-                multiplier = 2.0;
-            } else if (rockWeak.contains(opponent)) {
-                multiplier = 0.5;
-            }
-        } else if (user == Type.Ghost) {
-            if (ghostSuper.contains(opponent)) {
-                multiplier = 2.0;
-            } else if (ghostWeak.contains(opponent)) {
-                multiplier = 0.5;
-            }
-        } else if (user == Type.Dragon) {
-            if (dragonSuper.contains(opponent)) {
-                multiplier = 2.0;
-            } else if (dragonWeak.contains(opponent)) {
-                multiplier = 0.5;
-            }
-        } else if (user == Type.Dark) {
-            if (darkSuper.contains(opponent)) {
-                multiplier = 2.0;
-            } else if (darkWeak.contains(opponent)) {
-                multiplier = 0.5;
-            }
-        } else if (user == Type.Steel) {
-            if (steelSuper.contains(opponent)) {
-                multiplier = 2.0;
-            } else if (steelWeak.contains(opponent)) {
-                multiplier = 0.5;
-            }
-        } else if (user == Type.Fairy) {
-            if (fairySuper.contains(opponent)) {
-                multiplier = 2.0;
-            } else if (fairyWeak.contains(opponent)) {
-                multiplier = 0.5;
-            }
-        }
+        return getEffectiveness(user, opponent, ConsoleBattleEventSink.INSTANCE);
+    }
+
+    /**
+     * Checks the attacking move's type against the target's Codeamon's type returns an appropriate
+     * damage multiplier based on the effectiveness.
+     *
+     * @param user The attack type
+     * @param opponent The target's type
+     * @param sink The sink that receives the effectiveness of the attack
+     * @return 2.0 if the attack is super-effective, 0.5 if the attack is not very effective,
+     *         or 1.0 otherwise
+     */
+    public static double getEffectiveness(Type user, Type opponent, BattleEventSink sink) {
+        double multiplier = getMultiplier(user, opponent);
 
-        message(multiplier);
+        sink.effectiveness(multiplier);
 
         return multiplier;
     }
 
-    private static void message(double multiplier) {
-        if (multiplier == 2.0) {
-            System.out.println("It's super effective!");
-        } else if (multiplier == 0.5) {
-            System.out.println("It's not very effective...");
+    /**
+     * Looks up the damage multiplier for an attack type against a defending type. Unlike
+     * getEffectiveness, this does not report anything.
+     *
+     * @param user The attack type
+     * @param opponent The target's type
+     * @return 2.0 if the attack is super-effective, 0.5 if the attack is not very effective,
+     *         or 1.0 otherwise
+     */
+    public static double getMultiplier(Type user, Type opponent) {
+        return CHART[user.ordinal() * TYPE_COUNT + opponent.ordinal()];
+    }
+
+    /**
+     * Looks up the damage multiplier of each attack in a moveset against a defending type.
+     *
+     * @param attacks The attacks
+     * @param opponent The target's type
+     * @return The multipliers, in the same order as the attacks
+     */
+    public static double[] getMultipliers(Attack[] attacks, Type opponent) {
+        return getMultipliers(attacks, opponent, new double[attacks.length]);
+    }
+
+    /**
+     * Looks up the damage multiplier of each attack in a moveset against a defending type,
+     * writing them into an existing array so that no allocation is needed.
+     *
+     * @param attacks The attacks
+     * @param opponent The target's type
+     * @param multipliers The array to fill. Must be at least as long as attacks
+     * @return The filled array
+     */
+    public static double[] getMultipliers(Attack[] attacks, Type opponent, double[] multipliers) {
+        int column = opponent.ordinal();
+
+        for (int i = 0; i < attacks.length; i++) {
+            multipliers[i] = CHART[attacks[i].getType().ordinal() * TYPE_COUNT + column];
+        }
+
+        return multipliers;
+    }
+
+    /**
+     * Looks up the damage multiplier of every attack type against a defending type.
+     *
+     * @param opponent The target's type
+     * @return The multipliers, indexed by the attack type's ordinal
+     */
+    public static double[] getDefendingMultipliers(Type opponent) {
+        double[] multipliers = new double[TYPE_COUNT];
+        int column = opponent.ordinal();
+
+        for (int i = 0; i < TYPE_COUNT; i++) {
+            multipliers[i] = CHART[i * TYPE_COUNT + column];
         }
+
+        return multipliers;
     }
-}
\ No newline at end of file
+}
@@ -8,9 +8,11 @@ public class WaterStats extends CodeamonStats {
     private static final int BASE_ATTACK = 70;
     private static final int BASE_DEFENSE = 105;
     private static final int BASE_SPEED = 60;
+    private static final StatTable TABLE = new StatTable(BASE_HP, BASE_ATTACK, BASE_DEFENSE,
+            BASE_SPEED);
 
     public WaterStats(int level) {
-        super(level);
+        super(TABLE, level);
     }
 
     /**
@@ -0,0 +1,179 @@
+package event;
+
+import codeamon.Attack;
+import codeamon.Codeamon;
+import codeamon.Stat;
+import trainer.Trainer;
+
+/**
+ * A BattleEventSink receives the events that occur during a Codeamon Battle. Each event is
+ * reported through its own method with the raw values involved, so an implementation that does
+ * not need text never has to build any. The NoOpBattleEventSink discards every event, the
+ * ConsoleBattleEventSink prints the classic battle text, and the BufferedBattleEventSink holds
+ * the same text in memory until it is flushed.
+ */
+public interface BattleEventSink {
+    /**
+     * A Trainer has encountered a Wild Codeamon.
+     *
+     * @param trainer The Trainer
+     * @param wildCodeamon The Wild Codeamon
+     */
+    void wildBattleStarted(Trainer trainer, Codeamon wildCodeamon);
+
+    /**
+     * A battle between two Trainers has begun.
+     *
+     * @param trainerOne The first Trainer
+     * @param trainerTwo The second Trainer
+     */
+    void trainerBattleStarted(Trainer trainerOne, Trainer trainerTwo);
+
+    /**
+     * A Trainer's party has changed, usually because one of their Codeamon fainted.
+     *
+     * @param trainer The Trainer
+     */
+    void partyStatus(Trainer trainer);
+
+    /**
+     * One of the Codeamon in a Trainer battle fainted, changing the state of both parties.
+     *
+     * @param trainerOne The first Trainer
+     * @param trainerTwo The second Trainer
+     */
+    void partiesChanged(Trainer trainerOne, Trainer trainerTwo);
+
+    /**
+     * A Trainer sent a Codeamon into battle.
+     *
+     * @param trainer The Trainer
+     * @param codeamon The Codeamon sent out
+     */
+    void sentOut(Trainer trainer, Codeamon codeamon);
+
+    /**
+     * The state of a Codeamon at the start of a turn.
+     *
+     * @param trainer The Codeamon's Trainer, or null if it is a Wild Codeamon
+     * @param codeamon The Codeamon
+     */
+    void battleStatus(Trainer trainer, Codeamon codeamon);
+
+    /**
+     * A turn of the battle has ended.
+     */
+    void turnEnded();
+
+    /**
+     * A defeated Wild Codeamon joined the Trainer's party.
+     *
+     * @param trainer The Trainer
+     * @param wildCodeamon The Wild Codeamon
+     */
+    void wildCodeamonJoined(Trainer trainer, Codeamon wildCodeamon);
+
+    /**
+     * A Trainer ran out of usable Codeamon and fled from a Wild Codeamon.
+     *
+     * @param trainer The Trainer
+     * @param wildCodeamon The Wild Codeamon
+     */
+    void trainerFled(Trainer trainer, Codeamon wildCodeamon);
+
+    /**
+     * A Trainer defeated another Trainer.
+     *
+     * @param winner The winning Trainer
+     * @param loser The losing Trainer
+     */
+    void trainerDefeated(Trainer winner, Trainer loser);
+
+    /**
+     * A Trainer paid out CodeaDollars to the Trainer who defeated them.
+     *
+     * @param loser The Trainer paying out
+     * @param winner The Trainer being paid
+     * @param amount The amount of CodeaDollars paid
+     */
+    void payout(Trainer loser, Trainer winner, int amount);
+
+    /**
+     * A Codeamon used an Attack.
+     *
+     * @param user The Codeamon using the Attack
+     * @param attack The Attack
+     */
+    void attackUsed(Codeamon user, Attack attack);
+
+    /**
+     * An Attack had no effect at all.
+     */
+    void attackFailed();
+
+    /**
+     * An Attack missed its target.
+     */
+    void attackMissed();
+
+    /**
+     * An Attack landed a critical hit.
+     */
+    void criticalHit();
+
+    /**
+     * The type effectiveness of a damaging Attack was determined.
+     *
+     * @param multiplier The damage multiplier from the TypeMatchup
+     */
+    void effectiveness(double multiplier);
+
+    /**
+     * A Codeamon took damage.
+     *
+     * @param target The Codeamon that took damage
+     * @param damage The amount of damage taken
+     */
+    void damaged(Codeamon target, int damage);
+
+    /**
+     * A Codeamon fainted.
+     *
+     * @param codeamon The Codeamon that fainted
+     */
+    void fainted(Codeamon codeamon);
+
+    /**
+     * A Codeamon recovered Hit Points.
+     *
+     * @param codeamon The Codeamon that was healed
+     * @param heal The amount of Hit Points recovered
+     */
+    void healed(Codeamon codeamon, int heal);
+
+    /**
+     * A stat stage change was applied to a Codeamon.
+     *
+     * @param name The name of the Codeamon
+     * @param stat The Stat being changed
+     * @param stages The number of stages requested
+     * @param limited True if the stat was already at its limit and could not be changed
+     */
+    void statStageChanged(String name, Stat stat, int stages, boolean limited);
+
+    /**
+     * A Codeamon gained experience points.
+     *
+     * @param codeamon The Codeamon
+     * @param exp The amount of EXP gained
+     */
+    void experienceGained(Codeamon codeamon, int exp);
+
+    /**
+     * A Codeamon grew to a new level.
+     *
+     * @param codeamon The Codeamon
+     * @param level The new level
+     */
+    void levelUp(Codeamon codeamon, int level);
+}
@@ -0,0 +1,73 @@
+package event;
+
+import java.io.PrintStream;
+
+/**
+ * A BattleEventSink that keeps the battle text in memory instead of printing it. The text can be
+ * written out in one go with flushTo(), which lets battles that run at the same time keep their
+ * logs apart and print them in order afterwards.
+ */
+public class BufferedBattleEventSink extends TextBattleEventSink {
+    private static final String NEW_LINE = System.lineSeparator();
+    private final StringBuilder buffer = new StringBuilder();
+
+    /**
+     * Creates a sink that keeps the text of every event.
+     */
+    public BufferedBattleEventSink() {
+    }
+
+    /**
+     * Creates a sink that keeps the text of the events up to a level.
+     *
+     * @param level The most detailed level to keep
+     */
+    public BufferedBattleEventSink(LogLevel level) {
+        super(level);
+    }
+
+    @Override
+    protected void print(String text) {
+        buffer.append(text);
+    }
+
+    @Override
+    protected void println(String text) {
+        buffer.append(text).append(NEW_LINE);
+    }
+
+    @Override
+    protected void println() {
+        buffer.append(NEW_LINE);
+    }
+
+    /**
+     * Gets the battle text held by this sink.
+     *
+     * @return The buffered text
+     */
+    public String getText() {
+        return buffer.toString();
+    }
+
+    /**
+     * Writes the buffered text to a stream and empties the buffer.
+     *
+     * @param out The stream to write to
+     */
+    public void flushTo(PrintStream out) {
+        out.print(buffer);
+        buffer.setLength(0);
+    }
+
+    /**
+     * Hands the buffered text to a LogWriter as one piece and empties the buffer, so the buffer
+     * can be reused for the next battle.
+     *
+     * @param writer The writer to write to
+     */
+    public void flushTo(LogWriter writer) {
+        writer.write(LogLevel.Battle, buffer);
+        buffer.setLength(0);
+    }
+}
@@ -0,0 +1,24 @@
+package event;
+
+/**
+ * A BattleEventSink that prints the battle text straight to the console as each event happens.
+ * This is the sink used whenever no other sink is given.
+ */
+public class ConsoleBattleEventSink extends TextBattleEventSink {
+    public static final ConsoleBattleEventSink INSTANCE = new ConsoleBattleEventSink();
+
+    @Override
+    protected void print(String text) {
+        System.out.print(text);
+    }
+
+    @Override
+    protected void println(String text) {
+        System.out.println(text);
+    }
+
+    @Override
+    protected void println() {
+        System.out.println();
+    }
+}
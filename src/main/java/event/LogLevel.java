@@ -0,0 +1,30 @@
+package event;
+
+/**
+ * How much of a simulation is written to its log. Each level includes everything written at the
+ * levels before it.
+ */
+public enum LogLevel {
+    /**
+     * Only the progress of the Tournament and its winner.
+     */
+    Summary,
+    /**
+     * How each battle starts and ends, and the Trainers resting at night.
+     */
+    Battle,
+    /**
+     * Every turn of every battle.
+     */
+    Turn;
+
+    /**
+     * Checks if text written at a level is included at this level.
+     *
+     * @param level The level the text is written at
+     * @return True if it is included, false if not
+     */
+    public boolean includes(LogLevel level) {
+        return level.ordinal() <= ordinal();
+    }
+}
@@ -0,0 +1,364 @@
+package event;
+
+import java.io.Closeable;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Writes the text of a simulation to the console or a file on a background thread, so the
+ * threads running the simulation never wait on the terminal or the disk. Text is written at a
+ * LogLevel, and anything below the writer's level is dropped before it is copied anywhere.
+ *
+ * <p>
+ *     Text is copied into a buffer taken from a pool and handed to the writer thread over a
+ *     bounded queue, a whole battle at a time when it comes from a BufferedBattleEventSink. The
+ *     writer thread encodes each buffer into a reused byte buffer, writes it, and returns the
+ *     buffer to the pool. A thread only waits if the queue is full, which keeps the text waiting
+ *     to be written bounded when the simulation runs faster than the output. A log file can be
+ *     rotated once it reaches a size: it is renamed with the suffix .1, older files move up one
+ *     number, and the oldest is dropped. Files are only rotated between buffers, so a battle is
+ *     never split across two files.
+ * </p>
+ */
+public class LogWriter implements Closeable {
+    private static final String NEW_LINE = System.lineSeparator();
+    private static final int QUEUE_SIZE = 1024;
+    private static final int BUFFER_SIZE = 1 << 10;
+    //buffers that grew past this are dropped instead of pooled, so one huge battle is not kept
+    private static final int MAX_POOLED_SIZE = 1 << 16;
+    private static final int BYTE_BUFFER_SIZE = 1 << 16;
+    private static final StringBuilder FLUSH = new StringBuilder(0);
+    private static final StringBuilder CLOSE = new StringBuilder(0);
+    private final LogLevel level;
+    private final BlockingQueue<StringBuilder> queue = new ArrayBlockingQueue<>(QUEUE_SIZE);
+    private final BlockingQueue<StringBuilder> pool = new ArrayBlockingQueue<>(QUEUE_SIZE);
+    private final Path file;
+    private final long rotateBytes;
+    private final int keepFiles;
+    private final boolean closeStream;
+    private final Thread thread;
+    private final Object progress = new Object();
+    private OutputStream out;
+    private long fileBytes;
+    private long submitted;
+    private long written;
+    private boolean closed;
+    private volatile IOException error;
+    //only used by the writer thread
+    private final CharsetEncoder encoder;
+    private final ByteBuffer bytes = ByteBuffer.allocate(BYTE_BUFFER_SIZE);
+    private char[] chars = new char[BUFFER_SIZE];
+
+    /**
+     * Creates a writer that writes to a stream, such as System.out, in the platform's default
+     * charset. The stream is flushed but not closed when the writer is closed.
+     *
+     * @param out The stream to write to
+     * @param level The most detailed level to write
+     */
+    public LogWriter(OutputStream out, LogLevel level) {
+        this.level = level;
+        this.out = out;
+        encoder = createEncoder(Charset.defaultCharset());
+        file = null;
+        rotateBytes = 0;
+        keepFiles = 0;
+        closeStream = false;
+        thread = start();
+    }
+
+    /**
+     * Creates a writer that writes to a file in UTF-8, rotating it once it reaches a size. The
+     * file is replaced if it already exists.
+     *
+     * @param file The file to write to
+     * @param rotateBytes The size in bytes at which the file is rotated, or 0 to never rotate
+     * @param keepFiles The number of rotated files to keep
+     * @param level The most detailed level to write
+     * @throws IOException If the file could not be opened
+     * @throws IllegalArgumentException If rotateBytes or keepFiles is negative
+     */
+    public LogWriter(String file, long rotateBytes, int keepFiles, LogLevel level)
+            throws IOException {
+        if (rotateBytes < 0 || keepFiles < 0) {
+            throw new IllegalArgumentException("The rotation size and the number of files to "
+                    + "keep cannot be negative.");
+        }
+
+        this.level = level;
+        this.file = Paths.get(file);
+        this.rotateBytes = rotateBytes;
+        this.keepFiles = keepFiles;
+        closeStream = true;
+        encoder = createEncoder(StandardCharsets.UTF_8);
+        out = new FileOutputStream(file);
+        thread = start();
+    }
+
+    private static CharsetEncoder createEncoder(Charset charset) {
+        //characters the charset cannot hold become '?', the same as PrintStream writes
+        return charset.newEncoder().onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    }
+
+    private Thread start() {
+        Thread writer = new Thread(this::run, "codeamon-log-writer");
+        writer.setDaemon(true);
+        writer.start();
+
+        return writer;
+    }
+
+    /**
+     * Gets the most detailed level this writer writes.
+     *
+     * @return The level
+     */
+    public LogLevel getLevel() {
+        return level;
+    }
+
+    /**
+     * Checks if text written at a level is written by this writer.
+     *
+     * @param level The level of the text
+     * @return True if it is written, false if it is dropped
+     */
+    public boolean isEnabled(LogLevel level) {
+        return this.level.includes(level);
+    }
+
+    /**
+     * Writes a line of text.
+     *
+     * @param level The level of the line
+     * @param line The line, without its line separator
+     */
+    public void println(LogLevel level, String line) {
+        if (isEnabled(level)) {
+            StringBuilder buffer = takeBuffer();
+            buffer.append(line).append(NEW_LINE);
+            submit(buffer);
+        }
+    }
+
+    /**
+     * Writes a piece of text. The text is copied before this returns, so its buffer can be reused
+     * straight away.
+     *
+     * @param level The level of the text
+     * @param text The text
+     */
+    public void write(LogLevel level, CharSequence text) {
+        if (isEnabled(level) && text.length() > 0) {
+            StringBuilder buffer = takeBuffer();
+            buffer.append(text);
+            submit(buffer);
+        }
+    }
+
+    private StringBuilder takeBuffer() {
+        StringBuilder buffer = pool.poll();
+
+        return buffer == null ? new StringBuilder(BUFFER_SIZE) : buffer;
+    }
+
+    /**
+     * Hands a buffer to the writer thread, waiting if the queue is full.
+     *
+     * @param buffer The buffer
+     * @return The number of buffers handed over so far, including this one
+     */
+    private synchronized long submit(StringBuilder buffer) {
+        if (closed) {
+            throw new IllegalStateException("The log writer is closed.");
+        }
+
+        try {
+            queue.put(buffer);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting to write to the log.", e);
+        }
+
+        return ++submitted;
+    }
+
+    /**
+     * Waits until everything written so far has been written out and the output flushed.
+     *
+     * @throws IOException If the writer thread failed to write
+     */
+    public void flush() throws IOException {
+        waitFor(submit(FLUSH));
+    }
+
+    private void waitFor(long count) throws IOException {
+        synchronized (progress) {
+            while (written < count && thread.isAlive()) {
+                try {
+                    progress.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("Interrupted while waiting for the log.", e);
+                }
+            }
+        }
+
+        if (error != null) {
+            throw new IOException("The log could not be written.", error);
+        }
+    }
+
+    /**
+     * Writes out everything written so far, then stops the writer thread and closes the file.
+     *
+     * @throws IOException If the writer thread failed to write or the file could not be closed
+     */
+    @Override
+    public void close() throws IOException {
+        long count;
+
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+
+            count = submit(CLOSE);
+            closed = true;
+        }
+
+        waitFor(count);
+    }
+
+    private void run() {
+        boolean running = true;
+
+        while (running) {
+            StringBuilder buffer;
+
+            try {
+                buffer = queue.take();
+            } catch (InterruptedException e) {
+                //nothing else interrupts this thread, so keep going until told to close
+                continue;
+            }
+
+            try {
+                if (buffer == CLOSE) {
+                    out.flush();
+
+                    if (closeStream) {
+                        out.close();
+                    }
+                } else if (error == null) {
+                    writeBuffer(buffer);
+
+                    //flush whenever the queue runs dry, so the console keeps up when idle
+                    if (buffer == FLUSH || queue.isEmpty()) {
+                        out.flush();
+                    }
+                }
+            } catch (IOException e) {
+                //keep taking buffers so the simulation is never left waiting on a full queue
+                if (error == null) {
+                    error = e;
+                }
+            }
+
+            if (buffer == CLOSE) {
+                running = false;
+            } else if (buffer != FLUSH && buffer.capacity() <= MAX_POOLED_SIZE) {
+                buffer.setLength(0);
+                pool.offer(buffer);
+            }
+
+            synchronized (progress) {
+                written++;
+                progress.notifyAll();
+            }
+        }
+    }
+
+    private void writeBuffer(StringBuilder buffer) throws IOException {
+        int length = buffer.length();
+
+        if (length == 0) {
+            return;
+        }
+
+        if (chars.length < length) {
+            chars = new char[Math.max(chars.length * 2, length)];
+        }
+
+        buffer.getChars(0, length, chars, 0);
+
+        CharBuffer input = CharBuffer.wrap(chars, 0, length);
+        encoder.reset();
+
+        while (encoder.encode(input, bytes, true) == CoderResult.OVERFLOW) {
+            drain();
+        }
+
+        while (encoder.flush(bytes) == CoderResult.OVERFLOW) {
+            drain();
+        }
+
+        drain();
+
+        if (rotateBytes > 0 && fileBytes >= rotateBytes) {
+            rotate();
+        }
+    }
+
+    private void drain() throws IOException {
+        out.write(bytes.array(), 0, bytes.position());
+        fileBytes += bytes.position();
+        bytes.clear();
+    }
+
+    /**
+     * Closes the log file, moves it and the files rotated before it up one number, and opens a
+     * new file in its place.
+     *
+     * @throws IOException If the files could not be moved or the new file could not be opened
+     */
+    private void rotate() throws IOException {
+        out.close();
+
+        if (keepFiles == 0) {
+            Files.deleteIfExists(file);
+        } else {
+            for (int i = keepFiles - 1; i >= 1; i--) {
+                Path older = getRotatedFile(i);
+
+                if (Files.exists(older)) {
+                    Files.move(older, getRotatedFile(i + 1), StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+
+            Files.move(file, getRotatedFile(1), StandardCopyOption.REPLACE_EXISTING);
+        }
+
+        out = new FileOutputStream(file.toFile());
+        fileBytes = 0;
+    }
+
+    private Path getRotatedFile(int number) {
+        return file.resolveSibling(file.getFileName() + "." + number);
+    }
+}
@@ -0,0 +1,102 @@
+package event;
+
+import codeamon.Attack;
+import codeamon.Codeamon;
+import codeamon.Stat;
+import trainer.Trainer;
+
+/**
+ * A BattleEventSink that ignores every event. Used for quiet runs where only the outcome of a
+ * battle matters.
+ */
+public class NoOpBattleEventSink implements BattleEventSink {
+    public static final NoOpBattleEventSink INSTANCE = new NoOpBattleEventSink();
+
+    @Override
+    public void wildBattleStarted(Trainer trainer, Codeamon wildCodeamon) {
+    }
+
+    @Override
+    public void trainerBattleStarted(Trainer trainerOne, Trainer trainerTwo) {
+    }
+
+    @Override
+    public void partyStatus(Trainer trainer) {
+    }
+
+    @Override
+    public void partiesChanged(Trainer trainerOne, Trainer trainerTwo) {
+    }
+
+    @Override
+    public void sentOut(Trainer trainer, Codeamon codeamon) {
+    }
+
+    @Override
+    public void battleStatus(Trainer trainer, Codeamon codeamon) {
+    }
+
+    @Override
+    public void turnEnded() {
+    }
+
+    @Override
+    public void wildCodeamonJoined(Trainer trainer, Codeamon wildCodeamon) {
+    }
+
+    @Override
+    public void trainerFled(Trainer trainer, Codeamon wildCodeamon) {
+    }
+
+    @Override
+    public void trainerDefeated(Trainer winner, Trainer loser) {
+    }
+
+    @Override
+    public void payout(Trainer loser, Trainer winner, int amount) {
+    }
+
+    @Override
+    public void attackUsed(Codeamon user, Attack attack) {
+    }
+
+    @Override
+    public void attackFailed() {
+    }
+
+    @Override
+    public void attackMissed() {
+    }
+
+    @Override
+    public void criticalHit() {
+    }
+
+    @Override
+    public void effectiveness(double multiplier) {
+    }
+
+    @Override
+    public void damaged(Codeamon target, int damage) {
+    }
+
+    @Override
+    public void fainted(Codeamon codeamon) {
+    }
+
+    @Override
+    public void healed(Codeamon codeamon, int heal) {
+    }
+
+    @Override
+    public void statStageChanged(String name, Stat stat, int stages, boolean limited) {
+    }
+
+    @Override
+    public void experienceGained(Codeamon codeamon, int exp) {
+    }
+
+    @Override
+    public void levelUp(Codeamon codeamon, int level) {
+    }
+}
@@ -0,0 +1,297 @@
+package event;
+
+import codeamon.Attack;
+import codeamon.Codeamon;
+import codeamon.Stat;
+import trainer.Trainer;
+
+/**
+ * A BattleEventSink that turns each battle event into the classic lines of battle text. Where
+ * the text ends up is decided by the subclass. How a battle starts and ends is written at
+ * LogLevel.Battle and everything in between at LogLevel.Turn, and events above the sink's level
+ * are skipped before any text is built for them.
+ */
+public abstract class TextBattleEventSink implements BattleEventSink {
+    private final boolean turns;
+    private final boolean battles;
+
+    /**
+     * Creates a sink that writes every event.
+     */
+    protected TextBattleEventSink() {
+        this(LogLevel.Turn);
+    }
+
+    /**
+     * Creates a sink that writes the events up to a level.
+     *
+     * @param level The most detailed level to write
+     */
+    protected TextBattleEventSink(LogLevel level) {
+        turns = level.includes(LogLevel.Turn);
+        battles = level.includes(LogLevel.Battle);
+    }
+
+    /**
+     * Writes a piece of text without ending the line.
+     *
+     * @param text The text to write
+     */
+    protected abstract void print(String text);
+
+    /**
+     * Writes a line of text.
+     *
+     * @param text The text to write
+     */
+    protected abstract void println(String text);
+
+    /**
+     * Writes an empty line.
+     */
+    protected void println() {
+        println("");
+    }
+
+    @Override
+    public void wildBattleStarted(Trainer trainer, Codeamon wildCodeamon) {
+        if (!battles) {
+            return;
+        }
+
+        println("A wild " + wildCodeamon.getName() + " appeared!");
+        printPartyStatus(trainer);
+    }
+
+    @Override
+    public void trainerBattleStarted(Trainer trainerOne, Trainer trainerTwo) {
+        if (!battles) {
+            return;
+        }
+
+        println("The Battle Between " + trainerOne.getName() + " and "
+                + trainerTwo.getName() + " is now underway!");
+        printPartyStatus(trainerOne);
+        printPartyStatus(trainerTwo);
+    }
+
+    @Override
+    public void partyStatus(Trainer trainer) {
+        if (turns) {
+            printPartyStatus(trainer);
+        }
+    }
+
+    private void printPartyStatus(Trainer trainer) {
+        StringBuilder status = new StringBuilder(trainer.getName()).append(": ");
+
+        for (Codeamon c : trainer.getCodeamonParty()) {
+            if (c.isFainted()) {
+                status.append('X');
+            } else {
+                status.append('O');
+            }
+        }
+
+        println(status.toString());
+    }
+
+    @Override
+    public void partiesChanged(Trainer trainerOne, Trainer trainerTwo) {
+        if (!turns) {
+            return;
+        }
+
+        println();
+        printPartyStatus(trainerOne);
+        printPartyStatus(trainerTwo);
+    }
+
+    @Override
+    public void sentOut(Trainer trainer, Codeamon codeamon) {
+        if (!turns) {
+            return;
+        }
+
+        println(trainer.getName() + " sent out " + codeamon.getName() + "!");
+    }
+
+    @Override
+    public void battleStatus(Trainer trainer, Codeamon codeamon) {
+        if (!turns) {
+            return;
+        }
+
+        if (trainer == null) {
+            print("Wild ");
+        } else {
+            print(trainer.getName() + "'s ");
+        }
+
+        println(codeamon.getName() + ":");
+        println("Level: " + codeamon.getLevel());
+        println("HP: " + codeamon.getCurrentHitPoints() + "/" + codeamon.getMaxHitPoints()
+                + " HP");
+    }
+
+    @Override
+    public void turnEnded() {
+        if (!turns) {
+            return;
+        }
+
+        println();
+    }
+
+    @Override
+    public void wildCodeamonJoined(Trainer trainer, Codeamon wildCodeamon) {
+        if (!battles) {
+            return;
+        }
+
+        println("The Wild " + wildCodeamon.getName() + " joined " + trainer.getName()
+                + "'s party!");
+    }
+
+    @Override
+    public void trainerFled(Trainer trainer, Codeamon wildCodeamon) {
+        if (!battles) {
+            return;
+        }
+
+        printPartyStatus(trainer);
+        println(trainer.getName() + " is out of usable Codeamon!");
+        println(trainer.getName() + " fled from the Wild " + wildCodeamon.getName() + "!");
+    }
+
+    @Override
+    public void trainerDefeated(Trainer winner, Trainer loser) {
+        if (!battles) {
+            return;
+        }
+
+        println(winner.getName() + " defeated " + loser.getName() + "!");
+    }
+
+    @Override
+    public void payout(Trainer loser, Trainer winner, int amount) {
+        if (!battles) {
+            return;
+        }
+
+        println(loser.getName() + " paid ¢" + amount + " to " + winner.getName() + ".");
+    }
+
+    @Override
+    public void attackUsed(Codeamon user, Attack attack) {
+        if (!turns) {
+            return;
+        }
+
+        println(user.getName() + " used " + attack.getName() + ".");
+    }
+
+    @Override
+    public void attackFailed() {
+        if (!turns) {
+            return;
+        }
+
+        println("But nothing happened!");
+    }
+
+    @Override
+    public void attackMissed() {
+        if (!turns) {
+            return;
+        }
+
+        println("The attack missed!");
+    }
+
+    @Override
+    public void criticalHit() {
+        if (!turns) {
+            return;
+        }
+
+        println("A Critical Hit!");
+    }
+
+    @Override
+    public void effectiveness(double multiplier) {
+        if (!turns) {
+            return;
+        }
+
+        if (multiplier == 2.0) {
+            println("It's super effective!");
+        } else if (multiplier == 0.5) {
+            println("It's not very effective...");
+        }
+    }
+
+    @Override
+    public void damaged(Codeamon target, int damage) {
+        if (!turns) {
+            return;
+        }
+
+        println(target.getName() + " took " + damage + " damagae!");
+    }
+
+    @Override
+    public void fainted(Codeamon codeamon) {
+        if (!turns) {
+            return;
+        }
+
+        println(codeamon.getName() + " fainted!");
+    }
+
+    @Override
+    public void healed(Codeamon codeamon, int heal) {
+        if (!turns) {
+            return;
+        }
+
+        println(codeamon.getName() + " recovered " + heal + " Hit Points!");
+    }
+
+    @Override
+    public void statStageChanged(String name, Stat stat, int stages, boolean limited) {
+        if (!turns) {
+            return;
+        }
+
+        if (stages == 0) {
+            println(name + "'s stats were unchanged!");
+        } else if (stages > 0 && !limited) {
+            println(name + "'s " + stat + " increased!");
+        } else if (stages > 0) {
+            println(name + "'s " + stat + " can't go any higher!");
+        } else if (!limited) {
+            println(name + "'s " + stat + " decreased!");
+        } else {
+            println(name + "'s " + stat + " can't go any lower!");
+        }
+    }
+
+    @Override
+    public void experienceGained(Codeamon codeamon, int exp) {
+        if (!turns) {
+            return;
+        }
+
+        println(codeamon.getName() + " gained " + exp + " EXP Points!");
+    }
+
+    @Override
+    public void levelUp(Codeamon codeamon, int level) {
+        if (!turns) {
+            return;
+        }
+
+        println(codeamon.getName() + " grew to level " + level + "!");
+    }
+}
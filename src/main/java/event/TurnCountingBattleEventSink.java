@@ -0,0 +1,30 @@
+package event;
+
+/**
+ * A quiet BattleEventSink that counts the turns of the battles it is given to. Like the
+ * NoOpBattleEventSink, it ignores every other event.
+ */
+public class TurnCountingBattleEventSink extends NoOpBattleEventSink {
+    private int turns = 0;
+
+    @Override
+    public void turnEnded() {
+        turns++;
+    }
+
+    /**
+     * Gets the number of turns counted since this sink was created or last reset.
+     *
+     * @return The number of turns
+     */
+    public int getTurns() {
+        return turns;
+    }
+
+    /**
+     * Resets the turn count to 0.
+     */
+    public void reset() {
+        turns = 0;
+    }
+}
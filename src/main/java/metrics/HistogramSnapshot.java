@@ -0,0 +1,91 @@
+package metrics;
+
+import java.beans.ConstructorProperties;
+
+/**
+ * A summary of the values recorded by a LongHistogram at one point in time. Percentiles are the
+ * upper bound of the bucket they fall in.
+ */
+public class HistogramSnapshot {
+    private final long count;
+    private final double mean;
+    private final long max;
+    private final long median;
+    private final long percentile90;
+    private final long percentile99;
+
+    /**
+     * Creates a summary.
+     *
+     * @param count The number of values
+     * @param mean The mean value
+     * @param max The highest value
+     * @param median The 50th percentile
+     * @param percentile90 The 90th percentile
+     * @param percentile99 The 99th percentile
+     */
+    @ConstructorProperties({"count", "mean", "max", "median", "percentile90", "percentile99"})
+    public HistogramSnapshot(long count, double mean, long max, long median, long percentile90,
+                             long percentile99) {
+        this.count = count;
+        this.mean = mean;
+        this.max = max;
+        this.median = median;
+        this.percentile90 = percentile90;
+        this.percentile99 = percentile99;
+    }
+
+    /**
+     * Gets the number of values recorded.
+     *
+     * @return The number of values
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Gets the mean of the values recorded.
+     *
+     * @return The mean, or 0 if no values were recorded
+     */
+    public double getMean() {
+        return mean;
+    }
+
+    /**
+     * Gets the highest value recorded.
+     *
+     * @return The highest value, or 0 if no values were recorded
+     */
+    public long getMax() {
+        return max;
+    }
+
+    /**
+     * Gets the 50th percentile of the values recorded.
+     *
+     * @return The median
+     */
+    public long getMedian() {
+        return median;
+    }
+
+    /**
+     * Gets the 90th percentile of the values recorded.
+     *
+     * @return The 90th percentile
+     */
+    public long getPercentile90() {
+        return percentile90;
+    }
+
+    /**
+     * Gets the 99th percentile of the values recorded.
+     *
+     * @return The 99th percentile
+     */
+    public long getPercentile99() {
+        return percentile99;
+    }
+}
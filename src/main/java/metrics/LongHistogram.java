@@ -0,0 +1,119 @@
+package metrics;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A thread safe histogram of non-negative long values, such as durations or turn counts. Values
+ * are counted in buckets that are exact up to 7 and then split every power of two into 8 equal
+ * parts, so a percentile is never more than 12.5% above the true value. Every bucket is its own
+ * LongAdder, so threads recording at the same time do not wait on each other.
+ */
+public class LongHistogram {
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (Long.SIZE - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+    private final LongAdder[] buckets = new LongAdder[BUCKETS];
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Creates an empty histogram.
+     */
+    public LongHistogram() {
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Records a value.
+     *
+     * @param value The value. Negative values are recorded as 0
+     */
+    public void record(long value) {
+        if (value < 0) {
+            value = 0;
+        }
+
+        buckets[getBucket(value)].increment();
+        count.increment();
+        sum.add(value);
+        max.accumulate(value);
+    }
+
+    private static int getBucket(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+
+        //the highest bit picks the power of two and the next three bits pick the part of it
+        int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - SUB_BUCKET_BITS;
+
+        return (shift + 1) * SUB_BUCKETS + (int) ((value >>> shift) & (SUB_BUCKETS - 1));
+    }
+
+    private static long getUpperBound(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+
+        int shift = bucket / SUB_BUCKETS - 1;
+        long lower = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+
+        return lower + (1L << shift) - 1;
+    }
+
+    /**
+     * Gets a summary of the values recorded so far. Values recorded while the summary is taken
+     * may be left out of some of its parts.
+     *
+     * @return The summary
+     */
+    public HistogramSnapshot getSnapshot() {
+        long[] counts = new long[BUCKETS];
+        long total = 0;
+
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets[i].sum();
+            total += counts[i];
+        }
+
+        long highest = max.get();
+
+        return new HistogramSnapshot(total, total == 0 ? 0 : (double) sum.sum() / total,
+                highest, getPercentile(counts, total, 0.5, highest),
+                getPercentile(counts, total, 0.9, highest),
+                getPercentile(counts, total, 0.99, highest));
+    }
+
+    private static long getPercentile(long[] counts, long total, double percentile, long max) {
+        long rank = (long) Math.ceil(total * percentile);
+        long seen = 0;
+
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+
+            if (seen >= rank && seen > 0) {
+                return Math.min(getUpperBound(i), max);
+            }
+        }
+
+        return 0;
+    }
+
+    /**
+     * Clears every recorded value.
+     */
+    public void reset() {
+        for (LongAdder bucket : buckets) {
+            bucket.reset();
+        }
+
+        count.reset();
+        sum.reset();
+        max.reset();
+    }
+}
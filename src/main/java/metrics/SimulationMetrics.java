@@ -0,0 +1,341 @@
+package metrics;
+
+import codeamon.Type;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Live counters and histograms of everything the battle engine does, shared by the whole
+ * process and published over JMX so a long simulation can be watched while it runs. Battle,
+ * Attack, Codeamon, Trainer and Tournament report to it as they go.
+ *
+ * <p>
+ *     Every counter is a LongAdder, which keeps a separate cell for each thread that contends
+ *     on it, so simulations running on many threads do not wait on each other to count. The
+ *     metrics start out disabled, and every report returns straight away until they are
+ *     enabled, so simulations that are not watched do not pay for them. Battles run by the
+ *     ArrayBattleEngine are not counted.
+ * </p>
+ */
+public class SimulationMetrics implements SimulationMetricsMXBean {
+    /**
+     * The name the metrics are registered under with the platform MBeanServer.
+     */
+    public static final String OBJECT_NAME = "codeamon:type=SimulationMetrics";
+    private static final Type[] TYPES = Type.values();
+    private static final SimulationMetrics INSTANCE = new SimulationMetrics();
+    private volatile boolean enabled;
+    private boolean registered;
+    private final LongAdder wildBattles = new LongAdder();
+    private final LongAdder trainerBattles = new LongAdder();
+    private final LongAdder turns = new LongAdder();
+    private final LongAdder attacks = new LongAdder();
+    private final LongAdder[] attacksByType = new LongAdder[TYPES.length];
+    private final Map<String, LongAdder> attacksByName = new ConcurrentHashMap<>();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder criticalHits = new LongAdder();
+    private final LongAdder superEffectiveHits = new LongAdder();
+    private final LongAdder faints = new LongAdder();
+    private final LongAdder levelUps = new LongAdder();
+    private final LongAdder codeaDollars = new LongAdder();
+    private final LongAdder tournamentRounds = new LongAdder();
+    private final LongAdder tournamentMatches = new LongAdder();
+    private final LongHistogram battleDuration = new LongHistogram();
+    private final LongHistogram turnsPerBattle = new LongHistogram();
+
+    private SimulationMetrics() {
+        for (int i = 0; i < TYPES.length; i++) {
+            attacksByType[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Gets the metrics of this process.
+     *
+     * @return The metrics
+     */
+    public static SimulationMetrics get() {
+        return INSTANCE;
+    }
+
+    /**
+     * Enables the metrics and registers them with the platform MBeanServer under OBJECT_NAME,
+     * unless they already are.
+     *
+     * @return The metrics
+     * @throws IllegalStateException If the metrics could not be registered
+     */
+    public static SimulationMetrics register() {
+        synchronized (INSTANCE) {
+            if (!INSTANCE.registered) {
+                MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+
+                try {
+                    server.registerMBean(INSTANCE, new ObjectName(OBJECT_NAME));
+                } catch (JMException e) {
+                    throw new IllegalStateException("The metrics could not be registered.", e);
+                }
+
+                INSTANCE.registered = true;
+            }
+
+            INSTANCE.setEnabled(true);
+        }
+
+        return INSTANCE;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Reports a finished battle.
+     *
+     * @param wild True for a Wild Battle, false for a Trainer battle
+     * @param turns The number of turns the battle took
+     * @param nanos How long the battle took, in nanoseconds
+     */
+    public void battleCompleted(boolean wild, int turns, long nanos) {
+        if (!enabled) {
+            return;
+        }
+
+        if (wild) {
+            wildBattles.increment();
+        } else {
+            trainerBattles.increment();
+        }
+
+        this.turns.add(turns);
+        turnsPerBattle.record(turns);
+        battleDuration.record(TimeUnit.NANOSECONDS.toMicros(nanos));
+    }
+
+    /**
+     * Reports an Attack being used.
+     *
+     * @param name The name of the Attack
+     * @param type The Type of the Attack
+     */
+    public void attackUsed(String name, Type type) {
+        if (!enabled) {
+            return;
+        }
+
+        attacks.increment();
+        attacksByType[type.ordinal()].increment();
+
+        LongAdder count = attacksByName.get(name);
+
+        if (count == null) {
+            count = attacksByName.computeIfAbsent(name, key -> new LongAdder());
+        }
+
+        count.increment();
+    }
+
+    /**
+     * Reports an Attack missing.
+     */
+    public void attackMissed() {
+        if (enabled) {
+            misses.increment();
+        }
+    }
+
+    /**
+     * Reports an Attack landing a critical hit.
+     */
+    public void criticalHit() {
+        if (enabled) {
+            criticalHits.increment();
+        }
+    }
+
+    /**
+     * Reports an Attack landing a super effective hit.
+     */
+    public void superEffectiveHit() {
+        if (enabled) {
+            superEffectiveHits.increment();
+        }
+    }
+
+    /**
+     * Reports a Codeamon fainting.
+     */
+    public void fainted() {
+        if (enabled) {
+            faints.increment();
+        }
+    }
+
+    /**
+     * Reports a Codeamon gaining levels.
+     *
+     * @param levels The number of levels gained
+     */
+    public void leveledUp(int levels) {
+        if (enabled) {
+            levelUps.add(levels);
+        }
+    }
+
+    /**
+     * Reports CodeaDollars being paid from one Trainer to another.
+     *
+     * @param amount The amount paid
+     */
+    public void codeaDollarsTransferred(int amount) {
+        if (enabled) {
+            codeaDollars.add(amount);
+        }
+    }
+
+    /**
+     * Reports a finished round of a Tournament.
+     *
+     * @param matches The number of matches in the round
+     */
+    public void tournamentRoundCompleted(int matches) {
+        if (enabled) {
+            tournamentRounds.increment();
+            tournamentMatches.add(matches);
+        }
+    }
+
+    @Override
+    public long getBattlesCompleted() {
+        return wildBattles.sum() + trainerBattles.sum();
+    }
+
+    @Override
+    public long getWildBattlesCompleted() {
+        return wildBattles.sum();
+    }
+
+    @Override
+    public long getTrainerBattlesCompleted() {
+        return trainerBattles.sum();
+    }
+
+    @Override
+    public long getTurns() {
+        return turns.sum();
+    }
+
+    @Override
+    public long getAttacks() {
+        return attacks.sum();
+    }
+
+    @Override
+    public Map<String, Long> getAttacksByName() {
+        Map<String, Long> counts = new TreeMap<>();
+
+        for (Map.Entry<String, LongAdder> entry : attacksByName.entrySet()) {
+            counts.put(entry.getKey(), entry.getValue().sum());
+        }
+
+        return counts;
+    }
+
+    @Override
+    public Map<String, Long> getAttacksByType() {
+        Map<String, Long> counts = new TreeMap<>();
+
+        for (Type type : TYPES) {
+            counts.put(type.name(), attacksByType[type.ordinal()].sum());
+        }
+
+        return counts;
+    }
+
+    @Override
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    @Override
+    public long getCriticalHits() {
+        return criticalHits.sum();
+    }
+
+    @Override
+    public long getSuperEffectiveHits() {
+        return superEffectiveHits.sum();
+    }
+
+    @Override
+    public long getFaints() {
+        return faints.sum();
+    }
+
+    @Override
+    public long getLevelUps() {
+        return levelUps.sum();
+    }
+
+    @Override
+    public long getCodeaDollarsTransferred() {
+        return codeaDollars.sum();
+    }
+
+    @Override
+    public long getTournamentRounds() {
+        return tournamentRounds.sum();
+    }
+
+    @Override
+    public long getTournamentMatches() {
+        return tournamentMatches.sum();
+    }
+
+    @Override
+    public HistogramSnapshot getBattleDurationMicros() {
+        return battleDuration.getSnapshot();
+    }
+
+    @Override
+    public HistogramSnapshot getTurnsPerBattle() {
+        return turnsPerBattle.getSnapshot();
+    }
+
+    @Override
+    public void reset() {
+        wildBattles.reset();
+        trainerBattles.reset();
+        turns.reset();
+        attacks.reset();
+
+        for (LongAdder count : attacksByType) {
+            count.reset();
+        }
+
+        attacksByName.clear();
+        misses.reset();
+        criticalHits.reset();
+        superEffectiveHits.reset();
+        faints.reset();
+        levelUps.reset();
+        codeaDollars.reset();
+        tournamentRounds.reset();
+        tournamentMatches.reset();
+        battleDuration.reset();
+        turnsPerBattle.reset();
+    }
+}
@@ -0,0 +1,148 @@
+package metrics;
+
+import java.util.Map;
+
+/**
+ * The management interface of SimulationMetrics, which JMX clients such as JConsole and
+ * VisualVM can read while a simulation runs. Counts are totals since the metrics were last
+ * reset.
+ */
+public interface SimulationMetricsMXBean {
+    /**
+     * Gets the number of battles that have finished, both Wild Battles and Trainer battles.
+     *
+     * @return The number of battles
+     */
+    long getBattlesCompleted();
+
+    /**
+     * Gets the number of Wild Battles that have finished.
+     *
+     * @return The number of Wild Battles
+     */
+    long getWildBattlesCompleted();
+
+    /**
+     * Gets the number of Trainer battles that have finished.
+     *
+     * @return The number of Trainer battles
+     */
+    long getTrainerBattlesCompleted();
+
+    /**
+     * Gets the number of turns taken in finished battles.
+     *
+     * @return The number of turns
+     */
+    long getTurns();
+
+    /**
+     * Gets the number of Attacks used.
+     *
+     * @return The number of Attacks
+     */
+    long getAttacks();
+
+    /**
+     * Gets the number of times each Attack was used.
+     *
+     * @return The counts, by the Attack's name
+     */
+    Map<String, Long> getAttacksByName();
+
+    /**
+     * Gets the number of Attacks of each Type used.
+     *
+     * @return The counts, by the name of the Type
+     */
+    Map<String, Long> getAttacksByType();
+
+    /**
+     * Gets the number of Attacks that missed.
+     *
+     * @return The number of misses
+     */
+    long getMisses();
+
+    /**
+     * Gets the number of critical hits landed.
+     *
+     * @return The number of critical hits
+     */
+    long getCriticalHits();
+
+    /**
+     * Gets the number of super effective hits landed.
+     *
+     * @return The number of super effective hits
+     */
+    long getSuperEffectiveHits();
+
+    /**
+     * Gets the number of times a Codeamon fainted.
+     *
+     * @return The number of faints
+     */
+    long getFaints();
+
+    /**
+     * Gets the number of levels gained by Codeamon.
+     *
+     * @return The number of levels
+     */
+    long getLevelUps();
+
+    /**
+     * Gets the total CodeaDollars paid by defeated Trainers to the Trainers who beat them.
+     *
+     * @return The CodeaDollars paid
+     */
+    long getCodeaDollarsTransferred();
+
+    /**
+     * Gets the number of Tournament rounds that have finished.
+     *
+     * @return The number of rounds
+     */
+    long getTournamentRounds();
+
+    /**
+     * Gets the number of matches in finished Tournament rounds.
+     *
+     * @return The number of matches
+     */
+    long getTournamentMatches();
+
+    /**
+     * Gets a summary of how long finished battles took, in microseconds.
+     *
+     * @return The summary
+     */
+    HistogramSnapshot getBattleDurationMicros();
+
+    /**
+     * Gets a summary of how many turns finished battles took.
+     *
+     * @return The summary
+     */
+    HistogramSnapshot getTurnsPerBattle();
+
+    /**
+     * Checks if the metrics are being collected.
+     *
+     * @return True if they are, false if reports are ignored
+     */
+    boolean isEnabled();
+
+    /**
+     * Sets whether the metrics are collected.
+     *
+     * @param enabled True to collect them, false to ignore reports
+     */
+    void setEnabled(boolean enabled);
+
+    /**
+     * Sets every count back to 0.
+     */
+    void reset();
+}
@@ -0,0 +1,198 @@
+package simulation;
+
+/**
+ * The outcome of one simulation run by the BatchRunner: which scenario it was, who won, and the
+ * totals that are compared between runs.
+ */
+public class BatchResult {
+    private final String source;
+    private final long seed;
+    private final int trainers;
+    private final String winner;
+    private final int rounds;
+    private final long battles;
+    private final long experienceGained;
+    private final int[] money;
+    private final int winnerMoney;
+    private final long runtime;
+    private final String error;
+
+    /**
+     * Creates the result of a simulation that ran to the end.
+     *
+     * @param source The simulation file, or "sample" for the Sample Simulation
+     * @param seed The seed of the simulation's random rolls
+     * @param trainers The number of Trainers in the simulation
+     * @param winner The name of the Tournament winner
+     * @param rounds The number of Tournament rounds
+     * @param battles The number of Wild and Trainer battles fought
+     * @param experienceGained The EXP gained by every Codeamon in every party
+     * @param money Each Trainer's CodeaDollars at the end, sorted from least to most
+     * @param winnerMoney The winner's CodeaDollars at the end
+     * @param runtime The time the simulation took, in milliseconds
+     */
+    public BatchResult(String source, long seed, int trainers, String winner, int rounds,
+                       long battles, long experienceGained, int[] money, int winnerMoney,
+                       long runtime) {
+        this.source = source;
+        this.seed = seed;
+        this.trainers = trainers;
+        this.winner = winner;
+        this.rounds = rounds;
+        this.battles = battles;
+        this.experienceGained = experienceGained;
+        this.money = money;
+        this.winnerMoney = winnerMoney;
+        this.runtime = runtime;
+        this.error = null;
+    }
+
+    /**
+     * Creates the result of a simulation that could not be run.
+     *
+     * @param source The simulation file, or "sample" for the Sample Simulation
+     * @param seed The seed of the simulation's random rolls
+     * @param error What went wrong
+     */
+    public BatchResult(String source, long seed, String error) {
+        this.source = source;
+        this.seed = seed;
+        this.trainers = 0;
+        this.winner = null;
+        this.rounds = 0;
+        this.battles = 0;
+        this.experienceGained = 0;
+        this.money = new int[0];
+        this.winnerMoney = 0;
+        this.runtime = 0;
+        this.error = error;
+    }
+
+    /**
+     * Gets the simulation file the result is for.
+     *
+     * @return The file, or "sample" for the Sample Simulation
+     */
+    public String getSource() {
+        return source;
+    }
+
+    /**
+     * Gets the seed of the simulation's random rolls.
+     *
+     * @return The seed
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Gets the number of Trainers in the simulation.
+     *
+     * @return The number of Trainers
+     */
+    public int getTrainers() {
+        return trainers;
+    }
+
+    /**
+     * Gets the name of the Tournament winner.
+     *
+     * @return The winner's name, or null if the simulation could not be run
+     */
+    public String getWinner() {
+        return winner;
+    }
+
+    /**
+     * Gets the number of Tournament rounds.
+     *
+     * @return The number of rounds
+     */
+    public int getRounds() {
+        return rounds;
+    }
+
+    /**
+     * Gets the number of Wild and Trainer battles fought.
+     *
+     * @return The number of battles
+     */
+    public long getBattles() {
+        return battles;
+    }
+
+    /**
+     * Gets the EXP gained by every Codeamon in every party, including Codeamon recruited along
+     * the way.
+     *
+     * @return The EXP gained
+     */
+    public long getExperienceGained() {
+        return experienceGained;
+    }
+
+    /**
+     * Gets the fewest CodeaDollars any Trainer had at the end.
+     *
+     * @return The fewest CodeaDollars
+     */
+    public int getMinMoney() {
+        return money.length == 0 ? 0 : money[0];
+    }
+
+    /**
+     * Gets the median CodeaDollars of the Trainers at the end.
+     *
+     * @return The median CodeaDollars
+     */
+    public double getMedianMoney() {
+        if (money.length == 0) {
+            return 0.0;
+        }
+
+        int middle = money.length / 2;
+
+        if (money.length % 2 == 1) {
+            return money[middle];
+        }
+
+        return (money[middle - 1] + (double) money[middle]) / 2.0;
+    }
+
+    /**
+     * Gets the most CodeaDollars any Trainer had at the end.
+     *
+     * @return The most CodeaDollars
+     */
+    public int getMaxMoney() {
+        return money.length == 0 ? 0 : money[money.length - 1];
+    }
+
+    /**
+     * Gets the winner's CodeaDollars at the end.
+     *
+     * @return The winner's CodeaDollars
+     */
+    public int getWinnerMoney() {
+        return winnerMoney;
+    }
+
+    /**
+     * Gets the time the simulation took.
+     *
+     * @return The runtime in milliseconds
+     */
+    public long getRuntime() {
+        return runtime;
+    }
+
+    /**
+     * Gets what went wrong if the simulation could not be run.
+     *
+     * @return The error, or null if the simulation ran to the end
+     */
+    public String getError() {
+        return error;
+    }
+}
@@ -0,0 +1,305 @@
+package simulation;
+
+import codeamon.BattleRandom;
+import codeamon.Codeamon;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import metrics.SimulationMetrics;
+import trainer.Trainer;
+import world.TimeCycleContext;
+
+/**
+ * Runs many complete simulations, one for every pair of simulation file and seed, and collects
+ * the outcome of each one. Every simulation is its own world: its Trainers are loaded fresh from
+ * its file and every random roll comes from its own seed, so the simulations can run on several
+ * threads at once and the results never depend on how many threads were used. The simulations
+ * run quietly, and the results can be written to a single .csv file.
+ */
+public class BatchRunner {
+    /**
+     * The source name that stands for the Sample Simulation instead of a file.
+     */
+    public static final String SAMPLE = "sample";
+    private static final String DEFAULT_OUTPUT = "batch_results.csv";
+    private static final String HEADER = "source,seed,trainers,winner,rounds,battles,"
+            + "experienceGained,minMoney,medianMoney,maxMoney,winnerMoney,runtimeMs,error";
+    private final int threads;
+
+    /**
+     * Creates a runner that runs simulations on a number of threads.
+     *
+     * @param threads The number of simulations to run at once. Must be at least 1
+     * @throws IllegalArgumentException If threads is less than 1
+     */
+    public BatchRunner(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("At least one thread is needed.");
+        }
+
+        this.threads = threads;
+    }
+
+    /**
+     * Runs a simulation for every source with every seed in a range.
+     *
+     * @param sources The simulation files, where "sample" stands for the Sample Simulation
+     * @param firstSeed The first seed, inclusive
+     * @param lastSeed The last seed, inclusive
+     * @return The results, ordered by source and then by seed
+     * @throws IllegalArgumentException If lastSeed is less than firstSeed
+     */
+    public List<BatchResult> run(List<String> sources, long firstSeed, long lastSeed) {
+        if (lastSeed < firstSeed) {
+            throw new IllegalArgumentException("The last seed cannot come before the first.");
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<BatchResult>> futures = new ArrayList<>();
+
+        try {
+            for (String source : sources) {
+                for (long seed = firstSeed; seed <= lastSeed; seed++) {
+                    long scenarioSeed = seed;
+                    futures.add(executor.submit(() -> runSimulation(source, scenarioSeed)));
+                }
+            }
+
+            List<BatchResult> results = new ArrayList<>(futures.size());
+
+            for (Future<BatchResult> future : futures) {
+                results.add(future.get());
+            }
+
+            return results;
+        } catch (Exception e) {
+            throw new IllegalStateException("A simulation could not be finished.", e);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Runs a single simulation from start to finish on the calling thread.
+     *
+     * @param source The simulation file, or "sample" for the Sample Simulation
+     * @param seed The seed of the simulation's random rolls
+     * @return The result
+     */
+    public static BatchResult runSimulation(String source, long seed) {
+        long start = System.nanoTime();
+        ArrayList<Trainer> trainers;
+        int wildBattles;
+        int wildLevel;
+
+        //every simulation loads its own Trainers, so no two simulations share a world
+        if (SAMPLE.equals(source)) {
+            Simulation sim = new SampleSimulation();
+            trainers = sim.getTrainers();
+            wildBattles = sim.getWildBattles();
+            wildLevel = sim.getWildLevel();
+        } else {
+            try {
+                StreamingJsonLoader loader = new StreamingJsonLoader(source);
+                trainers = loader.loadTrainers();
+                wildBattles = loader.getWildBattles();
+                wildLevel = loader.getWildLevel();
+            } catch (IOException | IllegalArgumentException e) {
+                return new BatchResult(source, seed, "Could not load the file: " + e.getMessage());
+            }
+        }
+
+        //without Trainers the Tournament could never end
+        if (trainers.isEmpty()) {
+            return new BatchResult(source, seed, "No Trainers could be loaded.");
+        }
+
+        //the EXP each Codeamon had when it was first seen in a party
+        Map<Codeamon, Integer> startingExperience = new IdentityHashMap<>();
+        recordExperience(trainers, startingExperience);
+
+        TimeCycleContext cycle = new TimeCycleContext(wildBattles, wildLevel, trainers,
+                new BattleRandom(seed));
+        cycle.setQuiet(true);
+
+        int rounds = 0;
+        long battles = 0;
+
+        while (!cycle.getTournament().isConcluded()) {
+            int wildCount = cycle.getWildBattleCount();
+            int bracketSize = cycle.getTournament().getBracketSize();
+
+            cycle.runEvents(trainers);
+            //Codeamon recruited today have not battled yet, so they are recorded as they joined
+            recordExperience(trainers, startingExperience);
+
+            if (cycle.getWildBattleCount() > wildCount) {
+                battles += trainers.size();
+            } else if (cycle.getTournament().getBracketSize() < bracketSize) {
+                rounds++;
+                battles += bracketSize - cycle.getTournament().getBracketSize();
+            }
+        }
+
+        long experience = 0;
+
+        for (Map.Entry<Codeamon, Integer> entry : startingExperience.entrySet()) {
+            experience += entry.getKey().getExperiencePoints() - entry.getValue();
+        }
+
+        int[] money = new int[trainers.size()];
+
+        for (int i = 0; i < money.length; i++) {
+            money[i] = trainers.get(i).getCodeaDollars();
+        }
+
+        Arrays.sort(money);
+
+        Trainer winner = cycle.getTournament().getWinner();
+
+        return new BatchResult(source, seed, trainers.size(), winner.getName(), rounds, battles,
+                experience, money, winner.getCodeaDollars(),
+                (System.nanoTime() - start) / 1000000);
+    }
+
+    private static void recordExperience(ArrayList<Trainer> trainers,
+                                         Map<Codeamon, Integer> experience) {
+        for (Trainer trainer : trainers) {
+            for (Codeamon codeamon : trainer.getCodeamonParty()) {
+                experience.putIfAbsent(codeamon, codeamon.getExperiencePoints());
+            }
+        }
+    }
+
+    /**
+     * Writes results to a .csv file, one line for each simulation after a header line.
+     *
+     * @param file The file to write to. It is replaced if it already exists
+     * @param results The results to write
+     * @throws IOException If the file could not be written
+     */
+    public static void writeResults(String file, List<BatchResult> results) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(Paths.get(file),
+                StandardCharsets.UTF_8)) {
+            writer.write(HEADER);
+            writer.newLine();
+
+            for (BatchResult result : results) {
+                writer.write(String.join(",", csv(result.getSource()),
+                        String.valueOf(result.getSeed()), String.valueOf(result.getTrainers()),
+                        csv(result.getWinner()), String.valueOf(result.getRounds()),
+                        String.valueOf(result.getBattles()),
+                        String.valueOf(result.getExperienceGained()),
+                        String.valueOf(result.getMinMoney()),
+                        String.valueOf(result.getMedianMoney()),
+                        String.valueOf(result.getMaxMoney()),
+                        String.valueOf(result.getWinnerMoney()),
+                        String.valueOf(result.getRuntime()), csv(result.getError())));
+                writer.newLine();
+            }
+        }
+    }
+
+    /**
+     * Quotes a value for a .csv file if it needs it.
+     *
+     * @param value The value, which may be null
+     * @return The value as a .csv field
+     */
+    private static String csv(String value) {
+        if (value == null) {
+            return "";
+        } else if (value.contains(",") || value.contains("\"") || value.contains("\n")) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+
+        return value;
+    }
+
+    /**
+     * Runs a batch of simulations from the command line and writes the results to a .csv file.
+     * Without any sources the Sample Simulation is used, and without a seed range only seed 1
+     * is run. The batch's metrics can be watched over JMX while it runs.
+     *
+     * <p>
+     *     Usage: BatchRunner [--seeds first..last] [--threads n] [--out file] [sources...]
+     * </p>
+     *
+     * @param args The options, then the simulation files, where "sample" stands for the Sample
+     *             Simulation
+     */
+    public static void main(String[] args) {
+        List<String> sources = new ArrayList<>();
+        long firstSeed = 1;
+        long lastSeed = 1;
+        int threads = Runtime.getRuntime().availableProcessors();
+        String output = DEFAULT_OUTPUT;
+
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--seeds") && i + 1 < args.length) {
+                String[] range = args[++i].split("\\.\\.");
+                firstSeed = Long.parseLong(range[0]);
+                lastSeed = range.length > 1 ? Long.parseLong(range[1]) : firstSeed;
+            } else if (args[i].equals("--threads") && i + 1 < args.length) {
+                threads = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("--out") && i + 1 < args.length) {
+                output = args[++i];
+            } else if (args[i].startsWith("--")) {
+                System.out.println("Usage: BatchRunner [--seeds first..last] [--threads n] "
+                        + "[--out file] [sources...]");
+                System.out.println("Example: BatchRunner --seeds 1..1000 simulation_one.json "
+                        + "sample");
+                return;
+            } else {
+                sources.add(args[i]);
+            }
+        }
+
+        if (sources.isEmpty()) {
+            sources.add(SAMPLE);
+        }
+
+        SimulationMetrics.register();
+
+        long start = System.nanoTime();
+        List<BatchResult> results = new BatchRunner(threads).run(sources, firstSeed, lastSeed);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        try {
+            writeResults(output, results);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+
+        Map<String, Integer> wins = new TreeMap<>();
+        int failed = 0;
+
+        for (BatchResult result : results) {
+            if (result.getError() != null) {
+                failed++;
+            } else {
+                wins.merge(result.getWinner(), 1, Integer::sum);
+            }
+        }
+
+        System.out.println("Simulations: " + results.size() + " (" + failed + " failed)");
+
+        for (Map.Entry<String, Integer> entry : wins.entrySet()) {
+            System.out.println(entry.getKey() + " won " + entry.getValue());
+        }
+
+        System.out.printf("Time: %.2fs%n", seconds);
+        System.out.println("Results written to " + output);
+    }
+}
@@ -0,0 +1,601 @@
+package simulation;
+
+import codeamon.Codeamon;
+import codeamon.CodeamonFactory;
+import codeamon.Type;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.function.Consumer;
+import trainer.Trainer;
+
+/**
+ * A small JSON tokenizer that reads a simulation file one byte at a time and builds each Trainer
+ * as soon as its object has been read, without building a document for the whole file. Only the
+ * parts of JSON used by simulation files are given meaning; any other values are skipped.
+ * Numbers must be whole numbers. A reader either pulls bytes from a stream or reads them from a
+ * buffer, which can be a memory-mapped file. A reader is not thread safe.
+ */
+abstract class JsonTrainerReader {
+    private static final int NONE = -2;
+    private int peeked = NONE;
+    private byte[] chars = new byte[64];
+    private int wildLevel;
+    private int wildBattles;
+
+    /**
+     * Creates a reader that pulls bytes from a stream.
+     *
+     * @param in The stream
+     * @return The reader
+     */
+    static JsonTrainerReader of(InputStream in) {
+        return new StreamReader(in);
+    }
+
+    /**
+     * Creates a reader that reads bytes from a buffer, starting at its current position.
+     *
+     * @param buffer The buffer
+     * @return The reader
+     */
+    static JsonTrainerReader of(ByteBuffer buffer) {
+        return new BufferReader(buffer);
+    }
+
+    /**
+     * Reads the next byte.
+     *
+     * @return The byte, from 0 to 255, or -1 at the end of the input
+     * @throws IOException If the byte could not be read
+     */
+    protected abstract int read() throws IOException;
+
+    /**
+     * Gets the number of bytes read so far, used to report where the input is malformed.
+     *
+     * @return The position
+     */
+    protected abstract long position();
+
+    /**
+     * Gets the level of the first Wild Codeamon, once the whole document has been read.
+     *
+     * @return The level
+     */
+    int getWildLevel() {
+        return wildLevel;
+    }
+
+    /**
+     * Gets the number of Wild Battles, once the whole document has been read.
+     *
+     * @return The number of Wild Battles
+     */
+    int getWildBattles() {
+        return wildBattles;
+    }
+
+    /**
+     * Reads a whole simulation document, passing each Trainer to the consumer as soon as it has
+     * been built.
+     *
+     * @param consumer The consumer of the Trainers, in file order
+     * @throws IOException If the input could not be read
+     * @throws IllegalArgumentException If the input is malformed
+     */
+    void readDocument(Consumer<Trainer> consumer) throws IOException {
+        readDocument(consumer, null);
+    }
+
+    /**
+     * Reads a whole simulation document without building any Trainers, recording where each
+     * Trainer's object starts instead.
+     *
+     * @param offsets Receives the position of the opening brace of each Trainer, in file order
+     * @throws IOException If the input could not be read
+     * @throws IllegalArgumentException If the input is malformed
+     */
+    void scanDocument(OffsetList offsets) throws IOException {
+        readDocument(null, offsets);
+    }
+
+    private void readDocument(Consumer<Trainer> consumer, OffsetList offsets)
+            throws IOException {
+        expect('{');
+
+        if (peekToken() == '}') {
+            nextToken();
+            return;
+        }
+
+        do {
+            String key = readKey();
+
+            if (key.equals("wildLevel")) {
+                wildLevel = readInt();
+            } else if (key.equals("wildBattles")) {
+                wildBattles = readInt();
+            } else if (key.equals("trainers")) {
+                readTrainers(consumer, offsets);
+            } else {
+                skipValue();
+            }
+        } while (endOfMember('}'));
+    }
+
+    private void readTrainers(Consumer<Trainer> consumer, OffsetList offsets)
+            throws IOException {
+        expect('[');
+
+        if (peekToken() == ']') {
+            nextToken();
+            return;
+        }
+
+        do {
+            if (offsets != null) {
+                peekToken();
+                offsets.add(position() - 1);
+                skipValue();
+            } else {
+                consumer.accept(readTrainer());
+            }
+        } while (endOfMember(']'));
+    }
+
+    /**
+     * Reads a single Trainer object.
+     *
+     * @return The Trainer, with its party sorted like any other Trainer's
+     * @throws IOException If the input could not be read
+     * @throws IllegalArgumentException If the input is malformed or is missing the Trainer's
+     *                                  name, or a Codeamon's type or level
+     */
+    Trainer readTrainer() throws IOException {
+        String name = null;
+        ArrayList<Codeamon> party = new ArrayList<>();
+
+        expect('{');
+
+        if (peekToken() != '}') {
+            do {
+                String key = readKey();
+
+                if (key.equals("name")) {
+                    expect('"');
+                    name = readString();
+                } else if (key.equals("codeamon")) {
+                    readParty(party);
+                } else {
+                    skipValue();
+                }
+            } while (endOfMember('}'));
+        } else {
+            nextToken();
+        }
+
+        if (name == null) {
+            throw error("Trainer has no name");
+        }
+
+        Trainer.TrainerBuilder builder = new Trainer.TrainerBuilder(name);
+
+        for (Codeamon c : party) {
+            builder.codeamon(c);
+        }
+
+        return builder.build();
+    }
+
+    private void readParty(ArrayList<Codeamon> party) throws IOException {
+        expect('[');
+
+        if (peekToken() == ']') {
+            nextToken();
+            return;
+        }
+
+        do {
+            Type type = null;
+            int level = 0;
+            boolean hasLevel = false;
+
+            expect('{');
+
+            if (peekToken() == '}') {
+                throw error("Codeamon needs both a type and a level");
+            }
+
+            do {
+                String key = readKey();
+
+                if (key.equals("type")) {
+                    expect('"');
+                    type = Type.valueOf(readString());
+                } else if (key.equals("level")) {
+                    level = readInt();
+                    hasLevel = true;
+                } else {
+                    skipValue();
+                }
+            } while (endOfMember('}'));
+
+            if (type == null || !hasLevel) {
+                throw error("Codeamon needs both a type and a level");
+            }
+
+            party.add(CodeamonFactory.createCodeamon(type, level));
+        } while (endOfMember(']'));
+    }
+
+    private String readKey() throws IOException {
+        expect('"');
+        String key = readString();
+        expect(':');
+
+        return key;
+    }
+
+    /**
+     * Reads the separator after an object member or array element.
+     *
+     * @param close The closing character of the object or array
+     * @return True if another member follows, false if the object or array has ended
+     * @throws IOException If the input could not be read
+     */
+    private boolean endOfMember(char close) throws IOException {
+        int c = nextToken();
+
+        if (c == ',') {
+            return true;
+        } else if (c == close) {
+            return false;
+        }
+
+        throw error("Expected ',' or '" + close + "'");
+    }
+
+    /**
+     * Reads the rest of a string after its opening quote.
+     *
+     * @return The string
+     * @throws IOException If the input could not be read
+     */
+    private String readString() throws IOException {
+        int length = 0;
+
+        while (true) {
+            int c = readByte();
+
+            if (c == '"') {
+                return new String(chars, 0, length, StandardCharsets.UTF_8);
+            }
+
+            if (c == '\\') {
+                c = readByte();
+
+                switch (c) {
+                    case 'b':
+                        c = '\b';
+                        break;
+                    case 'f':
+                        c = '\f';
+                        break;
+                    case 'n':
+                        c = '\n';
+                        break;
+                    case 'r':
+                        c = '\r';
+                        break;
+                    case 't':
+                        c = '\t';
+                        break;
+                    case 'u':
+                        length = appendCodePoint(length, readEscapedCodePoint());
+                        continue;
+                    case '"':
+                    case '\\':
+                    case '/':
+                        break;
+                    default:
+                        throw error("Unknown escape '\\" + (char) c + "'");
+                }
+            }
+
+            length = append(length, c);
+        }
+    }
+
+    private int readEscapedCodePoint() throws IOException {
+        int unit = readHex();
+
+        if (Character.isHighSurrogate((char) unit)) {
+            if (readByte() != '\\' || readByte() != 'u') {
+                throw error("Expected a low surrogate");
+            }
+
+            int low = readHex();
+
+            if (!Character.isLowSurrogate((char) low)) {
+                throw error("Expected a low surrogate");
+            }
+
+            return Character.toCodePoint((char) unit, (char) low);
+        } else if (Character.isLowSurrogate((char) unit)) {
+            throw error("Unexpected low surrogate");
+        }
+
+        return unit;
+    }
+
+    private int readHex() throws IOException {
+        int value = 0;
+
+        for (int i = 0; i < 4; i++) {
+            int digit = Character.digit(readByte(), 16);
+
+            if (digit < 0) {
+                throw error("Expected a hex digit");
+            }
+
+            value = value * 16 + digit;
+        }
+
+        return value;
+    }
+
+    private int appendCodePoint(int length, int codePoint) {
+        //encode the code point as UTF-8 so the whole string can be decoded at once
+        if (codePoint < 0x80) {
+            return append(length, codePoint);
+        } else if (codePoint < 0x800) {
+            length = append(length, 0xC0 | codePoint >> 6);
+        } else if (codePoint < 0x10000) {
+            length = append(length, 0xE0 | codePoint >> 12);
+            length = append(length, 0x80 | codePoint >> 6 & 0x3F);
+        } else {
+            length = append(length, 0xF0 | codePoint >> 18);
+            length = append(length, 0x80 | codePoint >> 12 & 0x3F);
+            length = append(length, 0x80 | codePoint >> 6 & 0x3F);
+        }
+
+        return append(length, 0x80 | codePoint & 0x3F);
+    }
+
+    private int append(int length, int c) {
+        if (length == chars.length) {
+            byte[] grown = new byte[chars.length * 2];
+            System.arraycopy(chars, 0, grown, 0, length);
+            chars = grown;
+        }
+
+        chars[length] = (byte) c;
+
+        return length + 1;
+    }
+
+    private int readInt() throws IOException {
+        int c = nextToken();
+        boolean negative = c == '-';
+        long value = 0;
+        int digits = 0;
+
+        if (negative) {
+            c = readByte();
+        }
+
+        while (c >= '0' && c <= '9') {
+            value = value * 10 + (c - '0');
+            digits++;
+
+            if (value > (long) Integer.MAX_VALUE + 1) {
+                throw error("Number is too large");
+            }
+
+            c = read();
+        }
+
+        if (c == '.' || c == 'e' || c == 'E') {
+            throw error("Expected a whole number");
+        } else if (digits == 0) {
+            throw error("Expected a number");
+        }
+
+        peeked = c;
+        value = negative ? -value : value;
+
+        if (value > Integer.MAX_VALUE) {
+            throw error("Number is too large");
+        }
+
+        return (int) value;
+    }
+
+    /**
+     * Skips over a whole value of any kind, without building it.
+     *
+     * @throws IOException If the input could not be read
+     */
+    private void skipValue() throws IOException {
+        int depth = 0;
+
+        do {
+            int c = nextToken();
+
+            if (c == '{' || c == '[') {
+                depth++;
+            } else if (c == '}' || c == ']') {
+                depth--;
+            } else if (c == '"') {
+                skipString();
+            } else if (c != ',' && c != ':') {
+                //a number, true, false or null ends at the next separator
+                while (c != -1 && c != ',' && c != '}' && c != ']' && !isWhitespace(c)) {
+                    c = read();
+                }
+
+                peeked = c;
+            }
+
+            if (depth < 0) {
+                throw error("Unexpected '" + (char) c + "'");
+            }
+        } while (depth > 0);
+    }
+
+    private void skipString() throws IOException {
+        while (true) {
+            int c = readByte();
+
+            if (c == '"') {
+                return;
+            } else if (c == '\\') {
+                readByte();
+            }
+        }
+    }
+
+    private void expect(char expected) throws IOException {
+        int c = nextToken();
+
+        if (c != expected) {
+            throw error("Expected '" + expected + "'");
+        }
+    }
+
+    private int peekToken() throws IOException {
+        peeked = nextToken();
+
+        return peeked;
+    }
+
+    /**
+     * Gets the next byte that is not whitespace.
+     *
+     * @return The byte, or -1 at the end of the input
+     * @throws IOException If the input could not be read
+     */
+    private int nextToken() throws IOException {
+        int c = peeked;
+        peeked = NONE;
+
+        if (c == NONE) {
+            c = read();
+        }
+
+        while (isWhitespace(c)) {
+            c = read();
+        }
+
+        return c;
+    }
+
+    private int readByte() throws IOException {
+        int c = read();
+
+        if (c == -1) {
+            throw error("Unexpected end of file");
+        }
+
+        return c;
+    }
+
+    private static boolean isWhitespace(int c) {
+        return c == ' ' || c == '\n' || c == '\r' || c == '\t';
+    }
+
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException(message + " at byte " + position() + ".");
+    }
+
+    /**
+     * A reader that pulls bytes from a stream through its own buffer.
+     */
+    private static class StreamReader extends JsonTrainerReader {
+        private static final int BUFFER_SIZE = 1 << 16;
+        private final InputStream in;
+        private final byte[] buffer = new byte[BUFFER_SIZE];
+        private int index;
+        private int length;
+        private long consumed;
+
+        StreamReader(InputStream in) {
+            this.in = in;
+        }
+
+        @Override
+        protected int read() throws IOException {
+            if (index == length) {
+                consumed += length;
+                length = in.read(buffer, 0, BUFFER_SIZE);
+                index = 0;
+
+                if (length <= 0) {
+                    length = 0;
+                    return -1;
+                }
+            }
+
+            return buffer[index++] & 0xFF;
+        }
+
+        @Override
+        protected long position() {
+            return consumed + index;
+        }
+    }
+
+    /**
+     * A reader that reads bytes from a buffer.
+     */
+    private static class BufferReader extends JsonTrainerReader {
+        private final ByteBuffer buffer;
+
+        BufferReader(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        protected int read() {
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+
+            return buffer.get() & 0xFF;
+        }
+
+        @Override
+        protected long position() {
+            return buffer.position();
+        }
+    }
+
+    /**
+     * A growable list of byte offsets that does not box them.
+     */
+    static class OffsetList {
+        private int[] offsets = new int[1024];
+        private int size;
+
+        void add(long offset) {
+            if (size == offsets.length) {
+                int[] grown = new int[offsets.length * 2];
+                System.arraycopy(offsets, 0, grown, 0, size);
+                offsets = grown;
+            }
+
+            offsets[size++] = (int) offset;
+        }
+
+        int get(int index) {
+            return offsets[index];
+        }
+
+        int size() {
+            return size;
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package simulation;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+import trainer.Trainer;
+
+/**
+ * Loads the Trainers of a simulation .json file without reading the whole file into a document
+ * first, for rosters that are too large for JsonSimulation. The file has the same layout as the
+ * ones read by JsonSimulation.
+ *
+ * <p>
+ *     Trainers can be streamed, where each Trainer is built and handed over as soon as its
+ *     object has been read, so only the Trainers kept by the caller stay in memory. They can
+ *     also be loaded in parallel: the file is memory-mapped, one quick pass finds where each
+ *     Trainer's object starts, and the objects are then split between threads, which build the
+ *     Trainers straight from the mapped file. Either way the Trainers come out in file order.
+ * </p>
+ */
+public class StreamingJsonLoader {
+    //split each thread's share of the Trainers into a few chunks to even out the work
+    private static final int CHUNKS_PER_THREAD = 4;
+    private final Path file;
+    private int wildLevel;
+    private int wildBattles;
+
+    /**
+     * Creates a loader for a simulation file.
+     *
+     * @param file The .json file that has the simulation data
+     */
+    public StreamingJsonLoader(String file) {
+        this.file = Paths.get(file);
+    }
+
+    /**
+     * Streams the Trainers in the file, passing each one to the consumer as soon as it has been
+     * built.
+     *
+     * @param consumer The consumer of the Trainers, in file order
+     * @throws IOException If the file could not be read
+     * @throws IllegalArgumentException If the file is malformed
+     */
+    public void forEachTrainer(Consumer<Trainer> consumer) throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            JsonTrainerReader reader = JsonTrainerReader.of(in);
+            reader.readDocument(consumer);
+            wildLevel = reader.getWildLevel();
+            wildBattles = reader.getWildBattles();
+        }
+    }
+
+    /**
+     * Loads all the Trainers in the file on the calling thread by streaming them.
+     *
+     * @return The Trainers, in file order
+     * @throws IOException If the file could not be read
+     * @throws IllegalArgumentException If the file is malformed
+     */
+    public ArrayList<Trainer> loadTrainers() throws IOException {
+        ArrayList<Trainer> trainers = new ArrayList<>();
+        forEachTrainer(trainers::add);
+
+        return trainers;
+    }
+
+    /**
+     * Loads all the Trainers in the file, building them on a number of threads from a
+     * memory-mapped copy of the file. Files too large to map in one piece are streamed on the
+     * calling thread instead.
+     *
+     * @param threads The number of threads to build the Trainers on. Must be at least 1
+     * @return The Trainers, in file order
+     * @throws IOException If the file could not be read
+     * @throws IllegalArgumentException If threads is less than 1 or the file is malformed
+     */
+    public ArrayList<Trainer> loadTrainers(int threads) throws IOException {
+        if (threads < 1) {
+            throw new IllegalArgumentException("At least one thread is needed.");
+        }
+
+        MappedByteBuffer buffer;
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                return loadTrainers();
+            }
+
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        //find where each Trainer starts without building anything
+        JsonTrainerReader scanner = JsonTrainerReader.of(buffer.duplicate());
+        JsonTrainerReader.OffsetList offsets = new JsonTrainerReader.OffsetList();
+        scanner.scanDocument(offsets);
+        wildLevel = scanner.getWildLevel();
+        wildBattles = scanner.getWildBattles();
+
+        Trainer[] trainers = new Trainer[offsets.size()];
+        int chunks = Math.min(threads * CHUNKS_PER_THREAD, Math.max(trainers.length, 1));
+        ForkJoinPool pool = new ForkJoinPool(threads);
+
+        try {
+            pool.submit(() -> IntStream.range(0, chunks).parallel().forEach(chunk -> {
+                int start = (int) ((long) trainers.length * chunk / chunks);
+                int end = (int) ((long) trainers.length * (chunk + 1) / chunks);
+
+                for (int i = start; i < end; i++) {
+                    trainers[i] = readTrainer(buffer, offsets.get(i));
+                }
+            })).join();
+        } finally {
+            pool.shutdown();
+        }
+
+        return new ArrayList<>(Arrays.asList(trainers));
+    }
+
+    private static Trainer readTrainer(MappedByteBuffer buffer, int offset) {
+        try {
+            return JsonTrainerReader.of(buffer.duplicate().position(offset)).readTrainer();
+        } catch (IOException e) {
+            //reading from a mapped buffer cannot throw an IOException
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Gets the level of the first Wild Codeamon. Only set once the file has been loaded.
+     *
+     * @return The level of the first Wild Codeamon
+     */
+    public int getWildLevel() {
+        return wildLevel;
+    }
+
+    /**
+     * Gets the number of Wild Codeamon each Trainer will have to battle. Only set once the file
+     * has been loaded.
+     *
+     * @return The number of Wild Battles
+     */
+    public int getWildBattles() {
+        return wildBattles;
+    }
+}
@@ -0,0 +1,70 @@
+package simulation;
+
+import java.util.ArrayList;
+import trainer.Trainer;
+
+/**
+ * Contains the Data for a Codeamon Simulation that is read from a .json file by a
+ * StreamingJsonLoader. It reads the same files as JsonSimulation, but can handle rosters with
+ * hundreds of thousands of Trainers.
+ */
+public class StreamingJsonSimulation implements Simulation {
+    private ArrayList<Trainer> trainers;
+    private int wildLevel;
+    private int wildBattles;
+
+    /**
+     * Sets the data for the simulation by streaming a .json file on the calling thread.
+     *
+     * @param file The .json file that has the simulation data
+     */
+    public StreamingJsonSimulation(String file) {
+        this(file, 1);
+    }
+
+    /**
+     * Sets the data for the simulation by reading a .json file. With more than one thread, the
+     * file is memory-mapped and the Trainers are built in parallel.
+     *
+     * @param file The .json file that has the simulation data
+     * @param threads The number of threads to build the Trainers on
+     */
+    public StreamingJsonSimulation(String file, int threads) {
+        //default values in case an exception is thrown
+        trainers = new ArrayList<>();
+        wildBattles = 0;
+        wildLevel = 0;
+
+        try {
+            StreamingJsonLoader loader = new StreamingJsonLoader(file);
+            ArrayList<Trainer> loaded;
+
+            if (threads > 1) {
+                loaded = loader.loadTrainers(threads);
+            } else {
+                loaded = loader.loadTrainers();
+            }
+
+            trainers = loaded;
+            wildLevel = loader.getWildLevel();
+            wildBattles = loader.getWildBattles();
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    @Override
+    public ArrayList<Trainer> getTrainers() {
+        return trainers;
+    }
+
+    @Override
+    public int getWildLevel() {
+        return wildLevel;
+    }
+
+    @Override
+    public int getWildBattles() {
+        return wildBattles;
+    }
+}
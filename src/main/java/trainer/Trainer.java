@@ -1,8 +1,15 @@
 package trainer;
 
 import codeamon.Codeamon;
+import codeamon.FaintListener;
+import codeamon.MovePolicy;
+import event.BattleEventSink;
+import event.ConsoleBattleEventSink;
+import java.util.AbstractList;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.List;
+import java.util.RandomAccess;
+import metrics.SimulationMetrics;
 
 /**
  * A Trainer is someone who captures and tames Codeamon. A trainer is created using a Builder
@@ -14,12 +21,36 @@ import java.util.Collections;
  *     <li>A Trainer can recruit new Codeamon to their party</li>
  *     <li>A Trainer can have no more than 6 Codeamon</li>
  * </p>
+ *
+ * <p>
+ *     The party is kept in a fixed array of 6 slots. When a Codeamon is added the party is put
+ *     in sending out order, non-fainted Codeamon from lowest to highest level and then fainted
+ *     ones, by insertion within the array instead of sorting a list. During a battle only the
+ *     lead Codeamon faints, so the index of the lead is kept up to date as Codeamon faint and
+ *     recover, and finding the next Codeamon to send out never searches the party.
+ * </p>
  */
 public class Trainer {
     private final String name;
     private int codeaDollars;
-    private ArrayList<Codeamon> codeamonParty;
     private static final int MAX_PARTY = 6;
+    private final Codeamon[] party = new Codeamon[MAX_PARTY];
+    private final List<Codeamon> partyView = new PartyView();
+    private int partySize;
+    //the number of non-fainted Codeamon, kept up to date by the party's Codeamon as they faint
+    //and recover
+    private int remaining;
+    //the index of the first non-fainted Codeamon, which is the next one sent out
+    private int lead;
+    private final FaintListener faintListener = (codeamon, fainted) -> {
+        if (fainted) {
+            remaining--;
+            advanceLead();
+        } else {
+            remaining++;
+            recoverLead(codeamon);
+        }
+    };
 
     /**
      * A Builder Method for constructing at attack. Contains methods for adding Codeamon to the
@@ -34,6 +65,7 @@ public class Trainer {
 
         //Default values
         private int codeaDollars = 3000;
+        private boolean sortParty = true;
 
         /**
          * Entry point for a TrainerBuilder that sets the Trainer's name.
@@ -76,6 +108,17 @@ public class Trainer {
             return this;
         }
 
+        /**
+         * Keeps the party in the order the Codeamon were added instead of sorting it. This is
+         * meant for restoring a Trainer whose party was saved in the order it had in battle.
+         *
+         * @return The TrainerBuilder
+         */
+        public TrainerBuilder keepPartyOrder() {
+            sortParty = false;
+            return this;
+        }
+
         /**
          * Gets the Trainer built by the TrainerBuilder.
          *
@@ -88,9 +131,52 @@ public class Trainer {
 
     private Trainer(TrainerBuilder builder) {
         name = builder.name;
-        codeamonParty = builder.party;
         codeaDollars = builder.codeaDollars;
-        Collections.sort(codeamonParty);
+
+        for (Codeamon c : builder.party) {
+            party[partySize++] = c;
+            track(c);
+        }
+
+        if (builder.sortParty) {
+            orderParty();
+        }
+
+        advanceLead();
+    }
+
+    /**
+     * Puts the party in sending out order: non-fainted Codeamon from lowest to highest level,
+     * then fainted ones, keeping the order of Codeamon that compare equal. This is the same order
+     * as a stable sort by Codeamon.compareTo, done as an insertion sort in the party array, which
+     * for at most 6 Codeamon takes a few comparisons and allocates nothing. Only a new Codeamon
+     * and any that fainted in front of it usually move.
+     */
+    private void orderParty() {
+        for (int i = 1; i < partySize; i++) {
+            Codeamon codeamon = party[i];
+            int slot = i;
+
+            while (slot > 0 && party[slot - 1].compareTo(codeamon) > 0) {
+                party[slot] = party[slot - 1];
+                slot--;
+            }
+
+            party[slot] = codeamon;
+        }
+    }
+
+    /**
+     * Starts keeping count of whether a new party member is fainted.
+     *
+     * @param codeamon The new party member
+     */
+    private void track(Codeamon codeamon) {
+        codeamon.addFaintListener(faintListener);
+
+        if (!codeamon.isFainted()) {
+            remaining++;
+        }
     }
 
     /**
@@ -147,7 +233,7 @@ public class Trainer {
      * @return The party size
      */
     public int getPartySize() {
-        return codeamonParty.size();
+        return partySize;
     }
 
     /**
@@ -156,24 +242,28 @@ public class Trainer {
      * @return The number of non-fainted Codeamon
      */
     public int getRemainingPartySize() {
-        int remaining = 0;
-
-        for (Codeamon i : codeamonParty) {
-            if (!i.isFainted()) {
-                remaining++;
-            }
-        }
-
         return remaining;
     }
 
     /**
-     * Pays the winning Trainer of a Codeamon battle half of this Trainer's money.
+     * Pays the winning Trainer of a Codeamon battle half of this Trainer's money, printing the
+     * payout to the console.
      *
      * @param winner The winning Trainer whom to payout
      */
     public void payout(Trainer winner) {
-        System.out.println(name + " paid ¢" + codeaDollars / 2 + " to " + winner.getName() + ".");
+        payout(winner, ConsoleBattleEventSink.INSTANCE);
+    }
+
+    /**
+     * Pays the winning Trainer of a Codeamon battle half of this Trainer's money.
+     *
+     * @param winner The winning Trainer whom to payout
+     * @param sink The sink that receives the payout event
+     */
+    public void payout(Trainer winner, BattleEventSink sink) {
+        sink.payout(this, winner, codeaDollars / 2);
+        SimulationMetrics.get().codeaDollarsTransferred(codeaDollars / 2);
         winner.adjustCodeaDollars(codeaDollars / 2);
         codeaDollars /= 2;
     }
@@ -189,23 +279,67 @@ public class Trainer {
         if (codeamon == null) {
             System.out.println("Cannot add a null Codeamon to a Trainer's party.");
             return false;
-        } else if (codeamonParty.size() == MAX_PARTY) {
+        } else if (partySize == MAX_PARTY) {
             System.out.println(codeamon.getName() + " not added. Party is full.");
             return false;
         }
 
-        codeamonParty.add(codeamon);
-        Collections.sort(codeamonParty);
+        party[partySize++] = codeamon;
+        track(codeamon);
+        orderParty();
+        lead = 0;
+        advanceLead();
 
         return true;
     }
 
+    /**
+     * Moves the lead past any fainted Codeamon. In a battle only the lead faints, so this
+     * normally moves it by one slot.
+     */
+    private void advanceLead() {
+        while (lead < partySize && party[lead].isFainted()) {
+            lead++;
+        }
+    }
+
+    /**
+     * Moves the lead back to a Codeamon that recovered, if it comes before the current lead.
+     *
+     * @param codeamon The Codeamon that recovered
+     */
+    private void recoverLead(Codeamon codeamon) {
+        for (int i = 0; i < lead; i++) {
+            if (party[i] == codeamon) {
+                lead = i;
+                return;
+            }
+        }
+    }
+
     /**
      * All the Codeamon in this trainer's party rest and fully recover any lost Hit Points.
      */
     public void restParty() {
-        for (Codeamon i : codeamonParty) {
-            i.rest();
+        for (int i = 0; i < partySize; i++) {
+            party[i].rest();
+        }
+    }
+
+    /**
+     * Sets the policy that chooses the attacks of every Codeamon in this trainer's party.
+     * Codeamon added to the party later keep their own policy.
+     *
+     * @param movePolicy The policy
+     * @throws IllegalArgumentException If the policy is null
+     */
+    public void setMovePolicy(MovePolicy movePolicy) {
+        if (movePolicy == null) {
+            throw new IllegalArgumentException("A Codeamon must have a move policy.");
+        }
+
+        for (int i = 0; i < partySize; i++) {
+            party[i].setMovePolicy(movePolicy);
         }
     }
 
@@ -216,20 +350,22 @@ public class Trainer {
      * @return The selected Codeamon. If the trainer has no remaining Codeamon it will return null
      */
     public Codeamon getNextCodeamon() {
-        if (getRemainingPartySize() == 0) {
+        if (remaining == 0) {
             return null;
         }
 
-        return codeamonParty.get(codeamonParty.size() - getRemainingPartySize());
+        return party[lead];
     }
 
     /**
-     * Gets this Trainer's Codeamon party.
+     * Gets this Trainer's Codeamon party, in the order they are sent out. The list is a read-only
+     * view of the party that follows it as it changes. New Codeamon must be added through
+     * addCodeamon so the party stays in order and its non-fainted Codeamon stay counted.
      *
      * @return The Codeamon party
      */
-    public ArrayList<Codeamon> getCodeamonParty() {
-        return codeamonParty;
+    public List<Codeamon> getCodeamonParty() {
+        return partyView;
     }
 
     /**
@@ -241,8 +377,8 @@ public class Trainer {
     public void printPartyStatus() {
         System.out.print(getName() + ": ");
 
-        for (Codeamon c : codeamonParty) {
-            if (c.isFainted()) {
+        for (int i = 0; i < partySize; i++) {
+            if (party[i].isFainted()) {
                 System.out.print("X");
             } else {
                 System.out.print("O");
@@ -251,4 +387,24 @@ public class Trainer {
 
         System.out.println();
     }
+
+    /**
+     * A read-only list view of the party array.
+     */
+    private class PartyView extends AbstractList<Codeamon> implements RandomAccess {
+        @Override
+        public Codeamon get(int index) {
+            if (index < 0 || index >= partySize) {
+                throw new IndexOutOfBoundsException("Index " + index + " is outside a party of "
+                        + partySize + ".");
+            }
+
+            return party[index];
+        }
+
+        @Override
+        public int size() {
+            return partySize;
+        }
+    }
 }
@@ -0,0 +1,663 @@
+package world;
+
+import codeamon.Attack;
+import codeamon.BattleRandom;
+import codeamon.Codeamon;
+import codeamon.CodeamonFactory;
+import codeamon.CodeamonStats;
+import codeamon.CodeamonStatsFactory;
+import codeamon.GreedyMovePolicy;
+import codeamon.MovePolicy;
+import codeamon.RandomMovePolicy;
+import codeamon.Stat;
+import codeamon.Type;
+import codeamon.TypeMatchup;
+import java.util.ArrayList;
+import java.util.List;
+import trainer.Trainer;
+
+/**
+ * A headless engine for running large numbers of Trainer battles. Instead of a Codeamon object
+ * with its own CodeamonStats and Attacks, every Codeamon in the engine is a slot in a set of
+ * primitive arrays holding its Hit Points, level, EXP, stats, stat stages, type and moveset.
+ * Species base stats, movesets and the type chart are shared tables built once, so running a
+ * battle does not allocate anything.
+ *
+ * <p>
+ *     The engine holds a fixed number of battles. A battle is loaded from two existing Trainers,
+ *     which copies the current state of their parties, and can then be run and reset back to the
+ *     loaded state any number of times. Battles are quiet and follow the same rules as
+ *     Battle.trainerBattle: turn order by speed with random ties, attack choice by each
+ *     Codeamon's RandomMovePolicy or GreedyMovePolicy, accuracy, critical hits, STAB, type
+ *     effectiveness, stat stages, healing, and EXP gain with level ups.
+ *     Given the same BattleRandom, a battle in the engine makes the same rolls and ends in the
+ *     same state as Battle.trainerBattle would. Trainers' CodeaDollars are not tracked, and the
+ *     loaded Trainers are never changed.
+ * </p>
+ */
+public class ArrayBattleEngine {
+    private static final int MAX_PARTY = 6;
+    private static final int SIDES = 2;
+    private static final int SLOTS_PER_BATTLE = SIDES * MAX_PARTY;
+    private static final int MAX_STAGE = 6;
+    private static final int MIN_STAGE = -6;
+    private static final int MAX_LEVEL = 100;
+    private static final int MIN_CHANCE = 1;
+    private static final double MIN_HEAL = 0.01;
+    private static final int MAX_CHANCE = 100;
+    private static final int TIERS = 3;
+    private static final int[] TIER_LEVELS = {1, 16, 31};
+    private static final Type[] TYPES = Type.values();
+    private static final int TYPE_COUNT = TYPES.length;
+
+    //species tables, indexed by type ordinal
+    private static final int[] BASE_HIT_POINTS = new int[TYPE_COUNT];
+    private static final int[] BASE_ATTACK = new int[TYPE_COUNT];
+    private static final int[] BASE_DEFENSE = new int[TYPE_COUNT];
+    private static final int[] BASE_SPEED = new int[TYPE_COUNT];
+
+    //type chart, indexed by attack type * TYPE_COUNT + defending type
+    private static final double[] CHART = new double[TYPE_COUNT * TYPE_COUNT];
+
+    //stat multipliers, indexed by stage + MAX_STAGE
+    private static final double[] MODIFIERS = new double[MAX_STAGE - MIN_STAGE + 1];
+
+    //movesets, indexed by Codeamon.getMovesetId, which goes by the species' factory type since a
+    //species' type does not always match it (Birdmon is an Ice type). A moveset's attacks are
+    //stored together in the attack tables starting at MOVESET_START
+    private static final int[] MOVESET_START = new int[TYPE_COUNT * TIERS];
+    private static final int[] MOVESET_SIZE = new int[TYPE_COUNT * TIERS];
+    private static final int[] ATTACK_TYPE;
+    private static final int[] ATTACK_POWER;
+    private static final int[] ATTACK_ACCURACY;
+    private static final int[] ATTACK_CRIT_CHANCE;
+    private static final int[] ATTACK_EFFECT_CHANCE;
+    private static final double[] ATTACK_HEAL;
+    private static final int[] ATTACK_STAT;
+    private static final int[] ATTACK_STAGES;
+    private static final boolean[] ATTACK_SELF;
+
+    static {
+        ArrayList<Attack> attacks = new ArrayList<>();
+
+        for (Type type : TYPES) {
+            CodeamonStats stats = CodeamonStatsFactory.getStats(type, 1);
+            BASE_HIT_POINTS[type.ordinal()] = stats.getBaseHitPoints();
+            BASE_ATTACK[type.ordinal()] = stats.getBaseAttack();
+            BASE_DEFENSE[type.ordinal()] = stats.getBaseDefense();
+            BASE_SPEED[type.ordinal()] = stats.getBaseSpeed();
+
+            for (Type defending : TYPES) {
+                CHART[type.ordinal() * TYPE_COUNT + defending.ordinal()] =
+                        TypeMatchup.getMultiplier(type, defending);
+            }
+
+            for (int tier = 0; tier < TIERS; tier++) {
+                Codeamon species = CodeamonFactory.createCodeamon(type, TIER_LEVELS[tier]);
+                Attack[] moveset = species.getAttacks();
+                MOVESET_START[species.getMovesetId()] = attacks.size();
+                MOVESET_SIZE[species.getMovesetId()] = moveset.length;
+
+                for (Attack attack : moveset) {
+                    attacks.add(attack);
+                }
+            }
+        }
+
+        ATTACK_TYPE = new int[attacks.size()];
+        ATTACK_POWER = new int[attacks.size()];
+        ATTACK_ACCURACY = new int[attacks.size()];
+        ATTACK_CRIT_CHANCE = new int[attacks.size()];
+        ATTACK_EFFECT_CHANCE = new int[attacks.size()];
+        ATTACK_HEAL = new double[attacks.size()];
+        ATTACK_STAT = new int[attacks.size()];
+        ATTACK_STAGES = new int[attacks.size()];
+        ATTACK_SELF = new boolean[attacks.size()];
+
+        for (int i = 0; i < attacks.size(); i++) {
+            Attack attack = attacks.get(i);
+            ATTACK_TYPE[i] = attack.getType().ordinal();
+            ATTACK_POWER[i] = attack.getPower();
+            ATTACK_ACCURACY[i] = attack.getAccuracy();
+            ATTACK_CRIT_CHANCE[i] = attack.getCritChance();
+            ATTACK_EFFECT_CHANCE[i] = attack.getEffectChance();
+            ATTACK_HEAL[i] = attack.getHealFraction();
+            ATTACK_STAT[i] = attack.getStat() == null ? -1 : attack.getStat().ordinal();
+            ATTACK_STAGES[i] = attack.getStages();
+            ATTACK_SELF[i] = attack.getSelf();
+        }
+
+        for (int stage = MIN_STAGE; stage <= MAX_STAGE; stage++) {
+            MODIFIERS[stage + MAX_STAGE] = CodeamonStats.getStageMultiplier(stage);
+        }
+    }
+
+    private final int battles;
+
+    //per Codeamon state, indexed by battle * SLOTS_PER_BATTLE + side * MAX_PARTY + party index
+    private final int[] type;
+    private final int[] moveset;
+    //the moveset id again for Codeamon using the GreedyMovePolicy, or -1 for those that attack
+    //at random
+    private final int[] greedyMoveset;
+    private final int[] hitPoints;
+    private final int[] maxHitPoints;
+    private final int[] attack;
+    private final int[] defense;
+    private final int[] speed;
+    private final int[] attackStage;
+    private final int[] defenseStage;
+    private final int[] speedStage;
+    private final int[] level;
+    private final int[] exp;
+
+    //per Trainer state, indexed by battle * SIDES + side
+    private final int[] partySize;
+    private final int[] remaining;
+    //the party index of the Codeamon in battle, kept the same way as the lead of a Trainer
+    private final int[] lead;
+
+    //per battle results
+    private final int[] turns;
+    private final int[] winner;
+
+    //the state every battle is reset to, in the same order as the live arrays in state
+    private final int[][] state;
+    private final int[][] loaded;
+
+    /**
+     * Creates an engine that can hold a number of battles.
+     *
+     * @param battles The number of battles. Must be at least 1
+     * @throws IllegalArgumentException If battles is less than 1
+     */
+    public ArrayBattleEngine(int battles) {
+        if (battles < 1) {
+            throw new IllegalArgumentException("The engine must hold at least one battle.");
+        }
+
+        this.battles = battles;
+
+        int slots = battles * SLOTS_PER_BATTLE;
+        type = new int[slots];
+        moveset = new int[slots];
+        greedyMoveset = new int[slots];
+        hitPoints = new int[slots];
+        maxHitPoints = new int[slots];
+        attack = new int[slots];
+        defense = new int[slots];
+        speed = new int[slots];
+        attackStage = new int[slots];
+        defenseStage = new int[slots];
+        speedStage = new int[slots];
+        level = new int[slots];
+        exp = new int[slots];
+        remaining = new int[battles * SIDES];
+        lead = new int[battles * SIDES];
+        partySize = new int[battles * SIDES];
+        turns = new int[battles];
+        winner = new int[battles];
+
+        state = new int[][] {hitPoints, maxHitPoints, attack, defense, speed, attackStage,
+            defenseStage, speedStage, level, exp, remaining, lead};
+        loaded = new int[state.length][];
+
+        for (int i = 0; i < state.length; i++) {
+            loaded[i] = new int[state[i].length];
+        }
+    }
+
+    /**
+     * Gets the number of battles this engine holds.
+     *
+     * @return The number of battles
+     */
+    public int getBattles() {
+        return battles;
+    }
+
+    /**
+     * Loads a battle between two Trainers by copying the current state of their parties, in
+     * party order. Trainer One is side 0 and Trainer Two is side 1.
+     *
+     * @param battle The battle to load
+     * @param trainerOne The first Trainer in the battle
+     * @param trainerTwo The second Trainer in the battle
+     * @throws IllegalArgumentException If either Trainer has no Codeamon, or has a Codeamon that
+     *                                  is not one of the species made by CodeamonFactory or
+     *                                  uses a move policy other than the RandomMovePolicy or the
+     *                                  GreedyMovePolicy
+     */
+    public void load(int battle, Trainer trainerOne, Trainer trainerTwo) {
+        loadParty(battle, 0, trainerOne);
+        loadParty(battle, 1, trainerTwo);
+
+        for (int i = 0; i < state.length; i++) {
+            int size = state[i].length == battles * SIDES ? SIDES : SLOTS_PER_BATTLE;
+            System.arraycopy(state[i], battle * size, loaded[i], battle * size, size);
+        }
+
+        turns[battle] = 0;
+        winner[battle] = -1;
+    }
+
+    private void loadParty(int battle, int side, Trainer trainer) {
+        List<Codeamon> party = trainer.getCodeamonParty();
+
+        if (party.isEmpty()) {
+            throw new IllegalArgumentException(trainer.getName() + " has no Codeamon.");
+        }
+
+        int first = battle * SLOTS_PER_BATTLE + side * MAX_PARTY;
+        int alive = 0;
+
+        for (int i = 0; i < party.size(); i++) {
+            Codeamon c = party.get(i);
+            int id = c.getMovesetId();
+            int slot = first + i;
+
+            if (id < 0) {
+                throw new IllegalArgumentException(c.getName() + " has an unknown moveset.");
+            }
+
+            MovePolicy policy = c.getMovePolicy();
+
+            if (policy == GreedyMovePolicy.INSTANCE) {
+                greedyMoveset[slot] = id;
+            } else if (policy == RandomMovePolicy.INSTANCE) {
+                greedyMoveset[slot] = -1;
+            } else {
+                throw new IllegalArgumentException(c.getName() + " has an unknown move policy.");
+            }
+
+            type[slot] = c.getType().ordinal();
+            moveset[slot] = id;
+            level[slot] = c.getLevel();
+            exp[slot] = c.getExperiencePoints();
+            setStats(slot);
+            hitPoints[slot] = c.getCurrentHitPoints();
+            attackStage[slot] = c.getStatStage(Stat.Attack);
+            defenseStage[slot] = c.getStatStage(Stat.Defense);
+            speedStage[slot] = c.getStatStage(Stat.Speed);
+
+            if (hitPoints[slot] > 0) {
+                alive++;
+            }
+        }
+
+        partySize[battle * SIDES + side] = party.size();
+        remaining[battle * SIDES + side] = alive;
+        lead[battle * SIDES + side] = 0;
+        advanceLead(battle * SIDES + side);
+    }
+
+    /**
+     * Resets a battle back to the state it was in when it was loaded.
+     *
+     * @param battle The battle to reset
+     */
+    public void reset(int battle) {
+        for (int i = 0; i < state.length; i++) {
+            int size = state[i].length == battles * SIDES ? SIDES : SLOTS_PER_BATTLE;
+            System.arraycopy(loaded[i], battle * size, state[i], battle * size, size);
+        }
+
+        turns[battle] = 0;
+        winner[battle] = -1;
+    }
+
+    /**
+     * Runs a loaded battle until one side has no Codeamon left. See Battle.trainerBattle.
+     *
+     * @param battle The battle to run
+     * @param random The source of all random rolls made during the battle
+     * @return The side that won, 0 for Trainer One or 1 for Trainer Two
+     */
+    public int run(int battle, BattleRandom random) {
+        int sideOne = battle * SIDES;
+        int sideTwo = sideOne + 1;
+        int one = lead(sideOne);
+        int two = lead(sideTwo);
+
+        while (remaining[sideOne] > 0 && remaining[sideTwo] > 0) {
+            fight(one, two, random);
+
+            //check if either Codeamon has fainted, then give out EXP and swap to next Codeamon
+            if (hitPoints[one] == 0) {
+                giveExperience(one, sideTwo);
+
+                if (remaining[sideOne] > 0) {
+                    one = lead(sideOne);
+                }
+            } else if (hitPoints[two] == 0) {
+                giveExperience(two, sideOne);
+
+                if (remaining[sideTwo] > 0) {
+                    two = lead(sideTwo);
+                }
+            }
+
+            turns[battle]++;
+        }
+
+        winner[battle] = remaining[sideOne] == 0 ? 1 : 0;
+
+        return winner[battle];
+    }
+
+    /**
+     * Gets the side that won a battle.
+     *
+     * @param battle The battle
+     * @return 0 for Trainer One, 1 for Trainer Two, or -1 if the battle has not been run
+     */
+    public int getWinner(int battle) {
+        return winner[battle];
+    }
+
+    /**
+     * Gets the number of turns a battle lasted.
+     *
+     * @param battle The battle
+     * @return The number of turns
+     */
+    public int getTurns(int battle) {
+        return turns[battle];
+    }
+
+    /**
+     * Gets the number of Codeamon in a side's party.
+     *
+     * @param battle The battle
+     * @param side 0 for Trainer One or 1 for Trainer Two
+     * @return The party size
+     */
+    public int getPartySize(int battle, int side) {
+        return partySize[battle * SIDES + side];
+    }
+
+    /**
+     * Gets the number of a side's Codeamon that have not fainted.
+     *
+     * @param battle The battle
+     * @param side 0 for Trainer One or 1 for Trainer Two
+     * @return The number of non-fainted Codeamon
+     */
+    public int getRemainingPartySize(int battle, int side) {
+        return remaining[battle * SIDES + side];
+    }
+
+    /**
+     * Gets the current Hit Points of a Codeamon.
+     *
+     * @param battle The battle
+     * @param side 0 for Trainer One or 1 for Trainer Two
+     * @param index The Codeamon's position in the party
+     * @return The current Hit Points
+     */
+    public int getCurrentHitPoints(int battle, int side, int index) {
+        return hitPoints[slot(battle, side, index)];
+    }
+
+    /**
+     * Gets the level of a Codeamon.
+     *
+     * @param battle The battle
+     * @param side 0 for Trainer One or 1 for Trainer Two
+     * @param index The Codeamon's position in the party
+     * @return The level
+     */
+    public int getLevel(int battle, int side, int index) {
+        return level[slot(battle, side, index)];
+    }
+
+    /**
+     * Gets the total amount of EXP a Codeamon has.
+     *
+     * @param battle The battle
+     * @param side 0 for Trainer One or 1 for Trainer Two
+     * @param index The Codeamon's position in the party
+     * @return The total experience points
+     */
+    public int getExperiencePoints(int battle, int side, int index) {
+        return exp[slot(battle, side, index)];
+    }
+
+    private int slot(int battle, int side, int index) {
+        return battle * SLOTS_PER_BATTLE + side * MAX_PARTY + index;
+    }
+
+    /**
+     * Gets the slot of the Codeamon a side sends into battle, chosen the same way as
+     * Trainer.getNextCodeamon.
+     *
+     * @param side The side's index in the per Trainer arrays
+     * @return The slot
+     */
+    private int lead(int side) {
+        advanceLead(side);
+
+        return side * MAX_PARTY + lead[side];
+    }
+
+    /**
+     * Moves a side's lead past any fainted Codeamon, the same way as a Trainer does.
+     *
+     * @param side The side's index in the per Trainer arrays
+     */
+    private void advanceLead(int side) {
+        while (lead[side] < partySize[side] && hitPoints[side * MAX_PARTY + lead[side]] == 0) {
+            lead[side]++;
+        }
+    }
+
+    /**
+     * Sets a Codeamon's Hit Point maximum and stats for its current level, keeping the amount of
+     * damage it has taken. See CodeamonStats.levelUp.
+     *
+     * @param slot The Codeamon's slot
+     */
+    private void setStats(int slot) {
+        int damage = maxHitPoints[slot] - hitPoints[slot];
+        int t = type[slot];
+        int lvl = level[slot];
+
+        maxHitPoints[slot] = (2 * BASE_HIT_POINTS[t] * lvl) / 100 + lvl + 10;
+        hitPoints[slot] = maxHitPoints[slot] - damage;
+        attack[slot] = (2 * BASE_ATTACK[t] * lvl) / 100 + 5;
+        defense[slot] = (2 * BASE_DEFENSE[t] * lvl) / 100 + 5;
+        speed[slot] = (2 * BASE_SPEED[t] * lvl) / 100 + 5;
+    }
+
+    private void fight(int one, int two, BattleRandom random) {
+        int speedOne = (int) (speed[one] * MODIFIERS[speedStage[one] + MAX_STAGE]);
+        int speedTwo = (int) (speed[two] * MODIFIERS[speedStage[two] + MAX_STAGE]);
+
+        if (speedOne > speedTwo) {
+            exchange(one, two, random);
+        } else if (speedOne < speedTwo) {
+            exchange(two, one, random);
+        } else if (random.nextInt(2) == 0) {
+            exchange(one, two, random);
+        } else {
+            exchange(two, one, random);
+        }
+    }
+
+    private void exchange(int first, int second, BattleRandom random) {
+        attack(first, second, random);
+
+        if (hitPoints[second] == 0) {
+            return;
+        }
+
+        attack(second, first, random);
+    }
+
+    /**
+     * A Codeamon uses a random attack from its moveset. See Attack.applyAttack.
+     *
+     * @param user The user's slot
+     * @param opponent The opponent's slot
+     * @param random The source of the attack choice and the attack's rolls
+     */
+    private void attack(int user, int opponent, BattleRandom random) {
+        int move = MOVESET_START[moveset[user]];
+
+        if (greedyMoveset[user] < 0) {
+            move += random.nextInt(MOVESET_SIZE[moveset[user]]);
+        } else {
+            move += GreedyMovePolicy.getBestMove(greedyMoveset[user], level[user],
+                    TYPES[type[opponent]]);
+        }
+
+        if (ATTACK_POWER[move] > MIN_CHANCE) {
+            if (applyDamage(user, opponent, move, random)) {
+                if (ATTACK_SELF[move]) {
+                    applyEffect(user, move, random);
+                } else if (hitPoints[opponent] > 0) {
+                    applyEffect(opponent, move, random);
+                }
+            }
+        } else if (ATTACK_SELF[move]) {
+            applyEffect(user, move, random);
+            applyHeal(user, move);
+        } else if (ATTACK_EFFECT_CHANCE[move] >= MIN_CHANCE && roll(ATTACK_ACCURACY[move], random)
+                && hitPoints[opponent] > 0) {
+            applyEffect(opponent, move, random);
+            applyHeal(user, move);
+        } else if (ATTACK_HEAL[move] >= MIN_HEAL) {
+            applyHeal(user, move);
+        }
+    }
+
+    private boolean applyDamage(int user, int opponent, int move, BattleRandom random) {
+        if (!roll(ATTACK_ACCURACY[move], random)) {
+            return false;
+        }
+
+        double crit = 1.0;
+        double damage;
+
+        if (roll(ATTACK_CRIT_CHANCE[move], random)) {
+            damage = (((2.0 * level[user] / 5.0 + 2.0) * ATTACK_POWER[move]
+                    * attackCritical(user) / defenseCritical(opponent)) / 50.0) + 2.0;
+            crit = 1.5;
+        } else {
+            damage = (((2.0 * level[user] / 5.0 + 2.0) * ATTACK_POWER[move]
+                    * stat(attack, attackStage, user) / stat(defense, defenseStage, opponent))
+                    / 50.0) + 2.0;
+        }
+
+        double stab = 1.0;
+
+        if (type[user] == ATTACK_TYPE[move]) {
+            stab = 1.5;
+        }
+
+        damage *= crit * stab * CHART[ATTACK_TYPE[move] * TYPE_COUNT + type[opponent]];
+
+        if (hitPoints[opponent] > 0 && hitPoints[opponent] <= Math.max((int) damage, 1)) {
+            remaining[opponent / MAX_PARTY]--;
+        }
+
+        hitPoints[opponent] = Math.max(hitPoints[opponent] - Math.max((int) damage, 1), 0);
+
+        applyHeal(user, move);
+
+        return true;
+    }
+
+    private void applyHeal(int user, int move) {
+        if (ATTACK_HEAL[move] < MIN_HEAL) {
+            return;
+        }
+
+        int heal = Math.max((int) (maxHitPoints[user] * ATTACK_HEAL[move]), 1);
+        hitPoints[user] = Math.min(hitPoints[user] + heal, maxHitPoints[user]);
+    }
+
+    private void applyEffect(int target, int move, BattleRandom random) {
+        if (!roll(ATTACK_EFFECT_CHANCE[move], random) || ATTACK_STAGES[move] == 0) {
+            return;
+        }
+
+        if (ATTACK_STAT[move] == Stat.Attack.ordinal()) {
+            attackStage[target] = applyStages(attackStage[target], ATTACK_STAGES[move]);
+        } else if (ATTACK_STAT[move] == Stat.Defense.ordinal()) {
+            defenseStage[target] = applyStages(defenseStage[target], ATTACK_STAGES[move]);
+        } else {
+            speedStage[target] = applyStages(speedStage[target], ATTACK_STAGES[move]);
+        }
+    }
+
+    private static int applyStages(int current, int stages) {
+        return Math.min(Math.max(current + stages, MIN_STAGE), MAX_STAGE);
+    }
+
+    /**
+     * Rolls a percent chance the same way Attack does: 100 always succeeds and less than 1
+     * always fails without using a roll.
+     *
+     * @param chance The percent chance of success
+     * @param random The source of the roll
+     * @return True if the roll succeeded, false otherwise
+     */
+    private static boolean roll(int chance, BattleRandom random) {
+        if (chance == MAX_CHANCE) {
+            return true;
+        } else if (chance < MIN_CHANCE) {
+            return false;
+        }
+
+        return random.chance(chance);
+    }
+
+    private int stat(int[] stats, int[] stages, int slot) {
+        return (int) (stats[slot] * MODIFIERS[stages[slot] + MAX_STAGE]);
+    }
+
+    private int attackCritical(int slot) {
+        if (attackStage[slot] > 0) {
+            return stat(attack, attackStage, slot);
+        }
+
+        return attack[slot];
+    }
+
+    private int defenseCritical(int slot) {
+        if (defenseStage[slot] > 0) {
+            return defense[slot];
+        }
+
+        return stat(defense, defenseStage, slot);
+    }
+
+    /**
+     * Gives EXP for a fainted Codeamon to every non-fainted Codeamon on the winning side. See
+     * Codeamon.giveExperience.
+     *
+     * @param fainted The fainted Codeamon's slot
+     * @param side The winning side's index in the per Trainer arrays
+     */
+    private void giveExperience(int fainted, int side) {
+        int givenExp = 150 * level[fainted] / 7;
+        int first = side * MAX_PARTY;
+
+        for (int slot = first; slot < first + partySize[side]; slot++) {
+            if (hitPoints[slot] > 0 && level[slot] != MAX_LEVEL) {
+                int oldLevel = level[slot];
+                exp[slot] += givenExp;
+
+                while (level[slot] != MAX_LEVEL
+                        && Codeamon.getExperienceForLevel(level[slot] + 1) <= exp[slot]) {
+                    level[slot]++;
+                }
+
+                if (level[slot] != oldLevel) {
+                    setStats(slot);
+                }
+            }
+        }
+    }
+}
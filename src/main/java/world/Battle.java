@@ -1,7 +1,10 @@
 package world;
 
+import codeamon.BattleRandom;
 import codeamon.Codeamon;
-import java.util.Random;
+import event.BattleEventSink;
+import event.ConsoleBattleEventSink;
+import metrics.SimulationMetrics;
 import trainer.Trainer;
 
 /**
@@ -21,51 +24,104 @@ public class Battle {
      * @return True if the Trainer won the battle, otherwise false
      */
     public static boolean wildBattle(Trainer trainer, Codeamon wildCodeamon) {
+        return wildBattle(trainer, wildCodeamon, ConsoleBattleEventSink.INSTANCE);
+    }
+
+    /**
+     * Conducts a battle between a Trainer and a Wild Codeamon, reporting everything that happens
+     * to the given sink. See wildBattle(Trainer, Codeamon).
+     *
+     * @param trainer The Codeamon Trainer
+     * @param wildCodeamon The Wild Codeamon
+     * @param sink The sink that receives the events of the battle
+     * @return True if the Trainer won the battle, otherwise false
+     */
+    public static boolean wildBattle(Trainer trainer, Codeamon wildCodeamon,
+                                     BattleEventSink sink) {
+        return wildBattle(trainer, wildCodeamon, sink, new BattleRandom());
+    }
+
+    /**
+     * Conducts a battle between a Trainer and a Wild Codeamon, reporting everything that happens
+     * to the given sink and taking every random roll from the given source. See
+     * wildBattle(Trainer, Codeamon).
+     *
+     * @param trainer The Codeamon Trainer
+     * @param wildCodeamon The Wild Codeamon
+     * @param sink The sink that receives the events of the battle
+     * @param random The source of all random rolls made during the battle
+     * @return True if the Trainer won the battle, otherwise false
+     */
+    public static boolean wildBattle(Trainer trainer, Codeamon wildCodeamon,
+                                     BattleEventSink sink, BattleRandom random) {
+        SimulationMetrics metrics = SimulationMetrics.get();
+        long start = metrics.isEnabled() ? System.nanoTime() : 0;
+        int turns = 0;
         Codeamon trainerCodeamon = trainer.getNextCodeamon();
-        System.out.println("A wild " + wildCodeamon.getName() + " appeared!");
-        trainer.printPartyStatus();
-        System.out.println(trainer.getName() + " sent out " + trainerCodeamon.getName() + "!");
+        sink.wildBattleStarted(trainer, wildCodeamon);
+        sink.sentOut(trainer, trainerCodeamon);
 
         while (trainer.getRemainingPartySize() > 0 && !wildCodeamon.isFainted()) {
-            System.out.print(trainer.getName() + "'s ");
-            trainerCodeamon.printBattleStatus();
-
-            System.out.print("Wild ");
-            wildCodeamon.printBattleStatus();
+            sink.battleStatus(trainer, trainerCodeamon);
+            sink.battleStatus(null, wildCodeamon);
 
-            fight(trainerCodeamon, wildCodeamon);
+            fight(trainerCodeamon, wildCodeamon, sink, random);
 
             //if trainer's Codeamon faints and they have more Codeamon, bring in the next one
             if (trainerCodeamon.isFainted() && trainer.getRemainingPartySize() > 0) {
-                trainer.printPartyStatus();
+                sink.partyStatus(trainer);
                 trainerCodeamon = trainer.getNextCodeamon();
-                System.out.println(trainer.getName() + " sent out "
-                        + trainerCodeamon.getName() + "!");
+                sink.sentOut(trainer, trainerCodeamon);
             }
 
-            System.out.println();
+            sink.turnEnded();
+            turns++;
+        }
+
+        if (metrics.isEnabled()) {
+            metrics.battleCompleted(true, turns, System.nanoTime() - start);
         }
 
         if (trainer.getRemainingPartySize() > 0) {
-            wildCodeamon.giveExperience(trainer.getCodeamonParty());
+            wildCodeamon.giveExperience(trainer.getCodeamonParty(), sink);
 
             if (trainer.getPartySize() < 6) {
-                System.out.println("The Wild " + wildCodeamon.getName() + " joined "
-                        + trainer.getName() + "'s party!");
+                sink.wildCodeamonJoined(trainer, wildCodeamon);
                 trainer.addCodeamon(wildCodeamon);
             }
 
             return true;
         }
 
-        trainer.printPartyStatus();
-        System.out.println(trainer.getName() + " is out of usable Codeamon!");
-        System.out.println(trainer.getName() + " fled from the Wild " + wildCodeamon.getName()
-                + "!");
+        sink.trainerFled(trainer, wildCodeamon);
 
         return false;
     }
 
+    /**
+     * Conducts a battle between a Trainer and a Wild Codeamon like wildBattle(Trainer, Codeamon,
+     * BattleEventSink, BattleRandom), recording it to a log so it can be replayed.
+     *
+     * @param trainer The Codeamon Trainer
+     * @param wildCodeamon The Wild Codeamon
+     * @param sink The sink that receives the events of the battle
+     * @param random The source of all random rolls made during the battle
+     * @param log The log to record the battle to, or null to not record it
+     * @return True if the Trainer won the battle, otherwise false
+     */
+    public static boolean wildBattle(Trainer trainer, Codeamon wildCodeamon,
+                                     BattleEventSink sink, BattleRandom random, BattleLog log) {
+        if (log == null) {
+            return wildBattle(trainer, wildCodeamon, sink, random);
+        }
+
+        BattleLog.Recording recording = log.startWildBattle(trainer, wildCodeamon, random);
+        boolean won = wildBattle(trainer, wildCodeamon, sink, recording);
+        recording.finish(won ? 0 : 1);
+
+        return won;
+    }
+
     /**
      * Conducts a battle between two Codeamon Trainers. The battle will run until one Trainer is
      * has been defeated. A Trainer is considered to have been defeated if all Codeamon in their
@@ -76,93 +132,145 @@ public class Battle {
      * @return The Trainer who won the battle
      */
     public static Trainer trainerBattle(Trainer trainerOne, Trainer trainerTwo) {
-        System.out.println("The Battle Between " + trainerOne.getName() + " and "
-                + trainerTwo.getName() + " is now underway!");
+        return trainerBattle(trainerOne, trainerTwo, ConsoleBattleEventSink.INSTANCE);
+    }
 
-        trainerOne.printPartyStatus();
-        trainerTwo.printPartyStatus();
+    /**
+     * Conducts a battle between two Codeamon Trainers, reporting everything that happens to the
+     * given sink. See trainerBattle(Trainer, Trainer).
+     *
+     * @param trainerOne The first Trainer in the battle
+     * @param trainerTwo The second Trainer in the battle
+     * @param sink The sink that receives the events of the battle
+     * @return The Trainer who won the battle
+     */
+    public static Trainer trainerBattle(Trainer trainerOne, Trainer trainerTwo,
+                                        BattleEventSink sink) {
+        return trainerBattle(trainerOne, trainerTwo, sink, new BattleRandom());
+    }
+
+    /**
+     * Conducts a battle between two Codeamon Trainers, reporting everything that happens to the
+     * given sink and taking every random roll from the given source. See
+     * trainerBattle(Trainer, Trainer).
+     *
+     * @param trainerOne The first Trainer in the battle
+     * @param trainerTwo The second Trainer in the battle
+     * @param sink The sink that receives the events of the battle
+     * @param random The source of all random rolls made during the battle
+     * @return The Trainer who won the battle
+     */
+    public static Trainer trainerBattle(Trainer trainerOne, Trainer trainerTwo,
+                                        BattleEventSink sink, BattleRandom random) {
+        SimulationMetrics metrics = SimulationMetrics.get();
+        long start = metrics.isEnabled() ? System.nanoTime() : 0;
+        int turns = 0;
+        sink.trainerBattleStarted(trainerOne, trainerTwo);
 
         Codeamon codeamonOne = trainerOne.getNextCodeamon();
         Codeamon codeamonTwo = trainerTwo.getNextCodeamon();
 
-        System.out.println(trainerOne.getName() + " sent out " + codeamonOne.getName() + "!");
-        System.out.println(trainerTwo.getName() + " sent out " + codeamonTwo.getName() + "!");
+        sink.sentOut(trainerOne, codeamonOne);
+        sink.sentOut(trainerTwo, codeamonTwo);
 
         while (trainerOne.getRemainingPartySize() > 0 && trainerTwo.getRemainingPartySize() > 0) {
-            System.out.print(trainerOne.getName() + "'s ");
-            codeamonOne.printBattleStatus();
-            System.out.print(trainerTwo.getName() + "'s ");
-            codeamonTwo.printBattleStatus();
+            sink.battleStatus(trainerOne, codeamonOne);
+            sink.battleStatus(trainerTwo, codeamonTwo);
 
-            fight(codeamonOne, codeamonTwo);
+            fight(codeamonOne, codeamonTwo, sink, random);
 
             //check if either Codeamon has fainted, then give out EXP and swap to next Codeamon
             if (codeamonOne.isFainted()) {
-                codeamonOne.giveExperience(trainerTwo.getCodeamonParty());
+                codeamonOne.giveExperience(trainerTwo.getCodeamonParty(), sink);
 
-                System.out.println();
-                trainerOne.printPartyStatus();
-                trainerTwo.printPartyStatus();
+                sink.partiesChanged(trainerOne, trainerTwo);
 
                 if (trainerOne.getRemainingPartySize() > 0) {
                     codeamonOne = trainerOne.getNextCodeamon();
-                    System.out.println(trainerOne.getName() + " sent out "
-                            + codeamonOne.getName() + "!");
+                    sink.sentOut(trainerOne, codeamonOne);
                 }
             } else if (codeamonTwo.isFainted()) {
-                codeamonTwo.giveExperience(trainerOne.getCodeamonParty());
+                codeamonTwo.giveExperience(trainerOne.getCodeamonParty(), sink);
 
-                System.out.println();
-                trainerOne.printPartyStatus();
-                trainerTwo.printPartyStatus();
+                sink.partiesChanged(trainerOne, trainerTwo);
 
                 if (trainerTwo.getRemainingPartySize() > 0) {
                     codeamonTwo = trainerTwo.getNextCodeamon();
-                    System.out.println(trainerTwo.getName() + " sent out "
-                            + codeamonTwo.getName() + "!");
+                    sink.sentOut(trainerTwo, codeamonTwo);
                 }
             }
 
-            System.out.println();
+            sink.turnEnded();
+            turns++;
+        }
+
+        if (metrics.isEnabled()) {
+            metrics.battleCompleted(false, turns, System.nanoTime() - start);
         }
 
         //Get the winner
         if (trainerOne.getRemainingPartySize() == 0) {
-            System.out.println(trainerTwo.getName() + " defeated " + trainerOne.getName() + "!");
-            trainerOne.payout(trainerTwo);
+            sink.trainerDefeated(trainerTwo, trainerOne);
+            trainerOne.payout(trainerTwo, sink);
 
             return trainerTwo;
         } else {
-            System.out.println(trainerOne.getName() + " defeated " + trainerTwo.getName() + "!");
-            trainerTwo.payout(trainerOne);
+            sink.trainerDefeated(trainerOne, trainerTwo);
+            trainerTwo.payout(trainerOne, sink);
 
             return trainerOne;
         }
     }
 
+    /**
+     * Conducts a battle between two Codeamon Trainers like trainerBattle(Trainer, Trainer,
+     * BattleEventSink, BattleRandom), recording it to a log so it can be replayed.
+     *
+     * @param trainerOne The first Trainer in the battle
+     * @param trainerTwo The second Trainer in the battle
+     * @param sink The sink that receives the events of the battle
+     * @param random The source of all random rolls made during the battle
+     * @param log The log to record the battle to, or null to not record it
+     * @return The Trainer who won the battle
+     */
+    public static Trainer trainerBattle(Trainer trainerOne, Trainer trainerTwo,
+                                        BattleEventSink sink, BattleRandom random,
+                                        BattleLog log) {
+        if (log == null) {
+            return trainerBattle(trainerOne, trainerTwo, sink, random);
+        }
+
+        BattleLog.Recording recording = log.startTrainerBattle(trainerOne, trainerTwo, random);
+        Trainer winner = trainerBattle(trainerOne, trainerTwo, sink, recording);
+        recording.finish(winner == trainerOne ? 0 : 1);
+
+        return winner;
+    }
+
     /**
      * Handles the logic for two Codeamon battling each other. First determines the turn order
      * for the round, then the two Codeamon use their attacks.
      *
      * @param monOne The first Codeamon in the battle
      * @param monTwo The second Codeamon in the battle
+     * @param sink The sink that receives the events of the battle
+     * @param random The source of all random rolls made during the battle
      */
-    private static void fight(Codeamon monOne, Codeamon monTwo) {
+    private static void fight(Codeamon monOne, Codeamon monTwo, BattleEventSink sink,
+                              BattleRandom random) {
         if (monOne.getSpeedStat() > monTwo.getSpeedStat()) {
-            attack(monOne, monTwo);
+            attack(monOne, monTwo, sink, random);
         } else if (monOne.getSpeedStat() < monTwo.getSpeedStat()) {
-            attack(monTwo, monOne);
+            attack(monTwo, monOne, sink, random);
         } else {
             //For speed ties, select a Codeamon at random
             //If 0, monOne goes first, if 1 monTwo goes first
-            Random rand = new Random();
-
-            int turn = rand.nextInt(2);
+            int turn = random.nextInt(2);
 
             if (turn == 0) {
-                attack(monOne, monTwo);
+                attack(monOne, monTwo, sink, random);
             } else {
-                attack(monTwo, monOne);
+                attack(monTwo, monOne, sink, random);
             }
         }
     }
@@ -172,14 +280,17 @@ public class Battle {
      *
      * @param first The first Codeamon to act in this round
      * @param second The second Codeamon to act in this round
+     * @param sink The sink that receives the events of the battle
+     * @param random The source of all random rolls made during the battle
      */
-    private static void attack(Codeamon first, Codeamon second) {
-        first.attack(second);
+    private static void attack(Codeamon first, Codeamon second, BattleEventSink sink,
+                               BattleRandom random) {
+        first.attack(second, sink, random);
 
         if (second.isFainted()) {
             return;
         }
 
-        second.attack(first);
+        second.attack(first, sink, random);
     }
 }
@@ -0,0 +1,364 @@
+package world;
+
+import codeamon.BattleRandom;
+import codeamon.Codeamon;
+import codeamon.CodeamonFactory;
+import codeamon.Stat;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import trainer.Trainer;
+
+/**
+ * An append-only file of compact battle recordings that BattleReplay can play back exactly.
+ * Battles are recorded by passing a BattleLog to Battle, or to a TimeCycleContext to record
+ * every battle of a simulation.
+ *
+ * <p>
+ *     Each recording holds the state of the battle's random rolls, the starting condition of
+ *     both sides, including each Codeamon's move policy, the winner, and every roll made during
+ *     the battle in order: move choices, speed ties, and hit, critical hit and effect rolls.
+ *     Numbers are stored as varints, so most rolls take a single byte and a turn costs only a
+ *     few bytes. A recording is built in memory while its battle runs and appended to the file
+ *     in one piece, so battles running at the same time can share a log. The file is written
+ *     through a memory-mapped region that is moved along the file as it fills, and trimmed to
+ *     its contents when the log is closed. Only Codeamon using the RandomMovePolicy or the
+ *     GreedyMovePolicy can be recorded.
+ * </p>
+ */
+public class BattleLog implements Closeable {
+    /**
+     * The version of the file format written by a BattleLog.
+     */
+    public static final int VERSION = 2;
+    static final int MAGIC = 0x434D424C;
+    static final int HEADER_BYTES = 2 * Integer.BYTES;
+    static final byte WILD_BATTLE = 0;
+    static final byte TRAINER_BATTLE = 1;
+    private static final int REGION_SIZE = 1 << 24;
+    private final FileChannel channel;
+    private MappedByteBuffer region;
+    private long regionStart;
+    private long end;
+    private long battles;
+
+    /**
+     * Opens a log, creating the file if it does not exist. Recordings in an existing file are
+     * kept, and new ones are appended after them.
+     *
+     * @param file The file to record to
+     * @throws IOException If the file could not be opened
+     * @throws IllegalArgumentException If the file exists but is not a battle log
+     */
+    public BattleLog(String file) throws IOException {
+        channel = FileChannel.open(Paths.get(file), StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.CREATE);
+
+        try {
+            if (channel.size() == 0) {
+                ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+                header.putInt(MAGIC).putInt(VERSION).flip();
+
+                while (header.hasRemaining()) {
+                    channel.write(header, header.position());
+                }
+
+                end = HEADER_BYTES;
+            } else {
+                end = BattleReplay.findEnd(channel, file);
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Gets the number of battles recorded since this log was opened.
+     *
+     * @return The number of battles
+     */
+    public synchronized long getBattles() {
+        return battles;
+    }
+
+    /**
+     * Gets the size of the log's contents.
+     *
+     * @return The size in bytes
+     */
+    public synchronized long getSize() {
+        return end;
+    }
+
+    /**
+     * Starts recording a battle between two Trainers. Their starting condition is recorded now.
+     *
+     * @param trainerOne The first Trainer in the battle
+     * @param trainerTwo The second Trainer in the battle
+     * @param random The source of the battle's random rolls
+     * @return The source of random rolls to battle with, which records every roll
+     */
+    Recording startTrainerBattle(Trainer trainerOne, Trainer trainerTwo, BattleRandom random) {
+        Recording recording = new Recording(this, TRAINER_BATTLE, random);
+        putTrainer(recording.record, trainerOne);
+        putTrainer(recording.record, trainerTwo);
+
+        return recording;
+    }
+
+    /**
+     * Starts recording a battle between a Trainer and a Wild Codeamon. Their starting condition
+     * is recorded now.
+     *
+     * @param trainer The Trainer
+     * @param wildCodeamon The Wild Codeamon
+     * @param random The source of the battle's random rolls
+     * @return The source of random rolls to battle with, which records every roll
+     */
+    Recording startWildBattle(Trainer trainer, Codeamon wildCodeamon, BattleRandom random) {
+        Recording recording = new Recording(this, WILD_BATTLE, random);
+        putTrainer(recording.record, trainer);
+        putCodeamon(recording.record, wildCodeamon);
+
+        return recording;
+    }
+
+    private static void putTrainer(Encoder record, Trainer trainer) {
+        List<Codeamon> party = trainer.getCodeamonParty();
+
+        record.putString(trainer.getName());
+        record.putSignedVarInt(trainer.getCodeaDollars());
+        record.putVarInt(party.size());
+
+        for (Codeamon codeamon : party) {
+            putCodeamon(record, codeamon);
+        }
+    }
+
+    private static void putCodeamon(Encoder record, Codeamon codeamon) {
+        String name = codeamon.getName();
+
+        record.putVarInt(CodeamonFactory.getSpeciesType(codeamon).ordinal());
+        record.putVarInt(codeamon.getMovesetTier());
+        record.putVarInt(codeamon.getLevel());
+        record.putVarInt(codeamon.getExperiencePoints());
+        record.putVarInt(codeamon.getCurrentHitPoints());
+        record.putSignedVarInt(codeamon.getStatStage(Stat.Attack));
+        record.putSignedVarInt(codeamon.getStatStage(Stat.Defense));
+        record.putSignedVarInt(codeamon.getStatStage(Stat.Speed));
+        record.putVarInt(WorldSnapshot.getMovePolicyId(codeamon));
+        record.putString(name.equals(codeamon.getSpeciesName()) ? null : name);
+    }
+
+    /**
+     * Appends a finished recording to the file, moving the mapped region along if it is full.
+     *
+     * @param record The recording
+     */
+    private synchronized void append(Encoder record) {
+        int needed = Encoder.getVarIntSize(record.size) + record.size;
+
+        try {
+            if (region == null || end - regionStart + needed > region.capacity()) {
+                regionStart = end;
+                region = channel.map(FileChannel.MapMode.READ_WRITE, regionStart,
+                        Math.max(REGION_SIZE, needed));
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("The battle log could not be extended.", e);
+        }
+
+        region.position((int) (end - regionStart));
+        Encoder.putVarInt(region, record.size);
+        region.put(record.bytes, 0, record.size);
+        end += needed;
+        battles++;
+    }
+
+    /**
+     * Writes the recordings to the storage device, so they survive a crash.
+     *
+     * @throws IOException If the recordings could not be written
+     */
+    public synchronized void force() throws IOException {
+        if (region != null) {
+            region.force();
+        }
+    }
+
+    /**
+     * Closes the log, trimming the file to the recordings in it.
+     *
+     * @throws IOException If the file could not be closed
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (!channel.isOpen()) {
+            return;
+        }
+
+        try {
+            force();
+            region = null;
+            channel.truncate(end);
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * A source of random rolls that takes its rolls from another source and records each one,
+     * along with the starting condition of the battle it is used for.
+     */
+    static class Recording extends BattleRandom {
+        private final BattleLog log;
+        private final BattleRandom random;
+        private final Encoder record = new Encoder();
+        private final Encoder rolls = new Encoder();
+        private int count;
+
+        private Recording(BattleLog log, byte kind, BattleRandom random) {
+            super(0, 1);
+            this.log = log;
+            this.random = random;
+
+            ByteBuffer state = ByteBuffer.allocate(STATE_BYTES);
+            random.writeState(state);
+            record.putByte(kind);
+            record.putBytes(state.array(), STATE_BYTES);
+        }
+
+        @Override
+        public int nextInt(int bound) {
+            int roll = random.nextInt(bound);
+            rolls.putVarInt(roll);
+            count++;
+
+            return roll;
+        }
+
+        /**
+         * Gets a random long value. Battles do not make this roll, so it is not recorded.
+         *
+         * @return The random value
+         */
+        @Override
+        public long nextLong() {
+            return random.nextLong();
+        }
+
+        /**
+         * Splits off a new BattleRandom. Battles do not split their rolls, so it is not recorded.
+         *
+         * @return The new BattleRandom
+         */
+        @Override
+        public BattleRandom split() {
+            return random.split();
+        }
+
+        /**
+         * Finishes the recording and appends it to the log.
+         *
+         * @param winner 0 if the first side won, which is the Trainer in a Wild Battle, or 1 if
+         *               the second side won
+         */
+        void finish(int winner) {
+            record.putVarInt(winner);
+            record.putVarInt(count);
+            record.putBytes(rolls.bytes, rolls.size);
+            log.append(record);
+        }
+    }
+
+    /**
+     * A growable array of bytes that numbers are written to as varints: seven bits to a byte,
+     * lowest bits first, with the top bit set on every byte but the last.
+     */
+    static class Encoder {
+        private byte[] bytes = new byte[64];
+        private int size;
+
+        private void ensure(int extra) {
+            if (size + extra > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + extra));
+            }
+        }
+
+        void putByte(int value) {
+            ensure(1);
+            bytes[size++] = (byte) value;
+        }
+
+        void putBytes(byte[] values, int length) {
+            ensure(length);
+            System.arraycopy(values, 0, bytes, size, length);
+            size += length;
+        }
+
+        void putVarInt(int value) {
+            ensure(5);
+
+            while ((value & ~0x7F) != 0) {
+                bytes[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+
+            bytes[size++] = (byte) value;
+        }
+
+        /**
+         * Writes a number that may be negative, zigzag encoded so small negative numbers stay
+         * small.
+         *
+         * @param value The number
+         */
+        void putSignedVarInt(int value) {
+            putVarInt((value << 1) ^ (value >> 31));
+        }
+
+        /**
+         * Writes a string as its UTF-8 length plus one followed by its bytes, or a 0 for null.
+         *
+         * @param value The string, which may be null
+         */
+        void putString(String value) {
+            if (value == null) {
+                putVarInt(0);
+                return;
+            }
+
+            byte[] utf = value.getBytes(StandardCharsets.UTF_8);
+            putVarInt(utf.length + 1);
+            putBytes(utf, utf.length);
+        }
+
+        static void putVarInt(ByteBuffer buffer, int value) {
+            while ((value & ~0x7F) != 0) {
+                buffer.put((byte) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+
+            buffer.put((byte) value);
+        }
+
+        static int getVarIntSize(int value) {
+            int bytes = 1;
+
+            while ((value & ~0x7F) != 0) {
+                value >>>= 7;
+                bytes++;
+            }
+
+            return bytes;
+        }
+    }
+}
@@ -0,0 +1,391 @@
+package world;
+
+import codeamon.BattleRandom;
+import codeamon.Codeamon;
+import event.BattleEventSink;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import trainer.Trainer;
+
+/**
+ * A battle recorded in a BattleLog, which can be played back to see exactly what happened.
+ *
+ * <p>
+ *     A replay rebuilds both sides of the battle in the condition they started in and runs the
+ *     battle again, with every random roll taken from the recording. Each roll is also checked
+ *     against the roll the recorded random state makes, and the replay must use every recorded
+ *     roll and end with the recorded winner. If anything differs, the battle no longer plays out
+ *     the way it did when it was recorded, and the replay fails.
+ * </p>
+ */
+public class BattleReplay {
+    //logs are read through windows of the file, so they can grow past what one mapping holds
+    private static final long WINDOW_SIZE = 1L << 30;
+    private static final int MAX_VAR_INT_BYTES = 5;
+    private final ByteBuffer record;
+    private final boolean wildBattle;
+    private final String firstSide;
+    private final int secondSideStart;
+    private final int winner;
+    private final int rolls;
+    private final int rollsStart;
+
+    private BattleReplay(ByteBuffer record) {
+        this.record = record;
+        ByteBuffer in = record.duplicate();
+        wildBattle = in.get() == BattleLog.WILD_BATTLE;
+        in.position(in.position() + BattleRandom.STATE_BYTES);
+        firstSide = skipTrainer(in);
+        secondSideStart = in.position();
+
+        if (wildBattle) {
+            skipCodeamon(in);
+        } else {
+            skipTrainer(in);
+        }
+
+        winner = getVarInt(in);
+        rolls = getVarInt(in);
+        rollsStart = in.position();
+    }
+
+    /**
+     * Reads every battle recorded in a log.
+     *
+     * @param file The log file
+     * @return The recorded battles, in the order they were recorded
+     * @throws IOException If the file could not be read
+     * @throws IllegalArgumentException If the file is not a battle log or is damaged
+     */
+    public static List<BattleReplay> readAll(String file) throws IOException {
+        List<BattleReplay> replays = new ArrayList<>();
+        forEach(file, replays::add);
+
+        return replays;
+    }
+
+    /**
+     * Reads the battles recorded in a log one at a time, without keeping them all in memory.
+     *
+     * @param file The log file
+     * @param consumer The consumer of the recorded battles, in the order they were recorded
+     * @throws IOException If the file could not be read
+     * @throws IllegalArgumentException If the file is not a battle log or is damaged
+     */
+    public static void forEach(String file, Consumer<BattleReplay> consumer) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(file), StandardOpenOption.READ)) {
+            scan(channel, file, consumer);
+        }
+    }
+
+    /**
+     * Finds where the recordings in a log end, which is where the next one will be appended.
+     * A log that was not closed can end with unused space or a recording cut off part way, and
+     * both are left out.
+     *
+     * @param channel The log file
+     * @param file The name of the file, for errors
+     * @return The position after the last whole recording
+     * @throws IOException If the file could not be read
+     * @throws IllegalArgumentException If the file is not a battle log
+     */
+    static long findEnd(FileChannel channel, String file) throws IOException {
+        return scan(channel, file, null);
+    }
+
+    private static long scan(FileChannel channel, String file, Consumer<BattleReplay> consumer)
+            throws IOException {
+        long size = channel.size();
+        long windowStart = 0;
+        MappedByteBuffer window = map(channel, windowStart);
+
+        if (size < BattleLog.HEADER_BYTES || window.getInt(0) != BattleLog.MAGIC) {
+            throw new IllegalArgumentException(file + " is not a battle log.");
+        } else if (window.getInt(Integer.BYTES) != BattleLog.VERSION) {
+            throw new IllegalArgumentException(file + " is version "
+                    + window.getInt(Integer.BYTES) + ", but only version " + BattleLog.VERSION
+                    + " can be read.");
+        }
+
+        long position = BattleLog.HEADER_BYTES;
+
+        while (position < size) {
+            long windowEnd = windowStart + window.limit();
+
+            if (position + MAX_VAR_INT_BYTES > windowEnd && windowEnd < size) {
+                windowStart = position;
+                window = map(channel, windowStart);
+            }
+
+            window.position((int) (position - windowStart));
+            int length;
+
+            try {
+                length = getVarInt(window);
+            } catch (BufferUnderflowException e) {
+                break;
+            }
+
+            //a length of 0 is the unused space at the end of a log that was not closed
+            long start = windowStart + window.position();
+
+            if (length <= 0 || start + length > size) {
+                break;
+            } else if (length > WINDOW_SIZE - MAX_VAR_INT_BYTES) {
+                throw new IllegalArgumentException(file + " is damaged.");
+            } else if (start + length > windowStart + window.limit()) {
+                windowStart = position;
+                window = map(channel, windowStart);
+                continue;
+            }
+
+            if (consumer != null) {
+                ByteBuffer record = window.duplicate();
+                record.limit(record.position() + length);
+                consumer.accept(new BattleReplay(record.slice()));
+            }
+
+            position = start + length;
+        }
+
+        return position;
+    }
+
+    private static MappedByteBuffer map(FileChannel channel, long start) throws IOException {
+        return channel.map(FileChannel.MapMode.READ_ONLY, start,
+                Math.min(WINDOW_SIZE, channel.size() - start));
+    }
+
+    /**
+     * Checks if the recorded battle was against a Wild Codeamon.
+     *
+     * @return True for a Wild Battle, false for a Trainer battle
+     */
+    public boolean isWildBattle() {
+        return wildBattle;
+    }
+
+    /**
+     * Gets the name of the first side of the battle, which is the Trainer in a Wild Battle.
+     *
+     * @return The name
+     */
+    public String getFirstSide() {
+        return firstSide;
+    }
+
+    /**
+     * Gets the name of the second side of the battle, which is the Wild Codeamon in a Wild
+     * Battle.
+     *
+     * @return The name
+     */
+    public String getSecondSide() {
+        ByteBuffer in = record.duplicate();
+        in.position(secondSideStart);
+
+        return wildBattle ? readCodeamon(in).getName() : getString(in);
+    }
+
+    /**
+     * Gets the side that won the recorded battle.
+     *
+     * @return 0 if the first side won, or 1 if the second side won
+     */
+    public int getWinner() {
+        return winner;
+    }
+
+    /**
+     * Gets the number of random rolls made during the recorded battle.
+     *
+     * @return The number of rolls
+     */
+    public int getRolls() {
+        return rolls;
+    }
+
+    /**
+     * Gets the size of the recording, not counting its length in the log.
+     *
+     * @return The size in bytes
+     */
+    public int getSize() {
+        return record.limit();
+    }
+
+    /**
+     * Plays the battle back from the start. The battle is fought between new copies of both
+     * sides, so it can be played back any number of times.
+     *
+     * @param sink The sink that receives the events of the battle
+     * @return 0 if the first side won, or 1 if the second side won
+     * @throws IllegalStateException If the battle did not play out as it was recorded
+     * @throws IllegalArgumentException If the recording is damaged
+     */
+    public int replay(BattleEventSink sink) {
+        ByteBuffer in = record.duplicate();
+        in.position(1);
+        BattleRandom seeded = BattleRandom.readState(in);
+        Trainer trainer = readTrainer(in);
+        ByteBuffer recordedRolls = record.duplicate();
+        recordedRolls.position(rollsStart);
+        Playback random = new Playback(recordedRolls, rolls, seeded);
+        int result;
+
+        if (wildBattle) {
+            Codeamon wildCodeamon = readCodeamon(in);
+            result = Battle.wildBattle(trainer, wildCodeamon, sink, random) ? 0 : 1;
+        } else {
+            Trainer opponent = readTrainer(in);
+            result = Battle.trainerBattle(trainer, opponent, sink, random) == trainer ? 0 : 1;
+        }
+
+        if (random.remaining != 0) {
+            throw new IllegalStateException("The replay made " + (rolls - random.remaining)
+                    + " of the " + rolls + " recorded rolls.");
+        } else if (result != winner) {
+            throw new IllegalStateException("The replay had a different winner.");
+        }
+
+        return result;
+    }
+
+    private static Trainer readTrainer(ByteBuffer in) {
+        Trainer.TrainerBuilder builder = new Trainer.TrainerBuilder(getString(in))
+                .codeaDollars(getSignedVarInt(in))
+                .keepPartyOrder();
+        int partySize = getVarInt(in);
+
+        for (int i = 0; i < partySize; i++) {
+            builder.codeamon(readCodeamon(in));
+        }
+
+        return builder.build();
+    }
+
+    private static Codeamon readCodeamon(ByteBuffer in) {
+        Codeamon codeamon = WorldSnapshot.createCodeamon(getVarInt(in), getVarInt(in));
+        int level = getVarInt(in);
+        int exp = getVarInt(in);
+        int hitPoints = getVarInt(in);
+        int attackStage = getSignedVarInt(in);
+        int defenseStage = getSignedVarInt(in);
+        int speedStage = getSignedVarInt(in);
+
+        codeamon.setMovePolicy(WorldSnapshot.getMovePolicy(getVarInt(in)));
+        codeamon.setNickname(getString(in));
+        codeamon.restore(level, exp, hitPoints, attackStage, defenseStage, speedStage);
+
+        return codeamon;
+    }
+
+    private static String skipTrainer(ByteBuffer in) {
+        String name = getString(in);
+        getVarInt(in);
+        int partySize = getVarInt(in);
+
+        for (int i = 0; i < partySize; i++) {
+            skipCodeamon(in);
+        }
+
+        return name;
+    }
+
+    private static void skipCodeamon(ByteBuffer in) {
+        for (int i = 0; i < 9; i++) {
+            getVarInt(in);
+        }
+
+        getString(in);
+    }
+
+    static int getVarInt(ByteBuffer in) {
+        int value = 0;
+
+        for (int shift = 0; shift < Integer.SIZE; shift += 7) {
+            byte b = in.get();
+            value |= (b & 0x7F) << shift;
+
+            if (b >= 0) {
+                return value;
+            }
+        }
+
+        throw new IllegalArgumentException("Invalid varint.");
+    }
+
+    private static int getSignedVarInt(ByteBuffer in) {
+        int value = getVarInt(in);
+
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static String getString(ByteBuffer in) {
+        int length = getVarInt(in) - 1;
+
+        if (length < 0) {
+            return null;
+        } else if (length > in.remaining()) {
+            throw new IllegalArgumentException("Invalid string length " + length + ".");
+        }
+
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * A source of random rolls that hands out the recorded rolls in order, checking each one
+     * against the roll made from the recorded random state.
+     */
+    private static class Playback extends BattleRandom {
+        private final ByteBuffer rolls;
+        private final BattleRandom seeded;
+        private int remaining;
+
+        Playback(ByteBuffer rolls, int count, BattleRandom seeded) {
+            super(0, 1);
+            this.rolls = rolls;
+            this.seeded = seeded;
+            remaining = count;
+        }
+
+        @Override
+        public int nextInt(int bound) {
+            if (remaining == 0) {
+                throw new IllegalStateException("The replay made more rolls than were recorded.");
+            }
+
+            int roll = getVarInt(rolls);
+            remaining--;
+
+            if (roll < 0 || roll >= bound || roll != seeded.nextInt(bound)) {
+                throw new IllegalStateException("The replay made a different roll than was "
+                        + "recorded.");
+            }
+
+            return roll;
+        }
+
+        @Override
+        public long nextLong() {
+            throw new IllegalStateException("Battles do not make this roll.");
+        }
+
+        @Override
+        public BattleRandom split() {
+            throw new IllegalStateException("Battles do not split their rolls.");
+        }
+    }
+}
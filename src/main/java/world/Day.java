@@ -1,8 +1,14 @@
 package world;
 
+import codeamon.BattleRandom;
 import codeamon.CodeamonFactory;
-import codeamon.Type;
+import event.BattleEventSink;
+import event.BufferedBattleEventSink;
+import event.LogLevel;
+import event.NoOpBattleEventSink;
 import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import trainer.Trainer;
 
 /**
@@ -11,6 +17,11 @@ import trainer.Trainer;
  * remains.
  */
 public class Day implements TimeCycle {
+    //Wild Battles are handed to the Executor in chunks, and only a window of them is run before
+    //their logs are printed so the logs waiting to be printed stay bounded
+    private static final int CHUNK_SIZE = 64;
+    private static final int WINDOW_SIZE = 4096;
+
     /**
      * Runs the Daytime events of the Codeamon World. For the first X Days of the simulation, where
      * X is the TimeCycleContext, Trainers will battle and attempt to recruit Wild Codeamon onto
@@ -20,16 +31,32 @@ public class Day implements TimeCycle {
      * Single Elimination Tournament until only one Trainer is left. After a Day's events have
      * concluded for each Trainer, it will become Night.
      *
+     * <p>
+     *     Each Trainer's Wild Battle touches only that Trainer and a freshly created Wild
+     *     Codeamon, so if the context has an Executor the Wild Battles run at the same time. Each
+     *     Trainer's stream of random rolls is split off in list order before its battle starts
+     *     and the logs are printed in list order, so the Day plays out the same way on any
+     *     number of threads.
+     * </p>
+     *
      * @param context The context that controls switching between states
      * @param trainers The trainers participating in the simulation
      */
     @Override
     public void runEvents(TimeCycleContext context, ArrayList<Trainer> trainers) {
         if (context.getWildBattleCount() < context.getWildBattleLimit()) {
-            //Trainers encounter wild Codeamon
-            for (Trainer t : trainers) {
-                Battle.wildBattle(t, CodeamonFactory.createRandomCodeamon(context.getWildLevel()));
-                System.out.println();
+            //Trainers encounter wild Codeamon, each battle gets its own stream of random rolls
+            if (context.getExecutor() == null) {
+                BattleEventSink sink = context.createBattleSink();
+
+                for (Trainer t : trainers) {
+                    wildBattle(context, t, context.getRandom().split(), sink);
+                }
+            } else {
+                for (int start = 0; start < trainers.size(); start += WINDOW_SIZE) {
+                    runConcurrentWildBattles(context, trainers, start,
+                            Math.min(trainers.size(), start + WINDOW_SIZE));
+                }
             }
             //Increase the wild battle counter
             context.incrementBattleCount();
@@ -38,7 +65,77 @@ public class Day implements TimeCycle {
             context.getTournament().executeNextRound();
         }
 
-        System.out.println();
+        context.println(LogLevel.Battle, "");
         context.setState(new Night());
     }
+
+    /**
+     * Runs the Wild Battles of a window of Trainers at the same time on the context's Executor,
+     * then prints their logs in list order.
+     *
+     * @param context The context that controls switching between states
+     * @param trainers The trainers participating in the simulation
+     * @param start The index of the first Trainer in the window
+     * @param end The index after the last Trainer in the window
+     */
+    private void runConcurrentWildBattles(TimeCycleContext context, ArrayList<Trainer> trainers,
+                                          int start, int end) {
+        int size = end - start;
+        BattleRandom[] streams = new BattleRandom[size];
+        BufferedBattleEventSink[] logs = new BufferedBattleEventSink[size];
+        ArrayList<CompletableFuture<Void>> chunks = new ArrayList<>();
+        int level = context.getWildLevel();
+
+        //split every stream before any battle starts, in the same order as one at a time
+        for (int i = 0; i < size; i++) {
+            streams[i] = context.getRandom().split();
+        }
+
+        for (int from = 0; from < size; from += CHUNK_SIZE) {
+            int first = from;
+            int last = Math.min(size, from + CHUNK_SIZE);
+
+            chunks.add(CompletableFuture.runAsync(() -> {
+                for (int i = first; i < last; i++) {
+                    BattleEventSink sink = NoOpBattleEventSink.INSTANCE;
+
+                    if (!context.isQuiet()) {
+                        logs[i] = context.createBattleBuffer();
+                        sink = logs[i];
+                    }
+
+                    Battle.wildBattle(trainers.get(start + i),
+                            CodeamonFactory.createRandomCodeamon(level, streams[i]), sink,
+                            streams[i], context.getBattleLog());
+                }
+            }, context.getExecutor()));
+        }
+
+        for (int chunk = 0; chunk < chunks.size(); chunk++) {
+            chunks.get(chunk).join();
+
+            if (context.isQuiet()) {
+                continue;
+            }
+
+            for (int i = chunk * CHUNK_SIZE; i < Math.min(size, (chunk + 1) * CHUNK_SIZE); i++) {
+                context.printBattle(logs[i]);
+            }
+        }
+    }
+
+    /**
+     * Runs a single Trainer's Wild Battle on the calling thread.
+     *
+     * @param context The context that controls switching between states
+     * @param trainer The Trainer
+     * @param random The Trainer's stream of random rolls
+     * @param sink The sink that receives the events of the battle
+     */
+    private void wildBattle(TimeCycleContext context, Trainer trainer, BattleRandom random,
+                            BattleEventSink sink) {
+        Battle.wildBattle(trainer, CodeamonFactory.createRandomCodeamon(context.getWildLevel(),
+                random), sink, random, context.getBattleLog());
+        context.printBattle(sink);
+    }
 }
@@ -1,5 +1,6 @@
 package world;
 
+import event.LogLevel;
 import java.util.ArrayList;
 import trainer.Trainer;
 
@@ -19,10 +20,13 @@ public class Night implements TimeCycle {
     public void runEvents(TimeCycleContext context, ArrayList<Trainer> trainers) {
         for (Trainer t : trainers) {
             t.restParty();
-            System.out.println(t.getName() + "'s Codeamon rested.");
+
+            if (context.isLogged(LogLevel.Battle)) {
+                context.println(LogLevel.Battle, t.getName() + "'s Codeamon rested.");
+            }
         }
 
-        System.out.println();
+        context.println(LogLevel.Battle, "");
         context.setState(new Day());
     }
 }
@@ -1,6 +1,14 @@
 package world;
 
+import codeamon.BattleRandom;
+import event.BattleEventSink;
+import event.BufferedBattleEventSink;
+import event.ConsoleBattleEventSink;
+import event.LogLevel;
+import event.LogWriter;
+import event.NoOpBattleEventSink;
 import java.util.ArrayList;
+import java.util.concurrent.Executor;
 import trainer.Trainer;
 
 /**
@@ -17,7 +25,9 @@ import trainer.Trainer;
  *     <li>Defeating a Codeamon earns EXP for all non-fainted Codeamon in the party</li>
  *     <li>Defeating another Trainer earns half of that Trainer's money</li>
  *     <li>During the Night all Codeamon fully heal</li>
- *     <li>Only one battle takes place at a time</li>
+ *     <li>Battles take place one at a time, unless an Executor is set, in which case a Day's
+ *     Wild Battles and a Tournament round's matches run concurrently. The results are the
+ *     same either way</li>
  *     <li>Trainers can only battle with one Codeamon at a time, but they can use another if one
  *     faints</li>
  *     <li>Attacks are turn based, with speed determining who goes first</li>
@@ -30,6 +40,11 @@ public class TimeCycleContext {
     private final int wildBattles;
     private final int initialLevel;
     private Tournament tournament;
+    private final BattleRandom random;
+    private Executor executor;
+    private boolean quiet;
+    private BattleLog log;
+    private LogWriter writer;
 
     /**
      * Constructor that sets the initial state as Day, determines the number of Wild Codeamon
@@ -43,12 +58,50 @@ public class TimeCycleContext {
      * @param trainers The list of Trainers who will compete in the tournament
      */
     public TimeCycleContext(int wildBattles, int initialLevel, ArrayList<Trainer> trainers) {
+        this(wildBattles, initialLevel, trainers, new BattleRandom());
+    }
+
+    /**
+     * Constructor that works like TimeCycleContext(int, int, ArrayList), except that every random
+     * roll in the simulation is taken from the given source. Two simulations with the same
+     * Trainers and equally seeded sources will play out identically.
+     *
+     * @param wildBattles The number of wild Codeamon battles to occur before the tournament begins
+     * @param initialLevel The level of the first Wild Codeamon. A Wild Codeamon will no tbe below
+     *                  level 1 or above level 100, regardless of this value.
+     * @param trainers The list of Trainers who will compete in the tournament
+     * @param random The source of all random rolls in the simulation
+     */
+    public TimeCycleContext(int wildBattles, int initialLevel, ArrayList<Trainer> trainers,
+                            BattleRandom random) {
         this.wildBattles = wildBattles;
         this.initialLevel = initialLevel;
-        tournament = new Tournament(trainers);
+        this.random = random;
+        tournament = new Tournament(trainers, random.split());
         setState(new Day());
     }
 
+    /**
+     * Constructor for a context restored part way through a simulation, such as from a
+     * WorldSnapshot.
+     *
+     * @param wildBattles The number of wild Codeamon battles to occur before the tournament begins
+     * @param initialLevel The level of the first Wild Codeamon
+     * @param battleCount The number of Wild Battles each Trainer has completed
+     * @param state The current state
+     * @param random The source of random rolls outside of the Tournament
+     * @param tournament The Tournament
+     */
+    TimeCycleContext(int wildBattles, int initialLevel, int battleCount, TimeCycle state,
+                     BattleRandom random, Tournament tournament) {
+        this.wildBattles = wildBattles;
+        this.initialLevel = initialLevel;
+        this.battleCount = battleCount;
+        this.state = state;
+        this.random = random;
+        this.tournament = tournament;
+    }
+
     /**
      * Sets the current state of the TimeCycle. Should not be called from outside of the TimeCycle
      * states, Day and Night.
@@ -59,6 +112,15 @@ public class TimeCycleContext {
         this.state = state;
     }
 
+    /**
+     * Gets the current state of the TimeCycle.
+     *
+     * @return The current state
+     */
+    TimeCycle getState() {
+        return state;
+    }
+
     /**
      * Executes the current state's implementation of runEvents().
      *
@@ -104,6 +166,173 @@ public class TimeCycleContext {
         battleCount++;
     }
 
+    /**
+     * Gets the source of random rolls for this simulation.
+     *
+     * @return The source of random rolls
+     */
+    public BattleRandom getRandom() {
+        return random;
+    }
+
+    /**
+     * Sets the Executor used to run battles at the same time, both the Wild Battles of a Day and
+     * the matches of a Tournament round. The results are the same as running them one at a time
+     * with the same source of random rolls, and the logs are printed in the same order.
+     *
+     * @param executor The Executor to run battles on, or null to run them one at a time
+     */
+    public void setExecutor(Executor executor) {
+        this.executor = executor;
+        tournament.setExecutor(executor);
+    }
+
+    /**
+     * Gets the Executor used to run battles at the same time.
+     *
+     * @return The Executor, or null if battles are run one at a time
+     */
+    public Executor getExecutor() {
+        return executor;
+    }
+
+    /**
+     * Sets whether the simulation runs quietly, without printing its battles or events. This is
+     * meant for simulations with too many Trainers to follow.
+     *
+     * @param quiet True to run quietly, false to print the simulation
+     */
+    public void setQuiet(boolean quiet) {
+        this.quiet = quiet;
+        tournament.setQuiet(quiet);
+    }
+
+    /**
+     * Checks if the simulation runs quietly.
+     *
+     * @return True if nothing is printed, false if not
+     */
+    public boolean isQuiet() {
+        return quiet;
+    }
+
+    /**
+     * Sets the log that every battle of the simulation is recorded to, both the Wild Battles and
+     * the matches of the Tournament, so they can be replayed.
+     *
+     * @param log The log, or null to not record battles
+     */
+    public void setBattleLog(BattleLog log) {
+        this.log = log;
+        tournament.setBattleLog(log);
+    }
+
+    /**
+     * Gets the log that every battle of the simulation is recorded to.
+     *
+     * @return The log, or null if battles are not recorded
+     */
+    public BattleLog getBattleLog() {
+        return log;
+    }
+
+    /**
+     * Sets the writer that the text of the simulation goes to, instead of straight to the
+     * console. The writer's level decides how much of each Day and Night is written. A quiet
+     * simulation writes nothing either way.
+     *
+     * @param writer The writer, or null to print to the console
+     */
+    public void setLogWriter(LogWriter writer) {
+        this.writer = writer;
+        tournament.setLogWriter(writer);
+    }
+
+    /**
+     * Gets the writer that the text of the simulation goes to.
+     *
+     * @return The writer, or null if the text is printed to the console
+     */
+    public LogWriter getLogWriter() {
+        return writer;
+    }
+
+    /**
+     * Checks if text at a level is written, so lines that would be dropped are not built.
+     *
+     * @param level The level of the text
+     * @return True if it is written, false if not
+     */
+    boolean isLogged(LogLevel level) {
+        return !quiet && (writer == null || writer.isEnabled(level));
+    }
+
+    /**
+     * Writes a line of the simulation's text, unless the simulation is quiet.
+     *
+     * @param level The level of the line
+     * @param line The line
+     */
+    void println(LogLevel level, String line) {
+        if (quiet) {
+            return;
+        }
+
+        if (writer == null) {
+            System.out.println(line);
+        } else {
+            writer.println(level, line);
+        }
+    }
+
+    /**
+     * Creates the sink for a battle whose text is printed as it happens: the console, a buffer
+     * that is handed to the writer after the battle, or nothing if the simulation is quiet.
+     *
+     * @return The sink
+     */
+    BattleEventSink createBattleSink() {
+        if (quiet) {
+            return NoOpBattleEventSink.INSTANCE;
+        } else if (writer == null) {
+            return ConsoleBattleEventSink.INSTANCE;
+        }
+
+        return new BufferedBattleEventSink(writer.getLevel());
+    }
+
+    /**
+     * Creates a sink that holds a battle's text until it is printed with printBattle().
+     *
+     * @return The sink
+     */
+    BufferedBattleEventSink createBattleBuffer() {
+        return new BufferedBattleEventSink(writer == null ? LogLevel.Turn : writer.getLevel());
+    }
+
+    /**
+     * Prints the text held by a battle's sink, if it holds any, followed by an empty line.
+     *
+     * @param sink The sink the battle reported to
+     */
+    void printBattle(BattleEventSink sink) {
+        if (quiet) {
+            return;
+        }
+
+        if (sink instanceof BufferedBattleEventSink) {
+            BufferedBattleEventSink buffer = (BufferedBattleEventSink) sink;
+
+            if (writer == null) {
+                buffer.flushTo(System.out);
+            } else {
+                buffer.flushTo(writer);
+            }
+        }
+
+        println(LogLevel.Battle, "");
+    }
+
     /**
      * Gets the tournament the Trainers are competing in.
      *
@@ -1,16 +1,46 @@
 package world;
 
+import codeamon.BattleRandom;
+import event.BattleEventSink;
+import event.BufferedBattleEventSink;
+import event.ConsoleBattleEventSink;
+import event.LogLevel;
+import event.LogWriter;
+import event.NoOpBattleEventSink;
 import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import metrics.SimulationMetrics;
 import trainer.Trainer;
 
 /**
  * A Single Elimination Tournament for Codeamon Trainers to compete in. Byes are given out only in
- * the first round.
+ * the first round. The matches of a round can optionally be run at the same time on an Executor.
+ *
+ * <p>
+ *     The bracket is kept as an array of indexes into the array of entrants, and each round
+ *     writes its winners over the front of that array, so a Tournament only ever needs memory
+ *     for its entrants no matter how many rounds it runs. Rounds and byes are worked out with
+ *     integer bit arithmetic, which keeps them exact for brackets of millions of Trainers. Large
+ *     brackets should also be made quiet, so the battles are not printed.
+ * </p>
  */
 public class Tournament {
-    private ArrayList<Trainer> bracket;
+    //matches are handed to the Executor in chunks, and only a window of them is run before
+    //their logs are printed so the logs waiting to be printed stay bounded
+    private static final int CHUNK_SIZE = 64;
+    private static final int WINDOW_SIZE = 4096;
+    private final Trainer[] entrants;
+    //indexes into entrants of the Trainers still in the bracket, in bracket order
+    private final int[] bracket;
+    private int size;
     private int currentRound;
     private final int rounds;
+    private final BattleRandom random;
+    private Executor executor;
+    private boolean quiet;
+    private BattleLog log;
+    private LogWriter writer;
 
     /**
      * Constructor for a Tournament that sets the list of competing Codeamon Trainers.
@@ -18,9 +48,117 @@ public class Tournament {
      * @param trainers The list of competing Codeamon Trainers
      */
     public Tournament(ArrayList<Trainer> trainers) {
-        bracket = trainers;
+        this(trainers, new BattleRandom());
+    }
+
+    /**
+     * Constructor for a Tournament that sets the list of competing Codeamon Trainers and the
+     * source of random rolls for its battles.
+     *
+     * @param trainers The list of competing Codeamon Trainers
+     * @param random The source of random rolls. Each battle is given its own split of it
+     */
+    public Tournament(ArrayList<Trainer> trainers, BattleRandom random) {
+        this.random = random;
+        entrants = trainers.toArray(new Trainer[0]);
+        size = entrants.length;
+        bracket = new int[size];
+
+        for (int i = 0; i < size; i++) {
+            bracket[i] = i;
+        }
+
         currentRound = 1;
-        rounds = (int) Math.ceil(Math.log(bracket.size()) / Math.log(2));
+        rounds = getRounds(size);
+    }
+
+    /**
+     * Constructor for a Tournament restored part way through, such as from a WorldSnapshot.
+     *
+     * @param entrants Every Trainer who entered the Tournament, in their original order
+     * @param bracket The indexes into entrants of the Trainers still in the bracket, in bracket
+     *                order. Must be as long as entrants
+     * @param size The number of Trainers still in the bracket
+     * @param currentRound The next round to be run
+     * @param random The source of random rolls
+     */
+    Tournament(Trainer[] entrants, int[] bracket, int size, int currentRound,
+               BattleRandom random) {
+        this.entrants = entrants;
+        this.bracket = bracket;
+        this.size = size;
+        this.currentRound = currentRound;
+        this.random = random;
+        rounds = getRounds(entrants.length);
+    }
+
+    /**
+     * Gets the number of rounds a single elimination tournament needs, which is the ceiling of
+     * log2 of the number of participants. This is the number of bits needed to count up to one
+     * less than the number of participants.
+     *
+     * @param participants The number of participants
+     * @return The number of rounds
+     */
+    static int getRounds(int participants) {
+        if (participants <= 1) {
+            return 0;
+        }
+
+        return Integer.SIZE - Integer.numberOfLeadingZeros(participants - 1);
+    }
+
+    /**
+     * Gets the number of byes given out in the first round so that every later round has a
+     * power of 2 participants, which is 2^rounds - participants.
+     *
+     * @param participants The number of participants
+     * @return The number of byes
+     */
+    static int getByes(int participants) {
+        return (int) ((1L << getRounds(participants)) - participants);
+    }
+
+    /**
+     * Sets the Executor used to run the matches of a round at the same time. Every match gets its
+     * own stream of random rolls and its own log, and the logs are printed in bracket order as
+     * each window of matches finishes, so a round plays out exactly as it would have one match
+     * at a time.
+     *
+     * @param executor The Executor to run matches on, or null to run them one at a time
+     */
+    public void setExecutor(Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Sets whether the Tournament runs quietly. A quiet Tournament prints nothing and its
+     * battles report to no sink, which is meant for brackets too large to follow.
+     *
+     * @param quiet True to run quietly, false to print the Tournament
+     */
+    public void setQuiet(boolean quiet) {
+        this.quiet = quiet;
+    }
+
+    /**
+     * Sets the log that every match is recorded to, so it can be replayed.
+     *
+     * @param log The log, or null to not record matches
+     */
+    public void setBattleLog(BattleLog log) {
+        this.log = log;
+    }
+
+    /**
+     * Sets the writer that the text of the Tournament goes to, instead of straight to the
+     * console. The progress of the bracket is written at LogLevel.Summary and the matches at the
+     * levels of their events.
+     *
+     * @param writer The writer, or null to print to the console
+     */
+    public void setLogWriter(LogWriter writer) {
+        this.writer = writer;
     }
 
     /**
@@ -45,64 +183,196 @@ public class Tournament {
         the formula can be simplified into P - (2 * P - 2 ^ N)
 
         Wow, I just realized this can greatly simplified. -1 * (P - 2 ^ N) = byes. I feel dumb now
-        Wow, I feel more dumb. That's just N ^ 2 - P
+        Wow, I feel more dumb. That's just 2 ^ N - P
          */
         if (currentRound == 1) {
-            byes = (int) (Math.pow(2, rounds) - bracket.size());
+            byes = getByes(size);
         }
 
         if (currentRound < rounds) {
-            System.out.println("Round " + currentRound + " of the Tournament is starting!");
+            print("Round " + currentRound + " of the Tournament is starting!");
         } else {
-            System.out.println("The final round of the Tournament is starting!");
+            print("The final round of the Tournament is starting!");
         }
 
-        //track the winners
-        ArrayList<Trainer> winners = new ArrayList<>();
-
         //Byes are considered to have won
         for (int i = 0; i < byes; i++) {
-            System.out.println(bracket.get(bracket.size() - 1 + i).getName()
+            print(entrants[bracket[size - byes + i]].getName()
                     + " gets a Bye and advances straight to the next round!");
-            winners.add(bracket.get(bracket.size() - 1 + i));
         }
 
         /*
-        Trainers are paired up by their placement in the list. The first Trainer battles the last
-        Trainer, the second Trainer battles the second to last Trainer, and so on until all
-        Trainers have battled. If there are byes, the byes go to the last X Trainers in the list,
-        where X is the number of byes, and the end of the list is considered to be the last Trainer
-        to not get a bye.
+        Trainers are paired up by their placement in the bracket. The first Trainer battles the
+        last Trainer, the second Trainer battles the second to last Trainer, and so on until all
+        Trainers have battled. If there are byes, the byes go to the last X Trainers in the
+        bracket, where X is the number of byes, and the end of the bracket is considered to be the
+        last Trainer to not get a bye.
+
+        The winner of match i is written over slot i, which that match has already read and no
+        later match reads, and the byes then move up to sit right after the winners.
          */
-        for (int i = 0; i < (bracket.size() - byes) / 2; i++) {
-            System.out.println();
-            Trainer trainerOne = bracket.get(i);
-            Trainer trainerTwo = bracket.get(bracket.size() - 1 - byes - i);
-            Trainer winner = Battle.trainerBattle(trainerOne,
-                    trainerTwo);
-
-            if (winner == trainerOne) {
-                System.out.println(trainerTwo.getName() + " was eliminated from the Tournament!");
-                winners.add(trainerOne);
-            } else {
-                System.out.println(trainerOne.getName() + " was eliminated from the Tournament!");
-                winners.add(trainerTwo);
+        int matches = (size - byes) / 2;
+
+        if (executor == null) {
+            BattleEventSink sink = battleSink();
+
+            for (int i = 0; i < matches; i++) {
+                print(LogLevel.Battle, "");
+                Trainer trainerOne = entrants[bracket[i]];
+                Trainer trainerTwo = entrants[bracket[size - 1 - byes - i]];
+                Trainer winner = Battle.trainerBattle(trainerOne, trainerTwo, sink,
+                        random.split(), log);
+
+                printBattle(sink);
+                eliminateLoser(winner, i, size - 1 - byes - i);
             }
+        } else {
+            executeConcurrentMatches(matches, byes);
         }
 
-        bracket = winners;
+        System.arraycopy(bracket, size - byes, bracket, matches, byes);
+        size = matches + byes;
+        SimulationMetrics.get().tournamentRoundCompleted(matches);
 
-        System.out.println();
+        print(LogLevel.Battle, "");
 
         if (currentRound < rounds) {
-            System.out.println("Round " + currentRound + " of the Tournament is now complete!");
+            print("Round " + currentRound + " of the Tournament is now complete!");
         } else {
-            System.out.println("The final round of the Tournament is now complete!");
+            print("The final round of the Tournament is now complete!");
         }
 
         currentRound++;
     }
 
+    /**
+     * Runs the matches of a round at the same time on the Executor, a window of matches at a
+     * time. The random streams are split off in bracket order before any match of the window
+     * starts, so each match gets the same stream it would have if the matches ran one at a time.
+     *
+     * @param matches The number of matches in the round
+     * @param byes The number of byes in the round
+     */
+    private void executeConcurrentMatches(int matches, int byes) {
+        for (int start = 0; start < matches; start += WINDOW_SIZE) {
+            executeConcurrentMatches(start, Math.min(matches, start + WINDOW_SIZE), byes);
+        }
+    }
+
+    /**
+     * Runs a window of the matches of a round at the same time on the Executor, then prints
+     * their logs and eliminates their losers in bracket order.
+     *
+     * @param start The first match in the window
+     * @param end The match after the last match in the window
+     * @param byes The number of byes in the round
+     */
+    private void executeConcurrentMatches(int start, int end, int byes) {
+        int count = end - start;
+        Trainer[] ones = new Trainer[count];
+        Trainer[] twos = new Trainer[count];
+        BattleRandom[] streams = new BattleRandom[count];
+        Trainer[] winners = new Trainer[count];
+        BufferedBattleEventSink[] logs = new BufferedBattleEventSink[count];
+        ArrayList<CompletableFuture<Void>> chunks = new ArrayList<>();
+
+        for (int i = 0; i < count; i++) {
+            ones[i] = entrants[bracket[start + i]];
+            twos[i] = entrants[bracket[size - 1 - byes - start - i]];
+            streams[i] = random.split();
+
+            if (!quiet) {
+                logs[i] = new BufferedBattleEventSink(getLogLevel());
+            }
+        }
+
+        for (int from = 0; from < count; from += CHUNK_SIZE) {
+            int first = from;
+            int last = Math.min(count, from + CHUNK_SIZE);
+
+            chunks.add(CompletableFuture.runAsync(() -> {
+                for (int i = first; i < last; i++) {
+                    BattleEventSink sink = quiet ? NoOpBattleEventSink.INSTANCE : logs[i];
+                    winners[i] = Battle.trainerBattle(ones[i], twos[i], sink, streams[i], log);
+                }
+            }, executor));
+        }
+
+        for (int chunk = 0; chunk < chunks.size(); chunk++) {
+            chunks.get(chunk).join();
+
+            for (int i = chunk * CHUNK_SIZE; i < Math.min(count, (chunk + 1) * CHUNK_SIZE); i++) {
+                print(LogLevel.Battle, "");
+                printBattle(logs[i]);
+
+                eliminateLoser(winners[i], start + i, size - 1 - byes - start - i);
+            }
+        }
+    }
+
+    /**
+     * Announces the loser of a match and moves the winner into the first Trainer's slot.
+     *
+     * @param winner The winner of the match
+     * @param one The first Trainer's slot in the bracket
+     * @param two The second Trainer's slot in the bracket
+     */
+    private void eliminateLoser(Trainer winner, int one, int two) {
+        if (winner == entrants[bracket[one]]) {
+            print(entrants[bracket[two]].getName() + " was eliminated from the Tournament!");
+        } else {
+            print(entrants[bracket[one]].getName() + " was eliminated from the Tournament!");
+            bracket[one] = bracket[two];
+        }
+    }
+
+    private LogLevel getLogLevel() {
+        return writer == null ? LogLevel.Turn : writer.getLevel();
+    }
+
+    private BattleEventSink battleSink() {
+        if (quiet) {
+            return NoOpBattleEventSink.INSTANCE;
+        } else if (writer == null) {
+            return ConsoleBattleEventSink.INSTANCE;
+        }
+
+        return new BufferedBattleEventSink(writer.getLevel());
+    }
+
+    /**
+     * Prints the text held by a match's sink, if it holds any.
+     *
+     * @param sink The sink the match reported to
+     */
+    private void printBattle(BattleEventSink sink) {
+        if (quiet || !(sink instanceof BufferedBattleEventSink)) {
+            return;
+        }
+
+        if (writer == null) {
+            ((BufferedBattleEventSink) sink).flushTo(System.out);
+        } else {
+            ((BufferedBattleEventSink) sink).flushTo(writer);
+        }
+    }
+
+    private void print(String message) {
+        print(LogLevel.Summary, message);
+    }
+
+    private void print(LogLevel level, String message) {
+        if (quiet) {
+            return;
+        }
+
+        if (writer == null) {
+            System.out.println(message);
+        } else {
+            writer.println(level, message);
+        }
+    }
+
     /**
      * Checks if the tournament has concluded. A Tournament is considered to have concluded
      * when only one Trainer remains in the bracket.
@@ -110,7 +380,7 @@ public class Tournament {
      * @return True if it has concluded, false if it has not
      */
     public boolean isConcluded() {
-        if (bracket.size() == 1) {
+        if (size == 1) {
             return true;
         }
 
@@ -125,18 +395,71 @@ public class Tournament {
      */
     public Trainer getWinner() {
         if (isConcluded()) {
-            return bracket.get(0);
+            return entrants[bracket[0]];
         }
 
         return null;
     }
 
     /**
-     * Gets the list of Trainers who have not yet been eliminated from the bracket.
+     * Gets the list of Trainers who have not yet been eliminated from the bracket. The list is a
+     * copy, so changing it does not change the bracket.
      *
-     * @return The list of Trainers
+     * @return The list of Trainers, in bracket order
      */
     public ArrayList<Trainer> getBracket() {
-        return bracket;
+        ArrayList<Trainer> trainers = new ArrayList<>(size);
+
+        for (int i = 0; i < size; i++) {
+            trainers.add(entrants[bracket[i]]);
+        }
+
+        return trainers;
+    }
+
+    /**
+     * Gets the number of Trainers who have not yet been eliminated from the bracket.
+     *
+     * @return The number of Trainers
+     */
+    public int getBracketSize() {
+        return size;
+    }
+
+    /**
+     * Gets every Trainer who entered the Tournament. The array is not a copy.
+     *
+     * @return The entrants, in their original order
+     */
+    Trainer[] getEntrants() {
+        return entrants;
+    }
+
+    /**
+     * Gets the index into the entrants of a Trainer still in the bracket.
+     *
+     * @param slot The Trainer's slot in the bracket, less than the bracket size
+     * @return The index of the Trainer in the entrants
+     */
+    int getBracketIndex(int slot) {
+        return bracket[slot];
+    }
+
+    /**
+     * Gets the next round to be run, starting from 1.
+     *
+     * @return The round
+     */
+    int getCurrentRound() {
+        return currentRound;
+    }
+
+    /**
+     * Gets the source of random rolls for the Tournament's battles.
+     *
+     * @return The source of random rolls
+     */
+    BattleRandom getRandom() {
+        return random;
     }
 }
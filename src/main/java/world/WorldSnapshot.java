@@ -0,0 +1,518 @@
+package world;
+
+import codeamon.BattleRandom;
+import codeamon.Codeamon;
+import codeamon.CodeamonFactory;
+import codeamon.GreedyMovePolicy;
+import codeamon.MovePolicy;
+import codeamon.RandomMovePolicy;
+import codeamon.Stat;
+import codeamon.Type;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import trainer.Trainer;
+
+/**
+ * Saves a whole simulation to a compact binary file and restores it, so a long season can be
+ * stopped between events and picked up again later. A snapshot holds the TimeCycleContext, with
+ * its current state, Wild Battle count and sources of random rolls, the Tournament bracket, and
+ * every Trainer's money and party, down to each Codeamon's EXP, Hit Points, stat stages and move
+ * policy, which must be the RandomMovePolicy or the GreedyMovePolicy. A restored simulation
+ * plays out exactly as the saved one would have.
+ *
+ * <p>
+ *     The file starts with a magic number and a format version, followed by fixed-size binary
+ *     records with strings stored as UTF-8. It is written through a FileChannel in large
+ *     blocks, and read from a memory-mapped copy of the file, so a world of a million Trainers
+ *     can be saved and restored in seconds without parsing any text. Trainers in the Tournament
+ *     are saved as indexes into the list of Trainers, so every Trainer is only saved once.
+ * </p>
+ */
+public class WorldSnapshot {
+    /**
+     * The version of the file format written by save().
+     */
+    public static final int VERSION = 2;
+    private static final int MAGIC = 0x434D5753;
+    private static final int BUFFER_SIZE = 1 << 20;
+    private static final int MAX_STRING = 0xFFFF;
+    private static final int MAX_PARTY = 6;
+    private static final byte DAY = 0;
+    private static final byte NIGHT = 1;
+    private static final Type[] TYPES = Type.values();
+    //the move policies that can be saved, indexed by the id they are saved as
+    private static final MovePolicy[] MOVE_POLICIES = {RandomMovePolicy.INSTANCE,
+        GreedyMovePolicy.INSTANCE};
+    //the lowest level of each moveset tier, used to recreate a Codeamon with the right attacks
+    private static final int[] TIER_LEVELS = new int[Codeamon.HIGH_TIER + 1];
+    private final TimeCycleContext context;
+    private final ArrayList<Trainer> trainers;
+
+    static {
+        for (int level = 100; level >= 1; level--) {
+            TIER_LEVELS[Codeamon.getMovesetTier(level)] = level;
+        }
+    }
+
+    private WorldSnapshot(TimeCycleContext context, ArrayList<Trainer> trainers) {
+        this.context = context;
+        this.trainers = trainers;
+    }
+
+    /**
+     * Gets the restored context, which continues from the event it was saved before.
+     *
+     * @return The context
+     */
+    public TimeCycleContext getContext() {
+        return context;
+    }
+
+    /**
+     * Gets the restored Trainers, in the order they were saved. These are the Trainers to pass
+     * to the context's runEvents().
+     *
+     * @return The Trainers
+     */
+    public ArrayList<Trainer> getTrainers() {
+        return trainers;
+    }
+
+    /**
+     * Saves a simulation between events. The Executor of the context is not saved.
+     *
+     * @param file The file to write to. It is replaced if it already exists
+     * @param context The context of the simulation
+     * @param trainers The Trainers passed to the context's runEvents(), which must include every
+     *                 Trainer in the Tournament
+     * @throws IOException If the file could not be written
+     * @throws IllegalArgumentException If a Tournament Trainer is missing from the Trainers, or a
+     *                                  Codeamon's move policy is not one of the policies that
+     *                                  can be saved
+     */
+    public static void save(String file, TimeCycleContext context, ArrayList<Trainer> trainers)
+            throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(file), StandardOpenOption.WRITE,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            Output out = new Output(channel);
+
+            out.ensure(Integer.BYTES * 5 + 2 + BattleRandom.STATE_BYTES);
+            out.buffer.putInt(MAGIC);
+            out.buffer.putInt(VERSION);
+            out.buffer.putInt(context.getWildBattleLimit());
+            out.buffer.putInt(context.getWildLevel() - context.getWildBattleCount());
+            out.buffer.putInt(context.getWildBattleCount());
+            out.buffer.put(context.getState() instanceof Night ? NIGHT : DAY);
+            out.buffer.put((byte) (context.isQuiet() ? 1 : 0));
+            context.getRandom().writeState(out.buffer);
+
+            out.ensure(Integer.BYTES);
+            out.buffer.putInt(trainers.size());
+
+            for (Trainer trainer : trainers) {
+                writeTrainer(out, trainer);
+            }
+
+            writeTournament(out, context.getTournament(), trainers);
+
+            out.ensure(Integer.BYTES);
+            out.buffer.putInt(MAGIC);
+            out.flush();
+        }
+    }
+
+    private static void writeTrainer(Output out, Trainer trainer) throws IOException {
+        List<Codeamon> party = trainer.getCodeamonParty();
+
+        out.putString(trainer.getName());
+        out.ensure(Integer.BYTES + 1);
+        out.buffer.putInt(trainer.getCodeaDollars());
+        out.buffer.put((byte) party.size());
+
+        for (Codeamon codeamon : party) {
+            out.ensure(7 + Integer.BYTES * 2);
+            out.buffer.put((byte) CodeamonFactory.getSpeciesType(codeamon).ordinal());
+            out.buffer.put((byte) codeamon.getMovesetTier());
+            out.buffer.put((byte) codeamon.getLevel());
+            out.buffer.putInt(codeamon.getExperiencePoints());
+            out.buffer.putInt(codeamon.getCurrentHitPoints());
+            out.buffer.put((byte) codeamon.getStatStage(Stat.Attack));
+            out.buffer.put((byte) codeamon.getStatStage(Stat.Defense));
+            out.buffer.put((byte) codeamon.getStatStage(Stat.Speed));
+            out.buffer.put((byte) getMovePolicyId(codeamon));
+
+            //only a nickname is saved, since the species name comes with the species
+            String name = codeamon.getName();
+            out.putString(name.equals(codeamon.getSpeciesName()) ? null : name);
+        }
+    }
+
+    private static void writeTournament(Output out, Tournament tournament,
+                                        ArrayList<Trainer> trainers) throws IOException {
+        Trainer[] entrants = tournament.getEntrants();
+        Map<Trainer, Integer> indexes = null;
+
+        out.ensure(Integer.BYTES);
+        out.buffer.putInt(entrants.length);
+
+        for (int i = 0; i < entrants.length; i++) {
+            int index = i;
+
+            //the entrants are normally the Trainers in the same order, so they are only looked
+            //up when they are not
+            if (i >= trainers.size() || trainers.get(i) != entrants[i]) {
+                if (indexes == null) {
+                    indexes = new IdentityHashMap<>();
+
+                    for (int j = 0; j < trainers.size(); j++) {
+                        indexes.put(trainers.get(j), j);
+                    }
+                }
+
+                Integer found = indexes.get(entrants[i]);
+
+                if (found == null) {
+                    throw new IllegalArgumentException(entrants[i].getName()
+                            + " is in the Tournament but not in the list of Trainers.");
+                }
+
+                index = found;
+            }
+
+            out.ensure(Integer.BYTES);
+            out.buffer.putInt(index);
+        }
+
+        out.ensure(Integer.BYTES * 2 + BattleRandom.STATE_BYTES);
+        out.buffer.putInt(tournament.getCurrentRound());
+        out.buffer.putInt(tournament.getBracketSize());
+        tournament.getRandom().writeState(out.buffer);
+
+        for (int i = 0; i < tournament.getBracketSize(); i++) {
+            out.ensure(Integer.BYTES);
+            out.buffer.putInt(tournament.getBracketIndex(i));
+        }
+    }
+
+    /**
+     * Restores a simulation saved by save().
+     *
+     * @param file The file to read
+     * @return The restored simulation
+     * @throws IOException If the file could not be read
+     * @throws IllegalArgumentException If the file is not a snapshot, was written by a different
+     *                                  version, or is damaged
+     */
+    public static WorldSnapshot load(String file) throws IOException {
+        Path path = Paths.get(file);
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            Input in;
+
+            //files too large to map in one piece are read through the channel in blocks
+            if (channel.size() <= Integer.MAX_VALUE) {
+                in = new Input(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()),
+                        null);
+            } else {
+                ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+                buffer.flip();
+                in = new Input(buffer, channel);
+            }
+
+            in.ensure(Integer.BYTES * 2);
+
+            if (in.buffer.getInt() != MAGIC) {
+                throw new IllegalArgumentException(file + " is not a world snapshot.");
+            }
+
+            int version = in.buffer.getInt();
+
+            if (version != VERSION) {
+                throw new IllegalArgumentException(file + " is version " + version
+                        + ", but only version " + VERSION + " can be read.");
+            }
+
+            in.ensure(Integer.BYTES * 3 + 2 + BattleRandom.STATE_BYTES);
+            int wildBattles = in.buffer.getInt();
+            int initialLevel = in.buffer.getInt();
+            int battleCount = in.buffer.getInt();
+            TimeCycle state = in.buffer.get() == NIGHT ? new Night() : new Day();
+            boolean quiet = in.buffer.get() != 0;
+            BattleRandom random = BattleRandom.readState(in.buffer);
+
+            in.ensure(Integer.BYTES);
+            int count = in.getCount();
+            ArrayList<Trainer> trainers = new ArrayList<>(count);
+
+            for (int i = 0; i < count; i++) {
+                trainers.add(readTrainer(in));
+            }
+
+            Tournament tournament = readTournament(in, trainers);
+
+            in.ensure(Integer.BYTES);
+
+            if (in.buffer.getInt() != MAGIC) {
+                throw new IllegalArgumentException(file + " is damaged.");
+            }
+
+            TimeCycleContext context = new TimeCycleContext(wildBattles, initialLevel,
+                    battleCount, state, random, tournament);
+            context.setQuiet(quiet);
+
+            return new WorldSnapshot(context, trainers);
+        }
+    }
+
+    private static Trainer readTrainer(Input in) throws IOException {
+        Trainer.TrainerBuilder builder = new Trainer.TrainerBuilder(in.getString());
+
+        in.ensure(Integer.BYTES + 1);
+        builder.codeaDollars(in.buffer.getInt()).keepPartyOrder();
+        int partySize = in.buffer.get();
+
+        if (partySize < 0 || partySize > MAX_PARTY) {
+            throw new IllegalArgumentException("Invalid party size " + partySize + ".");
+        }
+
+        for (int i = 0; i < partySize; i++) {
+            in.ensure(7 + Integer.BYTES * 2);
+            Codeamon codeamon = createCodeamon(in.buffer.get(), in.buffer.get());
+            int level = in.buffer.get();
+            int exp = in.buffer.getInt();
+            int hitPoints = in.buffer.getInt();
+            int attackStage = in.buffer.get();
+            int defenseStage = in.buffer.get();
+            int speedStage = in.buffer.get();
+
+            codeamon.setMovePolicy(getMovePolicy(in.buffer.get()));
+            codeamon.setNickname(in.getString());
+            codeamon.restore(level, exp, hitPoints, attackStage, defenseStage, speedStage);
+            builder.codeamon(codeamon);
+        }
+
+        return builder.build();
+    }
+
+    private static Tournament readTournament(Input in, ArrayList<Trainer> trainers)
+            throws IOException {
+        in.ensure(Integer.BYTES);
+        Trainer[] entrants = new Trainer[in.getCount()];
+
+        for (int i = 0; i < entrants.length; i++) {
+            in.ensure(Integer.BYTES);
+            entrants[i] = trainers.get(in.getIndex(trainers.size()));
+        }
+
+        in.ensure(Integer.BYTES * 2 + BattleRandom.STATE_BYTES);
+        int currentRound = in.buffer.getInt();
+        int size = in.buffer.getInt();
+        BattleRandom random = BattleRandom.readState(in.buffer);
+
+        if (size < 0 || size > entrants.length) {
+            throw new IllegalArgumentException("Invalid bracket size " + size + ".");
+        }
+
+        int[] bracket = new int[entrants.length];
+
+        for (int i = 0; i < size; i++) {
+            in.ensure(Integer.BYTES);
+            bracket[i] = in.getIndex(entrants.length);
+        }
+
+        return new Tournament(entrants, bracket, size, currentRound, random);
+    }
+
+    /**
+     * Gets the id a Codeamon's move policy is saved as.
+     *
+     * @param codeamon The Codeamon
+     * @return The id
+     * @throws IllegalArgumentException If the Codeamon's policy cannot be saved
+     */
+    static int getMovePolicyId(Codeamon codeamon) {
+        for (int id = 0; id < MOVE_POLICIES.length; id++) {
+            if (codeamon.getMovePolicy() == MOVE_POLICIES[id]) {
+                return id;
+            }
+        }
+
+        throw new IllegalArgumentException(codeamon.getName() + "'s move policy cannot be saved.");
+    }
+
+    /**
+     * Gets a saved move policy.
+     *
+     * @param id The id the policy was saved as
+     * @return The policy
+     * @throws IllegalArgumentException If the id is not valid
+     */
+    static MovePolicy getMovePolicy(int id) {
+        if (id < 0 || id >= MOVE_POLICIES.length) {
+            throw new IllegalArgumentException("Invalid move policy " + id + ".");
+        }
+
+        return MOVE_POLICIES[id];
+    }
+
+    /**
+     * Recreates a saved Codeamon at the lowest level of its moveset tier, ready to be restored.
+     *
+     * @param type The ordinal of the Type its species is created from
+     * @param tier Its moveset tier
+     * @return The Codeamon
+     * @throws IllegalArgumentException If the type or tier is not valid
+     */
+    static Codeamon createCodeamon(int type, int tier) {
+        if (type < 0 || type >= TYPES.length || tier < 0 || tier >= TIER_LEVELS.length) {
+            throw new IllegalArgumentException("Invalid Codeamon species.");
+        }
+
+        return CodeamonFactory.createCodeamon(TYPES[type], TIER_LEVELS[tier]);
+    }
+
+    /**
+     * Collects writes in a direct buffer and writes them to the channel in large blocks.
+     */
+    private static class Output {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+        Output(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        /**
+         * Makes room in the buffer for the next record, writing out the buffer if needed.
+         *
+         * @param bytes The size of the record, no larger than the buffer
+         * @throws IOException If the buffer could not be written
+         */
+        void ensure(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) {
+                flush();
+            }
+        }
+
+        void flush() throws IOException {
+            buffer.flip();
+
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+
+            buffer.clear();
+        }
+
+        /**
+         * Writes a string as its UTF-8 length followed by its bytes, or a length of -1 for null.
+         *
+         * @param value The string, which may be null
+         * @throws IOException If the buffer could not be written
+         */
+        void putString(String value) throws IOException {
+            if (value == null) {
+                ensure(Integer.BYTES);
+                buffer.putInt(-1);
+                return;
+            }
+
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+
+            if (bytes.length > MAX_STRING) {
+                throw new IllegalArgumentException("The name " + value.substring(0, 20)
+                        + "... is too long to save.");
+            }
+
+            ensure(Integer.BYTES + bytes.length);
+            buffer.putInt(bytes.length);
+            buffer.put(bytes);
+        }
+    }
+
+    /**
+     * Reads records from a mapped file, or from a channel in blocks when the channel is set.
+     */
+    private static class Input {
+        private final FileChannel channel;
+        private final ByteBuffer buffer;
+
+        Input(ByteBuffer buffer, FileChannel channel) {
+            this.buffer = buffer;
+            this.channel = channel;
+        }
+
+        /**
+         * Makes sure the next record is in the buffer, reading more of the channel if needed.
+         *
+         * @param bytes The size of the record, no larger than the buffer
+         * @throws IOException If the channel could not be read
+         * @throws IllegalArgumentException If the file ends before the record
+         */
+        void ensure(int bytes) throws IOException {
+            if (buffer.remaining() >= bytes) {
+                return;
+            }
+
+            if (channel != null) {
+                buffer.compact();
+
+                while (buffer.position() < bytes && channel.read(buffer) >= 0) {
+                    continue;
+                }
+
+                buffer.flip();
+            }
+
+            if (buffer.remaining() < bytes) {
+                throw new IllegalArgumentException("The snapshot ends too early.");
+            }
+        }
+
+        int getCount() {
+            int count = buffer.getInt();
+
+            if (count < 0) {
+                throw new IllegalArgumentException("Invalid count " + count + ".");
+            }
+
+            return count;
+        }
+
+        int getIndex(int limit) {
+            int index = buffer.getInt();
+
+            if (index < 0 || index >= limit) {
+                throw new IllegalArgumentException("Invalid index " + index + ".");
+            }
+
+            return index;
+        }
+
+        String getString() throws IOException {
+            ensure(Integer.BYTES);
+            int length = buffer.getInt();
+
+            if (length < 0) {
+                return null;
+            } else if (length > MAX_STRING) {
+                throw new IllegalArgumentException("Invalid string length " + length + ".");
+            }
+
+            ensure(length);
+            byte[] bytes = new byte[length];
+            buffer.get(bytes);
+
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,150 @@
+import codeamon.Attack;
+import codeamon.BattleRandom;
+import codeamon.Codeamon;
+import codeamon.CodeamonFactory;
+import codeamon.Stat;
+import codeamon.Type;
+import event.BufferedBattleEventSink;
+import event.LogLevel;
+import event.LogWriter;
+import event.NoOpBattleEventSink;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import trainer.Trainer;
+import world.Battle;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit Tests for the BattleEventSinks
+ */
+public class BattleEventSinkTests {
+    @AfterEach
+    public void afterEach() throws Exception {
+        System.out.println();
+    }
+
+    /**
+     * Test that the Buffered sink holds the same text that would be printed to the console.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void TestBufferedSinkText() throws Exception {
+        System.out.println("TestBufferedSinkText");
+
+        Codeamon user = CodeamonFactory.createCodeamon(Type.Fighting, 10);
+        user.setNickname("Jack");
+        Codeamon opponent = CodeamonFactory.createCodeamon(Type.Electric, 10);
+        opponent.setNickname("Jill");
+
+        Attack attack = new Attack.AttackBuilder("Test Attack", Type.Normal).power(50)
+                .critChance(0).statusEffect(100, Stat.Attack, 1, true).build();
+
+        BufferedBattleEventSink sink = new BufferedBattleEventSink();
+        attack.applyAttack(user, opponent, sink, new BattleRandom());
+
+        String text = sink.getText();
+        System.out.print(text);
+
+        assertAll(() -> assertTrue(text.contains("Jack used Test Attack.")),
+                () -> assertTrue(text.contains("Jill took 10 damagae!")),
+                () -> assertTrue(text.contains("Jack's Attack increased!")));
+    }
+
+    /**
+     * Test that flushing the Buffered sink empties it.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void TestBufferedSinkFlush() throws Exception {
+        System.out.println("TestBufferedSinkFlush");
+
+        Codeamon mon = CodeamonFactory.createCodeamon(Type.Water, 10);
+        BufferedBattleEventSink sink = new BufferedBattleEventSink();
+
+        mon.damage(5, sink);
+        sink.flushTo(System.out);
+
+        assertEquals("", sink.getText());
+    }
+
+    /**
+     * Test that a quiet battle still plays out fully. A Trainer with a single Level 99 Codeamon
+     * should defeat a Trainer with a single level 1 Codeamon and collect their payout.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void TestQuietTrainerBattle() throws Exception {
+        System.out.println("TestQuietTrainerBattle");
+
+        Codeamon tOneMon = CodeamonFactory.createCodeamon(Type.Steel, 99);
+        Codeamon tTwoMon = CodeamonFactory.createCodeamon(Type.Poison, 1);
+
+        Trainer trainerOne = new Trainer.TrainerBuilder("Derek").codeamon(tOneMon).build();
+        Trainer trainerTwo = new Trainer.TrainerBuilder("Ben").codeamon(tTwoMon).build();
+
+        assertAll(() -> assertEquals(trainerOne, Battle.trainerBattle(trainerOne, trainerTwo,
+                        NoOpBattleEventSink.INSTANCE)),
+                () -> assertEquals(4500, trainerOne.getCodeaDollars()),
+                () -> assertEquals(1500, trainerTwo.getCodeaDollars()));
+    }
+
+    /**
+     * Test that a LogWriter writes only the text at or below its level, and rotates its file once
+     * it reaches its size. A battle written at the Battle level should keep its start and end but
+     * none of its turns, and the rotated files should hold every line that was written.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void TestLogWriter() throws Exception {
+        System.out.println("TestLogWriter");
+        Path file = Files.createTempFile("simulation", ".log");
+
+        Codeamon tOneMon = CodeamonFactory.createCodeamon(Type.Steel, 99);
+        Codeamon tTwoMon = CodeamonFactory.createCodeamon(Type.Poison, 1);
+        Trainer trainerOne = new Trainer.TrainerBuilder("Derek").codeamon(tOneMon).build();
+        Trainer trainerTwo = new Trainer.TrainerBuilder("Ben").codeamon(tTwoMon).build();
+        BufferedBattleEventSink sink = new BufferedBattleEventSink(LogLevel.Battle);
+
+        try (LogWriter writer = new LogWriter(file.toString(), 0, 0, LogLevel.Battle)) {
+            Battle.trainerBattle(trainerOne, trainerTwo, sink, new BattleRandom(316));
+            sink.flushTo(writer);
+            writer.println(LogLevel.Turn, "A turn line");
+            writer.println(LogLevel.Summary, "Derek wins!");
+        }
+
+        String text = new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+        System.out.print(text);
+
+        Path rotated = Paths.get(file + ".1");
+        Path dropped = Paths.get(file + ".2");
+
+        try (LogWriter writer = new LogWriter(file.toString(), 1000, 1, LogLevel.Turn)) {
+            for (int i = 0; i < 300; i++) {
+                writer.println(LogLevel.Turn, "Line " + i);
+            }
+        }
+
+        long lines = Files.readAllLines(file).size() + Files.readAllLines(rotated).size();
+        boolean rotatedTwice = Files.exists(dropped);
+        Files.delete(file);
+        Files.delete(rotated);
+
+        assertAll(() -> assertTrue(text.startsWith("The Battle Between Derek and Ben")),
+                () -> assertTrue(text.contains("Derek defeated Ben!")),
+                () -> assertTrue(text.endsWith("Derek wins!" + System.lineSeparator())),
+                () -> assertFalse(text.contains(" used ")),
+                () -> assertFalse(text.contains("A turn line")),
+                () -> assertFalse(rotatedTwice),
+                () -> assertTrue(lines > 0 && lines < 300));
+    }
+}
@@ -1,10 +1,25 @@
+import codeamon.BattleRandom;
 import codeamon.Codeamon;
 import codeamon.CodeamonFactory;
 import codeamon.Type;
+import event.BufferedBattleEventSink;
+import event.NoOpBattleEventSink;
+import event.TurnCountingBattleEventSink;
+import metrics.HistogramSnapshot;
+import metrics.SimulationMetrics;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import trainer.Trainer;
+import world.ArrayBattleEngine;
 import world.Battle;
+import world.BattleLog;
+import world.BattleReplay;
+
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import javax.management.ObjectName;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -159,4 +174,253 @@ public class BattleTests {
                 () -> assertEquals(1500, trainerOne.getCodeaDollars()),
                 () -> assertEquals(4500, trainerTwo.getCodeaDollars()));
     }
+
+    /**
+     * Test that two battles between identical Trainers using equally seeded random sources play
+     * out identically. Both battles should have the same winner, and every Codeamon should end
+     * with the same Hit Points and EXP as its counterpart.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void TestSeededTrainerBattle() throws Exception {
+        System.out.println("TestSeededTrainerBattle");
+
+        Trainer[] first = createSeededTrainers();
+        Trainer[] second = createSeededTrainers();
+
+        Trainer firstWinner = Battle.trainerBattle(first[0], first[1],
+                NoOpBattleEventSink.INSTANCE, new BattleRandom(316));
+        Trainer secondWinner = Battle.trainerBattle(second[0], second[1],
+                NoOpBattleEventSink.INSTANCE, new BattleRandom(316));
+
+        assertEquals(firstWinner.getName(), secondWinner.getName());
+
+        for (int i = 0; i < first.length; i++) {
+            for (int j = 0; j < first[i].getPartySize(); j++) {
+                Codeamon one = first[i].getCodeamonParty().get(j);
+                Codeamon two = second[i].getCodeamonParty().get(j);
+
+                assertAll(() -> assertEquals(one.getCurrentHitPoints(),
+                                two.getCurrentHitPoints()),
+                        () -> assertEquals(one.getExperiencePoints(),
+                                two.getExperiencePoints()));
+            }
+        }
+    }
+
+    /**
+     * Test that the array battle engine plays out a battle the same way as trainerBattle when
+     * both use equally seeded random sources, and that a reset battle plays out the same way
+     * again. Both should have the same winner and number of turns, and every Codeamon should end
+     * with the same Hit Points, level and EXP.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void TestArrayBattleEngine() throws Exception {
+        System.out.println("TestArrayBattleEngine");
+
+        Trainer[] trainers = createSeededTrainers();
+        ArrayBattleEngine engine = new ArrayBattleEngine(1);
+        engine.load(0, trainers[0], trainers[1]);
+
+        int engineWinner = engine.run(0, new BattleRandom(316));
+        int engineTurns = engine.getTurns(0);
+        engine.reset(0);
+
+        TurnCountingBattleEventSink sink = new TurnCountingBattleEventSink();
+        Trainer winner = Battle.trainerBattle(trainers[0], trainers[1], sink,
+                new BattleRandom(316));
+
+        System.out.println("Winner: " + winner.getName() + " in " + sink.getTurns() + " turns");
+
+        assertAll(() -> assertEquals(winner == trainers[0] ? 0 : 1, engineWinner),
+                () -> assertEquals(sink.getTurns(), engineTurns),
+                () -> assertEquals(engineWinner, engine.run(0, new BattleRandom(316))));
+
+        for (int i = 0; i < trainers.length; i++) {
+            for (int j = 0; j < trainers[i].getPartySize(); j++) {
+                Codeamon mon = trainers[i].getCodeamonParty().get(j);
+                int side = i;
+                int index = j;
+
+                assertAll(() -> assertEquals(mon.getCurrentHitPoints(),
+                                engine.getCurrentHitPoints(0, side, index)),
+                        () -> assertEquals(mon.getLevel(), engine.getLevel(0, side, index)),
+                        () -> assertEquals(mon.getExperiencePoints(),
+                                engine.getExperiencePoints(0, side, index)));
+            }
+        }
+    }
+
+    /**
+     * Test that the array battle engine sends out the same Codeamon as trainerBattle when a
+     * fainted Codeamon sits behind healthy ones in a party. Both should have the same winner
+     * and number of turns, and every Codeamon should end with the same Hit Points.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void TestArrayBattleEngineFaintedMember() throws Exception {
+        System.out.println("TestArrayBattleEngineFaintedMember");
+
+        ArrayBattleEngine engine = new ArrayBattleEngine(1);
+
+        for (int seed = 1; seed <= 20; seed++) {
+            Trainer[] trainers = createFaintedMemberTrainers();
+            engine.load(0, trainers[0], trainers[1]);
+
+            int engineWinner = engine.run(0, new BattleRandom(seed));
+            int engineTurns = engine.getTurns(0);
+
+            TurnCountingBattleEventSink sink = new TurnCountingBattleEventSink();
+            Trainer winner = Battle.trainerBattle(trainers[0], trainers[1], sink,
+                    new BattleRandom(seed));
+
+            assertAll(() -> assertEquals(winner == trainers[0] ? 0 : 1, engineWinner),
+                    () -> assertEquals(sink.getTurns(), engineTurns));
+
+            for (int i = 0; i < trainers.length; i++) {
+                for (int j = 0; j < trainers[i].getPartySize(); j++) {
+                    Codeamon mon = trainers[i].getCodeamonParty().get(j);
+
+                    assertEquals(mon.getCurrentHitPoints(), engine.getCurrentHitPoints(0, i, j));
+                }
+            }
+        }
+
+        System.out.println("20 battles matched");
+    }
+
+    /**
+     * Creates two Trainers where the first has a fainted Codeamon in the middle of its party.
+     *
+     * @return The two Trainers
+     */
+    private Trainer[] createFaintedMemberTrainers() {
+        Codeamon fainted = CodeamonFactory.createCodeamon(Type.Water, 12);
+        Trainer one = new Trainer.TrainerBuilder("Ash")
+                .codeamon(CodeamonFactory.createCodeamon(Type.Fire, 10))
+                .codeamon(fainted)
+                .codeamon(CodeamonFactory.createCodeamon(Type.Grass, 14))
+                .build();
+        Trainer two = new Trainer.TrainerBuilder("Gary")
+                .codeamon(CodeamonFactory.createCodeamon(Type.Rock, 12))
+                .codeamon(CodeamonFactory.createCodeamon(Type.Ice, 13))
+                .build();
+
+        //fainting after the party is built leaves the Codeamon where it is
+        fainted.damage(fainted.getMaxHitPoints(), NoOpBattleEventSink.INSTANCE);
+
+        return new Trainer[] {one, two};
+    }
+
+    /**
+     * Test that battles recorded to a BattleLog play back exactly as they happened. A Trainer
+     * battle and a Wild Battle are recorded, and replaying each should report the same events
+     * and the same winner. Every roll should take only a few bytes.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void TestBattleReplay() throws Exception {
+        System.out.println("TestBattleReplay");
+        Path file = Files.createTempFile("battles", ".log");
+        Files.delete(file);
+
+        Trainer[] trainers = createSeededTrainers();
+        Trainer wildTrainer = new Trainer.TrainerBuilder("Chris")
+                .codeamon(CodeamonFactory.createCodeamon(Type.Fire, 12)).build();
+        BufferedBattleEventSink trainerSink = new BufferedBattleEventSink();
+        BufferedBattleEventSink wildSink = new BufferedBattleEventSink();
+        Trainer winner;
+        boolean wildWon;
+
+        try (BattleLog log = new BattleLog(file.toString())) {
+            winner = Battle.trainerBattle(trainers[0], trainers[1], trainerSink,
+                    new BattleRandom(316), log);
+            wildWon = Battle.wildBattle(wildTrainer,
+                    CodeamonFactory.createCodeamon(Type.Grass, 10), wildSink,
+                    new BattleRandom(316), log);
+        }
+
+        List<BattleReplay> replays = BattleReplay.readAll(file.toString());
+        Files.delete(file);
+
+        assertEquals(2, replays.size());
+
+        BattleReplay trainerReplay = replays.get(0);
+        BattleReplay wildReplay = replays.get(1);
+        BufferedBattleEventSink trainerReplaySink = new BufferedBattleEventSink();
+        BufferedBattleEventSink wildReplaySink = new BufferedBattleEventSink();
+        int trainerResult = trainerReplay.replay(trainerReplaySink);
+        int wildResult = wildReplay.replay(wildReplaySink);
+
+        System.out.println(trainerReplay.getRolls() + " rolls in " + trainerReplay.getSize()
+                + " bytes");
+
+        assertAll(() -> assertFalse(trainerReplay.isWildBattle()),
+                () -> assertTrue(wildReplay.isWildBattle()),
+                () -> assertEquals("Derek", trainerReplay.getFirstSide()),
+                () -> assertEquals("Ben", trainerReplay.getSecondSide()),
+                () -> assertEquals(winner == trainers[0] ? 0 : 1, trainerResult),
+                () -> assertEquals(wildWon ? 0 : 1, wildResult),
+                () -> assertEquals(trainerSink.getText(), trainerReplaySink.getText()),
+                () -> assertEquals(wildSink.getText(), wildReplaySink.getText()),
+                () -> assertTrue(trainerReplay.getRolls() > 0),
+                () -> assertTrue(trainerReplay.getSize() < 100 + 2 * trainerReplay.getRolls()));
+    }
+
+    /**
+     * Test that a Trainer battle is counted by the SimulationMetrics once they are registered,
+     * and that the counts can be read over JMX. The turns, Attacks and CodeaDollars counted
+     * should match the battle.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void TestSimulationMetrics() throws Exception {
+        System.out.println("TestSimulationMetrics");
+        SimulationMetrics metrics = SimulationMetrics.register();
+        metrics.reset();
+
+        Trainer[] trainers = createSeededTrainers();
+        int loserDollars = trainers[0].getCodeaDollars();
+        TurnCountingBattleEventSink sink = new TurnCountingBattleEventSink();
+        Battle.trainerBattle(trainers[0], trainers[1], sink, new BattleRandom(316));
+
+        long battles = (Long) ManagementFactory.getPlatformMBeanServer()
+                .getAttribute(new ObjectName(SimulationMetrics.OBJECT_NAME), "BattlesCompleted");
+        long attacksByName = metrics.getAttacksByName().values().stream()
+                .mapToLong(Long::longValue).sum();
+        HistogramSnapshot turns = metrics.getTurnsPerBattle();
+
+        System.out.println(metrics.getAttacks() + " attacks in " + metrics.getTurns() + " turns");
+
+        assertAll(() -> assertEquals(1, battles),
+                () -> assertEquals(1, metrics.getTrainerBattlesCompleted()),
+                () -> assertEquals(sink.getTurns(), metrics.getTurns()),
+                () -> assertEquals(1, turns.getCount()),
+                () -> assertEquals(sink.getTurns(), turns.getMax()),
+                () -> assertEquals(1, metrics.getBattleDurationMicros().getCount()),
+                () -> assertTrue(metrics.getAttacks() > 0),
+                () -> assertEquals(metrics.getAttacks(), attacksByName),
+                () -> assertTrue(metrics.getFaints() >= 2),
+                () -> assertEquals(loserDollars / 2, metrics.getCodeaDollarsTransferred()));
+
+        metrics.setEnabled(false);
+        metrics.reset();
+    }
+
+    private Trainer[] createSeededTrainers() {
+        Trainer trainerOne = new Trainer.TrainerBuilder("Derek")
+                .codeamon(CodeamonFactory.createCodeamon(Type.Fire, 40))
+                .codeamon(CodeamonFactory.createCodeamon(Type.Grass, 42)).build();
+        Trainer trainerTwo = new Trainer.TrainerBuilder("Ben")
+                .codeamon(CodeamonFactory.createCodeamon(Type.Water, 41))
+                .codeamon(CodeamonFactory.createCodeamon(Type.Electric, 40)).build();
+
+        return new Trainer[] {trainerOne, trainerTwo};
+    }
 }
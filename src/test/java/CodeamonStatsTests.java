@@ -1,5 +1,6 @@
 import codeamon.CodeamonStats;
 import codeamon.Stat;
+import codeamon.StatTable;
 import codeamon.CodeamonStatsFactory;
 import codeamon.Type;
 import org.junit.jupiter.api.AfterEach;
@@ -463,4 +464,67 @@ public class CodeamonStatsTests {
         assertAll(() -> assertEquals(attack, stats.getAttackCritical()),
                 () -> assertEquals(defense, stats.getDefenseCritical()));
     }
+
+    /**
+     * Test that the effective stats follow stage changes, resting and leveling up. Each stat
+     * should always equal the stat at its stage multiplier, and crits should ignore negative
+     * attack changes and positive defense changes.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void TestEffectiveStatsFollowChanges() throws Exception {
+        System.out.println("TestEffectiveStatsFollowChanges");
+
+        CodeamonStats stats = CodeamonStatsFactory.getStats(Type.Steel, 50);
+        int attack = stats.getAttackStat();
+        int defense = stats.getDefenseStat();
+
+        stats.applyStatStageChange("Steelmon", Stat.Attack, -2);
+        stats.applyStatStageChange("Steelmon", Stat.Defense, 3);
+        int lowered = stats.getAttackStat();
+        int raised = stats.getDefenseStat();
+        int attackCritical = stats.getAttackCritical();
+        int defenseCritical = stats.getDefenseCritical();
+
+        stats.rest();
+        int rested = stats.getDefenseStat();
+
+        stats.levelUp(51);
+
+        System.out.println("Attack: " + lowered + " Defense: " + raised);
+
+        assertAll(() -> assertEquals((int) (attack * CodeamonStats.getStageMultiplier(-2)),
+                        lowered),
+                () -> assertEquals((int) (defense * CodeamonStats.getStageMultiplier(3)), raised),
+                () -> assertEquals(attack, attackCritical),
+                () -> assertEquals(defense, defenseCritical),
+                () -> assertEquals(defense, rested),
+                () -> assertEquals(2 * stats.getBaseAttack() * 51 / 100 + 5,
+                        stats.getAttackStat()));
+    }
+
+    /**
+     * Test that a StatTable holds the same stats as the stat formulas at every level from 1 to
+     * 100, and still calculates levels above 100.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void TestStatTable() throws Exception {
+        System.out.println("TestStatTable");
+
+        StatTable table = new StatTable(75, 85, 85, 105);
+
+        System.out.println("Level 100 Hit Points: " + table.getMaxHitPoints(100));
+
+        for (int level = 1; level <= 150; level++) {
+            int lvl = level;
+
+            assertAll(() -> assertEquals(2 * 75 * lvl / 100 + lvl + 10, table.getMaxHitPoints(lvl)),
+                    () -> assertEquals(2 * 85 * lvl / 100 + 5, table.getAttack(lvl)),
+                    () -> assertEquals(2 * 85 * lvl / 100 + 5, table.getDefense(lvl)),
+                    () -> assertEquals(2 * 105 * lvl / 100 + 5, table.getSpeed(lvl)));
+        }
+    }
 }
@@ -1,4 +1,5 @@
 import codeamon.*;
+import event.BufferedBattleEventSink;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 
@@ -74,4 +75,105 @@ public class CodeamonTests {
 
         assertEquals(nickname, mon.getName());
     }
+
+    /**
+     * A test that ensures Codeamon of the same species and level tier share one moveset, that
+     * the tier is decided by the level the Codeamon was created at, and that changing the list
+     * of attacks a Codeamon gives out does not change its moveset
+     *
+     * @throws Exception
+     */
+    @Test
+    public void TestSharedMoveset() throws Exception {
+        System.out.println("TestSharedMoveset");
+
+        Codeamon one = CodeamonFactory.createCodeamon(Type.Fire, 16);
+        Codeamon two = CodeamonFactory.createCodeamon(Type.Fire, 30);
+        Codeamon three = CodeamonFactory.createCodeamon(Type.Fire, 31);
+
+        System.out.println("First attack: " + one.getAttacks()[0].getName());
+
+        Attack[] copy = one.getAttacks();
+        copy[0] = three.getAttacks()[0];
+
+        assertAll(() -> assertEquals(one.getMovesetId(), two.getMovesetId()),
+                () -> assertNotEquals(one.getMovesetId(), three.getMovesetId()),
+                () -> assertArrayEquals(one.getAttacks(), two.getAttacks()),
+                () -> assertNotSame(one.getAttacks(), one.getAttacks()),
+                () -> assertEquals(Codeamon.MID_TIER, one.getMovesetTier()),
+                () -> assertEquals(Codeamon.HIGH_TIER, three.getMovesetTier()),
+                () -> assertEquals("Flame Wheel", one.getAttacks()[0].getName()));
+    }
+
+    /**
+     * A test that ensures a large amount of EXP raises a Codeamon several levels at once, leaving
+     * it with the same stats as a Codeamon created at the new level
+     *
+     * @throws Exception
+     */
+    @Test
+    public void TestMultiLevelExperienceGain() throws Exception {
+        System.out.println("TestMultiLevelExperienceGain");
+
+        Codeamon codeamon = CodeamonFactory.createCodeamon(Type.Water, 10);
+        Codeamon expected = CodeamonFactory.createCodeamon(Type.Water, 14);
+        BufferedBattleEventSink sink = new BufferedBattleEventSink();
+
+        codeamon.gainExperience(Codeamon.getExperienceForLevel(14) + 10
+                - codeamon.getExperiencePoints(), sink);
+        String text = sink.getText();
+        sink.flushTo(System.out);
+
+        assertAll(() -> assertEquals(0, Codeamon.getExperienceForLevel(1)),
+                () -> assertEquals(8, Codeamon.getExperienceForLevel(2)),
+                () -> assertEquals(1000000, Codeamon.getExperienceForLevel(100)),
+                () -> assertEquals(14, codeamon.getLevel()),
+                () -> assertEquals(2754, codeamon.getExperiencePoints()),
+                () -> assertEquals(expected.getMaxHitPoints(), codeamon.getMaxHitPoints()),
+                () -> assertEquals(expected.getAttackStat(), codeamon.getAttackStat()),
+                () -> assertEquals(expected.getDefenseStat(), codeamon.getDefenseStat()),
+                () -> assertEquals(expected.getSpeedStat(), codeamon.getSpeedStat()),
+                () -> assertTrue(text.contains("grew to level 11!")),
+                () -> assertTrue(text.contains("grew to level 14!")),
+                () -> assertFalse(text.contains("grew to level 15!")));
+    }
+
+    /**
+     * A test that ensures the GreedyMovePolicy picks the attack with the most expected damage
+     * against the opponent's type without making any rolls, and that random choice stays the
+     * default
+     *
+     * @throws Exception
+     */
+    @Test
+    public void TestGreedyMovePolicy() throws Exception {
+        System.out.println("TestGreedyMovePolicy");
+
+        Codeamon user = CodeamonFactory.createCodeamon(Type.Fire, 10);
+        Codeamon grass = CodeamonFactory.createCodeamon(Type.Grass, 10);
+        Codeamon water = CodeamonFactory.createCodeamon(Type.Water, 10);
+        MovePolicy defaultPolicy = user.getMovePolicy();
+        BattleRandom random = new BattleRandom(7);
+        BattleRandom unused = new BattleRandom(7);
+        int moveset = user.getMovesetId();
+
+        user.setMovePolicy(GreedyMovePolicy.INSTANCE);
+        Attack againstGrass = user.getMovePolicy().chooseAttack(user, grass, random);
+        Attack againstWater = user.getMovePolicy().chooseAttack(user, water, random);
+
+        System.out.println("Against Grass: " + againstGrass.getName());
+        System.out.println("Against Water: " + againstWater.getName());
+
+        assertAll(() -> assertSame(RandomMovePolicy.INSTANCE, defaultPolicy),
+                () -> assertEquals("Ember", againstGrass.getName()),
+                () -> assertEquals("Bite", againstWater.getName()),
+                () -> assertEquals(unused.nextLong(), random.nextLong()),
+                () -> assertEquals(Type.Fire.ordinal() * 3 + Codeamon.LOW_TIER, moveset),
+                () -> assertEquals(0.0, GreedyMovePolicy.getExpectedDamage(moveset, 2, 10,
+                        Type.Grass)),
+                () -> assertTrue(GreedyMovePolicy.getExpectedDamage(moveset, 0, 10, Type.Grass)
+                        > GreedyMovePolicy.getExpectedDamage(moveset, 3, 10, Type.Grass)),
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> user.setMovePolicy(null)));
+    }
 }
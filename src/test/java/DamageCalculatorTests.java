@@ -0,0 +1,114 @@
+import analysis.DamageCalculator;
+import analysis.DamageDistribution;
+import codeamon.Attack;
+import codeamon.BattleRandom;
+import codeamon.Codeamon;
+import codeamon.CodeamonFactory;
+import codeamon.Stat;
+import codeamon.Type;
+import event.NoOpBattleEventSink;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit Tests for the DamageCalculator
+ */
+public class DamageCalculatorTests {
+    @AfterEach
+    public void afterEach() throws Exception {
+        System.out.println();
+    }
+
+    /**
+     * Test that the calculated damage distribution matches the damage dealt by many uses of the
+     * same attack in battle.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void TestDamageDistributionMatchesBattle() throws Exception {
+        System.out.println("TestDamageDistributionMatchesBattle");
+
+        Codeamon user = CodeamonFactory.createCodeamon(Type.Water, 40);
+        Attack attack = new Attack.AttackBuilder("Aqua Tail", Type.Water)
+                .power(90)
+                .accuracy(90)
+                .critChance(20)
+                .build();
+        DamageDistribution distribution = DamageCalculator.getDamageDistribution(attack, user,
+                CodeamonFactory.createCodeamon(Type.Grass, 40));
+
+        int uses = 20000;
+        int[] counts = new int[distribution.size()];
+        BattleRandom random = new BattleRandom(316);
+
+        for (int i = 0; i < uses; i++) {
+            Codeamon target = CodeamonFactory.createCodeamon(Type.Grass, 40);
+            attack.applyAttack(user, target, NoOpBattleEventSink.INSTANCE, random);
+            int dealt = target.getMaxHitPoints() - target.getCurrentHitPoints();
+
+            for (int j = 0; j < counts.length; j++) {
+                if (distribution.getDamage(j) == dealt) {
+                    counts[j]++;
+                }
+            }
+        }
+
+        System.out.println("Expected damage: " + distribution.getExpectedDamage());
+
+        assertAll(() -> assertEquals(3, distribution.size()),
+                () -> assertEquals(0.1, distribution.getProbabilityOf(0), 1e-9),
+                () -> assertEquals(0.72, distribution.getProbability(1), 1e-9),
+                () -> assertEquals(0.18, distribution.getProbability(2), 1e-9),
+                () -> assertEquals(uses, counts[0] + counts[1] + counts[2]),
+                () -> assertEquals(0.1, (double) counts[0] / uses, 0.01),
+                () -> assertEquals(0.72, (double) counts[1] / uses, 0.01),
+                () -> assertEquals(0.18, (double) counts[2] / uses, 0.01));
+    }
+
+    /**
+     * Test that the turns to knock out distribution adds up and follows the damage dealt.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void TestTurnsToKnockOut() throws Exception {
+        System.out.println("TestTurnsToKnockOut");
+
+        Codeamon user = CodeamonFactory.createCodeamon(Type.Fighting, 20);
+        Codeamon target = CodeamonFactory.createCodeamon(Type.Normal, 20);
+        Attack sureHit = new Attack.AttackBuilder("Sure Hit", Type.Normal)
+                .power(40)
+                .critChance(0)
+                .build();
+        Attack howl = new Attack.AttackBuilder("Howl", Type.Normal)
+                .statusEffect(100, Stat.Attack, 1, true)
+                .build();
+
+        int damage = sureHit.calculateDamage(user, target, false);
+        int turns = (target.getCurrentHitPoints() + damage - 1) / damage;
+        double[] sure = DamageCalculator.getTurnsToKnockOut(sureHit, user, target, turns + 1);
+        double[] never = DamageCalculator.getTurnsToKnockOut(howl, user, target, 5);
+        double[] chancy = DamageCalculator.getTurnsToKnockOut(user.getAttacks()[0], user, target,
+                200);
+        double total = 0.0;
+
+        for (double chance : chancy) {
+            total += chance;
+        }
+
+        double sum = total;
+
+        System.out.println("Turns to knock out: " + turns);
+
+        assertAll(() -> assertEquals(1.0, sure[turns], 1e-9),
+                () -> assertEquals(0.0, sure[turns - 1], 1e-9),
+                () -> assertEquals(0.0, never[5], 1e-9),
+                () -> assertEquals(1.0, sum, 1e-9),
+                () -> assertEquals(target.getMaxHitPoints(), target.getCurrentHitPoints()),
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> DamageCalculator.getTurnsToKnockOut(sureHit, user, target, 0)));
+    }
+}
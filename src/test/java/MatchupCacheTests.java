@@ -0,0 +1,171 @@
+import analysis.MatchupCache;
+import analysis.MatchupKey;
+import analysis.MatchupResult;
+import analysis.Team;
+import analysis.WinProbabilityEstimator;
+import codeamon.Codeamon;
+import codeamon.CodeamonFactory;
+import codeamon.GreedyMovePolicy;
+import codeamon.Type;
+import event.NoOpBattleEventSink;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import trainer.Trainer;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit Tests for the MatchupCache and MatchupKey
+ */
+public class MatchupCacheTests {
+    @AfterEach
+    public void afterEach() throws Exception {
+        System.out.println();
+    }
+
+    /**
+     * Test that the same setup always gets the same key, no matter where it comes from, and that
+     * different species, levels, tiers and move policies get different keys. A Team created from a
+     * Codeamon that leveled past the end of its moveset tier keeps that tier in the key.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void TestMatchupKey() throws Exception {
+        System.out.println("TestMatchupKey");
+
+        Trainer one = new Trainer.TrainerBuilder("Derek")
+                .codeamon(CodeamonFactory.createCodeamon(Type.Flying, 20))
+                .codeamon(CodeamonFactory.createCodeamon(Type.Fire, 31)).build();
+        Trainer two = new Trainer.TrainerBuilder("Ben")
+                .codeamon(CodeamonFactory.createCodeamon(Type.Water, 30)).build();
+        Team teamOne = Team.parse("Team One", "Flying:20,Fire:31");
+        Team teamTwo = Team.parse("Team Two", "Water:30");
+
+        //Birdmon has the Ice type, but is a different species than Chillmon
+        MatchupKey ice = MatchupKey.of(Team.parse("Team One", "Ice:20,Fire:31"), teamTwo);
+
+        Codeamon fire = CodeamonFactory.createCodeamon(Type.Fire, 15);
+        fire.gainExperience(Codeamon.getExperienceForLevel(20) - fire.getExperiencePoints(),
+                NoOpBattleEventSink.INSTANCE);
+        Trainer leveled = new Trainer.TrainerBuilder("Gary").codeamon(fire).build();
+        Codeamon greedyFire = CodeamonFactory.createCodeamon(Type.Fire, 15);
+        greedyFire.setMovePolicy(GreedyMovePolicy.INSTANCE);
+        Trainer greedy = new Trainer.TrainerBuilder("Gary").codeamon(greedyFire).build();
+
+        assertAll(() -> assertEquals(MatchupKey.of(teamOne, teamTwo), MatchupKey.of(one, two)),
+                () -> assertEquals(MatchupKey.of(teamOne, teamTwo).hashCode(),
+                        MatchupKey.of(one, two).hashCode()),
+                () -> assertEquals(MatchupKey.of(Team.fromTrainer(one), teamTwo),
+                        MatchupKey.of(one, two)),
+                () -> assertNotEquals(ice, MatchupKey.of(one, two)),
+                () -> assertNotEquals(MatchupKey.of(teamTwo, teamOne), MatchupKey.of(one, two)),
+                () -> assertNotEquals(MatchupKey.of(teamOne, Team.parse("Team Two", "Water:31")),
+                        MatchupKey.of(one, two)),
+                () -> assertEquals(MatchupKey.of(Team.fromTrainer(leveled), teamTwo),
+                        MatchupKey.of(leveled, two)),
+                () -> assertNotEquals(MatchupKey.of(Team.parse("Gary", "Fire:20"), teamTwo),
+                        MatchupKey.of(leveled, two)),
+                () -> assertEquals(MatchupKey.of(Team.fromTrainer(greedy), teamTwo),
+                        MatchupKey.of(greedy, two)),
+                () -> assertNotEquals(MatchupKey.of(Team.parse("Gary", "Fire:15"), teamTwo),
+                        MatchupKey.of(greedy, two)));
+    }
+
+    /**
+     * Test that Teams listing the same Codeamon in a different order get the same key when they
+     * battle the same way, which is the key of the Trainers built from them, and that Codeamon of
+     * the same level keep the order they are listed in.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void TestMatchupKeyOrder() throws Exception {
+        System.out.println("TestMatchupKeyOrder");
+
+        Team listed = Team.parse("Team One", "Fire:50,Water:48");
+        Team reordered = Team.parse("Team One", "Water:48,Fire:50");
+        Team opponent = Team.parse("Team Two", "Grass:49,Rock:47");
+        Team opponentReordered = Team.parse("Team Two", "Rock:47,Grass:49");
+        Team tied = Team.parse("Team One", "Fire:50,Water:50");
+        Team tiedReordered = Team.parse("Team One", "Water:50,Fire:50");
+
+        assertAll(() -> assertEquals(MatchupKey.of(listed, opponent),
+                        MatchupKey.of(reordered, opponentReordered)),
+                () -> assertEquals(MatchupKey.of(listed, opponent).hashCode(),
+                        MatchupKey.of(reordered, opponentReordered).hashCode()),
+                () -> assertEquals(MatchupKey.of(listed, opponent),
+                        MatchupKey.of(listed.build(), opponent.build())),
+                () -> assertNotEquals(MatchupKey.of(tied, opponent),
+                        MatchupKey.of(tiedReordered, opponent)));
+    }
+
+    /**
+     * Test that the cache evicts the least recently used result once it is full and counts its
+     * hits, misses and evictions.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void TestCacheEviction() throws Exception {
+        System.out.println("TestCacheEviction");
+
+        //a capacity of 1 keeps every key in the same segment
+        MatchupCache cache = new MatchupCache(1);
+        Team fire = Team.parse("Fire", "Fire:10");
+        Team water = Team.parse("Water", "Water:10");
+        MatchupKey first = MatchupKey.of(fire, water);
+        MatchupKey second = MatchupKey.of(water, fire);
+        MatchupResult result = new MatchupResult(10, 4, 50, 100, 200);
+
+        cache.put(first, result);
+        MatchupResult found = cache.get(first);
+        MatchupResult merged = cache.merge(first, result);
+        cache.put(second, result);
+        MatchupResult evicted = cache.get(first);
+
+        System.out.println("Hit rate: " + cache.getHitRate());
+
+        assertAll(() -> assertSame(result, found),
+                () -> assertEquals(20, merged.getBattles()),
+                () -> assertNull(evicted),
+                () -> assertEquals(1, cache.size()),
+                () -> assertEquals(1, cache.getHits()),
+                () -> assertEquals(1, cache.getMisses()),
+                () -> assertEquals(1, cache.getEvictions()),
+                () -> assertEquals(0.5, cache.getHitRate()),
+                () -> assertThrows(IllegalArgumentException.class, () -> new MatchupCache(0)));
+    }
+
+    /**
+     * Test that an estimator with a cache reuses earlier battles and only simulates the battles
+     * that are missing.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void TestEstimatorReusesCache() throws Exception {
+        System.out.println("TestEstimatorReusesCache");
+
+        MatchupCache cache = new MatchupCache(100);
+        WinProbabilityEstimator estimator = new WinProbabilityEstimator(new ForkJoinPool(2),
+                cache);
+        Team one = Team.parse("Team One", "Fire:10,Grass:12");
+        Team two = Team.parse("Team Two", "Water:11");
+
+        MatchupResult first = estimator.estimate(one, two, 2000, 316);
+        MatchupResult second = estimator.estimate(one, two, 1000, 42);
+        MatchupResult third = estimator.estimate(one, two, 3000, 316);
+
+        System.out.println("Win rate: " + third.getWinRate());
+
+        assertAll(() -> assertEquals(2000, first.getBattles()),
+                () -> assertSame(first, second),
+                () -> assertEquals(3000, third.getBattles()),
+                () -> assertEquals(2, cache.getHits()),
+                () -> assertEquals(1, cache.getMisses()),
+                () -> assertEquals(1, cache.size()));
+    }
+}
@@ -0,0 +1,90 @@
+import analysis.MatchupSolver;
+import codeamon.BattleRandom;
+import codeamon.Codeamon;
+import codeamon.CodeamonFactory;
+import codeamon.Type;
+import event.NoOpBattleEventSink;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import trainer.Trainer;
+import world.Battle;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit Tests for the MatchupSolver
+ */
+public class MatchupSolverTests {
+    @AfterEach
+    public void afterEach() throws Exception {
+        System.out.println();
+    }
+
+    /**
+     * Test that the solved win probability agrees with the win rate of many simulated battles.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void TestSolverMatchesBattles() throws Exception {
+        System.out.println("TestSolverMatchesBattles");
+
+        MatchupSolver solver = new MatchupSolver(CodeamonFactory.createCodeamon(Type.Fire, 3),
+                CodeamonFactory.createCodeamon(Type.Flying, 2));
+        double probability = solver.getWinProbability();
+
+        int battles = 20000;
+        int wins = 0;
+        BattleRandom random = new BattleRandom(316);
+
+        for (int i = 0; i < battles; i++) {
+            Trainer one = new Trainer.TrainerBuilder("Derek")
+                    .codeamon(CodeamonFactory.createCodeamon(Type.Fire, 3)).build();
+            Trainer two = new Trainer.TrainerBuilder("Ben")
+                    .codeamon(CodeamonFactory.createCodeamon(Type.Flying, 2)).build();
+
+            if (Battle.trainerBattle(one, two, NoOpBattleEventSink.INSTANCE, random) == one) {
+                wins++;
+            }
+        }
+
+        double winRate = (double) wins / battles;
+        double error = 4 * Math.sqrt(probability * (1 - probability) / battles);
+
+        System.out.println("Solved: " + probability + ", Simulated: " + winRate);
+
+        assertAll(() -> assertEquals(probability, winRate, error),
+                () -> assertTrue(solver.getSolvedStates() > 0));
+    }
+
+    /**
+     * Test that the chances from both sides of a matchup add up to 1, that finished battles are
+     * decided, and that solved states are reused.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void TestSolverConsistency() throws Exception {
+        System.out.println("TestSolverConsistency");
+
+        Codeamon one = CodeamonFactory.createCodeamon(Type.Normal, 4);
+        Codeamon two = CodeamonFactory.createCodeamon(Type.Ghost, 4);
+        MatchupSolver solver = new MatchupSolver(one, two);
+        MatchupSolver reversed = new MatchupSolver(two, one);
+        double probability = solver.getWinProbability();
+        int solved = solver.getSolvedStates();
+        double again = solver.getWinProbability(one.getMaxHitPoints(), two.getMaxHitPoints());
+
+        System.out.println("Win probability: " + probability);
+
+        assertAll(() -> assertEquals(1.0, probability + reversed.getWinProbability(), 1e-9),
+                () -> assertEquals(probability, again),
+                () -> assertEquals(solved, solver.getSolvedStates()),
+                () -> assertEquals(1.0, solver.getWinProbability(1, 0)),
+                () -> assertEquals(0.0, solver.getWinProbability(0, 1)),
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> solver.getWinProbability(one.getMaxHitPoints() + 1, 1)),
+                () -> assertThrows(IllegalStateException.class,
+                        () -> new MatchupSolver(one, two, 10).getWinProbability()));
+    }
+}
@@ -1,11 +1,23 @@
+import codeamon.Codeamon;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
+import simulation.BatchResult;
+import simulation.BatchRunner;
 import simulation.JsonSimulation;
 import simulation.SampleSimulation;
 import simulation.Simulation;
+import simulation.StreamingJsonSimulation;
+import trainer.Trainer;
 
 import static org.junit.jupiter.api.Assertions.assertAll;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class SimulationTests {
     @AfterEach
@@ -69,4 +81,94 @@ public class SimulationTests {
                 () -> assertEquals(0, sim.getWildBattles()),
                 () -> assertEquals(0, sim.getWildLevel()));
     }
+
+    /**
+     * Test that the StreamingJsonSimulation reads the same data from simulation_two.json as the
+     * JsonSimulation, both when streaming and when loading in parallel. Every Trainer should have
+     * the same name and the same Codeamon, in the same order.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void TestStreamingJsonSimulation() throws Exception {
+        System.out.println("TestStreamingJsonSimulation");
+        Simulation expected = new JsonSimulation("simulation_two.json");
+        Simulation streamed = new StreamingJsonSimulation("simulation_two.json");
+        Simulation parallel = new StreamingJsonSimulation("simulation_two.json", 4);
+
+        System.out.println("Trainers " + streamed.getTrainers().size());
+
+        for (Simulation sim : new Simulation[] {streamed, parallel}) {
+            assertAll(() -> assertEquals(expected.getTrainers().size(), sim.getTrainers().size()),
+                    () -> assertEquals(expected.getWildBattles(), sim.getWildBattles()),
+                    () -> assertEquals(expected.getWildLevel(), sim.getWildLevel()));
+
+            for (int i = 0; i < expected.getTrainers().size(); i++) {
+                Trainer one = expected.getTrainers().get(i);
+                Trainer two = sim.getTrainers().get(i);
+
+                assertAll(() -> assertEquals(one.getName(), two.getName()),
+                        () -> assertEquals(one.getPartySize(), two.getPartySize()));
+
+                for (int j = 0; j < one.getPartySize(); j++) {
+                    Codeamon monOne = one.getCodeamonParty().get(j);
+                    Codeamon monTwo = two.getCodeamonParty().get(j);
+
+                    assertAll(() -> assertEquals(monOne.getSpeciesName(),
+                                    monTwo.getSpeciesName()),
+                            () -> assertEquals(monOne.getLevel(), monTwo.getLevel()));
+                }
+            }
+        }
+    }
+
+    /**
+     * Test that the BatchRunner gives the same results for a range of seeds no matter how many
+     * threads it uses, that each seed ran a complete simulation, and that a missing file is
+     * reported instead of stopping the batch. The results file should have a header line and one
+     * line for each simulation.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void TestBatchRunner() throws Exception {
+        System.out.println("TestBatchRunner");
+        List<String> sources = Collections.singletonList(BatchRunner.SAMPLE);
+        List<BatchResult> one = new BatchRunner(1).run(sources, 1, 4);
+        List<BatchResult> two = new BatchRunner(2).run(sources, 1, 4);
+        BatchResult missing = BatchRunner.runSimulation("no_such_file.json", 1);
+
+        assertAll(() -> assertEquals(4, one.size()),
+                () -> assertEquals(4, two.size()),
+                () -> assertNotNull(missing.getError()));
+
+        for (int i = 0; i < one.size(); i++) {
+            BatchResult first = one.get(i);
+            BatchResult second = two.get(i);
+            long seed = i + 1;
+            System.out.println("Seed " + first.getSeed() + ": " + first.getWinner() + " wins");
+
+            assertAll(() -> assertNull(first.getError()),
+                    () -> assertEquals(seed, first.getSeed()),
+                    () -> assertEquals(first.getWinner(), second.getWinner()),
+                    () -> assertEquals(first.getRounds(), second.getRounds()),
+                    () -> assertEquals(first.getBattles(), second.getBattles()),
+                    () -> assertEquals(first.getExperienceGained(),
+                            second.getExperienceGained()),
+                    () -> assertEquals(first.getMedianMoney(), second.getMedianMoney()),
+                    () -> assertEquals(first.getWinnerMoney(), second.getWinnerMoney()),
+                    () -> assertTrue(first.getRounds() > 0),
+                    () -> assertTrue(first.getExperienceGained() > 0),
+                    () -> assertTrue(first.getMinMoney() <= first.getMaxMoney()));
+        }
+
+        Path file = Files.createTempFile("batch", ".csv");
+        BatchRunner.writeResults(file.toString(), one);
+        List<String> lines = Files.readAllLines(file);
+        Files.delete(file);
+
+        assertAll(() -> assertEquals(5, lines.size()),
+                () -> assertTrue(lines.get(0).startsWith("source,seed")),
+                () -> assertTrue(lines.get(1).startsWith("sample,1,")));
+    }
 }
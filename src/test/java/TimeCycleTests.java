@@ -1,3 +1,4 @@
+import codeamon.BattleRandom;
 import codeamon.Codeamon;
 import codeamon.CodeamonFactory;
 import codeamon.Type;
@@ -6,11 +7,19 @@ import org.junit.jupiter.api.Test;
 import trainer.Trainer;
 import world.TimeCycle;
 import world.TimeCycleContext;
+import world.WorldSnapshot;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import static org.junit.jupiter.api.Assertions.assertAll;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class TimeCycleTests {
     @AfterEach
@@ -149,4 +158,133 @@ public class TimeCycleTests {
                 () -> assertEquals(1, list.get(2).getPartySize()),
                 () -> assertEquals(1, list.get(3).getPartySize()));
     }
+
+    /**
+     * Test that a Day of Wild Battles run at the same time on several threads plays out exactly
+     * like the same Day run one battle at a time with the same seed.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void TestConcurrentWildDay() throws Exception {
+        System.out.println("TestConcurrentWildDay");
+
+        ArrayList<Trainer> sequential = createTrainers();
+        ArrayList<Trainer> concurrent = createTrainers();
+        TimeCycleContext sequentialCycle = new TimeCycleContext(1, 12, sequential,
+                new BattleRandom(316));
+        TimeCycleContext concurrentCycle = new TimeCycleContext(1, 12, concurrent,
+                new BattleRandom(316));
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        sequentialCycle.setQuiet(true);
+        concurrentCycle.setQuiet(true);
+        concurrentCycle.setExecutor(executor);
+
+        try {
+            sequentialCycle.runEvents(sequential);
+            concurrentCycle.runEvents(concurrent);
+        } finally {
+            executor.shutdown();
+        }
+
+        boolean recruited = false;
+
+        for (int i = 0; i < sequential.size(); i++) {
+            List<Codeamon> expected = sequential.get(i).getCodeamonParty();
+            List<Codeamon> actual = concurrent.get(i).getCodeamonParty();
+
+            assertEquals(expected.size(), actual.size());
+            recruited |= expected.size() > 1;
+
+            for (int j = 0; j < expected.size(); j++) {
+                assertEquals(expected.get(j).getSpeciesName(), actual.get(j).getSpeciesName());
+                assertEquals(expected.get(j).getLevel(), actual.get(j).getLevel());
+                assertEquals(expected.get(j).getExperiencePoints(),
+                        actual.get(j).getExperiencePoints());
+                assertEquals(expected.get(j).getCurrentHitPoints(),
+                        actual.get(j).getCurrentHitPoints());
+            }
+        }
+
+        assertTrue(recruited);
+    }
+
+    /**
+     * Test that a simulation saved part way through the Tournament and restored from the
+     * snapshot plays out exactly like the original. Every Trainer should end with the same
+     * money and party, and the same Trainer should win. A file that is not a snapshot should
+     * not be loaded.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void TestWorldSnapshot() throws Exception {
+        System.out.println("TestWorldSnapshot");
+
+        ArrayList<Trainer> trainers = createTrainers();
+        TimeCycleContext cycle = new TimeCycleContext(2, 12, trainers, new BattleRandom(316));
+        cycle.setQuiet(true);
+
+        //two Days of Wild Battles, two Nights, and the first round of the Tournament
+        for (int i = 0; i < 5; i++) {
+            cycle.runEvents(trainers);
+        }
+
+        Path file = Files.createTempFile("world", ".bin");
+        WorldSnapshot.save(file.toString(), cycle, trainers);
+        WorldSnapshot snapshot = WorldSnapshot.load(file.toString());
+        ArrayList<Trainer> restored = snapshot.getTrainers();
+        TimeCycleContext restoredCycle = snapshot.getContext();
+
+        Files.write(file, new byte[] {1, 2, 3, 4, 5, 6, 7, 8});
+        assertThrows(IllegalArgumentException.class, () -> WorldSnapshot.load(file.toString()));
+        Files.delete(file);
+
+        assertAll(() -> assertEquals(trainers.size(), restored.size()),
+                () -> assertEquals(cycle.getTournament().getBracketSize(),
+                        restoredCycle.getTournament().getBracketSize()),
+                () -> assertTrue(restoredCycle.isQuiet()));
+
+        while (!cycle.getTournament().isConcluded()) {
+            cycle.runEvents(trainers);
+            restoredCycle.runEvents(restored);
+        }
+
+        assertAll(() -> assertTrue(restoredCycle.getTournament().isConcluded()),
+                () -> assertEquals(cycle.getTournament().getWinner().getName(),
+                        restoredCycle.getTournament().getWinner().getName()));
+
+        for (int i = 0; i < trainers.size(); i++) {
+            Trainer expected = trainers.get(i);
+            Trainer actual = restored.get(i);
+
+            assertEquals(expected.getName(), actual.getName());
+            assertEquals(expected.getCodeaDollars(), actual.getCodeaDollars());
+            assertEquals(expected.getPartySize(), actual.getPartySize());
+
+            for (int j = 0; j < expected.getPartySize(); j++) {
+                Codeamon one = expected.getCodeamonParty().get(j);
+                Codeamon two = actual.getCodeamonParty().get(j);
+
+                assertEquals(one.getName(), two.getName());
+                assertEquals(one.getLevel(), two.getLevel());
+                assertEquals(one.getExperiencePoints(), two.getExperiencePoints());
+                assertEquals(one.getCurrentHitPoints(), two.getCurrentHitPoints());
+            }
+        }
+    }
+
+    private ArrayList<Trainer> createTrainers() {
+        ArrayList<Trainer> trainers = new ArrayList<>();
+        Type[] types = Type.values();
+
+        for (int i = 0; i < 200; i++) {
+            trainers.add(new Trainer.TrainerBuilder("Trainer " + i)
+                    .codeamon(CodeamonFactory.createCodeamon(types[i % types.length], 8 + i % 9))
+                    .build());
+        }
+
+        return trainers;
+    }
 }
@@ -1,3 +1,4 @@
+import codeamon.BattleRandom;
 import codeamon.Codeamon;
 import codeamon.CodeamonFactory;
 import codeamon.Type;
@@ -7,6 +8,8 @@ import trainer.Trainer;
 import world.Tournament;
 
 import java.util.ArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -136,4 +139,138 @@ public class TournamentTests {
 
         assertEquals(derek, tournament.getWinner());
     }
-}
\ No newline at end of file
+
+    /**
+     * Test that running a round's matches at the same time produces the same winners, in the
+     * same order, as running them one at a time with the same seed.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void TestConcurrentRound() throws Exception {
+        System.out.println("TestConcurrentRound");
+
+        Tournament sequential = new Tournament(createTrainers(), new BattleRandom(316));
+        Tournament concurrent = new Tournament(createTrainers(), new BattleRandom(316));
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        concurrent.setExecutor(executor);
+
+        try {
+            while (!sequential.isConcluded()) {
+                sequential.executeNextRound();
+                concurrent.executeNextRound();
+
+                assertEquals(sequential.getBracket().size(), concurrent.getBracket().size());
+
+                for (int i = 0; i < sequential.getBracket().size(); i++) {
+                    assertEquals(sequential.getBracket().get(i).getName(),
+                            concurrent.getBracket().get(i).getName());
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertTrue(concurrent.isConcluded());
+    }
+
+    /**
+     * Test that brackets of any size give out the right number of byes, so that every round after
+     * the first has a power of 2 Trainers, and that the Tournament takes the right number of
+     * rounds.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void TestTournamentMultipleByes() throws Exception {
+        System.out.println("TestTournamentMultipleByes");
+
+        int[] sizes = {2, 3, 5, 6, 7, 9, 37, 100};
+
+        for (int size : sizes) {
+            ArrayList<Trainer> trainers = new ArrayList<>();
+
+            for (int i = 0; i < size; i++) {
+                trainers.add(new Trainer.TrainerBuilder("Trainer " + i)
+                        .codeamon(CodeamonFactory.createCodeamon(Type.Fire, 1 + i % 5)).build());
+            }
+
+            Tournament tournament = new Tournament(trainers, new BattleRandom(size));
+            tournament.setQuiet(true);
+            tournament.executeNextRound();
+
+            //the smallest power of 2 that is at least size, halved
+            int nextRound = Integer.highestOneBit(size - 1);
+            int afterFirst = tournament.getBracketSize();
+            int rounds = 1;
+
+            while (!tournament.isConcluded()) {
+                tournament.executeNextRound();
+                rounds++;
+            }
+
+            System.out.println(size + " Trainers: " + rounds + " rounds");
+
+            assertEquals(nextRound, afterFirst);
+            assertEquals(32 - Integer.numberOfLeadingZeros(size - 1), rounds);
+            assertNotNull(tournament.getWinner());
+        }
+    }
+
+    /**
+     * Test that a quiet Tournament can run a bracket with a large number of Trainers, with every
+     * Trainer but one eliminated.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void TestLargeTournament() throws Exception {
+        System.out.println("TestLargeTournament");
+
+        ArrayList<Trainer> trainers = new ArrayList<>();
+
+        for (int i = 0; i < 100001; i++) {
+            trainers.add(new Trainer.TrainerBuilder("Trainer " + i)
+                    .codeamon(CodeamonFactory.createCodeamon(Type.Water, 1)).build());
+        }
+
+        Tournament tournament = new Tournament(trainers, new BattleRandom(316));
+        tournament.setQuiet(true);
+        tournament.executeNextRound();
+
+        int afterFirst = tournament.getBracketSize();
+        int rounds = 1;
+
+        while (!tournament.isConcluded()) {
+            tournament.executeNextRound();
+            rounds++;
+        }
+
+        int finalRounds = rounds;
+
+        System.out.println("Winner: " + tournament.getWinner().getName());
+
+        assertAll(() -> assertEquals(65536, afterFirst),
+                () -> assertEquals(17, finalRounds),
+                () -> assertEquals(1, tournament.getBracket().size()));
+    }
+
+    private ArrayList<Trainer> createTrainers() {
+        ArrayList<Trainer> trainers = new ArrayList<>();
+        Type[] types = Type.values();
+
+        for (int i = 0; i < 16; i++) {
+            Trainer.TrainerBuilder builder = new Trainer.TrainerBuilder("Trainer " + i);
+
+            for (int j = 0; j < 3; j++) {
+                builder.codeamon(CodeamonFactory.createCodeamon(types[(i + j * 5) % types.length],
+                        40 + (i + j) % 5));
+            }
+
+            trainers.add(builder.build());
+        }
+
+        return trainers;
+    }
+}
@@ -192,6 +192,43 @@ public class TrainerTests {
                 () -> assertEquals(1, oneOfSix.getRemainingPartySize()));
     }
 
+    /**
+     * Test that a Trainer's count of non-fainted Codeamon follows its Codeamon as they faint and
+     * recover, including a Codeamon that is in the party twice, and that the next Codeamon sent
+     * out follows the count.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void TestRemainingPartyTracking() throws Exception {
+        System.out.println("TestRemainingPartyTracking");
+
+        Codeamon twice = CodeamonFactory.createCodeamon(Type.Fire, 5);
+        Codeamon once = CodeamonFactory.createCodeamon(Type.Water, 10);
+
+        Trainer trainer = new Trainer.TrainerBuilder("Derek").codeamon(twice).codeamon(once)
+                .codeamon(twice).build();
+
+        once.damage(1000);
+        int afterFaint = trainer.getRemainingPartySize();
+        twice.damage(1000);
+        int afterDoubleFaint = trainer.getRemainingPartySize();
+        once.heal(10);
+        int afterHeal = trainer.getRemainingPartySize();
+        Codeamon next = trainer.getNextCodeamon();
+        trainer.restParty();
+
+        System.out.println("Remaining After Rest: " + trainer.getRemainingPartySize() + "/"
+                + trainer.getPartySize());
+
+        assertAll(() -> assertEquals(2, afterFaint),
+                () -> assertEquals(0, afterDoubleFaint),
+                () -> assertEquals(1, afterHeal),
+                () -> assertEquals(once, next),
+                () -> assertEquals(3, trainer.getRemainingPartySize()),
+                () -> assertEquals(twice, trainer.getNextCodeamon()));
+    }
+
     /**
      * Test that after resting all Codeamon in a Trainer's party are not fainted.
      *
@@ -281,4 +318,50 @@ public class TrainerTests {
 
         System.out.println("Party Size After: " + trainer.getPartySize());
     }
-}
\ No newline at end of file
+
+    /**
+     * Test that a Codeamon added to a party goes in sending out order, and that the lead follows
+     * the party as its Codeamon faint and rest. A Codeamon added after the lead fainted should go
+     * in by level ahead of the fainted lead, which should become the next Codeamon sent out
+     * only after every other Codeamon faints. The party list should not be changeable.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void TestPartyOrder() throws Exception {
+        System.out.println("TestPartyOrder");
+
+        Codeamon low = CodeamonFactory.createCodeamon(Type.Fire, 5);
+        Codeamon mid = CodeamonFactory.createCodeamon(Type.Water, 20);
+        Codeamon high = CodeamonFactory.createCodeamon(Type.Grass, 30);
+        Codeamon added = CodeamonFactory.createCodeamon(Type.Ice, 10);
+        Trainer trainer = new Trainer.TrainerBuilder("Derek").codeamon(high).codeamon(low)
+                .codeamon(mid).build();
+
+        Codeamon first = trainer.getNextCodeamon();
+        low.damage(1000);
+        Codeamon afterFaint = trainer.getNextCodeamon();
+        trainer.addCodeamon(added);
+        Codeamon afterAdd = trainer.getNextCodeamon();
+        added.damage(1000);
+        mid.damage(1000);
+        high.damage(1000);
+        Codeamon none = trainer.getNextCodeamon();
+        trainer.restParty();
+
+        System.out.println("Party: " + trainer.getCodeamonParty().get(0).getLevel() + ", "
+                + trainer.getCodeamonParty().get(1).getLevel() + ", "
+                + trainer.getCodeamonParty().get(2).getLevel() + ", "
+                + trainer.getCodeamonParty().get(3).getLevel());
+
+        assertAll(() -> assertEquals(low, first),
+                () -> assertEquals(mid, afterFaint),
+                () -> assertEquals(added, afterAdd),
+                () -> assertNull(none),
+                () -> assertEquals(added, trainer.getCodeamonParty().get(0)),
+                () -> assertEquals(low, trainer.getCodeamonParty().get(3)),
+                () -> assertEquals(added, trainer.getNextCodeamon()),
+                () -> assertThrows(UnsupportedOperationException.class,
+                        () -> trainer.getCodeamonParty().add(low)));
+    }
+}
@@ -1,9 +1,12 @@
+import codeamon.Attack;
+import codeamon.CodeamonFactory;
 import codeamon.Type;
 import codeamon.TypeMatchup;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 /**
@@ -141,4 +144,40 @@ public class TypeMatchupTests {
                 () -> assertEquals(target, dragon), () ->assertEquals(target, dark),
                 () -> assertEquals(target, steel), () ->assertEquals(target, fairy));
     }
+
+    /**
+     * Tests that the bulk lookup of a moveset returns the multiplier of each attack's type. A
+     * level 50 Fire Codeamon's attacks are Fire, Normal, Normal and Dark type, which against a
+     * Grass type are 2.0, 1.0, 1.0 and 1.0.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void TestMovesetMultipliers() throws Exception {
+        System.out.println("TestMovesetMultipliers");
+
+        Attack[] attacks = CodeamonFactory.createCodeamon(Type.Fire, 50).getAttacks();
+
+        assertArrayEquals(new double[] {2.0, 1.0, 1.0, 1.0},
+                TypeMatchup.getMultipliers(attacks, Type.Grass));
+    }
+
+    /**
+     * Tests that the multipliers against a defending type match the individual lookups.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void TestDefendingMultipliers() throws Exception {
+        System.out.println("TestDefendingMultipliers");
+
+        for (Type opponent : Type.values()) {
+            double[] multipliers = TypeMatchup.getDefendingMultipliers(opponent);
+
+            for (Type user : Type.values()) {
+                assertEquals(TypeMatchup.getMultiplier(user, opponent),
+                        multipliers[user.ordinal()]);
+            }
+        }
+    }
 }
@@ -0,0 +1,159 @@
+import analysis.MatchupResult;
+import analysis.Team;
+import analysis.WinProbabilityEstimator;
+import codeamon.Codeamon;
+import codeamon.CodeamonFactory;
+import codeamon.GreedyMovePolicy;
+import codeamon.MovePolicy;
+import codeamon.RandomMovePolicy;
+import codeamon.Type;
+import event.NoOpBattleEventSink;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import trainer.Trainer;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit Tests for the WinProbabilityEstimator
+ */
+public class WinProbabilityTests {
+    @AfterEach
+    public void afterEach() throws Exception {
+        System.out.println();
+    }
+
+    /**
+     * Test that a Team is properly parsed from a list of Codeamon.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void TestParseTeam() throws Exception {
+        System.out.println("TestParseTeam");
+
+        Team team = Team.parse("Derek", "Fire:50, Water:48");
+        Trainer trainer = team.build();
+
+        assertAll(() -> assertEquals("Derek", trainer.getName()),
+                () -> assertEquals(2, trainer.getPartySize()),
+                () -> assertEquals(Type.Fire, team.getType(0)),
+                () -> assertEquals(48, team.getLevel(1)),
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> Team.parse("Ben", "Fire50")));
+    }
+
+    /**
+     * Test that a Team created from a Trainer has the same party.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void TestTeamFromTrainer() throws Exception {
+        System.out.println("TestTeamFromTrainer");
+
+        Trainer trainer = new Trainer.TrainerBuilder("Derek")
+                .codeamon(CodeamonFactory.createCodeamon(Type.Ghost, 12))
+                .codeamon(CodeamonFactory.createCodeamon(Type.Rock, 30)).build();
+
+        Team team = Team.fromTrainer(trainer);
+
+        assertAll(() -> assertEquals(2, team.getPartySize()),
+                () -> assertEquals(Type.Ghost, team.getType(0)),
+                () -> assertEquals(30, team.getLevel(1)));
+    }
+
+    /**
+     * Test that a Team created from a Trainer keeps the moveset tier and move policy of a
+     * Codeamon that leveled up past the end of its tier, so the Trainer it builds battles the
+     * same way.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void TestTeamKeepsMoveset() throws Exception {
+        System.out.println("TestTeamKeepsMoveset");
+
+        Codeamon fire = CodeamonFactory.createCodeamon(Type.Fire, 15);
+        fire.gainExperience(Codeamon.getExperienceForLevel(20) - fire.getExperiencePoints(),
+                NoOpBattleEventSink.INSTANCE);
+        fire.setMovePolicy(GreedyMovePolicy.INSTANCE);
+        Trainer trainer = new Trainer.TrainerBuilder("Derek").codeamon(fire).build();
+
+        Team team = Team.fromTrainer(trainer);
+        Codeamon clone = team.build().getCodeamonParty().get(0);
+
+        assertAll(() -> assertEquals(20, team.getLevel(0)),
+                () -> assertEquals(Codeamon.LOW_TIER, team.getMovesetTier(0)),
+                () -> assertSame(GreedyMovePolicy.INSTANCE, team.getMovePolicy(0)),
+                () -> assertEquals(20, clone.getLevel()),
+                () -> assertEquals(fire.getMaxHitPoints(), clone.getCurrentHitPoints()),
+                () -> assertEquals(Codeamon.LOW_TIER, clone.getMovesetTier()),
+                () -> assertEquals("Ember", clone.getAttacks()[0].getName()),
+                () -> assertSame(GreedyMovePolicy.INSTANCE, clone.getMovePolicy()));
+    }
+
+    /**
+     * Test that a Team cannot give a Codeamon a moveset tier its level has not reached.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void TestTeamTierAboveLevel() throws Exception {
+        System.out.println("TestTeamTierAboveLevel");
+
+        assertAll(() -> assertThrows(IllegalArgumentException.class,
+                        () -> new Team("Ben", new Type[] {Type.Fire}, new int[] {15},
+                                new int[] {Codeamon.MID_TIER},
+                                new MovePolicy[] {RandomMovePolicy.INSTANCE})),
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> new Team("Ben", new Type[] {Type.Fire}, new int[] {20},
+                                new int[] {Codeamon.LOW_TIER}, new MovePolicy[] {null})));
+    }
+
+    /**
+     * Test that a lopsided matchup is always won by the stronger Team. A level 100 Codeamon
+     * should never lose to a level 1 Codeamon.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void TestLopsidedMatchup() throws Exception {
+        System.out.println("TestLopsidedMatchup");
+
+        MatchupResult result = new WinProbabilityEstimator().estimate(
+                Team.parse("Derek", "Steel:100"), Team.parse("Ben", "Poison:1"), 2000, 316);
+
+        assertAll(() -> assertEquals(2000, result.getBattles()),
+                () -> assertEquals(1.0, result.getWinRate()),
+                () -> assertTrue(result.getWinRateLower() > 0.99),
+                () -> assertEquals(0.0, result.getMeanHitPointsTwo()),
+                () -> assertTrue(result.getMeanTurns() >= 1.0));
+    }
+
+    /**
+     * Test that the same seed gives the same result regardless of the number of threads used.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void TestSeededEstimate() throws Exception {
+        System.out.println("TestSeededEstimate");
+
+        Team one = Team.parse("Derek", "Fire:50,Water:50");
+        Team two = Team.parse("Ben", "Grass:52,Electric:50");
+
+        MatchupResult single = new WinProbabilityEstimator(new ForkJoinPool(1))
+                .estimate(one, two, 5000, 316);
+        MatchupResult multi = new WinProbabilityEstimator(new ForkJoinPool(4))
+                .estimate(one, two, 5000, 316);
+
+        System.out.println("Win Rate: " + single.getWinRate());
+
+        assertAll(() -> assertEquals(single.getWinsOne(), multi.getWinsOne()),
+                () -> assertEquals(single.getMeanTurns(), multi.getMeanTurns()),
+                () -> assertEquals(single.getMeanHitPointsOne(), multi.getMeanHitPointsOne()));
+    }
+}